@@ -0,0 +1,220 @@
+package com.ch.debugserver;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 本地调试服务器
+ * 只监听127.0.0.1，每个连接的客户端按固定间隔收到一行JSON，由{@link Source}生成
+ * 每个间隔只生成一次，所有客户端收到同一行，与上一次输出的差值(例如速率)不受客户端数量影响
+ * 在电脑上通过adb forward后即可查看，例如：
+ * <pre>
+ * adb forward tcp:7788 tcp:7788
+ * nc 127.0.0.1 7788
+ * </pre>
+ * 不依赖Android，可在JVM上测试
+ */
+public final class DebugServer {
+    /**
+     * 同时连接的客户端上限，超出时直接关闭新连接
+     */
+    public static final int MAX_CLIENTS = 4;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final int mRequestedPort;
+    private final long mIntervalMillis;
+    private final Source mSource;
+
+    private final List<Socket> mClients = new ArrayList<>();
+    private ServerSocket mServerSocket;
+    private Thread mAcceptThread;
+    private Thread mPushThread;
+    private volatile boolean mRunning;
+
+    /**
+     * @param port           监听端口，0表示由系统分配，实际端口通过{@link #getPort()}获取
+     * @param intervalMillis 推送间隔
+     * @param source         数据来源
+     */
+    public DebugServer(int port, long intervalMillis, Source source) {
+        if (source == null) {
+            throw new IllegalArgumentException("source == null");
+        }
+        mRequestedPort = port;
+        mIntervalMillis = Math.max(10, intervalMillis);
+        mSource = source;
+    }
+
+    /**
+     * 启动服务器，重复调用无影响
+     *
+     * @return 实际监听的端口
+     * @throws IOException 端口被占用等
+     */
+    public synchronized int start() throws IOException {
+        if (mRunning) {
+            return mServerSocket.getLocalPort();
+        }
+        mServerSocket = new ServerSocket(mRequestedPort, MAX_CLIENTS, InetAddress.getByName("127.0.0.1"));
+        mRunning = true;
+        mAcceptThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                acceptLoop();
+            }
+        }, "DebugServer-accept");
+        mAcceptThread.setDaemon(true);
+        mAcceptThread.start();
+        mPushThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                pushLoop();
+            }
+        }, "DebugServer-push");
+        mPushThread.setDaemon(true);
+        mPushThread.start();
+        return mServerSocket.getLocalPort();
+    }
+
+    /**
+     * 停止服务器并断开所有客户端
+     */
+    public synchronized void stop() {
+        if (!mRunning) {
+            return;
+        }
+        mRunning = false;
+        closeQuietly(mServerSocket);
+        mPushThread.interrupt();
+        synchronized (mClients) {
+            for (Socket client : mClients) {
+                closeQuietly(client);
+            }
+            mClients.clear();
+        }
+    }
+
+    public boolean isRunning() {
+        return mRunning;
+    }
+
+    /**
+     * 实际监听的端口
+     *
+     * @return 未启动时返回-1
+     */
+    public synchronized int getPort() {
+        return mRunning ? mServerSocket.getLocalPort() : -1;
+    }
+
+    /**
+     * 当前连接的客户端数量
+     *
+     * @return
+     */
+    public int getClientCount() {
+        synchronized (mClients) {
+            return mClients.size();
+        }
+    }
+
+    private void acceptLoop() {
+        final ServerSocket serverSocket = mServerSocket;
+        while (mRunning) {
+            final Socket client;
+            try {
+                client = serverSocket.accept();
+            } catch (IOException e) {
+                // stop()关闭了ServerSocket
+                break;
+            }
+
+            try {
+                client.setTcpNoDelay(true);
+            } catch (IOException e) {
+                closeQuietly(client);
+                continue;
+            }
+            synchronized (mClients) {
+                if (!mRunning || mClients.size() >= MAX_CLIENTS) {
+                    closeQuietly(client);
+                    continue;
+                }
+                mClients.add(client);
+            }
+        }
+    }
+
+    /**
+     * 每个间隔生成一行并发送给所有客户端，服务器停止时返回
+     * 写入失败的客户端视为已断开
+     */
+    private void pushLoop() {
+        final StringBuilder line = new StringBuilder(4096);
+        final List<Socket> clients = new ArrayList<>(MAX_CLIENTS);
+        try {
+            // stop()后立即start()时，旧的推送线程已被中断，不会与新线程同时推送
+            while (mRunning && !Thread.currentThread().isInterrupted()) {
+                clients.clear();
+                synchronized (mClients) {
+                    clients.addAll(mClients);
+                }
+                if (!clients.isEmpty()) {
+                    line.setLength(0);
+                    mSource.writeSnapshot(line);
+                    line.append('\n');
+                    final byte[] bytes = line.toString().getBytes(UTF_8);
+                    for (int i = 0; i < clients.size(); i++) {
+                        writeTo(clients.get(i), bytes);
+                    }
+                }
+                Thread.sleep(mIntervalMillis);
+            }
+        } catch (InterruptedException e) {
+            // stop()
+        }
+    }
+
+    private void writeTo(Socket client, byte[] bytes) {
+        try {
+            final OutputStream out = client.getOutputStream();
+            out.write(bytes);
+            out.flush();
+        } catch (IOException e) {
+            // 客户端断开
+            synchronized (mClients) {
+                mClients.remove(client);
+            }
+            closeQuietly(client);
+        }
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    /**
+     * 推送的数据来源，只在推送线程调用，每个间隔最多调用一次
+     */
+    public interface Source {
+        /**
+         * 生成一行JSON，不包含换行符
+         *
+         * @param out
+         */
+        void writeSnapshot(StringBuilder out);
+    }
+}
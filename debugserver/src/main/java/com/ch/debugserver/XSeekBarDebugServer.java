@@ -0,0 +1,57 @@
+package com.ch.debugserver;
+
+import com.ch.xseekbar.XSeekBarRegistry;
+
+import java.io.IOException;
+
+/**
+ * XSeekBar实时查看入口，只应在调试版本中使用
+ * 本模块声明了INTERNET权限，应用应只在调试版本中依赖，避免权限合并到正式版本：
+ * <pre>
+ * debugImplementation project(':debugserver')
+ * </pre>
+ * 并在src/debug下的代码(例如调试版本的Application)中启动：
+ * <pre>
+ * XSeekBarDebugServer.start(XSeekBarDebugServer.DEFAULT_PORT);
+ * </pre>
+ * 应在创建界面之前启动，之后附加到窗口的XSeekBar会被登记并开启性能统计
+ * 电脑上执行 adb forward tcp:7788 tcp:7788 后 nc 127.0.0.1 7788 即可看到每{@link #INTERVAL_MILLIS}毫秒一行的JSON
+ *
+ * @see XSeekBarSource
+ */
+public final class XSeekBarDebugServer {
+    public static final int DEFAULT_PORT = 7788;
+    public static final long INTERVAL_MILLIS = 500;
+
+    private static DebugServer sServer;
+
+    private XSeekBarDebugServer() {
+    }
+
+    /**
+     * 启动服务器，已启动时返回当前端口
+     *
+     * @param port 0表示由系统分配
+     * @return 实际监听的端口
+     * @throws IOException
+     */
+    public static synchronized int start(int port) throws IOException {
+        if (sServer != null && sServer.isRunning()) {
+            return sServer.getPort();
+        }
+        XSeekBarRegistry.setEnabled(true);
+        sServer = new DebugServer(port, INTERVAL_MILLIS, new XSeekBarSource());
+        return sServer.start();
+    }
+
+    /**
+     * 停止服务器并停止登记XSeekBar
+     */
+    public static synchronized void stop() {
+        if (sServer != null) {
+            sServer.stop();
+            sServer = null;
+        }
+        XSeekBarRegistry.setEnabled(false);
+    }
+}
@@ -0,0 +1,218 @@
+package com.ch.debugserver;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import com.ch.xseekbar.XSeekBar;
+import com.ch.xseekbar.XSeekBarRegistry;
+import com.ch.xseekbar.core.SeekBarMetrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 输出所有已登记XSeekBar的状态
+ * 首次输出时为实例开启{@link SeekBarMetrics}，速率按与上一次输出的差值计算
+ * {@link DebugServer}每个间隔只输出一次并发送给所有客户端，速率不受客户端数量影响
+ * XSeekBar的状态在主线程读取，开启统计也在主线程执行，socket线程只使用读取结果和线程安全的统计计数；
+ * 主线程{@link #COLLECT_TIMEOUT_MILLIS}毫秒内未完成读取时输出{"time":...,"error":"main thread busy"}
+ * <p>
+ * 每行格式：
+ * <pre>
+ * {"time":1700000000000,"count":1,"bars":[{"id":"1a2b3c","viewId":-1,"attached":true,
+ *   "progress":50,"min":0,"max":100,"uiUpdates":3,"backgroundUpdates":120,"updatesPerSec":60.0,
+ *   "coalesced":80,"coalescedPerSec":40.0,"dropped":0,"refreshPosts":40,"frames":40,"framesPerSec":20.0,
+ *   "drawAvgUs":85,"drawP50Us":128,"drawP95Us":256,"drawP99Us":256,"invalidatedArea":123456,
+ *   "listenerCalls":40,"listenerNanos":120000}]}
+ * </pre>
+ */
+public final class XSeekBarSource implements DebugServer.Source {
+    /**
+     * 等待主线程读取状态的最长时间
+     */
+    static final long COLLECT_TIMEOUT_MILLIS = 1000;
+
+    private static final int SAMPLE_TIME = 0;
+    private static final int SAMPLE_UPDATES = 1;
+    private static final int SAMPLE_COALESCED = 2;
+    private static final int SAMPLE_FRAMES = 3;
+
+    /**
+     * 首次输出时创建
+     */
+    private Handler mMainHandler;
+    /**
+     * 每个实例上一次输出时的计数
+     */
+    private final Map<Object, long[]> mLastSamples = new WeakHashMap<>();
+
+    @Override
+    public synchronized void writeSnapshot(StringBuilder out) {
+        // 每次使用新的列表，超时后主线程仍可能写入，不影响下一次输出
+        final ArrayList<BarSample> samples = new ArrayList<>();
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            collect(samples);
+        } else {
+            if (mMainHandler == null) {
+                mMainHandler = new Handler(Looper.getMainLooper());
+            }
+            final CountDownLatch collected = new CountDownLatch(1);
+            mMainHandler.post(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        collect(samples);
+                    } finally {
+                        collected.countDown();
+                    }
+                }
+            });
+            boolean done;
+            try {
+                done = collected.await(COLLECT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                done = false;
+            }
+            if (!done) {
+                out.append("{\"time\":").append(System.currentTimeMillis())
+                        .append(",\"error\":\"main thread busy\"}");
+                return;
+            }
+        }
+        writeSamples(out, System.currentTimeMillis(), System.nanoTime(), samples);
+    }
+
+    /**
+     * 在主线程读取所有已登记XSeekBar的状态，未开启统计的实例在此开启
+     *
+     * @param samples
+     */
+    private static void collect(List<BarSample> samples) {
+        final ArrayList<XSeekBar> bars = new ArrayList<>();
+        XSeekBarRegistry.snapshot(bars);
+        for (int i = 0; i < bars.size(); i++) {
+            final XSeekBar bar = bars.get(i);
+            if (bar.getMetrics() == null) {
+                bar.setMetricsEnabled(true);
+            }
+            samples.add(new BarSample(bar, bar.getId(), bar.isAttachedToWindow(), bar.getProgressLong(),
+                    bar.getMin(), bar.getMax(), bar.getMetrics()));
+        }
+    }
+
+    /**
+     * 输出一行JSON
+     *
+     * @param out
+     * @param timeMillis 输出的时间戳
+     * @param now        计算速率使用的{@link System#nanoTime()}
+     * @param samples
+     */
+    void writeSamples(StringBuilder out, long timeMillis, long now, List<BarSample> samples) {
+        out.append("{\"time\":").append(timeMillis)
+                .append(",\"count\":").append(samples.size())
+                .append(",\"bars\":[");
+        for (int i = 0; i < samples.size(); i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            writeBar(out, samples.get(i), now);
+        }
+        out.append("]}");
+    }
+
+    private void writeBar(StringBuilder out, BarSample sample, long now) {
+        out.append("{\"id\":\"").append(Integer.toHexString(System.identityHashCode(sample.key))).append('"')
+                .append(",\"viewId\":").append(sample.viewId)
+                .append(",\"attached\":").append(sample.attached)
+                .append(",\"progress\":").append(sample.progress)
+                .append(",\"min\":").append(sample.min)
+                .append(",\"max\":").append(sample.max);
+        final SeekBarMetrics metrics = sample.metrics;
+        if (metrics == null) {
+            out.append('}');
+            return;
+        }
+        final long updates = metrics.getUiThreadUpdates() + metrics.getBackgroundUpdates();
+        final long coalesced = metrics.getCoalescedUpdates();
+        final long frames = metrics.getFramesDrawn();
+
+        long[] last = mLastSamples.get(sample.key);
+        if (last == null) {
+            last = new long[]{now, updates, coalesced, frames};
+            mLastSamples.put(sample.key, last);
+        }
+        final double seconds = (now - last[SAMPLE_TIME]) / 1e9;
+
+        out.append(",\"uiUpdates\":").append(metrics.getUiThreadUpdates())
+                .append(",\"backgroundUpdates\":").append(metrics.getBackgroundUpdates())
+                .append(",\"updatesPerSec\":").append(rate(updates - last[SAMPLE_UPDATES], seconds))
+                .append(",\"coalesced\":").append(coalesced)
+                .append(",\"coalescedPerSec\":").append(rate(coalesced - last[SAMPLE_COALESCED], seconds))
+                .append(",\"dropped\":").append(metrics.getDroppedUpdates())
+                .append(",\"refreshPosts\":").append(metrics.getRefreshPosts())
+                .append(",\"frames\":").append(frames)
+                .append(",\"framesPerSec\":").append(rate(frames - last[SAMPLE_FRAMES], seconds))
+                .append(",\"drawAvgUs\":").append(frames > 0 ? metrics.getDrawNanos() / frames / 1000 : 0)
+                .append(",\"drawP50Us\":").append(metrics.getDrawTimePercentileMicros(50))
+                .append(",\"drawP95Us\":").append(metrics.getDrawTimePercentileMicros(95))
+                .append(",\"drawP99Us\":").append(metrics.getDrawTimePercentileMicros(99))
+                .append(",\"invalidatedArea\":").append(metrics.getInvalidatedArea())
+                .append(",\"listenerCalls\":").append(metrics.getListenerCalls())
+                .append(",\"listenerNanos\":").append(metrics.getListenerNanos())
+                .append('}');
+
+        last[SAMPLE_TIME] = now;
+        last[SAMPLE_UPDATES] = updates;
+        last[SAMPLE_COALESCED] = coalesced;
+        last[SAMPLE_FRAMES] = frames;
+    }
+
+    /**
+     * 保留一位小数的速率
+     *
+     * @param delta
+     * @param seconds
+     * @return
+     */
+    private static double rate(long delta, double seconds) {
+        if (seconds <= 0) {
+            return 0;
+        }
+        return Math.round(delta / seconds * 10) / 10.0;
+    }
+
+    /**
+     * 在主线程读取的XSeekBar状态
+     */
+    static final class BarSample {
+        /**
+         * 实例本身，用于生成id和记录上一次的计数，socket线程不调用其方法
+         */
+        final Object key;
+        final int viewId;
+        final boolean attached;
+        final long progress;
+        final long min;
+        final long max;
+        /**
+         * 计数为原子变量，可在socket线程读取
+         */
+        final SeekBarMetrics metrics;
+
+        BarSample(Object key, int viewId, boolean attached, long progress, long min, long max, SeekBarMetrics metrics) {
+            this.key = key;
+            this.viewId = viewId;
+            this.attached = attached;
+            this.progress = progress;
+            this.min = min;
+            this.max = max;
+            this.metrics = metrics;
+        }
+    }
+}
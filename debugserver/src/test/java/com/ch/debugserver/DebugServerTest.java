@@ -0,0 +1,123 @@
+package com.ch.debugserver;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link DebugServer}的本地客户端测试
+ */
+public class DebugServerTest {
+    private final AtomicInteger mSnapshots = new AtomicInteger();
+    private DebugServer mServer;
+
+    @Before
+    public void setUp() throws IOException {
+        mServer = new DebugServer(0, 20, new DebugServer.Source() {
+            @Override
+            public void writeSnapshot(StringBuilder out) {
+                out.append("{\"seq\":").append(mSnapshots.incrementAndGet()).append('}');
+            }
+        });
+        assertTrue(mServer.start() > 0);
+    }
+
+    @After
+    public void tearDown() {
+        mServer.stop();
+    }
+
+    @Test
+    public void client_receivesJsonLines() throws IOException {
+        final Socket socket = connect();
+        try {
+            final BufferedReader reader = reader(socket);
+            final String first = reader.readLine();
+            final String second = reader.readLine();
+            assertTrue(first, first.matches("\\{\"seq\":\\d+\\}"));
+            assertTrue(second, second.matches("\\{\"seq\":\\d+\\}"));
+            assertNotEquals(first, second);
+        } finally {
+            socket.close();
+        }
+    }
+
+    @Test
+    public void stop_disconnectsClients() throws IOException {
+        final Socket socket = connect();
+        try {
+            final BufferedReader reader = reader(socket);
+            assertNotNull(reader.readLine());
+            mServer.stop();
+            assertFalse(mServer.isRunning());
+            assertEquals(-1, mServer.getPort());
+            // 读完已发送的数据后连接关闭
+            String line;
+            do {
+                line = reader.readLine();
+            } while (line != null);
+        } catch (IOException expected) {
+            // 连接被重置
+        } finally {
+            socket.close();
+        }
+    }
+
+    @Test
+    public void clients_shareOneSnapshotPerInterval() throws Exception {
+        final Socket first = connect();
+        final Socket second = connect();
+        try {
+            final BufferedReader firstReader = reader(first);
+            final BufferedReader secondReader = reader(second);
+            while (mServer.getClientCount() < 2) {
+                Thread.sleep(5);
+            }
+            // 第二个客户端收到的每一行第一个客户端也会收到
+            secondReader.readLine();
+            final int seq = seqOf(secondReader.readLine());
+            int other;
+            do {
+                other = seqOf(firstReader.readLine());
+            } while (other < seq);
+            assertEquals(seq, other);
+        } finally {
+            first.close();
+            second.close();
+        }
+    }
+
+    @Test
+    public void start_isIdempotent() throws IOException {
+        final int port = mServer.getPort();
+        assertEquals(port, mServer.start());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_rejectsNullSource() {
+        new DebugServer(0, 20, null);
+    }
+
+    private static int seqOf(String line) {
+        return Integer.parseInt(line.substring(line.indexOf(':') + 1, line.indexOf('}')));
+    }
+
+    private Socket connect() throws IOException {
+        final Socket socket = new Socket(InetAddress.getByName("127.0.0.1"), mServer.getPort());
+        socket.setSoTimeout(5000);
+        return socket;
+    }
+
+    private static BufferedReader reader(Socket socket) throws IOException {
+        return new BufferedReader(new InputStreamReader(socket.getInputStream(), "UTF-8"));
+    }
+}
@@ -0,0 +1,98 @@
+package com.ch.debugserver;
+
+import com.ch.xseekbar.core.SeekBarMetrics;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link XSeekBarSource}输出格式和速率的单元测试
+ */
+public class XSeekBarSourceTest {
+    private static final long SECOND = 1000000000L;
+
+    @Test
+    public void writeSamples_emptyRegistry() {
+        final StringBuilder out = new StringBuilder();
+        new XSeekBarSource().writeSamples(out, 1700000000000L, 0, Collections.<XSeekBarSource.BarSample>emptyList());
+        assertEquals("{\"time\":1700000000000,\"count\":0,\"bars\":[]}", out.toString());
+    }
+
+    @Test
+    public void writeSamples_withoutMetrics() {
+        final Object bar = new Object();
+        final StringBuilder out = new StringBuilder();
+        new XSeekBarSource().writeSamples(out, 1, 0, list(new XSeekBarSource.BarSample(bar, 7, true, 50, 0, 100, null)));
+        assertEquals("{\"time\":1,\"count\":1,\"bars\":[{\"id\":\"" + Integer.toHexString(System.identityHashCode(bar))
+                + "\",\"viewId\":7,\"attached\":true,\"progress\":50,\"min\":0,\"max\":100}]}", out.toString());
+    }
+
+    @Test
+    public void writeSamples_ratesUseDeltaSinceLastOutput() {
+        final XSeekBarSource source = new XSeekBarSource();
+        final SeekBarMetrics metrics = new SeekBarMetrics();
+        final List<XSeekBarSource.BarSample> samples = list(
+                new XSeekBarSource.BarSample(new Object(), -1, false, 0, 0, 100, metrics));
+
+        // 首次输出没有上一次的计数，速率为0
+        StringBuilder out = new StringBuilder();
+        source.writeSamples(out, 0, SECOND, samples);
+        assertTrue(out.toString(), out.toString().contains("\"updatesPerSec\":0.0"));
+
+        for (int i = 0; i < 30; i++) {
+            metrics.onProgressUpdate(false);
+        }
+        for (int i = 0; i < 20; i++) {
+            metrics.onUpdateCoalesced();
+        }
+        for (int i = 0; i < 5; i++) {
+            metrics.onFrameDrawn(100000);
+        }
+        out = new StringBuilder();
+        source.writeSamples(out, 0, SECOND * 3, samples);
+        final String json = out.toString();
+        assertTrue(json, json.contains("\"backgroundUpdates\":30"));
+        assertTrue(json, json.contains("\"updatesPerSec\":15.0"));
+        assertTrue(json, json.contains("\"coalesced\":20"));
+        assertTrue(json, json.contains("\"coalescedPerSec\":10.0"));
+        assertTrue(json, json.contains("\"frames\":5"));
+        assertTrue(json, json.contains("\"framesPerSec\":2.5"));
+        assertTrue(json, json.contains("\"drawAvgUs\":100"));
+
+        // 没有新的计数时速率回到0
+        out = new StringBuilder();
+        source.writeSamples(out, 0, SECOND * 4, samples);
+        assertTrue(out.toString(), out.toString().contains("\"updatesPerSec\":0.0"));
+    }
+
+    @Test
+    public void writeSamples_eachBarTracksItsOwnRate() {
+        final XSeekBarSource source = new XSeekBarSource();
+        final SeekBarMetrics first = new SeekBarMetrics();
+        final SeekBarMetrics second = new SeekBarMetrics();
+        final List<XSeekBarSource.BarSample> samples = new ArrayList<>();
+        samples.add(new XSeekBarSource.BarSample(new Object(), 1, true, 0, 0, 100, first));
+        samples.add(new XSeekBarSource.BarSample(new Object(), 2, true, 0, 0, 100, second));
+        source.writeSamples(new StringBuilder(), 0, 0, samples);
+
+        first.onProgressUpdate(true);
+        first.onProgressUpdate(true);
+        final StringBuilder out = new StringBuilder();
+        source.writeSamples(out, 0, SECOND, samples);
+        final String json = out.toString();
+        final int split = json.indexOf("\"viewId\":2");
+        assertTrue(json, json.substring(0, split).contains("\"updatesPerSec\":2.0"));
+        assertTrue(json, json.substring(split).contains("\"updatesPerSec\":0.0"));
+    }
+
+    private static List<XSeekBarSource.BarSample> list(XSeekBarSource.BarSample sample) {
+        final List<XSeekBarSource.BarSample> samples = new ArrayList<>();
+        samples.add(sample);
+        return samples;
+    }
+}
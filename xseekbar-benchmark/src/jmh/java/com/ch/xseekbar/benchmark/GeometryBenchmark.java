@@ -0,0 +1,68 @@
+package com.ch.xseekbar.benchmark;
+
+import com.ch.xseekbar.core.ProgressMath;
+import com.ch.xseekbar.core.SeekGeometry;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 每次进度变化时的布局计算，对应XSeekBar#setVisualProgress中的
+ * 进度层level、updateThumbPos、updateIndicatorPos
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GeometryBenchmark {
+    private static final int SAMPLES = 1024;
+    private static final int MAX_LEVEL = 10000;
+    private static final int AVAILABLE = 984;
+    private static final int THUMB_OFFSET = 24;
+    private static final int THUMB_SIZE = 48;
+
+    private final long[] mProgress = new long[SAMPLES];
+    private int mIndex;
+
+    @Setup
+    public void setup() {
+        for (int i = 0; i < SAMPLES; i++) {
+            mProgress[i] = i * 977L % 100001;
+        }
+    }
+
+    @Benchmark
+    public int trackLevel() {
+        final double fraction = ProgressMath.toFraction(mProgress[mIndex++ & (SAMPLES - 1)], 0, 100000);
+        return ProgressMath.toLevel(fraction, AVAILABLE, MAX_LEVEL);
+    }
+
+    @Benchmark
+    public int thumbPosition() {
+        final double fraction = ProgressMath.toFraction(mProgress[mIndex++ & (SAMPLES - 1)], 0, 100000);
+        return SeekGeometry.thumbStart(fraction, AVAILABLE, THUMB_OFFSET, THUMB_SIZE);
+    }
+
+    @Benchmark
+    public int indicatorPosition() {
+        final double fraction = ProgressMath.toFraction(mProgress[mIndex++ & (SAMPLES - 1)], 0, 100000);
+        return SeekGeometry.indicatorStart(fraction, AVAILABLE, THUMB_OFFSET);
+    }
+
+    /**
+     * 一次进度变化的全部计算
+     */
+    @Benchmark
+    public int allForOneUpdate() {
+        final double fraction = ProgressMath.toFraction(mProgress[mIndex++ & (SAMPLES - 1)], 0, 100000);
+        return ProgressMath.toLevel(fraction, AVAILABLE, MAX_LEVEL)
+                ^ SeekGeometry.thumbStart(fraction, AVAILABLE, THUMB_OFFSET, THUMB_SIZE)
+                ^ SeekGeometry.indicatorStart(fraction, AVAILABLE, THUMB_OFFSET);
+    }
+}
@@ -0,0 +1,137 @@
+package com.ch.xseekbar.benchmark;
+
+import com.ch.xseekbar.core.IndicatorContentState;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 旧版XSeekBar.IndicatorFontInfo的acquire/recycle与每个View一个内容槽的对比
+ * 内容槽直接测量XSeekBar.IndicatorFontInfo使用的{@link IndicatorContentState}，每个线程一个，
+ * 模拟每个View只在UI线程修改自己的内容，字段不变时不标记修改
+ * <p>
+ * acquireRecycle*是已移除的对象池的对照组：support库的Pools.SynchronizedPool依赖Android模块，
+ * 这里保留了它的实现，池中对象同样为{@link IndicatorContentState}，acquire时覆盖全部字段
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class IndicatorPoolBenchmark {
+    /**
+     * 与旧版XSeekBar.IndicatorFontInfo.MAX_POOL一致
+     */
+    private static final int MAX_POOL = 10;
+
+    private final SynchronizedPool mPool = new SynchronizedPool(MAX_POOL);
+
+    @Benchmark
+    @Threads(1)
+    public Object acquireRecycle_1() {
+        return acquireRecycle();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object acquireRecycle_4() {
+        return acquireRecycle();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public Object acquireRecycle_16() {
+        return acquireRecycle();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Object bindSlot_1(SlotState state) {
+        return bindSlot(state.slot);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public Object bindSlot_16(SlotState state) {
+        return bindSlot(state.slot);
+    }
+
+    private Object bindSlot(IndicatorContentState slot) {
+        slot.setText("50%");
+        slot.setTextColor(0xFFFFFFFF);
+        slot.setTextSize(36);
+        slot.setBold(true);
+        slot.setOffset(0, 0);
+        slot.takeDirty();
+        return slot;
+    }
+
+    private Object acquireRecycle() {
+        IndicatorContentState info = mPool.acquire();
+        if (info == null) {
+            info = new IndicatorContentState("", 0xFF000000, 18, false, 0, 0);
+        }
+        info.setText("50%");
+        info.setTextColor(0xFFFFFFFF);
+        info.setTextSize(36);
+        info.setBold(true);
+        info.setOffset(0, 0);
+        mPool.release(info);
+        return info;
+    }
+
+    /**
+     * 每个线程一个内容槽
+     */
+    @State(Scope.Thread)
+    public static class SlotState {
+        final IndicatorContentState slot = new IndicatorContentState("", 0xFF000000, 18, false, 0, 0);
+    }
+
+    /**
+     * 与android.support.v4.util.Pools.SynchronizedPool相同的实现
+     */
+    static final class SynchronizedPool {
+        private final Object mLock = new Object();
+        private final IndicatorContentState[] mPool;
+        private int mPoolSize;
+
+        SynchronizedPool(int maxPoolSize) {
+            mPool = new IndicatorContentState[maxPoolSize];
+        }
+
+        IndicatorContentState acquire() {
+            synchronized (mLock) {
+                if (mPoolSize > 0) {
+                    final int lastPooledIndex = mPoolSize - 1;
+                    final IndicatorContentState instance = mPool[lastPooledIndex];
+                    mPool[lastPooledIndex] = null;
+                    mPoolSize--;
+                    return instance;
+                }
+                return null;
+            }
+        }
+
+        boolean release(IndicatorContentState instance) {
+            synchronized (mLock) {
+                for (int i = 0; i < mPoolSize; i++) {
+                    if (mPool[i] == instance) {
+                        throw new IllegalStateException("Already in the pool!");
+                    }
+                }
+                if (mPoolSize < mPool.length) {
+                    mPool[mPoolSize] = instance;
+                    mPoolSize++;
+                    return true;
+                }
+                return false;
+            }
+        }
+    }
+}
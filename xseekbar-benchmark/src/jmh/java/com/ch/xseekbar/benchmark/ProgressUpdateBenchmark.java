@@ -0,0 +1,354 @@
+package com.ch.xseekbar.benchmark;
+
+import com.ch.xseekbar.core.ProgressMath;
+import com.ch.xseekbar.core.ProgressPublisher;
+import com.ch.xseekbar.core.ProgressRingBuffer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 子线程setProgress的吞吐量
+ * 直接测量XSeekBar使用的{@link ProgressPublisher}：生产者按XSeekBar#setProgressInternal和XSeekBar#refreshProgress的
+ * 子线程分支调用set、publish和tryMarkPosted；每组有一个按帧间隔消费的线程，模拟UI线程的刷新任务清除post标记并读取进度
+ * <p>
+ * latestOnly_N: {@link ProgressPublisher#MODE_LATEST_ONLY}，N个生产者
+ * lossless_N: {@link ProgressPublisher#MODE_LOSSLESS}，队列容量64，N个生产者
+ * monitor_N: 加锁实现的对照组，对应最初synchronized的setProgress，消费方式相同
+ * 各组生产者数量均为1、2、4、8、16
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProgressUpdateBenchmark {
+    private static final long MIN = 0;
+    private static final long MAX = 1000000;
+    /**
+     * 消费者的帧间隔，60Hz
+     */
+    private static final long FRAME_NANOS = TimeUnit.MILLISECONDS.toNanos(16);
+    private static final int QUEUE_CAPACITY = 64;
+    /**
+     * 每组生产者的最大数量，也是每个生产者写入值的间隔
+     */
+    private static final int MAX_PRODUCERS = 16;
+
+    private final ProgressPublisher mLatestOnly = new ProgressPublisher();
+    private final ProgressPublisher mLossless = new ProgressPublisher();
+    private final ProgressRingBuffer.Consumer mConsumer = new ProgressRingBuffer.Consumer() {
+        @Override
+        public void accept(long value) {
+            mLastDrained = value;
+        }
+    };
+    private long mLastDrained;
+
+    private final Object mMonitorLock = new Object();
+    private long mMonitorProgress;
+    private boolean mMonitorPending;
+    private boolean mMonitorPosted;
+
+    /**
+     * 每个生产者写入不同的值：第i个生产者只写入MIN + i + k * MAX_PRODUCERS，
+     * 与其他生产者的值互不相同，避免写入相同的进度时set()直接返回，使竞争下的吞吐量偏高
+     */
+    @State(Scope.Thread)
+    public static class Writer {
+        long offset;
+        long next;
+
+        @Setup
+        public void setUp(ThreadParams params) {
+            offset = MIN + params.getGroupThreadIndex() % MAX_PRODUCERS;
+            next = offset;
+        }
+
+        long nextValue() {
+            next += MAX_PRODUCERS;
+            if (next > MAX) {
+                next = offset;
+            }
+            return next;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        mLossless.setMode(ProgressPublisher.MODE_LOSSLESS, QUEUE_CAPACITY, ProgressPublisher.OVERFLOW_CONFLATE,
+                mConsumer);
+    }
+
+    /**
+     * 与XSeekBar子线程setProgress相同的调用顺序
+     *
+     * @param publisher
+     * @param progress
+     * @return
+     */
+    private static boolean publish(ProgressPublisher publisher, long progress) {
+        progress = ProgressMath.clamp(progress, MIN, MAX);
+        if (!publisher.set(progress)) {
+            return false;
+        }
+        publisher.publish(progress, true, false);
+        // 消费者每帧清除该标记，同一帧内的后续写入只有一次失败的CAS
+        publisher.tryMarkPosted();
+        return true;
+    }
+
+    /**
+     * 等待一帧后消费，与XSeekBar的刷新任务相同
+     *
+     * @param publisher
+     * @return
+     */
+    private long consume(ProgressPublisher publisher) {
+        LockSupport.parkNanos(FRAME_NANOS);
+        final int flags = publisher.consume();
+        publisher.drain(mConsumer);
+        return (flags & ProgressPublisher.FLAG_PENDING) != 0 ? publisher.get() : mLastDrained;
+    }
+
+    private boolean setProgressMonitor(long progress) {
+        synchronized (mMonitorLock) {
+            progress = ProgressMath.clamp(progress, MIN, MAX);
+            if (progress == mMonitorProgress) {
+                return false;
+            }
+            mMonitorProgress = progress;
+            mMonitorPending = true;
+            mMonitorPosted = true;
+            return true;
+        }
+    }
+
+    private long consumeMonitor() {
+        LockSupport.parkNanos(FRAME_NANOS);
+        synchronized (mMonitorLock) {
+            mMonitorPosted = false;
+            mMonitorPending = false;
+            return mMonitorProgress;
+        }
+    }
+
+    @Benchmark
+    @Group("latestOnly_1")
+    @GroupThreads(1)
+    public boolean latestOnly_1_produce(Writer writer) {
+        return publish(mLatestOnly, writer.nextValue());
+    }
+
+    @Benchmark
+    @Group("latestOnly_1")
+    @GroupThreads(1)
+    public long latestOnly_1_frame() {
+        return consume(mLatestOnly);
+    }
+
+    @Benchmark
+    @Group("latestOnly_2")
+    @GroupThreads(2)
+    public boolean latestOnly_2_produce(Writer writer) {
+        return publish(mLatestOnly, writer.nextValue());
+    }
+
+    @Benchmark
+    @Group("latestOnly_2")
+    @GroupThreads(1)
+    public long latestOnly_2_frame() {
+        return consume(mLatestOnly);
+    }
+
+    @Benchmark
+    @Group("latestOnly_4")
+    @GroupThreads(4)
+    public boolean latestOnly_4_produce(Writer writer) {
+        return publish(mLatestOnly, writer.nextValue());
+    }
+
+    @Benchmark
+    @Group("latestOnly_4")
+    @GroupThreads(1)
+    public long latestOnly_4_frame() {
+        return consume(mLatestOnly);
+    }
+
+    @Benchmark
+    @Group("latestOnly_8")
+    @GroupThreads(8)
+    public boolean latestOnly_8_produce(Writer writer) {
+        return publish(mLatestOnly, writer.nextValue());
+    }
+
+    @Benchmark
+    @Group("latestOnly_8")
+    @GroupThreads(1)
+    public long latestOnly_8_frame() {
+        return consume(mLatestOnly);
+    }
+
+    @Benchmark
+    @Group("latestOnly_16")
+    @GroupThreads(16)
+    public boolean latestOnly_16_produce(Writer writer) {
+        return publish(mLatestOnly, writer.nextValue());
+    }
+
+    @Benchmark
+    @Group("latestOnly_16")
+    @GroupThreads(1)
+    public long latestOnly_16_frame() {
+        return consume(mLatestOnly);
+    }
+
+    @Benchmark
+    @Group("lossless_1")
+    @GroupThreads(1)
+    public boolean lossless_1_produce(Writer writer) {
+        return publish(mLossless, writer.nextValue());
+    }
+
+    @Benchmark
+    @Group("lossless_1")
+    @GroupThreads(1)
+    public long lossless_1_frame() {
+        return consume(mLossless);
+    }
+
+    @Benchmark
+    @Group("lossless_2")
+    @GroupThreads(2)
+    public boolean lossless_2_produce(Writer writer) {
+        return publish(mLossless, writer.nextValue());
+    }
+
+    @Benchmark
+    @Group("lossless_2")
+    @GroupThreads(1)
+    public long lossless_2_frame() {
+        return consume(mLossless);
+    }
+
+    @Benchmark
+    @Group("lossless_4")
+    @GroupThreads(4)
+    public boolean lossless_4_produce(Writer writer) {
+        return publish(mLossless, writer.nextValue());
+    }
+
+    @Benchmark
+    @Group("lossless_4")
+    @GroupThreads(1)
+    public long lossless_4_frame() {
+        return consume(mLossless);
+    }
+
+    @Benchmark
+    @Group("lossless_8")
+    @GroupThreads(8)
+    public boolean lossless_8_produce(Writer writer) {
+        return publish(mLossless, writer.nextValue());
+    }
+
+    @Benchmark
+    @Group("lossless_8")
+    @GroupThreads(1)
+    public long lossless_8_frame() {
+        return consume(mLossless);
+    }
+
+    @Benchmark
+    @Group("lossless_16")
+    @GroupThreads(16)
+    public boolean lossless_16_produce(Writer writer) {
+        return publish(mLossless, writer.nextValue());
+    }
+
+    @Benchmark
+    @Group("lossless_16")
+    @GroupThreads(1)
+    public long lossless_16_frame() {
+        return consume(mLossless);
+    }
+
+    @Benchmark
+    @Group("monitor_1")
+    @GroupThreads(1)
+    public boolean monitor_1_produce(Writer writer) {
+        return setProgressMonitor(writer.nextValue());
+    }
+
+    @Benchmark
+    @Group("monitor_1")
+    @GroupThreads(1)
+    public long monitor_1_frame() {
+        return consumeMonitor();
+    }
+
+    @Benchmark
+    @Group("monitor_2")
+    @GroupThreads(2)
+    public boolean monitor_2_produce(Writer writer) {
+        return setProgressMonitor(writer.nextValue());
+    }
+
+    @Benchmark
+    @Group("monitor_2")
+    @GroupThreads(1)
+    public long monitor_2_frame() {
+        return consumeMonitor();
+    }
+
+    @Benchmark
+    @Group("monitor_4")
+    @GroupThreads(4)
+    public boolean monitor_4_produce(Writer writer) {
+        return setProgressMonitor(writer.nextValue());
+    }
+
+    @Benchmark
+    @Group("monitor_4")
+    @GroupThreads(1)
+    public long monitor_4_frame() {
+        return consumeMonitor();
+    }
+
+    @Benchmark
+    @Group("monitor_8")
+    @GroupThreads(8)
+    public boolean monitor_8_produce(Writer writer) {
+        return setProgressMonitor(writer.nextValue());
+    }
+
+    @Benchmark
+    @Group("monitor_8")
+    @GroupThreads(1)
+    public long monitor_8_frame() {
+        return consumeMonitor();
+    }
+
+    @Benchmark
+    @Group("monitor_16")
+    @GroupThreads(16)
+    public boolean monitor_16_produce(Writer writer) {
+        return setProgressMonitor(writer.nextValue());
+    }
+
+    @Benchmark
+    @Group("monitor_16")
+    @GroupThreads(1)
+    public long monitor_16_frame() {
+        return consumeMonitor();
+    }
+}
@@ -0,0 +1,89 @@
+package com.ch.xseekbar.benchmark;
+
+import com.ch.xseekbar.core.ProgressMath;
+import com.ch.xseekbar.core.SeekGeometry;
+import com.ch.xseekbar.core.SnapTable;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 触摸点到进度值的映射，对应XSeekBar#trackTouchEvent
+ * 对齐使用覆盖整个范围的1-2-5序列，例如1, 2, 5, 10, 20, 50...
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TouchMappingBenchmark {
+    private static final int SAMPLES = 1024;
+    private static final int WIDTH = 1080;
+    private static final int PADDING = 48;
+
+    /**
+     * 进度范围，包含最小值不为0以及long范围的情况
+     */
+    @Param({"0:100", "-500:500", "0:1000000000000"})
+    public String range;
+
+    private long mMin;
+    private long mMax;
+    private final float[] mTouchX = new float[SAMPLES];
+    private int mIndex;
+    private SnapTable mSnapTable;
+
+    @Setup
+    public void setup() {
+        final int split = range.indexOf(':', 1);
+        mMin = Long.parseLong(range.substring(0, split));
+        mMax = Long.parseLong(range.substring(split + 1));
+        final Random random = new Random(42);
+        for (int i = 0; i < SAMPLES; i++) {
+            // 包含少量超出进度两端的触摸点
+            mTouchX[i] = random.nextFloat() * (WIDTH + 40) - 20;
+        }
+
+        final long[] values = new long[64];
+        int count = 0;
+        values[count++] = mMin;
+        for (long decade = 1; decade > 0 && decade <= mMax / 5; decade *= 10) {
+            values[count++] = decade;
+            values[count++] = decade * 2;
+            values[count++] = decade * 5;
+        }
+        values[count++] = mMax;
+        mSnapTable = new SnapTable(Arrays.copyOf(values, count));
+    }
+
+    @Benchmark
+    public long touchToProgress() {
+        final float x = mTouchX[mIndex++ & (SAMPLES - 1)];
+        final float pos = SeekGeometry.touchToPosition(x, WIDTH, PADDING, PADDING);
+        return ProgressMath.positionToProgress(pos, SeekGeometry.available(WIDTH, PADDING, PADDING), mMin, mMax);
+    }
+
+    @Benchmark
+    public long touchToSteppedProgress() {
+        final float x = mTouchX[mIndex++ & (SAMPLES - 1)];
+        final float pos = SeekGeometry.touchToPosition(x, WIDTH, PADDING, PADDING);
+        final long progress = ProgressMath.positionToProgress(pos, SeekGeometry.available(WIDTH, PADDING, PADDING), mMin, mMax);
+        return ProgressMath.snapToStep(progress, mMin, mMax, 10);
+    }
+
+    @Benchmark
+    public long touchToSnapTableProgress() {
+        final float x = mTouchX[mIndex++ & (SAMPLES - 1)];
+        final float pos = SeekGeometry.touchToPosition(x, WIDTH, PADDING, PADDING);
+        final long progress = ProgressMath.positionToProgress(pos, SeekGeometry.available(WIDTH, PADDING, PADDING), mMin, mMax);
+        return mSnapTable.snap(progress, mMin, mMax);
+    }
+}
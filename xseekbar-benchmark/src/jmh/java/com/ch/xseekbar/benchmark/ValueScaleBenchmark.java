@@ -0,0 +1,78 @@
+package com.ch.xseekbar.benchmark;
+
+import com.ch.xseekbar.core.ScaleTable;
+import com.ch.xseekbar.core.ValueScale;
+import com.ch.xseekbar.core.ValueScales;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 非线性映射直接计算与查表的对比，对应XSeekBar拖动时的位置转进度以及绘制时的进度转位置
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ValueScaleBenchmark {
+    private static final int SAMPLES = 1024;
+    private static final int AVAILABLE = 984;
+    private static final long MIN = 20;
+    private static final long MAX = 20000;
+
+    @Param({"logarithmic", "exponential"})
+    public String scale;
+
+    private ValueScale mScale;
+    private ScaleTable mTable;
+    private final float[] mPositions = new float[SAMPLES];
+    private final long[] mValues = new long[SAMPLES];
+    private int mIndex;
+
+    @Setup
+    public void setup() {
+        mScale = "logarithmic".equals(scale) ? ValueScales.logarithmic() : ValueScales.exponential(4);
+        mTable = new ScaleTable(mScale, MIN, MAX, AVAILABLE);
+        final Random random = new Random(42);
+        for (int i = 0; i < SAMPLES; i++) {
+            mPositions[i] = random.nextFloat() * AVAILABLE;
+            mValues[i] = MIN + (long) (random.nextDouble() * (MAX - MIN));
+        }
+    }
+
+    @Benchmark
+    public long positionToValueDirect() {
+        return mScale.toValue(mPositions[mIndex++ & (SAMPLES - 1)] / AVAILABLE, MIN, MAX);
+    }
+
+    @Benchmark
+    public long positionToValueTable() {
+        return mTable.positionToValue(mPositions[mIndex++ & (SAMPLES - 1)]);
+    }
+
+    @Benchmark
+    public double valueToPositionDirect() {
+        return mScale.toPosition(mValues[mIndex++ & (SAMPLES - 1)], MIN, MAX);
+    }
+
+    @Benchmark
+    public double valueToPositionTable() {
+        return mTable.valueToFraction(mValues[mIndex++ & (SAMPLES - 1)]);
+    }
+
+    /**
+     * 每次布局生成查找表的开销
+     */
+    @Benchmark
+    public ScaleTable buildTable() {
+        return new ScaleTable(mScale, MIN, MAX, AVAILABLE);
+    }
+}
@@ -0,0 +1,143 @@
+package com.ch.xseekbar.core;
+
+/**
+ * 进度方向上的一维拖动速度估算
+ * 保留最近的触摸采样(包含MotionEvent中批量的历史采样)，对最近{@link #WINDOW_MILLIS}内的采样做最小二乘直线拟合得到速度，
+ * 并可据此预测未来某一时刻的位置
+ * 预分配固定容量的数组，超出容量后覆盖最早的采样，不创建对象
+ * <p>
+ * 非线程安全
+ */
+public final class DragVelocityTracker {
+    /**
+     * 参与速度估算的时间窗口，更早的采样不参与计算
+     */
+    public static final long WINDOW_MILLIS = 100;
+    /**
+     * 最新采样距今超过该时间时认为手指已停止，不再向前预测
+     */
+    public static final long STALE_MILLIS = 40;
+
+    private static final int CAPACITY = 20;
+
+    private final long[] mTimes = new long[CAPACITY];
+    private final float[] mPositions = new float[CAPACITY];
+    /**
+     * 最新采样的下标
+     */
+    private int mHead = -1;
+    private int mCount;
+
+    /**
+     * 添加一个采样，时间应不早于上一个采样，早于上一个采样时忽略
+     *
+     * @param timeMillis 事件时间，例如MotionEvent#getHistoricalEventTime(int)
+     * @param position   进度方向上的像素位置
+     */
+    public void addSample(long timeMillis, float position) {
+        if (mCount > 0 && timeMillis < mTimes[mHead]) {
+            return;
+        }
+        mHead = (mHead + 1) % CAPACITY;
+        mTimes[mHead] = timeMillis;
+        mPositions[mHead] = position;
+        if (mCount < CAPACITY) {
+            mCount++;
+        }
+    }
+
+    /**
+     * 清空采样，每次按下时调用
+     */
+    public void clear() {
+        mHead = -1;
+        mCount = 0;
+    }
+
+    /**
+     * 当前保留的采样数
+     *
+     * @return
+     */
+    public int count() {
+        return mCount;
+    }
+
+    /**
+     * 最新采样的位置
+     *
+     * @return 没有采样时返回0
+     */
+    public float lastPosition() {
+        return mCount > 0 ? mPositions[mHead] : 0;
+    }
+
+    /**
+     * 最新采样的时间
+     *
+     * @return 没有采样时返回0
+     */
+    public long lastTime() {
+        return mCount > 0 ? mTimes[mHead] : 0;
+    }
+
+    /**
+     * 以最新采样为基准，对{@link #WINDOW_MILLIS}内的采样做最小二乘直线拟合，返回斜率
+     *
+     * @return 像素/秒，采样不足两个或时间跨度为0时返回0
+     */
+    public float velocity() {
+        if (mCount < 2) {
+            return 0;
+        }
+        final long newest = mTimes[mHead];
+        final float origin = mPositions[mHead];
+        // 以最新采样为原点计算，避免时间戳较大时损失精度
+        double sumT = 0;
+        double sumX = 0;
+        double sumTT = 0;
+        double sumTX = 0;
+        int n = 0;
+        for (int i = 0; i < mCount; i++) {
+            final int index = (mHead - i + CAPACITY) % CAPACITY;
+            final long age = newest - mTimes[index];
+            if (age > WINDOW_MILLIS) {
+                break;
+            }
+            final double t = -age;
+            final double x = mPositions[index] - origin;
+            sumT += t;
+            sumX += x;
+            sumTT += t * t;
+            sumTX += t * x;
+            n++;
+        }
+        if (n < 2) {
+            return 0;
+        }
+        final double denominator = n * sumTT - sumT * sumT;
+        if (denominator == 0) {
+            return 0;
+        }
+        // 像素/毫秒转为像素/秒
+        return (float) ((n * sumTX - sumT * sumX) / denominator * 1000);
+    }
+
+    /**
+     * 按当前速度预测最新采样之后horizonMillis的位置
+     *
+     * @param horizonMillis 预测的时长，通常为一帧
+     * @param nowMillis     当前时间，最新采样距今超过{@link #STALE_MILLIS}时不预测
+     * @return 没有采样时返回0
+     */
+    public float predict(long horizonMillis, long nowMillis) {
+        if (mCount == 0) {
+            return 0;
+        }
+        final float last = mPositions[mHead];
+        if (horizonMillis <= 0 || nowMillis - mTimes[mHead] > STALE_MILLIS) {
+            return last;
+        }
+        return last + velocity() * horizonMillis / 1000f;
+    }
+}
@@ -0,0 +1,172 @@
+package com.ch.xseekbar.core;
+
+/**
+ * 松手后触点继续运动的物理模型，位置单位为进度方向上的像素，时间单位为秒
+ * 两种模型：
+ * 1.摩擦：速度按e^(-friction * t)衰减，到达边界或速度低于{@link #REST_VELOCITY}时停止
+ * 2.临界阻尼弹簧：从当前位置和速度平滑地停在目标位置，不会来回振荡
+ * 均为解析解，任意时刻的位置只与经过的时间有关，不受帧率影响；只使用基本类型，不创建对象
+ * <p>
+ * 非线程安全
+ */
+public final class FlingSimulation {
+    /**
+     * 默认摩擦系数，1/秒，越大停得越快
+     */
+    public static final float DEFAULT_FRICTION = 6f;
+    /**
+     * 默认弹簧角频率，弧度/秒，越大回弹越快
+     */
+    public static final float DEFAULT_SPRING_FREQUENCY = 25f;
+    /**
+     * 低于该速度视为静止，像素/秒
+     */
+    public static final float REST_VELOCITY = 3f;
+    /**
+     * 弹簧与目标的距离小于该值时视为到达，像素
+     */
+    public static final float REST_DISTANCE = 0.5f;
+
+    private boolean mSpring;
+    private float mStart;
+    private float mVelocity;
+    private float mMin;
+    private float mMax;
+    /**
+     * 摩擦系数或弹簧角频率
+     */
+    private float mCoefficient;
+    private float mFinal;
+    /**
+     * 摩擦模型的持续时间，秒
+     */
+    private float mDuration;
+
+    /**
+     * 开始摩擦减速
+     *
+     * @param start    起始位置
+     * @param velocity 起始速度，像素/秒
+     * @param min      位置下限
+     * @param max      位置上限
+     * @param friction 摩擦系数，1/秒
+     */
+    public void fling(float start, float velocity, float min, float max, float friction) {
+        mSpring = false;
+        mStart = Math.max(min, Math.min(start, max));
+        mVelocity = velocity;
+        mMin = min;
+        mMax = max;
+        mCoefficient = friction > 0 ? friction : DEFAULT_FRICTION;
+
+        final float speed = Math.abs(velocity);
+        if (speed <= REST_VELOCITY) {
+            mDuration = 0;
+            mFinal = mStart;
+            return;
+        }
+        final float k = mCoefficient;
+        // 速度衰减到REST_VELOCITY的时间
+        mDuration = (float) (Math.log(speed / REST_VELOCITY) / k);
+        mFinal = mStart + velocity / k;
+
+        // 停止前到达边界：x0 + v0 / k * (1 - e^(-kt)) = bound
+        final float bound = velocity > 0 ? max : min;
+        final float distance = bound - mStart;
+        if (Math.abs(velocity / k) >= Math.abs(distance)) {
+            final double remain = 1 - distance * k / velocity;
+            if (remain > 0) {
+                mDuration = Math.min(mDuration, (float) (-Math.log(remain) / k));
+            }
+            mFinal = bound;
+        }
+    }
+
+    /**
+     * 开始临界阻尼弹簧运动
+     * 位置 x(t) = target + (c1 + c2 * t) * e^(-ω * t)，c1 = start - target，c2 = velocity + ω * c1
+     *
+     * @param start     起始位置
+     * @param velocity  起始速度，像素/秒
+     * @param target    目标位置
+     * @param frequency 角频率ω，弧度/秒
+     */
+    public void spring(float start, float velocity, float target, float frequency) {
+        mSpring = true;
+        mStart = start;
+        mVelocity = velocity;
+        mMin = Float.NEGATIVE_INFINITY;
+        mMax = Float.POSITIVE_INFINITY;
+        mCoefficient = frequency > 0 ? frequency : DEFAULT_SPRING_FREQUENCY;
+        mFinal = target;
+        mDuration = Float.POSITIVE_INFINITY;
+    }
+
+    /**
+     * t时刻的位置
+     *
+     * @param seconds 开始后经过的时间
+     * @return
+     */
+    public float getPosition(float seconds) {
+        if (mSpring) {
+            if (isAtRest(seconds)) {
+                return mFinal;
+            }
+            final float c1 = mStart - mFinal;
+            final float c2 = mVelocity + mCoefficient * c1;
+            return mFinal + (c1 + c2 * seconds) * (float) Math.exp(-mCoefficient * seconds);
+        }
+        if (seconds >= mDuration) {
+            return mFinal;
+        }
+        final float k = mCoefficient;
+        final float position = mStart + mVelocity / k * (1 - (float) Math.exp(-k * seconds));
+        return Math.max(mMin, Math.min(position, mMax));
+    }
+
+    /**
+     * t时刻的速度
+     *
+     * @param seconds 开始后经过的时间
+     * @return 像素/秒
+     */
+    public float getVelocity(float seconds) {
+        if (mSpring) {
+            final float c1 = mStart - mFinal;
+            final float c2 = mVelocity + mCoefficient * c1;
+            return (c2 - mCoefficient * (c1 + c2 * seconds)) * (float) Math.exp(-mCoefficient * seconds);
+        }
+        if (seconds >= mDuration) {
+            return 0;
+        }
+        return mVelocity * (float) Math.exp(-mCoefficient * seconds);
+    }
+
+    /**
+     * t时刻是否已经停止
+     *
+     * @param seconds 开始后经过的时间
+     * @return
+     */
+    public boolean isAtRest(float seconds) {
+        if (!mSpring) {
+            return seconds >= mDuration;
+        }
+        final float c1 = mStart - mFinal;
+        final float c2 = mVelocity + mCoefficient * c1;
+        final float decay = (float) Math.exp(-mCoefficient * seconds);
+        final float offset = (c1 + c2 * seconds) * decay;
+        final float velocity = (c2 - mCoefficient * (c1 + c2 * seconds)) * decay;
+        return Math.abs(offset) < REST_DISTANCE && Math.abs(velocity) < REST_VELOCITY;
+    }
+
+    /**
+     * 停止时的位置
+     *
+     * @return
+     */
+    public float getFinalPosition() {
+        return mFinal;
+    }
+}
@@ -0,0 +1,126 @@
+package com.ch.xseekbar.core;
+
+/**
+ * 指示器文字内容的字段和修改记录
+ * setter只在值变化时记录修改的字段，绘制时通过{@link #takeDirty()}取出，只更新变化的Paint属性
+ * <p>
+ * 非线程安全
+ */
+public final class IndicatorContentState {
+    public static final int DIRTY_TEXT = 1;
+    public static final int DIRTY_TEXT_COLOR = 1 << 1;
+    public static final int DIRTY_TEXT_SIZE = 1 << 2;
+    public static final int DIRTY_BOLD = 1 << 3;
+    public static final int DIRTY_OFFSET = 1 << 4;
+    public static final int DIRTY_ALL = DIRTY_TEXT | DIRTY_TEXT_COLOR | DIRTY_TEXT_SIZE | DIRTY_BOLD | DIRTY_OFFSET;
+
+    private String mText;
+    private int mTextColor;
+    private int mTextSize;
+    private boolean mBold;
+    /**
+     * 文字左上角相对于指示器(0,0)点偏移
+     */
+    private int mOffsetX;
+    private int mOffsetY;
+    /**
+     * 上次取出后修改过的字段，新建时全部字段都需要应用
+     */
+    private int mDirty = DIRTY_ALL;
+
+    public IndicatorContentState(String text, int textColor, int textSize, boolean bold, int offsetX, int offsetY) {
+        mText = text;
+        mTextColor = textColor;
+        mTextSize = textSize;
+        mBold = bold;
+        mOffsetX = offsetX;
+        mOffsetY = offsetY;
+    }
+
+    /**
+     * 复制other的全部字段，只记录变化的字段
+     *
+     * @param other
+     */
+    public void set(IndicatorContentState other) {
+        setText(other.mText);
+        setTextColor(other.mTextColor);
+        setTextSize(other.mTextSize);
+        setBold(other.mBold);
+        setOffset(other.mOffsetX, other.mOffsetY);
+    }
+
+    /**
+     * 取出并清除修改过的字段
+     *
+     * @return DIRTY_*的组合
+     */
+    public int takeDirty() {
+        final int result = mDirty;
+        mDirty = 0;
+        return result;
+    }
+
+    /**
+     * @return 可能为null
+     */
+    public String getText() {
+        return mText;
+    }
+
+    public void setText(String text) {
+        if (mText == null ? text != null : !mText.equals(text)) {
+            mText = text;
+            mDirty |= DIRTY_TEXT;
+        }
+    }
+
+    public int getTextColor() {
+        return mTextColor;
+    }
+
+    public void setTextColor(int textColor) {
+        if (mTextColor != textColor) {
+            mTextColor = textColor;
+            mDirty |= DIRTY_TEXT_COLOR;
+        }
+    }
+
+    public int getTextSize() {
+        return mTextSize;
+    }
+
+    public void setTextSize(int textSize) {
+        if (mTextSize != textSize) {
+            mTextSize = textSize;
+            mDirty |= DIRTY_TEXT_SIZE;
+        }
+    }
+
+    public boolean isBold() {
+        return mBold;
+    }
+
+    public void setBold(boolean bold) {
+        if (mBold != bold) {
+            mBold = bold;
+            mDirty |= DIRTY_BOLD;
+        }
+    }
+
+    public int getOffsetX() {
+        return mOffsetX;
+    }
+
+    public int getOffsetY() {
+        return mOffsetY;
+    }
+
+    public void setOffset(int offsetX, int offsetY) {
+        if (mOffsetX != offsetX || mOffsetY != offsetY) {
+            mOffsetX = offsetX;
+            mOffsetY = offsetY;
+            mDirty |= DIRTY_OFFSET;
+        }
+    }
+}
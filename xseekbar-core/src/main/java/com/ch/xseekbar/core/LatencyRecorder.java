@@ -0,0 +1,80 @@
+package com.ch.xseekbar.core;
+
+import java.util.Arrays;
+
+/**
+ * 延迟采样，计算百分位
+ * 预分配固定容量的数组，超出容量后覆盖最早的样本；计算百分位时复制到预分配的数组排序，不创建对象
+ * <p>
+ * 非线程安全
+ */
+public final class LatencyRecorder {
+    private final long[] mSamples;
+    private final long[] mSorted;
+    private int mNext;
+    private int mCount;
+    private boolean mSortedValid;
+
+    /**
+     * @param capacity 保留的最大样本数
+     */
+    public LatencyRecorder(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be > 0");
+        }
+        mSamples = new long[capacity];
+        mSorted = new long[capacity];
+    }
+
+    /**
+     * 记录一个样本
+     *
+     * @param latency
+     */
+    public void record(long latency) {
+        mSamples[mNext] = latency;
+        mNext = (mNext + 1) % mSamples.length;
+        if (mCount < mSamples.length) {
+            mCount++;
+        }
+        mSortedValid = false;
+    }
+
+    /**
+     * 当前保留的样本数
+     *
+     * @return
+     */
+    public int count() {
+        return mCount;
+    }
+
+    /**
+     * 计算百分位，使用最近秩(nearest-rank)方法
+     *
+     * @param percentile (0...100]
+     * @return 没有样本时返回0
+     */
+    public long percentile(double percentile) {
+        if (mCount == 0) {
+            return 0;
+        }
+        if (!mSortedValid) {
+            System.arraycopy(mSamples, 0, mSorted, 0, mCount);
+            Arrays.sort(mSorted, 0, mCount);
+            mSortedValid = true;
+        }
+        final double p = Math.min(100, Math.max(0, percentile));
+        final int rank = (int) Math.ceil(p / 100.0 * mCount);
+        return mSorted[Math.max(0, rank - 1)];
+    }
+
+    /**
+     * 清空样本
+     */
+    public void reset() {
+        mNext = 0;
+        mCount = 0;
+        mSortedValid = false;
+    }
+}
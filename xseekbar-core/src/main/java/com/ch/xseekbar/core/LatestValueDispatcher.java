@@ -0,0 +1,158 @@
+package com.ch.xseekbar.core;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 在{@link Executor}上回调最新值
+ * 回调执行期间提交的多个值合并为最新的一个，同一时刻Executor中最多只有一个任务，回调不会并发执行
+ * 提交只有一次原子写入和一次CAS，不创建对象，可在任意线程调用
+ * {@link #execute(Runnable)}提交的任务与值按提交顺序执行，用于开始、结束触摸这类低频事件
+ */
+public final class LatestValueDispatcher {
+    /**
+     * 表示没有待回调的值，不能提交
+     */
+    public static final long NONE = Long.MIN_VALUE;
+
+    private final Executor mExecutor;
+    private final ProgressRingBuffer.Consumer mConsumer;
+    private final AtomicLong mPending = new AtomicLong(NONE);
+    /**
+     * 是否已向Executor提交任务或任务正在执行
+     */
+    private final AtomicBoolean mScheduled = new AtomicBoolean();
+    /**
+     * 按顺序执行的任务，与取出待回调的值一起由mLock保护
+     */
+    private final ArrayDeque<Task> mTasks = new ArrayDeque<>();
+    private final Object mLock = new Object();
+    private final Runnable mDrainRunnable = new Runnable() {
+        @Override
+        public void run() {
+            drain();
+        }
+    };
+
+    /**
+     * @param executor 执行回调的Executor
+     * @param consumer 回调，在executor的线程中执行
+     */
+    public LatestValueDispatcher(Executor executor, ProgressRingBuffer.Consumer consumer) {
+        if (executor == null || consumer == null) {
+            throw new IllegalArgumentException("executor == null or consumer == null");
+        }
+        mExecutor = executor;
+        mConsumer = consumer;
+    }
+
+    public Executor getExecutor() {
+        return mExecutor;
+    }
+
+    /**
+     * 提交一个值，覆盖尚未回调的值
+     *
+     * @param value 不能为{@link #NONE}
+     */
+    public void offer(long value) {
+        if (value == NONE) {
+            throw new IllegalArgumentException("value == NONE");
+        }
+        mPending.set(value);
+        schedule();
+    }
+
+    /**
+     * 在之前提交的值回调之后执行task，之后提交的值在task之后回调
+     * 每次调用创建一个节点
+     *
+     * @param task 在executor的线程中执行
+     */
+    public void execute(Runnable task) {
+        if (task == null) {
+            throw new IllegalArgumentException("task == null");
+        }
+        synchronized (mLock) {
+            // 尚未回调的值属于task之前，随task一起回调
+            mTasks.add(new Task(mPending.getAndSet(NONE), task));
+        }
+        schedule();
+    }
+
+    private void schedule() {
+        if (mScheduled.compareAndSet(false, true)) {
+            try {
+                mExecutor.execute(mDrainRunnable);
+            } catch (RuntimeException e) {
+                // Executor拒绝执行，下次提交时重试
+                mScheduled.set(false);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * 是否有尚未回调的值
+     *
+     * @return
+     */
+    public boolean hasPending() {
+        if (mPending.get() != NONE) {
+            return true;
+        }
+        synchronized (mLock) {
+            return !mTasks.isEmpty();
+        }
+    }
+
+    private void drain() {
+        boolean completed = false;
+        try {
+            while (true) {
+                final Task task;
+                final long value;
+                synchronized (mLock) {
+                    // 先执行已提交的任务，待回调的值在任务之后提交
+                    task = mTasks.poll();
+                    value = task != null ? task.value : mPending.getAndSet(NONE);
+                }
+                if (value != NONE) {
+                    mConsumer.accept(value);
+                }
+                if (task != null) {
+                    task.runnable.run();
+                }
+                if (task != null || value != NONE) {
+                    continue;
+                }
+                mScheduled.set(false);
+                // 清除标记后再检查一次，offer在getAndSet与清除标记之间写入的值由本任务继续处理
+                if (!hasPending() || !mScheduled.compareAndSet(false, true)) {
+                    break;
+                }
+            }
+            completed = true;
+        } finally {
+            if (!completed) {
+                // 回调抛出异常，允许下次提交重新调度
+                mScheduled.set(false);
+            }
+        }
+    }
+
+    /**
+     * 任务和提交任务时尚未回调的值
+     */
+    private static final class Task {
+        final long value;
+        final Runnable runnable;
+
+        Task(long value, Runnable runnable) {
+            this.value = value;
+            this.runnable = runnable;
+        }
+    }
+}
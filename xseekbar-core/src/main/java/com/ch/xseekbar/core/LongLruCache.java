@@ -0,0 +1,212 @@
+package com.ch.xseekbar.core;
+
+import java.util.Arrays;
+
+/**
+ * 以long为键的有界LRU缓存
+ * 条目保存在预分配的数组中，使用开放寻址的哈希索引和数组实现的双向链表记录访问顺序；
+ * 键不装箱，查找、插入、淘汰均为O(1)，不创建对象
+ * <p>
+ * 非线程安全
+ *
+ * @param <V> 缓存的值
+ */
+public final class LongLruCache<V> {
+    private static final int NIL = -1;
+
+    private final long[] mKeys;
+    private final Object[] mValues;
+    /**
+     * 访问顺序链表，mHead为最近访问的条目，mTail为最久未访问的条目
+     */
+    private final int[] mPrev;
+    private final int[] mNext;
+    private int mHead = NIL;
+    private int mTail = NIL;
+    private int mSize;
+    /**
+     * 哈希索引，保存条目下标+1，0表示空位；容量为条目容量的2倍以上的2的幂，线性探测
+     */
+    private final int[] mTable;
+    private final int mMask;
+
+    /**
+     * @param capacity 最大条目数
+     */
+    public LongLruCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be > 0");
+        }
+        mKeys = new long[capacity];
+        mValues = new Object[capacity];
+        mPrev = new int[capacity];
+        mNext = new int[capacity];
+        int tableSize = 2;
+        while (tableSize < capacity * 2) {
+            tableSize <<= 1;
+        }
+        mTable = new int[tableSize];
+        mMask = tableSize - 1;
+    }
+
+    public int capacity() {
+        return mKeys.length;
+    }
+
+    public int size() {
+        return mSize;
+    }
+
+    /**
+     * 获取缓存的值，并标记为最近访问
+     *
+     * @param key
+     * @return 不存在时返回null
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        final int entry = find(key);
+        if (entry == NIL) {
+            return null;
+        }
+        moveToHead(entry);
+        return (V) mValues[entry];
+    }
+
+    /**
+     * 是否包含key，不改变访问顺序
+     *
+     * @param key
+     * @return
+     */
+    public boolean contains(long key) {
+        return find(key) != NIL;
+    }
+
+    /**
+     * 添加或替换缓存的值，已满时淘汰最久未访问的条目
+     *
+     * @param key
+     * @param value 不能为null
+     */
+    public void put(long key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("value == null");
+        }
+        int entry = find(key);
+        if (entry != NIL) {
+            mValues[entry] = value;
+            moveToHead(entry);
+            return;
+        }
+        if (mSize < mKeys.length) {
+            entry = mSize++;
+        } else {
+            // 复用最久未访问的条目
+            entry = mTail;
+            removeFromTable(mKeys[entry]);
+            unlink(entry);
+        }
+        mKeys[entry] = key;
+        mValues[entry] = value;
+        insertIntoTable(key, entry);
+        linkAtHead(entry);
+    }
+
+    /**
+     * 清空缓存，释放对值的引用
+     */
+    public void clear() {
+        Arrays.fill(mValues, null);
+        Arrays.fill(mTable, 0);
+        mHead = NIL;
+        mTail = NIL;
+        mSize = 0;
+    }
+
+    private int find(long key) {
+        int slot = hash(key);
+        while (true) {
+            final int entry = mTable[slot] - 1;
+            if (entry == NIL) {
+                return NIL;
+            }
+            if (mKeys[entry] == key) {
+                return entry;
+            }
+            slot = (slot + 1) & mMask;
+        }
+    }
+
+    private void insertIntoTable(long key, int entry) {
+        int slot = hash(key);
+        while (mTable[slot] != 0) {
+            slot = (slot + 1) & mMask;
+        }
+        mTable[slot] = entry + 1;
+    }
+
+    /**
+     * 从哈希索引中删除key，并将后续探测链上的条目前移，保证查找不会提前遇到空位
+     *
+     * @param key
+     */
+    private void removeFromTable(long key) {
+        int slot = hash(key);
+        while (mKeys[mTable[slot] - 1] != key) {
+            slot = (slot + 1) & mMask;
+        }
+        int hole = slot;
+        int next = (hole + 1) & mMask;
+        while (mTable[next] != 0) {
+            final int home = hash(mKeys[mTable[next] - 1]);
+            // home不在(hole, next]之间时，该条目可以移到空位
+            if (((next - home) & mMask) >= ((next - hole) & mMask)) {
+                mTable[hole] = mTable[next];
+                hole = next;
+            }
+            next = (next + 1) & mMask;
+        }
+        mTable[hole] = 0;
+    }
+
+    private int hash(long key) {
+        // 混合高低位，连续的进度值也能均匀分布
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mMask;
+    }
+
+    private void moveToHead(int entry) {
+        if (entry != mHead) {
+            unlink(entry);
+            linkAtHead(entry);
+        }
+    }
+
+    private void linkAtHead(int entry) {
+        mPrev[entry] = NIL;
+        mNext[entry] = mHead;
+        if (mHead != NIL) {
+            mPrev[mHead] = entry;
+        }
+        mHead = entry;
+        if (mTail == NIL) {
+            mTail = entry;
+        }
+    }
+
+    private void unlink(int entry) {
+        final int prev = mPrev[entry];
+        final int next = mNext[entry];
+        if (prev != NIL) {
+            mNext[prev] = next;
+        } else {
+            mHead = next;
+        }
+        if (next != NIL) {
+            mPrev[next] = prev;
+        } else {
+            mTail = prev;
+        }
+    }
+}
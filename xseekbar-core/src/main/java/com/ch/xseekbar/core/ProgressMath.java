@@ -0,0 +1,193 @@
+package com.ch.xseekbar.core;
+
+/**
+ * 进度模型的计算
+ * 进度值、比例、像素位置之间的相互转换，只使用基本类型，不创建对象，可在任意线程调用
+ */
+public final class ProgressMath {
+
+    private ProgressMath() {
+    }
+
+    /**
+     * 将进度限制在[min, max]之间
+     *
+     * @param progress
+     * @param min
+     * @param max
+     * @return
+     */
+    public static long clamp(long progress, long min, long max) {
+        if (progress > max) {
+            progress = max;
+        }
+        if (progress < min) {
+            progress = min;
+        }
+        return progress;
+    }
+
+    /**
+     * 将进度值转为[0...1]的比例
+     *
+     * @param progress
+     * @param min
+     * @param max
+     * @return max小于等于min时返回0
+     */
+    public static double toFraction(long progress, long min, long max) {
+        if (max <= min) {
+            return 0;
+        }
+        if (progress <= min) {
+            return 0;
+        }
+        if (progress >= max) {
+            return 1;
+        }
+        return ((double) progress - min) / ((double) max - min);
+    }
+
+    /**
+     * 将[0...1]的比例转为进度值，四舍五入到最近的进度
+     *
+     * @param fraction
+     * @param min
+     * @param max
+     * @return [min, max]
+     */
+    public static long fromFraction(double fraction, long min, long max) {
+        if (max <= min || !(fraction > 0)) {
+            // NaN也按0处理
+            return min;
+        }
+        if (fraction >= 1) {
+            return max;
+        }
+        final long progress = min + Math.round(fraction * ((double) max - min));
+        return clamp(progress, min, max);
+    }
+
+    /**
+     * 将进度方向上的像素位置转为[0...1]的比例
+     *
+     * @param pos       相对于进度起点的像素位置
+     * @param available 进度的像素长度
+     * @return
+     */
+    public static double positionToFraction(double pos, int available) {
+        if (available <= 0 || pos <= 0) {
+            return 0;
+        }
+        if (pos >= available) {
+            return 1;
+        }
+        return pos / available;
+    }
+
+    /**
+     * 将进度方向上的像素位置转为进度值
+     *
+     * @param pos       相对于进度起点的像素位置
+     * @param available 进度的像素长度
+     * @param min
+     * @param max
+     * @return [min, max]
+     */
+    public static long positionToProgress(double pos, int available, long min, long max) {
+        return fromFraction(positionToFraction(pos, available), min, max);
+    }
+
+    /**
+     * 将[0...1]的比例转为相对于进度起点的像素位置
+     *
+     * @param fraction
+     * @param available 进度的像素长度
+     * @return
+     */
+    public static int fractionToPixel(double fraction, int available) {
+        return (int) Math.round(fraction * available);
+    }
+
+    /**
+     * 计算裁剪Drawable的level，使裁剪边缘与{@link #fractionToPixel(double, int)}得到的像素位置完全一致
+     * ClipDrawable绘制的长度为 length - length * (maxLevel - level) / maxLevel，即ceil(length * level / maxLevel)，
+     * 因此对level向下取整：level = floor(pixel * maxLevel / length)，length不超过maxLevel时ceil后正好等于目标像素
+     *
+     * @param fraction [0...1]的比例
+     * @param length   Drawable在进度方向上的像素长度
+     * @param maxLevel 最大level
+     * @return [0...maxLevel]
+     */
+    public static int toLevel(double fraction, int length, int maxLevel) {
+        if (length <= 0) {
+            return (int) (fraction * maxLevel);
+        }
+        final long pixel = Math.round(fraction * length);
+        // floor(pixel * maxLevel / length)
+        final long level = pixel * maxLevel / length;
+        return (int) Math.min(maxLevel, Math.max(0, level));
+    }
+
+    /**
+     * 将进度对齐到从min开始、间隔为step的刻度上，取最近的刻度，距离相同时取较大的
+     * max不在刻度上时也作为一个可选值，保证可以拖动到终点
+     *
+     * @param progress
+     * @param min
+     * @param max
+     * @param step     步长，小于等于0时不对齐
+     * @return [min, max]
+     */
+    public static long snapToStep(long progress, long min, long max, long step) {
+        progress = clamp(progress, min, max);
+        if (step <= 0 || max <= min) {
+            return progress;
+        }
+        final long offset = progress - min;
+        if (offset < 0) {
+            // 范围超过long时按double近似计算
+            final double steps = Math.rint(((double) progress - min) / step);
+            return clamp((long) (min + steps * step), min, max);
+        }
+        final long lower = progress - offset % step;
+        final long upper = saturatedAdd(lower, step);
+        if (upper > max) {
+            // 最后一个刻度与max之间
+            return progress - lower < max - progress ? lower : max;
+        }
+        return progress - lower < upper - progress ? lower : upper;
+    }
+
+    /**
+     * long进度转为int，超出范围取边界值
+     *
+     * @param progress
+     * @return
+     */
+    public static int toIntProgress(long progress) {
+        if (progress > Integer.MAX_VALUE) {
+            return Integer.MAX_VALUE;
+        }
+        if (progress < Integer.MIN_VALUE) {
+            return Integer.MIN_VALUE;
+        }
+        return (int) progress;
+    }
+
+    /**
+     * 不会溢出的加法，溢出时取long的边界值
+     *
+     * @param a
+     * @param b
+     * @return
+     */
+    public static long saturatedAdd(long a, long b) {
+        final long sum = a + b;
+        // 同号相加结果变号即溢出
+        if (((a ^ sum) & (b ^ sum)) < 0) {
+            return a < 0 ? Long.MIN_VALUE : Long.MAX_VALUE;
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,298 @@
+package com.ch.xseekbar.core;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 跨线程发布进度
+ * 任意线程以CAS写入最新进度，多个写线程之间不需要加锁；子线程写入后只记录刷新标记(或写入无损队列)，
+ * 由消费线程(UI线程)每帧调用一次{@link #consume()}和{@link #drain(ProgressRingBuffer.Consumer)}读取，
+ * {@link #tryMarkPosted()}保证每帧最多提交一次消费任务
+ * 发布和消费都不加锁、不创建对象
+ * <p>
+ * 提交消费任务(例如View#postOnAnimation)由调用方完成，这里只负责状态
+ */
+public final class ProgressPublisher {
+    /**
+     * 只保留最新值，一帧内的多次发布合并为一次消费
+     */
+    public static final int MODE_LATEST_ONLY = 1;
+    /**
+     * 使用有界队列保存每一次发布
+     */
+    public static final int MODE_LOSSLESS = 2;
+
+    /**
+     * 队列满时溢出的进度合并为最新值
+     */
+    public static final int OVERFLOW_CONFLATE = 1;
+    /**
+     * 队列满时丢弃溢出的进度，只刷新显示
+     */
+    public static final int OVERFLOW_DROP = 2;
+
+    /**
+     * {@link #consume()}返回的刷新标记
+     * FLAG_PENDING: 存在待消费的最新进度
+     */
+    public static final int FLAG_PENDING = 1;
+    public static final int FLAG_FROM_USER = 1 << 1;
+    public static final int FLAG_ANIMATE = 1 << 2;
+    /**
+     * 队列溢出且策略为{@link #OVERFLOW_DROP}
+     */
+    public static final int FLAG_DROPPED = 1 << 3;
+
+    /**
+     * {@link #publish(long, boolean, boolean)}的结果：写入了无损队列
+     */
+    public static final int PUBLISHED_QUEUED = 1;
+    /**
+     * 记录为最新值，与同一帧内的其他发布合并
+     */
+    public static final int PUBLISHED_LATEST = 2;
+    /**
+     * 队列已满被丢弃
+     */
+    public static final int PUBLISHED_DROPPED = 3;
+
+    /**
+     * {@link #addAndClamp(long, long, long)}进度未变化时的返回值，不在可打包的进度范围内
+     */
+    public static final long UNCHANGED = Long.MIN_VALUE;
+
+    private final AtomicLong mProgress = new AtomicLong();
+    /**
+     * 子线程写入的待刷新标记，只保留最后一次写入
+     */
+    private final AtomicInteger mPendingFlags = new AtomicInteger();
+    /**
+     * 消费任务是否已提交，保证每帧最多提交一次
+     */
+    private final AtomicBoolean mPosted = new AtomicBoolean();
+    private volatile int mMode = MODE_LATEST_ONLY;
+    private volatile int mOverflowPolicy = OVERFLOW_CONFLATE;
+    private volatile LosslessQueue mQueue;
+
+    /**
+     * 当前进度
+     *
+     * @return
+     */
+    public long get() {
+        return mProgress.get();
+    }
+
+    /**
+     * 写入进度，任意线程可调用
+     *
+     * @param progress 已限制在范围内的进度
+     * @return 与当前进度相同时返回false
+     */
+    public boolean set(long progress) {
+        long current;
+        do {
+            current = mProgress.get();
+            if (progress == current) {
+                return false;
+            }
+        } while (!mProgress.compareAndSet(current, progress));
+        return true;
+    }
+
+    /**
+     * 在当前进度上增加delta并限制在[min, max]内，多个线程同时调用时增量不会丢失
+     *
+     * @param delta
+     * @param min
+     * @param max
+     * @return 新的进度，未变化时返回{@link #UNCHANGED}
+     */
+    public long addAndClamp(long delta, long min, long max) {
+        long current;
+        long progress;
+        do {
+            current = mProgress.get();
+            progress = ProgressMath.clamp(ProgressMath.saturatedAdd(current, delta), min, max);
+            if (progress == current) {
+                return UNCHANGED;
+            }
+        } while (!mProgress.compareAndSet(current, progress));
+        return progress;
+    }
+
+    /**
+     * 范围变化后将当前进度限制在[min, max]内，不会覆盖其他线程同时写入的范围内的进度
+     *
+     * @param min
+     * @param max
+     */
+    public void clampTo(long min, long max) {
+        long progress;
+        do {
+            progress = mProgress.get();
+        } while (progress < min && !mProgress.compareAndSet(progress, min));
+        do {
+            progress = mProgress.get();
+        } while (progress > max && !mProgress.compareAndSet(progress, max));
+    }
+
+    /**
+     * 子线程发布已写入的进度，之后需调用{@link #tryMarkPosted()}提交消费任务
+     *
+     * @param progress
+     * @param fromUser
+     * @param animate
+     * @return {@link #PUBLISHED_QUEUED}、{@link #PUBLISHED_LATEST}或{@link #PUBLISHED_DROPPED}
+     */
+    public int publish(long progress, boolean fromUser, boolean animate) {
+        final LosslessQueue queue = mMode == MODE_LOSSLESS ? acquire() : null;
+        if (queue != null) {
+            final boolean queued;
+            try {
+                queued = queue.buffer.offer(ProgressRingBuffer.pack(progress, fromUser, animate));
+            } finally {
+                queue.writers.decrementAndGet();
+            }
+            if (queued) {
+                return PUBLISHED_QUEUED;
+            }
+            // 队列已满，按溢出策略处理
+            if (mOverflowPolicy == OVERFLOW_DROP) {
+                mPendingFlags.set(FLAG_PENDING | FLAG_DROPPED);
+                return PUBLISHED_DROPPED;
+            }
+        }
+
+        int flags = FLAG_PENDING;
+        if (fromUser) {
+            flags |= FLAG_FROM_USER;
+        }
+        if (animate) {
+            flags |= FLAG_ANIMATE;
+        }
+        mPendingFlags.set(flags);
+        return PUBLISHED_LATEST;
+    }
+
+    /**
+     * 登记为当前队列的写入者，之后需减少{@link LosslessQueue#writers}
+     * 先登记再确认队列仍是当前队列，{@link #setMode(int, int, int, ProgressRingBuffer.Consumer)}换出的旧队列
+     * 在登记归零后不会再被写入
+     *
+     * @return 没有队列时返回null
+     */
+    private LosslessQueue acquire() {
+        LosslessQueue queue;
+        while ((queue = mQueue) != null) {
+            queue.writers.incrementAndGet();
+            if (mQueue == queue) {
+                return queue;
+            }
+            queue.writers.decrementAndGet();
+        }
+        return null;
+    }
+
+    /**
+     * 抢占消费任务的提交权
+     *
+     * @return true表示调用方需要提交消费任务，false表示已有未执行的任务
+     */
+    public boolean tryMarkPosted() {
+        return mPosted.compareAndSet(false, true);
+    }
+
+    /**
+     * 消费任务被取消(例如View从窗口移除)，之后的发布会重新提交
+     */
+    public void clearPosted() {
+        mPosted.set(false);
+    }
+
+    /**
+     * 是否有未消费的刷新标记
+     *
+     * @return
+     */
+    public boolean hasPending() {
+        return mPendingFlags.get() != 0;
+    }
+
+    /**
+     * 消费线程开始处理，清除提交标记并取出刷新标记
+     * 先清除提交标记，之后子线程的发布会重新提交，不会丢失
+     *
+     * @return FLAG_*的组合，0表示没有待消费的最新进度
+     */
+    public int consume() {
+        mPosted.set(false);
+        return mPendingFlags.getAndSet(0);
+    }
+
+    /**
+     * 读取无损队列中的进度，只能在消费线程调用
+     *
+     * @param consumer
+     * @return 单次读取数量达到上限，还有剩余数据需要下一帧继续处理
+     */
+    public boolean drain(ProgressRingBuffer.Consumer consumer) {
+        final LosslessQueue queue = mQueue;
+        return queue != null && queue.buffer.drain(consumer) == queue.buffer.capacity();
+    }
+
+    /**
+     * 设置发布模式，只能在消费线程调用
+     * 需要更大的队列时先换入新队列，等待正在写入旧队列的线程完成(只是一次入队，等待很短)，
+     * 再将旧队列中未消费的数据交给consumer处理，与换队列同时发布的进度不会丢失
+     *
+     * @param mode           {@link #MODE_LATEST_ONLY}或{@link #MODE_LOSSLESS}
+     * @param capacity       {@link #MODE_LOSSLESS}的队列容量，向上取整为2的幂
+     * @param overflowPolicy {@link #OVERFLOW_CONFLATE}或{@link #OVERFLOW_DROP}
+     * @param consumer       旧队列数据的消费者
+     */
+    public void setMode(int mode, int capacity, int overflowPolicy, ProgressRingBuffer.Consumer consumer) {
+        if (mode != MODE_LATEST_ONLY && mode != MODE_LOSSLESS) {
+            throw new IllegalArgumentException("unknown mode: " + mode);
+        }
+        if (overflowPolicy != OVERFLOW_CONFLATE && overflowPolicy != OVERFLOW_DROP) {
+            throw new IllegalArgumentException("unknown overflow policy: " + overflowPolicy);
+        }
+
+        mOverflowPolicy = overflowPolicy;
+        if (mode == MODE_LOSSLESS) {
+            final LosslessQueue queue = mQueue;
+            if (queue == null || queue.buffer.capacity() < capacity) {
+                mQueue = new LosslessQueue(capacity);
+                mMode = mode;
+                if (queue != null) {
+                    // 之后的写入都进入新队列，等待已登记的旧队列写入完成，旧队列中的数据在新队列之前消费，保持顺序
+                    while (queue.writers.get() != 0) {
+                        Thread.yield();
+                    }
+                    // 已没有写入，一次最多读取容量个元素即可读完
+                    queue.buffer.drain(consumer);
+                }
+                return;
+            }
+        }
+        mMode = mode;
+    }
+
+    public int getMode() {
+        return mMode;
+    }
+
+    /**
+     * 无损队列和正在写入它的线程数
+     */
+    private static final class LosslessQueue {
+        final ProgressRingBuffer buffer;
+        final AtomicInteger writers = new AtomicInteger();
+
+        LosslessQueue(int capacity) {
+            buffer = new ProgressRingBuffer(capacity);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.ch.xseekbar.core;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 子线程刷新进度使用的有界环形队列
+ * 多生产者(任意线程)单消费者(UI线程)，无锁，预分配long数组，入队出队均不创建对象
+ * 每个元素将进度值、fromUser、animate打包为一个long，低2位为标记位，高62位为进度值
+ * <p>
+ * 实现参考Dmitry Vyukov的有界MPMC队列：每个槽位带一个序号，
+ * 生产者CAS占用槽位后写入数据再发布序号，消费者根据序号判断槽位是否可读
+ */
+public final class ProgressRingBuffer {
+    private static final long FLAG_FROM_USER = 1L;
+    private static final long FLAG_ANIMATE = 1L << 1;
+    private static final int FLAG_BITS = 2;
+
+    /**
+     * 可打包的进度值范围
+     */
+    public static final long MAX_VALUE = Long.MAX_VALUE >> FLAG_BITS;
+    public static final long MIN_VALUE = Long.MIN_VALUE >> FLAG_BITS;
+
+    private final int mMask;
+    private final long[] mBuffer;
+    /**
+     * 槽位序号，等于写入位置+1表示可读，等于读取位置+容量表示可写
+     */
+    private final AtomicLongArray mSequence;
+    /**
+     * 生产者写入位置
+     */
+    private final AtomicLong mTail = new AtomicLong();
+    /**
+     * 消费者读取位置，只在消费线程读写
+     */
+    private long mHead;
+
+    /**
+     * @param capacity 队列容量，会向上取整为2的幂
+     */
+    public ProgressRingBuffer(int capacity) {
+        if (capacity < 2) {
+            capacity = 2;
+        }
+        final int size = Integer.highestOneBit(capacity - 1) << 1;
+        mMask = size - 1;
+        mBuffer = new long[size];
+        mSequence = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            mSequence.set(i, i);
+        }
+    }
+
+    /**
+     * 打包进度数据
+     *
+     * @param progress 取值范围[{@link #MIN_VALUE}, {@link #MAX_VALUE}]
+     * @param fromUser
+     * @param animate
+     * @return
+     */
+    public static long pack(long progress, boolean fromUser, boolean animate) {
+        long value = progress << FLAG_BITS;
+        if (fromUser) {
+            value |= FLAG_FROM_USER;
+        }
+        if (animate) {
+            value |= FLAG_ANIMATE;
+        }
+        return value;
+    }
+
+    public static long unpackProgress(long value) {
+        return value >> FLAG_BITS;
+    }
+
+    public static boolean unpackFromUser(long value) {
+        return (value & FLAG_FROM_USER) != 0;
+    }
+
+    public static boolean unpackAnimate(long value) {
+        return (value & FLAG_ANIMATE) != 0;
+    }
+
+    /**
+     * 队列容量
+     *
+     * @return
+     */
+    public int capacity() {
+        return mBuffer.length;
+    }
+
+    /**
+     * 入队，任意线程可调用
+     *
+     * @param value {@link #pack(long, boolean, boolean)}打包后的数据
+     * @return false:队列已满
+     */
+    public boolean offer(long value) {
+        long pos = mTail.get();
+        for (; ; ) {
+            final int index = (int) (pos & mMask);
+            final long diff = mSequence.get(index) - pos;
+            if (diff == 0) {
+                if (mTail.compareAndSet(pos, pos + 1)) {
+                    mBuffer[index] = value;
+                    // 发布槽位，消费者读取序号后可见mBuffer中的数据
+                    mSequence.lazySet(index, pos + 1);
+                    return true;
+                }
+                pos = mTail.get();
+            } else if (diff < 0) {
+                return false;
+            } else {
+                pos = mTail.get();
+            }
+        }
+    }
+
+    /**
+     * 出队所有已发布的数据，只能在消费线程调用
+     * 单次最多读取{@link #capacity()}个元素，避免生产者持续写入时无法返回
+     *
+     * @param consumer 数据消费者
+     * @return 读取的数量
+     */
+    public int drain(Consumer consumer) {
+        final int capacity = mBuffer.length;
+        int count = 0;
+        while (count < capacity) {
+            final long head = mHead;
+            final int index = (int) (head & mMask);
+            if (mSequence.get(index) != head + 1) {
+                // 队列为空，或者该槽位已被占用但还未发布
+                break;
+            }
+            final long value = mBuffer[index];
+            mSequence.lazySet(index, head + capacity);
+            mHead = head + 1;
+            count++;
+            consumer.accept(value);
+        }
+        return count;
+    }
+
+    /**
+     * 队列数据消费者
+     */
+    public interface Consumer {
+        void accept(long value);
+    }
+}
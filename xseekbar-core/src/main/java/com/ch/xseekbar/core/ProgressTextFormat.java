@@ -0,0 +1,247 @@
+package com.ch.xseekbar.core;
+
+/**
+ * 将进度格式化为字符，写入调用方复用的char数组，不创建String，不创建对象
+ * 支持整数、百分比、固定小数位的小数、mm:ss和hh:mm:ss时长
+ * 输出只包含{@link #GLYPHS}中的字符，绘制时可预先测量每个字符的宽度，之后只累加宽度
+ * <p>
+ * 创建后不可修改，可在任意线程使用
+ */
+public final class ProgressTextFormat {
+    /**
+     * 输出可能包含的全部字符
+     */
+    public static final String GLYPHS = "0123456789-.:%";
+    /**
+     * 输出的最大长度，输出数组的长度不能小于该值
+     */
+    public static final int MAX_LENGTH = 24;
+
+    private static final int TYPE_INTEGER = 0;
+    private static final int TYPE_PERCENT = 1;
+    private static final int TYPE_DECIMAL = 2;
+    private static final int TYPE_DURATION = 3;
+
+    private static final int MAX_SCALE = 18;
+
+    private static final ProgressTextFormat INTEGER = new ProgressTextFormat(TYPE_INTEGER, 0, 1, false);
+    private static final ProgressTextFormat PERCENT = new ProgressTextFormat(TYPE_PERCENT, 0, 1, false);
+
+    private final int mType;
+    /**
+     * 小数位数
+     */
+    private final int mScale;
+    /**
+     * 10^mScale
+     */
+    private final long mDivisor;
+    /**
+     * 时长格式进度转为秒：大于0时乘以该值，小于0时除以该值的相反数
+     */
+    private final long mUnit;
+    private final boolean mHours;
+
+    private ProgressTextFormat(int type, int scale, long unit, boolean hours) {
+        mType = type;
+        mScale = scale;
+        long divisor = 1;
+        for (int i = 0; i < scale; i++) {
+            divisor *= 10;
+        }
+        mDivisor = divisor;
+        mUnit = unit;
+        mHours = hours;
+    }
+
+    /**
+     * 整数，例如-12
+     *
+     * @return
+     */
+    public static ProgressTextFormat integer() {
+        return INTEGER;
+    }
+
+    /**
+     * 进度在[min, max]中的百分比，四舍五入为整数，例如50%
+     *
+     * @return
+     */
+    public static ProgressTextFormat percent() {
+        return PERCENT;
+    }
+
+    /**
+     * 固定小数位的小数，进度除以10^scale，例如scale为2时1234显示为12.34
+     *
+     * @param scale 小数位数[1, 18]
+     * @return
+     */
+    public static ProgressTextFormat decimal(int scale) {
+        if (scale < 1 || scale > MAX_SCALE) {
+            throw new IllegalArgumentException("scale must be in [1, " + MAX_SCALE + "]");
+        }
+        return new ProgressTextFormat(TYPE_DECIMAL, scale, 1, false);
+    }
+
+    /**
+     * mm:ss时长，分钟不足两位时补0，超过59分钟时继续累加，例如75:03
+     *
+     * @param unitMillis 一个进度单位的毫秒数，例如进度为毫秒时为1，为秒时为1000；需整除1000或是1000的整数倍
+     * @return
+     */
+    public static ProgressTextFormat minutesSeconds(long unitMillis) {
+        return new ProgressTextFormat(TYPE_DURATION, 0, toUnit(unitMillis), false);
+    }
+
+    /**
+     * hh:mm:ss时长，小时不足两位时补0，例如01:02:03
+     *
+     * @param unitMillis 一个进度单位的毫秒数，需整除1000或是1000的整数倍
+     * @return
+     */
+    public static ProgressTextFormat hoursMinutesSeconds(long unitMillis) {
+        return new ProgressTextFormat(TYPE_DURATION, 0, toUnit(unitMillis), true);
+    }
+
+    private static long toUnit(long unitMillis) {
+        if (unitMillis <= 0) {
+            throw new IllegalArgumentException("unitMillis must be > 0");
+        }
+        if (unitMillis % 1000 == 0) {
+            return unitMillis / 1000;
+        }
+        if (1000 % unitMillis == 0) {
+            return -(1000 / unitMillis);
+        }
+        throw new IllegalArgumentException("unitMillis must divide 1000 or be a multiple of 1000");
+    }
+
+    /**
+     * 格式化进度
+     *
+     * @param progress
+     * @param min      百分比的下限
+     * @param max      百分比的上限
+     * @param out      长度不小于{@link #MAX_LENGTH}
+     * @return 写入的字符数
+     */
+    public int format(long progress, long min, long max, char[] out) {
+        switch (mType) {
+            case TYPE_PERCENT: {
+                final long percent = Math.round(ProgressMath.toFraction(progress, min, max) * 100);
+                final int end = writeLong(percent, out, 0, 1);
+                out[end] = '%';
+                return end + 1;
+            }
+            case TYPE_DECIMAL:
+                return formatDecimal(progress, out);
+            case TYPE_DURATION:
+                return formatDuration(toSeconds(progress), out);
+            default:
+                return writeLong(progress, out, 0, 1);
+        }
+    }
+
+    /**
+     * 字符在{@link #GLYPHS}中的下标
+     *
+     * @param c
+     * @return 不在其中时返回-1
+     */
+    public static int glyphIndex(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        switch (c) {
+            case '-':
+                return 10;
+            case '.':
+                return 11;
+            case ':':
+                return 12;
+            case '%':
+                return 13;
+            default:
+                return -1;
+        }
+    }
+
+    private int formatDecimal(long progress, char[] out) {
+        int pos = 0;
+        // 整数部分为0时也需要保留符号，例如-0.05
+        if (progress < 0) {
+            out[pos++] = '-';
+        }
+        final long integer = progress / mDivisor;
+        final long fraction = progress % mDivisor;
+        pos = writeNegative(integer < 0 ? integer : -integer, out, pos, 1);
+        out[pos++] = '.';
+        return writeNegative(fraction < 0 ? fraction : -fraction, out, pos, mScale);
+    }
+
+    private long toSeconds(long progress) {
+        if (mUnit < 0) {
+            return progress / -mUnit;
+        }
+        if (progress > Long.MAX_VALUE / mUnit) {
+            return Long.MAX_VALUE;
+        }
+        if (progress < Long.MIN_VALUE / mUnit) {
+            return Long.MIN_VALUE;
+        }
+        return progress * mUnit;
+    }
+
+    private int formatDuration(long seconds, char[] out) {
+        int pos = 0;
+        if (seconds < 0) {
+            out[pos++] = '-';
+        }
+        final long negative = seconds < 0 ? seconds : -seconds;
+        final long minutes = negative / 60;
+        if (mHours) {
+            pos = writeNegative(minutes / 60, out, pos, 2);
+            out[pos++] = ':';
+            pos = writeNegative(minutes % 60, out, pos, 2);
+        } else {
+            pos = writeNegative(minutes, out, pos, 2);
+        }
+        out[pos++] = ':';
+        return writeNegative(negative % 60, out, pos, 2);
+    }
+
+    private static int writeLong(long value, char[] out, int pos, int minDigits) {
+        if (value < 0) {
+            out[pos++] = '-';
+            return writeNegative(value, out, pos, minDigits);
+        }
+        return writeNegative(-value, out, pos, minDigits);
+    }
+
+    /**
+     * 写入非正数的绝对值，不足minDigits位时在前面补0
+     * 使用负数计算，Long.MIN_VALUE也不会溢出
+     *
+     * @param negative  小于等于0
+     * @param out
+     * @param pos       写入的起始位置
+     * @param minDigits 最少位数
+     * @return 写入后的位置
+     */
+    private static int writeNegative(long negative, char[] out, int pos, int minDigits) {
+        int digits = 0;
+        for (long v = negative; v != 0; v /= 10) {
+            digits++;
+        }
+        digits = Math.max(digits, minDigits);
+        final int end = pos + digits;
+        long v = negative;
+        for (int i = end - 1; i >= pos; i--) {
+            out[i] = (char) ('0' - (v % 10));
+            v /= 10;
+        }
+        return end;
+    }
+}
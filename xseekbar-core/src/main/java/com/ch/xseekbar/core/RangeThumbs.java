@@ -0,0 +1,289 @@
+package com.ch.xseekbar.core;
+
+/**
+ * 多触点(区间)模式的触点数据
+ * 触点值按序号从小到大保存在long数组中，相邻触点不能交叉且间距不小于{@link #getMinSpacing()}，
+ * 因此触点在进度方向上的像素位置也是有序的，按下时可二分查找最近的触点
+ * 同时记录每个触点当前被哪个手指拖动，支持多指同时拖动不同触点
+ * <p>
+ * 只能在UI线程使用
+ */
+public final class RangeThumbs {
+    /**
+     * 触点未被拖动
+     */
+    public static final int NO_POINTER = -1;
+
+    private final long[] mValues;
+    private final int[] mPointerIds;
+    private long mMinSpacing;
+
+    /**
+     * 创建count个触点，初始值在[min, max]之间均匀分布
+     *
+     * @param count
+     * @param min
+     * @param max
+     */
+    public RangeThumbs(int count, long min, long max) {
+        mValues = new long[count];
+        mPointerIds = new int[count];
+        final double range = (double) max - min;
+        for (int i = 0; i < count; i++) {
+            mValues[i] = min + Math.round(range * i / (count - 1));
+            mPointerIds[i] = NO_POINTER;
+        }
+    }
+
+    public int count() {
+        return mValues.length;
+    }
+
+    public long getValue(int index) {
+        return mValues[index];
+    }
+
+    public long getMinSpacing() {
+        return mMinSpacing;
+    }
+
+    public void setMinSpacing(long minSpacing) {
+        mMinSpacing = Math.max(0, minSpacing);
+    }
+
+    /**
+     * 修改触点值，结果会限制在[min, max]以及相邻触点允许的范围内
+     *
+     * @param index 触点序号
+     * @param value 期望的值
+     * @param min   进度最小值
+     * @param max   进度最大值
+     * @return 值是否发生变化
+     */
+    public boolean setValue(int index, long value, long min, long max) {
+        long low = index > 0 ? mValues[index - 1] + mMinSpacing : min;
+        long high = index < mValues.length - 1 ? mValues[index + 1] - mMinSpacing : max;
+        low = Math.max(low, min);
+        high = Math.min(high, max);
+        if (low > high) {
+            // 没有满足间距的位置，保持不动
+            return false;
+        }
+
+        if (value < low) {
+            value = low;
+        } else if (value > high) {
+            value = high;
+        }
+
+        if (mValues[index] == value) {
+            return false;
+        }
+        mValues[index] = value;
+        return true;
+    }
+
+    /**
+     * 范围变化后重新约束所有触点
+     * 先从前向后保证不小于前一个触点加间距，再从后向前保证不大于后一个触点减间距，
+     * 靠近max的触点被推到max时前面的触点依次后退；范围不足以容纳全部间距时触点限制在[min, max]内
+     *
+     * @param min
+     * @param max
+     */
+    public void clampAll(long min, long max) {
+        final int count = mValues.length;
+        for (int i = 0; i < count; i++) {
+            final long low = i > 0 ? mValues[i - 1] + mMinSpacing : min;
+            mValues[i] = Math.min(max, Math.max(Math.max(low, min), mValues[i]));
+        }
+        for (int i = count - 2; i >= 0; i--) {
+            final long high = mValues[i + 1] - mMinSpacing;
+            mValues[i] = Math.max(min, Math.min(high, mValues[i]));
+        }
+    }
+
+    /**
+     * 查找距离pos最近的触点，O(log N)
+     *
+     * @param pos       触摸点相对于进度起点的像素位置
+     * @param min       进度最小值
+     * @param max       进度最大值
+     * @param available 进度的像素长度
+     * @return 触点序号
+     */
+    public int hitTest(float pos, long min, long max, int available) {
+        return hitTest(pos, min, max, available, null);
+    }
+
+    /**
+     * 查找距离pos最近的触点，O(log N)
+     *
+     * @param pos       触摸点相对于进度起点的像素位置
+     * @param min       进度最小值
+     * @param max       进度最大值
+     * @param available 进度的像素长度
+     * @param scale     非线性刻度的查找表，为null时线性
+     * @return 触点序号
+     */
+    public int hitTest(float pos, long min, long max, int available, ScaleTable scale) {
+        final int count = mValues.length;
+        // 第一个像素位置不小于pos的触点
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (pixelOf(mid, min, max, available, scale) < pos) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        if (low == 0) {
+            return 0;
+        }
+        if (low == count) {
+            return count - 1;
+        }
+
+        final float before = pos - pixelOf(low - 1, min, max, available, scale);
+        final float after = pixelOf(low, min, max, available, scale) - pos;
+        // 重叠的触点中，pos在其前方时选中第一个，在其后方时选中最后一个，保证选中的触点能向pos移动
+        return after < before ? low : low - 1;
+    }
+
+    /**
+     * 查找距离pos最近的未被拖动的触点，用于多指按下时跳过已绑定其他手指的触点
+     *
+     * @param pos       触摸点相对于进度起点的像素位置
+     * @param min       进度最小值
+     * @param max       进度最大值
+     * @param available 进度的像素长度
+     * @param scale     非线性刻度的查找表，为null时线性
+     * @return 触点序号，所有触点都在被拖动时返回-1
+     */
+    public int hitTestUnattached(float pos, long min, long max, int available, ScaleTable scale) {
+        final int nearest = hitTest(pos, min, max, available, scale);
+        if (mPointerIds[nearest] == NO_POINTER) {
+            return nearest;
+        }
+
+        int before = nearest - 1;
+        while (before >= 0 && mPointerIds[before] != NO_POINTER) {
+            before--;
+        }
+        int after = nearest + 1;
+        while (after < mValues.length && mPointerIds[after] != NO_POINTER) {
+            after++;
+        }
+        if (before < 0) {
+            return after < mValues.length ? after : -1;
+        }
+        if (after >= mValues.length) {
+            return before;
+        }
+        final float beforeDistance = pos - pixelOf(before, min, max, available, scale);
+        final float afterDistance = pixelOf(after, min, max, available, scale) - pos;
+        return afterDistance < beforeDistance ? after : before;
+    }
+
+    /**
+     * 触点相对于进度起点的像素位置
+     *
+     * @param index
+     * @param min
+     * @param max
+     * @param available
+     * @return
+     */
+    public int pixelOf(int index, long min, long max, int available) {
+        return pixelOf(index, min, max, available, null);
+    }
+
+    /**
+     * 触点相对于进度起点的像素位置
+     *
+     * @param index
+     * @param min
+     * @param max
+     * @param available
+     * @param scale     非线性刻度的查找表，为null时线性
+     * @return
+     */
+    public int pixelOf(int index, long min, long max, int available, ScaleTable scale) {
+        final double fraction = scale != null ? scale.valueToFraction(mValues[index]) : ProgressMath.toFraction(mValues[index], min, max);
+        return ProgressMath.fractionToPixel(fraction, available);
+    }
+
+    /**
+     * 触点对应的[0...1]比例
+     *
+     * @param index
+     * @param min
+     * @param max
+     * @return
+     */
+    public float fractionOf(int index, long min, long max) {
+        return (float) ProgressMath.toFraction(mValues[index], min, max);
+    }
+
+    /**
+     * 将触点绑定到手指
+     *
+     * @param index     触点序号
+     * @param pointerId MotionEvent#getPointerId(int)
+     */
+    public void attachPointer(int index, int pointerId) {
+        mPointerIds[index] = pointerId;
+    }
+
+    /**
+     * 获取拖动触点的手指
+     *
+     * @param index
+     * @return 未被拖动返回{@link #NO_POINTER}
+     */
+    public int getPointerId(int index) {
+        return mPointerIds[index];
+    }
+
+    /**
+     * 手指抬起，解除与触点的绑定
+     *
+     * @param pointerId
+     * @return 解除绑定的触点序号，没有返回-1
+     */
+    public int detachPointer(int pointerId) {
+        for (int i = 0; i < mPointerIds.length; i++) {
+            if (mPointerIds[i] == pointerId) {
+                mPointerIds[i] = NO_POINTER;
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 解除所有手指绑定
+     */
+    public void detachAllPointers() {
+        for (int i = 0; i < mPointerIds.length; i++) {
+            mPointerIds[i] = NO_POINTER;
+        }
+    }
+
+    /**
+     * 是否有触点正在被拖动
+     *
+     * @return
+     */
+    public boolean hasPointer() {
+        for (int i = 0; i < mPointerIds.length; i++) {
+            if (mPointerIds[i] != NO_POINTER) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
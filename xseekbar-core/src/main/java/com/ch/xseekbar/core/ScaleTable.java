@@ -0,0 +1,127 @@
+package com.ch.xseekbar.core;
+
+/**
+ * {@link ValueScale}按像素预先计算的查找表
+ * 第i个像素对应的进度值保存在long数组中，布局或范围变化时重新生成一次，
+ * 之后位置转进度直接取下标，进度转位置二分查找后插值，都不调用ValueScale，也不创建对象
+ * <p>
+ * 两个方向的一致性：任意像素p，valueToFraction(positionToValue(p))落在与p对应同一进度值的像素区间的中点，
+ * 再转回进度值仍然是positionToValue(p)
+ * <p>
+ * 创建后不可修改，可在任意线程使用
+ */
+public final class ScaleTable {
+    private final ValueScale mScale;
+    private final long mMin;
+    private final long mMax;
+    private final int mAvailable;
+    /**
+     * 第i个像素对应的进度值，长度为available + 1，单调不减
+     */
+    private final long[] mValues;
+
+    /**
+     * @param scale     映射
+     * @param min       进度最小值
+     * @param max       进度最大值
+     * @param available 进度的像素长度，大于0
+     */
+    public ScaleTable(ValueScale scale, long min, long max, int available) {
+        if (scale == null || available <= 0) {
+            throw new IllegalArgumentException("scale == null or available <= 0");
+        }
+        mScale = scale;
+        mMin = min;
+        mMax = max;
+        mAvailable = available;
+        mValues = new long[available + 1];
+        long previous = min;
+        for (int i = 0; i <= available; i++) {
+            final long value = ProgressMath.clamp(scale.toValue(i / (double) available, min, max), min, max);
+            // 保证单调，ValueScale计算误差导致的回退按前一个值处理
+            previous = Math.max(previous, value);
+            mValues[i] = previous;
+        }
+        // 两端固定为min和max
+        mValues[0] = min;
+        mValues[available] = max;
+    }
+
+    /**
+     * 是否由相同的参数生成，不同时需要重新生成
+     *
+     * @param scale
+     * @param min
+     * @param max
+     * @param available
+     * @return
+     */
+    public boolean matches(ValueScale scale, long min, long max, int available) {
+        return mScale == scale && mMin == min && mMax == max && mAvailable == available;
+    }
+
+    public int getAvailable() {
+        return mAvailable;
+    }
+
+    /**
+     * 像素位置转为进度值，四舍五入到最近的像素
+     *
+     * @param pos 相对于进度起点的像素位置
+     * @return [min, max]
+     */
+    public long positionToValue(double pos) {
+        if (!(pos > 0)) {
+            return mValues[0];
+        }
+        if (pos >= mAvailable) {
+            return mValues[mAvailable];
+        }
+        return mValues[(int) Math.round(pos)];
+    }
+
+    /**
+     * 进度值转为[0...1]的位置比例
+     * 多个像素对应同一进度值时取这些像素的中点，进度值落在两个像素之间时线性插值
+     *
+     * @param value
+     * @return
+     */
+    public double valueToFraction(long value) {
+        final long[] values = mValues;
+        final int last = mAvailable;
+        if (value <= values[0]) {
+            return 0;
+        }
+        if (value >= values[last]) {
+            return 1;
+        }
+        // 第一个不小于value的像素
+        final int first = lowerBound(value, 0, last);
+        if (values[first] != value) {
+            final long before = values[first - 1];
+            final double t = ((double) value - before) / ((double) values[first] - before);
+            return (first - 1 + t) / last;
+        }
+        // 最后一个等于value的像素
+        final int end = lowerBound(value + 1, first, last) - 1;
+        return (first + end) / 2.0 / last;
+    }
+
+    /**
+     * [from, to]中第一个不小于value的下标，都小于value时返回to + 1
+     */
+    private int lowerBound(long value, int from, int to) {
+        int low = from;
+        int high = to + 1;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (mValues[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
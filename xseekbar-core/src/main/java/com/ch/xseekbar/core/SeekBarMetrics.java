@@ -0,0 +1,233 @@
+package com.ch.xseekbar.core;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 单个进度条的性能统计
+ * 计数器均为无锁的原子变量，可在任意线程写入和读取；读取多个计数器时不保证是同一时刻的快照
+ * 绘制耗时按2的幂分桶统计，第i个桶记录[2^i, 2^(i+1))微秒的帧，最后一个桶记录更长的帧
+ */
+public final class SeekBarMetrics {
+    /**
+     * 绘制耗时直方图的桶数量，最后一个桶对应大于等于2^(DRAW_TIME_BUCKETS - 1)微秒
+     */
+    public static final int DRAW_TIME_BUCKETS = 20;
+
+    private final AtomicLong mUiThreadUpdates = new AtomicLong();
+    private final AtomicLong mBackgroundUpdates = new AtomicLong();
+    private final AtomicLong mCoalescedUpdates = new AtomicLong();
+    private final AtomicLong mDroppedUpdates = new AtomicLong();
+    private final AtomicLong mRefreshPosts = new AtomicLong();
+    private final AtomicLong mFramesDrawn = new AtomicLong();
+    private final AtomicLong mDrawNanos = new AtomicLong();
+    private final AtomicLongArray mDrawTimeHistogram = new AtomicLongArray(DRAW_TIME_BUCKETS);
+    private final AtomicLong mInvalidatedArea = new AtomicLong();
+    private final AtomicLong mListenerCalls = new AtomicLong();
+    private final AtomicLong mListenerNanos = new AtomicLong();
+
+    /**
+     * 收到一次进度修改
+     *
+     * @param uiThread 是否在UI线程
+     */
+    public void onProgressUpdate(boolean uiThread) {
+        if (uiThread) {
+            mUiThreadUpdates.incrementAndGet();
+        } else {
+            mBackgroundUpdates.incrementAndGet();
+        }
+    }
+
+    /**
+     * 子线程的进度修改被合并到已提交的刷新中，不单独回调
+     */
+    public void onUpdateCoalesced() {
+        mCoalescedUpdates.incrementAndGet();
+    }
+
+    /**
+     * 子线程的进度修改因队列已满被丢弃
+     */
+    public void onUpdateDropped() {
+        mDroppedUpdates.incrementAndGet();
+    }
+
+    /**
+     * 向UI线程提交了一次刷新
+     */
+    public void onRefreshPosted() {
+        mRefreshPosts.incrementAndGet();
+    }
+
+    /**
+     * 绘制了一帧
+     *
+     * @param nanos 绘制耗时
+     */
+    public void onFrameDrawn(long nanos) {
+        mFramesDrawn.incrementAndGet();
+        mDrawNanos.addAndGet(nanos);
+        mDrawTimeHistogram.incrementAndGet(bucketOf(nanos));
+    }
+
+    /**
+     * 请求重绘的面积
+     *
+     * @param area 像素面积
+     */
+    public void onInvalidate(long area) {
+        mInvalidatedArea.addAndGet(area);
+    }
+
+    /**
+     * 一次监听回调
+     *
+     * @param nanos 回调耗时
+     */
+    public void onListenerCall(long nanos) {
+        mListenerCalls.incrementAndGet();
+        mListenerNanos.addAndGet(nanos);
+    }
+
+    public long getUiThreadUpdates() {
+        return mUiThreadUpdates.get();
+    }
+
+    public long getBackgroundUpdates() {
+        return mBackgroundUpdates.get();
+    }
+
+    public long getCoalescedUpdates() {
+        return mCoalescedUpdates.get();
+    }
+
+    public long getDroppedUpdates() {
+        return mDroppedUpdates.get();
+    }
+
+    public long getRefreshPosts() {
+        return mRefreshPosts.get();
+    }
+
+    public long getFramesDrawn() {
+        return mFramesDrawn.get();
+    }
+
+    /**
+     * 绘制总耗时
+     *
+     * @return 纳秒
+     */
+    public long getDrawNanos() {
+        return mDrawNanos.get();
+    }
+
+    /**
+     * 绘制耗时直方图中第bucket个桶的帧数
+     *
+     * @param bucket [0, {@link #DRAW_TIME_BUCKETS})
+     * @return
+     */
+    public long getDrawTimeCount(int bucket) {
+        return mDrawTimeHistogram.get(bucket);
+    }
+
+    /**
+     * 根据直方图估算绘制耗时的百分位，返回所在桶的上界
+     *
+     * @param percentile (0...100]
+     * @return 微秒，没有绘制过时返回0
+     */
+    public long getDrawTimePercentileMicros(double percentile) {
+        long total = 0;
+        for (int i = 0; i < DRAW_TIME_BUCKETS; i++) {
+            total += mDrawTimeHistogram.get(i);
+        }
+        if (total == 0) {
+            return 0;
+        }
+        final long rank = (long) Math.ceil(total * Math.min(100, Math.max(0, percentile)) / 100.0);
+        long seen = 0;
+        for (int i = 0; i < DRAW_TIME_BUCKETS; i++) {
+            seen += mDrawTimeHistogram.get(i);
+            if (seen >= rank && seen > 0) {
+                return 1L << (i + 1);
+            }
+        }
+        return 1L << DRAW_TIME_BUCKETS;
+    }
+
+    /**
+     * 请求重绘的总面积
+     *
+     * @return px²
+     */
+    public long getInvalidatedArea() {
+        return mInvalidatedArea.get();
+    }
+
+    public long getListenerCalls() {
+        return mListenerCalls.get();
+    }
+
+    /**
+     * 监听回调总耗时
+     *
+     * @return 纳秒
+     */
+    public long getListenerNanos() {
+        return mListenerNanos.get();
+    }
+
+    /**
+     * 清空所有统计
+     */
+    public void reset() {
+        mUiThreadUpdates.set(0);
+        mBackgroundUpdates.set(0);
+        mCoalescedUpdates.set(0);
+        mDroppedUpdates.set(0);
+        mRefreshPosts.set(0);
+        mFramesDrawn.set(0);
+        mDrawNanos.set(0);
+        for (int i = 0; i < DRAW_TIME_BUCKETS; i++) {
+            mDrawTimeHistogram.set(i, 0);
+        }
+        mInvalidatedArea.set(0);
+        mListenerCalls.set(0);
+        mListenerNanos.set(0);
+    }
+
+    /**
+     * 耗时所在的桶
+     *
+     * @param nanos
+     * @return
+     */
+    static int bucketOf(long nanos) {
+        final long micros = nanos / 1000;
+        if (micros <= 1) {
+            return 0;
+        }
+        // floor(log2(micros))
+        final int bucket = 63 - Long.numberOfLeadingZeros(micros);
+        return Math.min(bucket, DRAW_TIME_BUCKETS - 1);
+    }
+
+    @Override
+    public String toString() {
+        return "SeekBarMetrics{uiUpdates=" + getUiThreadUpdates()
+                + ", backgroundUpdates=" + getBackgroundUpdates()
+                + ", coalesced=" + getCoalescedUpdates()
+                + ", dropped=" + getDroppedUpdates()
+                + ", refreshPosts=" + getRefreshPosts()
+                + ", frames=" + getFramesDrawn()
+                + ", drawP50Us=" + getDrawTimePercentileMicros(50)
+                + ", drawP99Us=" + getDrawTimePercentileMicros(99)
+                + ", invalidatedArea=" + getInvalidatedArea()
+                + ", listenerCalls=" + getListenerCalls()
+                + ", listenerNanos=" + getListenerNanos()
+                + '}';
+    }
+}
@@ -0,0 +1,70 @@
+package com.ch.xseekbar.core;
+
+/**
+ * XSeekBar的布局计算
+ * 只计算进度方向上的一维坐标，水平方向对应x、垂直方向对应y，由调用者组合为矩形
+ * 只使用基本类型，不创建对象
+ */
+public final class SeekGeometry {
+
+    private SeekGeometry() {
+    }
+
+    /**
+     * 进度方向上可用的像素长度
+     *
+     * @param size         View在进度方向上的尺寸
+     * @param paddingStart 进度起点一侧的padding
+     * @param paddingEnd   进度终点一侧的padding
+     * @return
+     */
+    public static int available(int size, int paddingStart, int paddingEnd) {
+        return size - paddingStart - paddingEnd;
+    }
+
+    /**
+     * 触点起始边(左侧或顶部)的位置，触点中心与进度位置对齐
+     *
+     * @param fraction    [0...1]的比例
+     * @param available   进度的像素长度
+     * @param thumbOffset 触点偏移
+     * @param thumbSize   触点在进度方向上的尺寸
+     * @return
+     */
+    public static int thumbStart(double fraction, int available, int thumbOffset, int thumbSize) {
+        return thumbOffset + ProgressMath.fractionToPixel(fraction, available) - thumbSize / 2;
+    }
+
+    /**
+     * 指示器起始边(左侧或顶部)的位置，与进度位置对齐
+     *
+     * @param fraction    [0...1]的比例
+     * @param available   进度的像素长度
+     * @param thumbOffset 触点偏移
+     * @return
+     */
+    public static int indicatorStart(double fraction, int available, int thumbOffset) {
+        return thumbOffset + ProgressMath.fractionToPixel(fraction, available);
+    }
+
+    /**
+     * 触摸点转为相对于进度起点的像素位置，超出进度范围时取边界
+     *
+     * @param touch        触摸点在View坐标系中的坐标
+     * @param size         View在进度方向上的尺寸
+     * @param paddingStart 进度起点一侧的padding
+     * @param paddingEnd   进度终点一侧的padding
+     * @return [0, available]
+     */
+    public static float touchToPosition(float touch, int size, int paddingStart, int paddingEnd) {
+        final int available = available(size, paddingStart, paddingEnd);
+        final float pos = touch - paddingStart;
+        if (pos < 0) {
+            return 0;
+        }
+        if (pos > available) {
+            return Math.max(0, available);
+        }
+        return pos;
+    }
+}
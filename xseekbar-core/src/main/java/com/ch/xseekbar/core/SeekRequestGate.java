@@ -0,0 +1,157 @@
+package com.ch.xseekbar.core;
+
+/**
+ * 基于确认的请求背压，同一时刻最多只有一个请求在执行
+ * 每个请求带有一个token，执行方完成后调用{@link #acknowledge(long)}确认；
+ * 请求执行期间提交的值只保留最新的一个，确认后再发出，中间值直接丢弃
+ * <p>
+ * 可在任意线程调用，{@link Target#onSeekRequest(long, long)}在调用{@link #offer(long)}、{@link #finish(long)}
+ * 或{@link #dispatchPending()}的线程中执行，并且不持有锁
+ */
+public final class SeekRequestGate {
+    /**
+     * 表示没有请求在执行
+     */
+    public static final long NO_TOKEN = 0;
+
+    private final Target mTarget;
+    private long mNextToken;
+    /**
+     * 正在执行的请求token，{@link #NO_TOKEN}表示没有
+     */
+    private long mInFlight = NO_TOKEN;
+    private boolean mHasPending;
+    private long mPending;
+    /**
+     * 最后发出的请求值
+     */
+    private boolean mHasRequested;
+    private long mLastRequested;
+
+    public SeekRequestGate(Target target) {
+        if (target == null) {
+            throw new IllegalArgumentException("target == null");
+        }
+        mTarget = target;
+    }
+
+    /**
+     * 提交一个值，没有请求在执行时立即发出，否则覆盖等待中的值
+     *
+     * @param value
+     */
+    public void offer(long value) {
+        final long token;
+        synchronized (this) {
+            mPending = value;
+            mHasPending = true;
+            token = takePendingLocked();
+        }
+        if (token != NO_TOKEN) {
+            mTarget.onSeekRequest(value, token);
+        }
+    }
+
+    /**
+     * 提交最终值，保证该值一定会被请求：与最后发出的值相同且没有等待中的值时忽略，否则同{@link #offer(long)}
+     *
+     * @param value
+     */
+    public void finish(long value) {
+        synchronized (this) {
+            if (!mHasPending && mHasRequested && mLastRequested == value) {
+                return;
+            }
+        }
+        offer(value);
+    }
+
+    /**
+     * 确认请求已完成，执行失败也需要确认，否则后续的值不会再发出
+     * 确认后不会自动发出等待中的值，返回true时需调用{@link #dispatchPending()}
+     *
+     * @param token {@link Target#onSeekRequest(long, long)}中的token
+     * @return 是否有等待中的值；token不是正在执行的请求时(重复确认或已{@link #reset()})返回false
+     */
+    public synchronized boolean acknowledge(long token) {
+        if (token == NO_TOKEN || token != mInFlight) {
+            return false;
+        }
+        mInFlight = NO_TOKEN;
+        return mHasPending;
+    }
+
+    /**
+     * 没有请求在执行时发出等待中的值
+     */
+    public void dispatchPending() {
+        final long token;
+        final long value;
+        synchronized (this) {
+            value = mPending;
+            token = takePendingLocked();
+        }
+        if (token != NO_TOKEN) {
+            mTarget.onSeekRequest(value, token);
+        }
+    }
+
+    /**
+     * 丢弃等待中的值，并放弃等待正在执行的请求的确认
+     */
+    public synchronized void reset() {
+        mInFlight = NO_TOKEN;
+        mHasPending = false;
+        mHasRequested = false;
+    }
+
+    /**
+     * 是否有请求在执行
+     *
+     * @return
+     */
+    public synchronized boolean isInFlight() {
+        return mInFlight != NO_TOKEN;
+    }
+
+    /**
+     * 是否有等待发出的值
+     *
+     * @return
+     */
+    public synchronized boolean hasPending() {
+        return mHasPending;
+    }
+
+    /**
+     * 取出等待中的值作为新请求
+     *
+     * @return 新请求的token，有请求在执行或没有等待中的值时返回{@link #NO_TOKEN}
+     */
+    private long takePendingLocked() {
+        if (mInFlight != NO_TOKEN || !mHasPending) {
+            return NO_TOKEN;
+        }
+        mHasPending = false;
+        mHasRequested = true;
+        mLastRequested = mPending;
+        if (++mNextToken == NO_TOKEN) {
+            mNextToken++;
+        }
+        mInFlight = mNextToken;
+        return mInFlight;
+    }
+
+    /**
+     * 请求的执行方
+     */
+    public interface Target {
+        /**
+         * 开始执行一个请求，完成后调用{@link #acknowledge(long)}
+         *
+         * @param value 请求的值
+         * @param token 确认时使用
+         */
+        void onSeekRequest(long value, long token);
+    }
+}
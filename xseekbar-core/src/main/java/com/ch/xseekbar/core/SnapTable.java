@@ -0,0 +1,89 @@
+package com.ch.xseekbar.core;
+
+import java.util.Arrays;
+
+/**
+ * 非均匀的可选进度值，例如1, 2, 5, 10, 20, 50
+ * 保存为升序、无重复的long数组，对齐时二分查找，O(log n)，不创建对象
+ * 创建后不可修改，可在任意线程使用
+ */
+public final class SnapTable {
+    private final long[] mValues;
+
+    /**
+     * @param values 可选的进度值，可以无序或重复，会复制后排序去重
+     */
+    public SnapTable(long[] values) {
+        if (values == null || values.length == 0) {
+            throw new IllegalArgumentException("values is empty");
+        }
+        final long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int count = 1;
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i] != sorted[count - 1]) {
+                sorted[count++] = sorted[i];
+            }
+        }
+        mValues = count == sorted.length ? sorted : Arrays.copyOf(sorted, count);
+    }
+
+    public int size() {
+        return mValues.length;
+    }
+
+    /**
+     * 第index个可选值，升序
+     *
+     * @param index
+     * @return
+     */
+    public long get(int index) {
+        return mValues[index];
+    }
+
+    /**
+     * 第一个大于等于value的下标
+     *
+     * @param value
+     * @return 全部小于value时返回{@link #size()}
+     */
+    public int ceilIndex(long value) {
+        final int index = Arrays.binarySearch(mValues, value);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    /**
+     * 最后一个小于等于value的下标
+     *
+     * @param value
+     * @return 全部大于value时返回-1
+     */
+    public int floorIndex(long value) {
+        final int index = Arrays.binarySearch(mValues, value);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    /**
+     * 对齐到[min, max]内最近的可选值，距离相同时取较大的
+     *
+     * @param progress
+     * @param min
+     * @param max
+     * @return [min, max]内没有可选值时返回限制在范围内的progress
+     */
+    public long snap(long progress, long min, long max) {
+        progress = ProgressMath.clamp(progress, min, max);
+        final int first = ceilIndex(min);
+        final int last = floorIndex(max);
+        if (first > last) {
+            return progress;
+        }
+        final int upper = Math.max(first, Math.min(ceilIndex(progress), last));
+        final int lower = Math.max(first, upper - 1);
+        final long high = mValues[upper];
+        final long low = mValues[lower];
+        // 使用double比较距离，跨越整个long范围时也不会溢出
+        return (double) progress - low < (double) high - progress ? low : high;
+    }
+}
@@ -0,0 +1,31 @@
+package com.ch.xseekbar.core;
+
+/**
+ * 进度值与位置之间的映射，例如音量(dB)、缩放倍数、频率等需要对数或指数刻度的进度条
+ * 位置为[0...1]的比例，0对应进度起点，1对应进度终点，映射必须单调递增，且两个方向互为反函数
+ * <p>
+ * 实现只在布局变化时按像素逐个调用，用于生成{@link ScaleTable}，拖动和绘制时只查表
+ *
+ * @see ValueScales
+ */
+public interface ValueScale {
+    /**
+     * 进度值转为位置
+     *
+     * @param value [min, max]
+     * @param min
+     * @param max
+     * @return [0...1]
+     */
+    double toPosition(long value, long min, long max);
+
+    /**
+     * 位置转为进度值
+     *
+     * @param position [0...1]
+     * @param min
+     * @param max
+     * @return [min, max]
+     */
+    long toValue(double position, long min, long max);
+}
@@ -0,0 +1,165 @@
+package com.ch.xseekbar.core;
+
+/**
+ * 常用的{@link ValueScale}
+ */
+public final class ValueScales {
+    /**
+     * 线性刻度
+     */
+    public static final ValueScale LINEAR = new ValueScale() {
+        @Override
+        public double toPosition(long value, long min, long max) {
+            return ProgressMath.toFraction(value, min, max);
+        }
+
+        @Override
+        public long toValue(double position, long min, long max) {
+            return ProgressMath.fromFraction(position, min, max);
+        }
+    };
+
+    private ValueScales() {
+    }
+
+    /**
+     * 对数刻度，相同的倍数占相同的长度，例如频率20Hz~20kHz中每个十倍频程占1/3
+     * min大于0时按value / min的对数计算；min小于等于0时整体平移到从1开始，即ln(value - min + 1)
+     *
+     * @return
+     */
+    public static ValueScale logarithmic() {
+        return new ValueScale() {
+            @Override
+            public double toPosition(long value, long min, long max) {
+                if (max <= min) {
+                    return 0;
+                }
+                final double offset = offset(min);
+                final double ratio = Math.log((max + offset) / (min + offset));
+                final double position = Math.log((ProgressMath.clamp(value, min, max) + offset) / (min + offset)) / ratio;
+                return Math.min(1, Math.max(0, position));
+            }
+
+            @Override
+            public long toValue(double position, long min, long max) {
+                if (max <= min || !(position > 0)) {
+                    return min;
+                }
+                if (position >= 1) {
+                    return max;
+                }
+                final double offset = offset(min);
+                final double ratio = Math.log((max + offset) / (min + offset));
+                final double value = (min + offset) * Math.exp(position * ratio) - offset;
+                return ProgressMath.clamp(Math.round(value), min, max);
+            }
+
+            private double offset(long min) {
+                return min > 0 ? 0 : 1 - (double) min;
+            }
+        };
+    }
+
+    /**
+     * 指数刻度，位置越靠后进度变化越快，适合缩放倍数等
+     * 进度比例t与位置p的关系为 t = (e^(k * p) - 1) / (e^k - 1)，k为0时即线性，k小于0时前段变化快
+     *
+     * @param curvature 弯曲程度k
+     * @return
+     */
+    public static ValueScale exponential(final double curvature) {
+        if (Math.abs(curvature) < 1e-6) {
+            return LINEAR;
+        }
+        final double range = Math.expm1(curvature);
+        return new ValueScale() {
+            @Override
+            public double toPosition(long value, long min, long max) {
+                final double t = ProgressMath.toFraction(value, min, max);
+                return Math.min(1, Math.max(0, Math.log1p(t * range) / curvature));
+            }
+
+            @Override
+            public long toValue(double position, long min, long max) {
+                if (!(position > 0)) {
+                    return min;
+                }
+                return ProgressMath.fromFraction(Math.expm1(curvature * Math.min(1, position)) / range, min, max);
+            }
+        };
+    }
+
+    /**
+     * 分段线性刻度，values[i]位于positions[i]，相邻两点之间线性插值，第一个点之前和最后一个点之后取端点
+     * 一般第一个点为(min, 0)，最后一个点为(max, 1)
+     *
+     * @param values    严格递增的进度值
+     * @param positions 严格递增的[0...1]位置，与values一一对应
+     * @return
+     */
+    public static ValueScale piecewiseLinear(long[] values, double[] positions) {
+        if (values == null || positions == null || values.length != positions.length || values.length < 2) {
+            throw new IllegalArgumentException("values and positions must have the same length >= 2");
+        }
+        for (int i = 0; i < values.length; i++) {
+            if (positions[i] < 0 || positions[i] > 1) {
+                throw new IllegalArgumentException("positions must be in [0, 1]");
+            }
+            if (i > 0 && (values[i] <= values[i - 1] || positions[i] <= positions[i - 1])) {
+                throw new IllegalArgumentException("values and positions must be strictly increasing");
+            }
+        }
+        final long[] knotValues = values.clone();
+        final double[] knotPositions = positions.clone();
+        return new ValueScale() {
+            @Override
+            public double toPosition(long value, long min, long max) {
+                final int last = knotValues.length - 1;
+                if (value <= knotValues[0]) {
+                    return knotPositions[0];
+                }
+                if (value >= knotValues[last]) {
+                    return knotPositions[last];
+                }
+                // 第一个大于value的点
+                int low = 1;
+                int high = last;
+                while (low < high) {
+                    final int mid = (low + high) >>> 1;
+                    if (knotValues[mid] <= value) {
+                        low = mid + 1;
+                    } else {
+                        high = mid;
+                    }
+                }
+                final double t = ((double) value - knotValues[low - 1]) / ((double) knotValues[low] - knotValues[low - 1]);
+                return knotPositions[low - 1] + t * (knotPositions[low] - knotPositions[low - 1]);
+            }
+
+            @Override
+            public long toValue(double position, long min, long max) {
+                final int last = knotPositions.length - 1;
+                if (!(position > knotPositions[0])) {
+                    return ProgressMath.clamp(knotValues[0], min, max);
+                }
+                if (position >= knotPositions[last]) {
+                    return ProgressMath.clamp(knotValues[last], min, max);
+                }
+                int low = 1;
+                int high = last;
+                while (low < high) {
+                    final int mid = (low + high) >>> 1;
+                    if (knotPositions[mid] <= position) {
+                        low = mid + 1;
+                    } else {
+                        high = mid;
+                    }
+                }
+                final double t = (position - knotPositions[low - 1]) / (knotPositions[low] - knotPositions[low - 1]);
+                final double value = knotValues[low - 1] + t * ((double) knotValues[low] - knotValues[low - 1]);
+                return ProgressMath.clamp(Math.round(value), min, max);
+            }
+        };
+    }
+}
@@ -0,0 +1,67 @@
+package com.ch.xseekbar.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link DragVelocityTracker}的单元测试
+ */
+public class DragVelocityTrackerTest {
+
+    @Test
+    public void velocity_constantSpeed() {
+        final DragVelocityTracker tracker = new DragVelocityTracker();
+        // 每4ms移动2px，即500px/s
+        for (int i = 0; i <= 10; i++) {
+            tracker.addSample(1000 + i * 4, i * 2);
+        }
+        assertEquals(500, tracker.velocity(), 0.01);
+        assertEquals(20, tracker.lastPosition(), 0);
+    }
+
+    @Test
+    public void velocity_ignoresSamplesOutsideWindow() {
+        final DragVelocityTracker tracker = new DragVelocityTracker();
+        tracker.addSample(0, 1000);
+        tracker.addSample(500, 0);
+        tracker.addSample(510, 10);
+        assertEquals(1000, tracker.velocity(), 0.01);
+    }
+
+    @Test
+    public void velocity_needsTwoSamples() {
+        final DragVelocityTracker tracker = new DragVelocityTracker();
+        assertEquals(0, tracker.velocity(), 0);
+        tracker.addSample(10, 5);
+        assertEquals(0, tracker.velocity(), 0);
+        // 时间倒退的采样被忽略
+        tracker.addSample(5, 50);
+        assertEquals(1, tracker.count());
+    }
+
+    @Test
+    public void predict_extrapolatesOneFrame() {
+        final DragVelocityTracker tracker = new DragVelocityTracker();
+        tracker.addSample(0, 0);
+        tracker.addSample(10, 10);
+        tracker.addSample(20, 20);
+        assertEquals(36, tracker.predict(16, 20), 0.01);
+        assertEquals(20, tracker.predict(0, 20), 0);
+        // 手指已停止时不预测
+        assertEquals(20, tracker.predict(16, 20 + DragVelocityTracker.STALE_MILLIS + 1), 0);
+    }
+
+    @Test
+    public void addSample_overwritesOldestWhenFull() {
+        final DragVelocityTracker tracker = new DragVelocityTracker();
+        for (int i = 0; i < 100; i++) {
+            tracker.addSample(i, -i);
+        }
+        assertEquals(20, tracker.count());
+        assertEquals(-1000, tracker.velocity(), 0.01);
+        tracker.clear();
+        assertEquals(0, tracker.count());
+        assertEquals(0, tracker.lastTime());
+    }
+}
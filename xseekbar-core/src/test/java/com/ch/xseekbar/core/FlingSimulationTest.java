@@ -0,0 +1,63 @@
+package com.ch.xseekbar.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link FlingSimulation}的单元测试
+ */
+public class FlingSimulationTest {
+    private static final float DELTA = 0.01f;
+
+    @Test
+    public void fling_decaysToProjectedPosition() {
+        final FlingSimulation simulation = new FlingSimulation();
+        simulation.fling(100, 600, 0, 1000, 6);
+        // x0 + v0 / k
+        assertEquals(200, simulation.getFinalPosition(), DELTA);
+        assertEquals(100, simulation.getPosition(0), DELTA);
+        assertEquals(600, simulation.getVelocity(0), DELTA);
+        assertFalse(simulation.isAtRest(0.1f));
+        assertTrue(simulation.getPosition(0.1f) > 100 && simulation.getPosition(0.1f) < 200);
+        assertTrue(simulation.isAtRest(10));
+        assertEquals(200, simulation.getPosition(10), DELTA);
+        assertEquals(0, simulation.getVelocity(10), DELTA);
+    }
+
+    @Test
+    public void fling_stopsAtBound() {
+        final FlingSimulation simulation = new FlingSimulation();
+        simulation.fling(100, -6000, 0, 1000, 6);
+        assertEquals(0, simulation.getFinalPosition(), DELTA);
+        float last = 100;
+        for (float t = 0; !simulation.isAtRest(t); t += 0.008f) {
+            final float position = simulation.getPosition(t);
+            assertTrue(position <= last && position >= 0);
+            last = position;
+        }
+    }
+
+    @Test
+    public void fling_slowVelocityIsAtRest() {
+        final FlingSimulation simulation = new FlingSimulation();
+        simulation.fling(50, 1, 0, 100, 6);
+        assertTrue(simulation.isAtRest(0));
+        assertEquals(50, simulation.getPosition(0), DELTA);
+    }
+
+    @Test
+    public void spring_settlesOnTargetWithoutOscillating() {
+        final FlingSimulation simulation = new FlingSimulation();
+        simulation.spring(103, 0, 100, FlingSimulation.DEFAULT_SPRING_FREQUENCY);
+        assertEquals(103, simulation.getPosition(0), DELTA);
+        float t = 0;
+        while (!simulation.isAtRest(t)) {
+            // 临界阻尼，从一侧逼近目标
+            assertTrue(simulation.getPosition(t) >= 100 - DELTA);
+            t += 0.008f;
+            assertTrue(t < 2);
+        }
+        assertEquals(100, simulation.getPosition(t), 0);
+    }
+}
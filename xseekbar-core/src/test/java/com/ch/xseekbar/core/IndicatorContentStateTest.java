@@ -0,0 +1,49 @@
+package com.ch.xseekbar.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link IndicatorContentState}的单元测试
+ */
+public class IndicatorContentStateTest {
+
+    @Test
+    public void newState_allDirty() {
+        final IndicatorContentState state = new IndicatorContentState("a", 1, 2, false, 0, 0);
+        assertEquals(IndicatorContentState.DIRTY_ALL, state.takeDirty());
+        assertEquals(0, state.takeDirty());
+    }
+
+    @Test
+    public void setters_onlyMarkChangedFields() {
+        final IndicatorContentState state = new IndicatorContentState("a", 1, 2, false, 0, 0);
+        state.takeDirty();
+        state.setText(new String("a"));
+        state.setTextColor(1);
+        state.setTextSize(2);
+        state.setBold(false);
+        state.setOffset(0, 0);
+        assertEquals(0, state.takeDirty());
+
+        state.setText("b");
+        state.setBold(true);
+        assertEquals(IndicatorContentState.DIRTY_TEXT | IndicatorContentState.DIRTY_BOLD, state.takeDirty());
+        state.setText(null);
+        state.setOffset(0, 1);
+        assertEquals(IndicatorContentState.DIRTY_TEXT | IndicatorContentState.DIRTY_OFFSET, state.takeDirty());
+        assertNull(state.getText());
+    }
+
+    @Test
+    public void set_copiesAndMarksDifferences() {
+        final IndicatorContentState state = new IndicatorContentState("a", 1, 2, false, 0, 0);
+        state.takeDirty();
+        state.set(new IndicatorContentState("a", 3, 2, false, 4, 5));
+        assertEquals(IndicatorContentState.DIRTY_TEXT_COLOR | IndicatorContentState.DIRTY_OFFSET, state.takeDirty());
+        assertEquals(3, state.getTextColor());
+        assertEquals(4, state.getOffsetX());
+        assertEquals(5, state.getOffsetY());
+    }
+}
@@ -0,0 +1,54 @@
+package com.ch.xseekbar.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link LatencyRecorder}的单元测试
+ */
+public class LatencyRecorderTest {
+
+    @Test
+    public void percentile_nearestRank() {
+        final LatencyRecorder recorder = new LatencyRecorder(100);
+        for (int i = 100; i >= 1; i--) {
+            recorder.record(i);
+        }
+        assertEquals(100, recorder.count());
+        assertEquals(50, recorder.percentile(50));
+        assertEquals(95, recorder.percentile(95));
+        assertEquals(99, recorder.percentile(99));
+        assertEquals(100, recorder.percentile(100));
+        assertEquals(1, recorder.percentile(0));
+    }
+
+    @Test
+    public void record_overwritesOldestWhenFull() {
+        final LatencyRecorder recorder = new LatencyRecorder(4);
+        for (int i = 1; i <= 6; i++) {
+            recorder.record(i * 10);
+        }
+        // 保留 30, 40, 50, 60
+        assertEquals(4, recorder.count());
+        assertEquals(30, recorder.percentile(1));
+        assertEquals(60, recorder.percentile(100));
+    }
+
+    @Test
+    public void reset_emptiesSamples() {
+        final LatencyRecorder recorder = new LatencyRecorder(8);
+        assertEquals(0, recorder.percentile(50));
+        recorder.record(5);
+        recorder.reset();
+        assertEquals(0, recorder.count());
+        assertEquals(0, recorder.percentile(50));
+        recorder.record(7);
+        assertEquals(7, recorder.percentile(50));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_rejectsZeroCapacity() {
+        new LatencyRecorder(0);
+    }
+}
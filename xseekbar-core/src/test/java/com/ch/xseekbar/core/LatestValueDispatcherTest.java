@@ -0,0 +1,212 @@
+package com.ch.xseekbar.core;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link LatestValueDispatcher}的单元测试
+ */
+public class LatestValueDispatcherTest {
+
+    /**
+     * 手动执行的Executor
+     */
+    private static final class ManualExecutor implements Executor {
+        final List<Runnable> tasks = new ArrayList<>();
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        void runAll() {
+            while (!tasks.isEmpty()) {
+                tasks.remove(0).run();
+            }
+        }
+    }
+
+    @Test
+    public void offer_conflatesWhileTaskIsQueued() {
+        final ManualExecutor executor = new ManualExecutor();
+        final List<Long> received = new ArrayList<>();
+        final LatestValueDispatcher dispatcher = new LatestValueDispatcher(executor, new ProgressRingBuffer.Consumer() {
+            @Override
+            public void accept(long value) {
+                received.add(value);
+            }
+        });
+        dispatcher.offer(1);
+        dispatcher.offer(2);
+        dispatcher.offer(3);
+        assertEquals(1, executor.tasks.size());
+        assertTrue(dispatcher.hasPending());
+        executor.runAll();
+        assertEquals(1, received.size());
+        assertEquals(3L, (long) received.get(0));
+        assertFalse(dispatcher.hasPending());
+
+        dispatcher.offer(4);
+        assertEquals(1, executor.tasks.size());
+        executor.runAll();
+        assertEquals(4L, (long) received.get(1));
+    }
+
+    @Test
+    public void offer_duringCallbackIsDeliveredBySameTask() {
+        final ManualExecutor executor = new ManualExecutor();
+        final List<Long> received = new ArrayList<>();
+        final LatestValueDispatcher[] holder = new LatestValueDispatcher[1];
+        holder[0] = new LatestValueDispatcher(executor, new ProgressRingBuffer.Consumer() {
+            @Override
+            public void accept(long value) {
+                received.add(value);
+                if (value == 1) {
+                    holder[0].offer(2);
+                }
+            }
+        });
+        holder[0].offer(1);
+        executor.runAll();
+        assertEquals(2, received.size());
+        assertEquals(2L, (long) received.get(1));
+    }
+
+    @Test
+    public void execute_runsAfterEarlierValueAndBeforeLaterValue() {
+        final ManualExecutor executor = new ManualExecutor();
+        final List<Long> received = new ArrayList<>();
+        final LatestValueDispatcher dispatcher = new LatestValueDispatcher(executor, new ProgressRingBuffer.Consumer() {
+            @Override
+            public void accept(long value) {
+                received.add(value);
+            }
+        });
+        dispatcher.offer(1);
+        dispatcher.offer(2);
+        dispatcher.execute(new Runnable() {
+            @Override
+            public void run() {
+                received.add(-1L);
+            }
+        });
+        dispatcher.offer(3);
+        assertEquals(1, executor.tasks.size());
+        assertTrue(dispatcher.hasPending());
+        executor.runAll();
+        assertEquals(3, received.size());
+        assertEquals(2L, (long) received.get(0));
+        assertEquals(-1L, (long) received.get(1));
+        assertEquals(3L, (long) received.get(2));
+        assertFalse(dispatcher.hasPending());
+    }
+
+    @Test
+    public void execute_keepsOrderWithConcurrentDrain() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        final List<Long> received = new ArrayList<>();
+        final LatestValueDispatcher dispatcher = new LatestValueDispatcher(executor, new ProgressRingBuffer.Consumer() {
+            @Override
+            public void accept(long value) {
+                synchronized (received) {
+                    received.add(value);
+                }
+            }
+        });
+        // 每组为若干递增的值和一个标记，标记之后不能再回调更早的值
+        final int groups = 2000;
+        for (int g = 0; g < groups; g++) {
+            for (int i = 0; i < 5; i++) {
+                dispatcher.offer(g * 10 + i);
+            }
+            final long marker = -(g + 1);
+            dispatcher.execute(new Runnable() {
+                @Override
+                public void run() {
+                    synchronized (received) {
+                        received.add(marker);
+                    }
+                }
+            });
+        }
+        final CountDownLatch done = new CountDownLatch(1);
+        dispatcher.execute(new Runnable() {
+            @Override
+            public void run() {
+                done.countDown();
+            }
+        });
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        executor.shutdown();
+
+        int markers = 0;
+        long lastValue = -1;
+        synchronized (received) {
+            for (long value : received) {
+                if (value < 0) {
+                    markers++;
+                    // 标记前必须回调过本组最后的值
+                    assertEquals(-value, markers);
+                    assertEquals((markers - 1) * 10 + 4, lastValue);
+                } else {
+                    assertTrue(value / 10 == markers);
+                    lastValue = value;
+                }
+            }
+        }
+        assertEquals(groups, markers);
+    }
+
+    @Test
+    public void concurrentProducers_lastValueIsDelivered() throws Exception {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        final AtomicLong last = new AtomicLong(-1);
+        final AtomicLong calls = new AtomicLong();
+        final LatestValueDispatcher dispatcher = new LatestValueDispatcher(executor, new ProgressRingBuffer.Consumer() {
+            @Override
+            public void accept(long value) {
+                calls.incrementAndGet();
+                last.set(value);
+            }
+        });
+        final int producers = 4;
+        final int count = 20000;
+        final CountDownLatch done = new CountDownLatch(producers);
+        for (int p = 0; p < producers; p++) {
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < count; i++) {
+                        dispatcher.offer(i);
+                    }
+                    done.countDown();
+                }
+            }).start();
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        dispatcher.offer(Long.MAX_VALUE);
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(Long.MAX_VALUE, last.get());
+        assertTrue(calls.get() <= producers * count + 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void offer_rejectsNone() {
+        new LatestValueDispatcher(new ManualExecutor(), new ProgressRingBuffer.Consumer() {
+            @Override
+            public void accept(long value) {
+            }
+        }).offer(LatestValueDispatcher.NONE);
+    }
+}
@@ -0,0 +1,94 @@
+package com.ch.xseekbar.core;
+
+import org.junit.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link LongLruCache}的单元测试
+ */
+public class LongLruCacheTest {
+
+    @Test
+    public void put_get() {
+        final LongLruCache<String> cache = new LongLruCache<>(4);
+        cache.put(1, "a");
+        cache.put(Long.MIN_VALUE, "min");
+        cache.put(Long.MAX_VALUE, "max");
+        assertEquals("a", cache.get(1));
+        assertEquals("min", cache.get(Long.MIN_VALUE));
+        assertEquals("max", cache.get(Long.MAX_VALUE));
+        assertNull(cache.get(2));
+        assertEquals(3, cache.size());
+
+        cache.put(1, "b");
+        assertEquals("b", cache.get(1));
+        assertEquals(3, cache.size());
+    }
+
+    @Test
+    public void put_evictsLeastRecentlyUsed() {
+        final LongLruCache<String> cache = new LongLruCache<>(3);
+        cache.put(1, "1");
+        cache.put(2, "2");
+        cache.put(3, "3");
+        // 访问1后，2成为最久未访问的条目
+        cache.get(1);
+        cache.put(4, "4");
+        assertFalse(cache.contains(2));
+        assertTrue(cache.contains(1));
+        assertTrue(cache.contains(3));
+        assertTrue(cache.contains(4));
+        assertEquals(3, cache.size());
+    }
+
+    @Test
+    public void contains_doesNotChangeOrder() {
+        final LongLruCache<String> cache = new LongLruCache<>(2);
+        cache.put(1, "1");
+        cache.put(2, "2");
+        assertTrue(cache.contains(1));
+        cache.put(3, "3");
+        assertFalse(cache.contains(1));
+    }
+
+    @Test
+    public void clear() {
+        final LongLruCache<String> cache = new LongLruCache<>(2);
+        cache.put(1, "1");
+        cache.put(2, "2");
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertNull(cache.get(1));
+        cache.put(3, "3");
+        assertEquals("3", cache.get(3));
+    }
+
+    @Test
+    public void randomOperations_matchLinkedHashMap() {
+        final int capacity = 16;
+        final LongLruCache<Long> cache = new LongLruCache<>(capacity);
+        final LinkedHashMap<Long, Long> expected = new LinkedHashMap<Long, Long>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+                return size() > capacity;
+            }
+        };
+        final Random random = new Random(42);
+        for (int i = 0; i < 100000; i++) {
+            // 键集中在较小范围，频繁命中、淘汰和哈希冲突
+            final long key = random.nextInt(48) * 1024L;
+            if (random.nextBoolean()) {
+                cache.put(key, (long) i);
+                expected.put(key, (long) i);
+            } else {
+                assertEquals(expected.get(key), cache.get(key));
+            }
+            assertEquals(expected.size(), cache.size());
+        }
+    }
+}
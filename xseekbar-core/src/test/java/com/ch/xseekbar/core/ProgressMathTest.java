@@ -0,0 +1,126 @@
+package com.ch.xseekbar.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link ProgressMath}的单元测试
+ */
+public class ProgressMathTest {
+    private static final double DELTA = 1e-9;
+
+    @Test
+    public void clamp_limitsToRange() {
+        assertEquals(10, ProgressMath.clamp(5, 10, 20));
+        assertEquals(20, ProgressMath.clamp(25, 10, 20));
+        assertEquals(15, ProgressMath.clamp(15, 10, 20));
+    }
+
+    @Test
+    public void toFraction_isRelativeToMin() {
+        assertEquals(0, ProgressMath.toFraction(10, 10, 20), DELTA);
+        assertEquals(0.5, ProgressMath.toFraction(15, 10, 20), DELTA);
+        assertEquals(1, ProgressMath.toFraction(30, 10, 20), DELTA);
+        assertEquals(0, ProgressMath.toFraction(5, 10, 10), DELTA);
+    }
+
+    @Test
+    public void toFraction_fullLongRangeDoesNotOverflow() {
+        assertEquals(0.5, ProgressMath.toFraction(0, Long.MIN_VALUE, Long.MAX_VALUE), DELTA);
+    }
+
+    @Test
+    public void fromFraction_isOffsetByMin() {
+        assertEquals(10, ProgressMath.fromFraction(0, 10, 20));
+        assertEquals(15, ProgressMath.fromFraction(0.5, 10, 20));
+        assertEquals(20, ProgressMath.fromFraction(1, 10, 20));
+        assertEquals(-50, ProgressMath.fromFraction(0.25, -100, 100));
+    }
+
+    @Test
+    public void fromFraction_clampsOutOfRangeAndNaN() {
+        assertEquals(10, ProgressMath.fromFraction(-1, 10, 20));
+        assertEquals(20, ProgressMath.fromFraction(2, 10, 20));
+        assertEquals(10, ProgressMath.fromFraction(Double.NaN, 10, 20));
+        assertEquals(Long.MAX_VALUE, ProgressMath.fromFraction(1, Long.MIN_VALUE, Long.MAX_VALUE));
+    }
+
+    @Test
+    public void positionToProgress_respectsMin() {
+        // 最小值不为0时，起点对应min而不是0
+        assertEquals(100, ProgressMath.positionToProgress(0, 200, 100, 200));
+        assertEquals(150, ProgressMath.positionToProgress(100, 200, 100, 200));
+        assertEquals(200, ProgressMath.positionToProgress(250, 200, 100, 200));
+        assertEquals(100, ProgressMath.positionToProgress(-5, 200, 100, 200));
+        assertEquals(100, ProgressMath.positionToProgress(50, 0, 100, 200));
+    }
+
+    /**
+     * ClipDrawable绘制的长度：w - w * (maxLevel - level) / maxLevel，即ceil(w * level / maxLevel)
+     */
+    private static int clipEdge(int length, int level, int maxLevel) {
+        return length - length * (maxLevel - level) / maxLevel;
+    }
+
+    @Test
+    public void toLevel_clipEdgeMatchesPixel() {
+        final int maxLevel = 10000;
+        for (int length = 1; length <= 2000; length += 7) {
+            for (int i = 0; i <= 100; i++) {
+                final double fraction = i / 100.0;
+                final int level = ProgressMath.toLevel(fraction, length, maxLevel);
+                assertEquals(ProgressMath.fractionToPixel(fraction, length), clipEdge(length, level, maxLevel));
+            }
+        }
+    }
+
+    @Test
+    public void toLevel_everyPixelOfWideTrack() {
+        final int maxLevel = 10000;
+        final int length = 1080;
+        // 1px对应的level不是整数，向上取整会多绘制1px
+        assertEquals(9, ProgressMath.toLevel(1.0 / length, length, maxLevel));
+        for (int pixel = 0; pixel <= length; pixel++) {
+            final int level = ProgressMath.toLevel((double) pixel / length, length, maxLevel);
+            assertEquals(pixel, clipEdge(length, level, maxLevel));
+        }
+    }
+
+    @Test
+    public void toIntProgress_saturates() {
+        assertEquals(Integer.MAX_VALUE, ProgressMath.toIntProgress(Long.MAX_VALUE));
+        assertEquals(Integer.MIN_VALUE, ProgressMath.toIntProgress(Long.MIN_VALUE));
+        assertEquals(42, ProgressMath.toIntProgress(42));
+    }
+
+    @Test
+    public void saturatedAdd_doesNotWrap() {
+        assertEquals(Long.MAX_VALUE, ProgressMath.saturatedAdd(Long.MAX_VALUE, 1));
+        assertEquals(Long.MIN_VALUE, ProgressMath.saturatedAdd(Long.MIN_VALUE, -1));
+        assertEquals(3, ProgressMath.saturatedAdd(1, 2));
+    }
+
+    @Test
+    public void snapToStep_roundsToNearestStepFromMin() {
+        assertEquals(10, ProgressMath.snapToStep(12, 10, 100, 5));
+        assertEquals(15, ProgressMath.snapToStep(13, 10, 100, 5));
+        assertEquals(15, ProgressMath.snapToStep(15, 10, 100, 5));
+        assertEquals(10, ProgressMath.snapToStep(-50, 10, 100, 5));
+        assertEquals(37, ProgressMath.snapToStep(37, 10, 100, 0));
+    }
+
+    @Test
+    public void snapToStep_maxIsAlwaysReachable() {
+        // 刻度为0, 30, 60, 90，最大值100
+        assertEquals(90, ProgressMath.snapToStep(94, 0, 100, 30));
+        assertEquals(100, ProgressMath.snapToStep(96, 0, 100, 30));
+        assertEquals(100, ProgressMath.snapToStep(200, 0, 100, 30));
+    }
+
+    @Test
+    public void snapToStep_fullLongRange() {
+        final long snapped = ProgressMath.snapToStep(0, Long.MIN_VALUE, Long.MAX_VALUE, 1L << 40);
+        assertEquals(0, snapped % (1L << 40));
+    }
+}
@@ -0,0 +1,244 @@
+package com.ch.xseekbar.core;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link ProgressPublisher}的单元测试
+ */
+public class ProgressPublisherTest {
+
+    @Test
+    public void set_returnsFalseWhenUnchanged() {
+        final ProgressPublisher publisher = new ProgressPublisher();
+        assertFalse(publisher.set(0));
+        assertTrue(publisher.set(5));
+        assertFalse(publisher.set(5));
+        assertEquals(5, publisher.get());
+    }
+
+    @Test
+    public void addAndClamp() {
+        final ProgressPublisher publisher = new ProgressPublisher();
+        assertEquals(8, publisher.addAndClamp(8, 0, 10));
+        assertEquals(10, publisher.addAndClamp(8, 0, 10));
+        assertEquals(ProgressPublisher.UNCHANGED, publisher.addAndClamp(1, 0, 10));
+        assertEquals(0, publisher.addAndClamp(Long.MIN_VALUE, 0, 10));
+    }
+
+    @Test
+    public void addAndClamp_concurrentAddsLoseNothing() throws InterruptedException {
+        final int threads = 4;
+        final int perThread = 10000;
+        final ProgressPublisher publisher = new ProgressPublisher();
+        final CountDownLatch start = new CountDownLatch(1);
+        final Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int i = 0; i < perThread; i++) {
+                        publisher.addAndClamp(1, 0, Long.MAX_VALUE);
+                    }
+                }
+            };
+            workers[t].start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        assertEquals(threads * perThread, publisher.get());
+    }
+
+    @Test
+    public void clampTo() {
+        final ProgressPublisher publisher = new ProgressPublisher();
+        publisher.set(50);
+        publisher.clampTo(0, 100);
+        assertEquals(50, publisher.get());
+        publisher.clampTo(60, 100);
+        assertEquals(60, publisher.get());
+        publisher.clampTo(0, 40);
+        assertEquals(40, publisher.get());
+    }
+
+    @Test
+    public void publish_latestOnlyKeepsLastFlags() {
+        final ProgressPublisher publisher = new ProgressPublisher();
+        assertEquals(ProgressPublisher.PUBLISHED_LATEST, publisher.publish(1, true, true));
+        assertEquals(ProgressPublisher.PUBLISHED_LATEST, publisher.publish(2, false, false));
+        assertTrue(publisher.hasPending());
+        assertEquals(ProgressPublisher.FLAG_PENDING, publisher.consume());
+        assertFalse(publisher.hasPending());
+        assertEquals(0, publisher.consume());
+    }
+
+    @Test
+    public void tryMarkPosted_oncePerConsume() {
+        final ProgressPublisher publisher = new ProgressPublisher();
+        assertTrue(publisher.tryMarkPosted());
+        assertFalse(publisher.tryMarkPosted());
+        publisher.consume();
+        assertTrue(publisher.tryMarkPosted());
+        publisher.clearPosted();
+        assertTrue(publisher.tryMarkPosted());
+    }
+
+    @Test
+    public void publish_losslessQueuesThenConflates() {
+        final ProgressPublisher publisher = new ProgressPublisher();
+        final Recorder recorder = new Recorder(8);
+        publisher.setMode(ProgressPublisher.MODE_LOSSLESS, 2, ProgressPublisher.OVERFLOW_CONFLATE, recorder);
+        assertEquals(ProgressPublisher.PUBLISHED_QUEUED, publisher.publish(1, true, false));
+        assertEquals(ProgressPublisher.PUBLISHED_QUEUED, publisher.publish(2, true, false));
+        assertEquals(ProgressPublisher.PUBLISHED_LATEST, publisher.publish(3, true, true));
+
+        final int flags = publisher.consume();
+        assertEquals(ProgressPublisher.FLAG_PENDING | ProgressPublisher.FLAG_FROM_USER | ProgressPublisher.FLAG_ANIMATE,
+                flags);
+        // 读取数量达到容量，还需下一帧继续
+        assertTrue(publisher.drain(recorder));
+        assertEquals(2, recorder.count);
+        assertEquals(1, ProgressRingBuffer.unpackProgress(recorder.values[0]));
+        assertEquals(2, ProgressRingBuffer.unpackProgress(recorder.values[1]));
+        assertFalse(publisher.drain(recorder));
+    }
+
+    @Test
+    public void publish_losslessDropsWhenFull() {
+        final ProgressPublisher publisher = new ProgressPublisher();
+        publisher.setMode(ProgressPublisher.MODE_LOSSLESS, 2, ProgressPublisher.OVERFLOW_DROP, new Recorder(1));
+        assertEquals(ProgressPublisher.PUBLISHED_QUEUED, publisher.publish(1, true, false));
+        assertEquals(ProgressPublisher.PUBLISHED_QUEUED, publisher.publish(2, true, false));
+        assertEquals(ProgressPublisher.PUBLISHED_DROPPED, publisher.publish(3, true, false));
+        assertEquals(ProgressPublisher.FLAG_PENDING | ProgressPublisher.FLAG_DROPPED, publisher.consume());
+    }
+
+    @Test
+    public void drain_withoutQueue() {
+        final ProgressPublisher publisher = new ProgressPublisher();
+        final Recorder recorder = new Recorder(1);
+        assertFalse(publisher.drain(recorder));
+        assertEquals(0, recorder.count);
+    }
+
+    @Test
+    public void setMode_growKeepsQueuedValues() {
+        final ProgressPublisher publisher = new ProgressPublisher();
+        final Recorder recorder = new Recorder(8);
+        publisher.setMode(ProgressPublisher.MODE_LOSSLESS, 2, ProgressPublisher.OVERFLOW_CONFLATE, recorder);
+        publisher.publish(1, false, false);
+        publisher.publish(2, false, false);
+
+        // 换入更大的队列时旧队列的数据先交给consumer
+        publisher.setMode(ProgressPublisher.MODE_LOSSLESS, 8, ProgressPublisher.OVERFLOW_CONFLATE, recorder);
+        assertEquals(2, recorder.count);
+        assertEquals(ProgressPublisher.PUBLISHED_QUEUED, publisher.publish(3, false, false));
+        assertFalse(publisher.drain(recorder));
+        assertEquals(3, recorder.count);
+        assertEquals(3, ProgressRingBuffer.unpackProgress(recorder.values[2]));
+    }
+
+    @Test
+    public void setMode_latestOnlyKeepsQueueUntilDrained() {
+        final ProgressPublisher publisher = new ProgressPublisher();
+        final Recorder recorder = new Recorder(8);
+        publisher.setMode(ProgressPublisher.MODE_LOSSLESS, 4, ProgressPublisher.OVERFLOW_CONFLATE, recorder);
+        publisher.publish(1, false, false);
+
+        publisher.setMode(ProgressPublisher.MODE_LATEST_ONLY, 4, ProgressPublisher.OVERFLOW_CONFLATE, recorder);
+        assertEquals(ProgressPublisher.MODE_LATEST_ONLY, publisher.getMode());
+        assertEquals(ProgressPublisher.PUBLISHED_LATEST, publisher.publish(2, true, false));
+        assertEquals(ProgressPublisher.FLAG_PENDING | ProgressPublisher.FLAG_FROM_USER, publisher.consume());
+        // 切换前写入队列的数据仍可读取
+        publisher.drain(recorder);
+        assertEquals(1, recorder.count);
+        assertEquals(1, ProgressRingBuffer.unpackProgress(recorder.values[0]));
+    }
+
+    @Test
+    public void setMode_concurrentGrowLosesNothing() throws InterruptedException {
+        final int threads = 4;
+        final int perThread = 2000;
+        final ProgressPublisher publisher = new ProgressPublisher();
+        final SetRecorder recorder = new SetRecorder();
+        // 容量不小于全部发布数量，不会溢出，所有进度都应被消费一次
+        int capacity = threads * perThread;
+        publisher.setMode(ProgressPublisher.MODE_LOSSLESS, capacity, ProgressPublisher.OVERFLOW_CONFLATE, recorder);
+
+        final CountDownLatch start = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            final int base = t * perThread;
+            new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                        for (int i = 0; i < perThread; i++) {
+                            assertEquals(ProgressPublisher.PUBLISHED_QUEUED, publisher.publish(base + i, false, false));
+                        }
+                    } catch (InterruptedException ignored) {
+                    } finally {
+                        done.countDown();
+                    }
+                }
+            }.start();
+        }
+        start.countDown();
+        // 生产者写入期间多次换入更大的队列
+        for (int i = 0; i < 6 && done.getCount() > 0; i++) {
+            capacity *= 2;
+            publisher.setMode(ProgressPublisher.MODE_LOSSLESS, capacity, ProgressPublisher.OVERFLOW_CONFLATE, recorder);
+            publisher.drain(recorder);
+        }
+        done.await();
+        while (publisher.drain(recorder)) {
+            // 读完剩余数据
+        }
+        assertEquals(threads * perThread, recorder.values.size());
+        assertEquals(0, recorder.duplicates);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void setMode_rejectsUnknownMode() {
+        new ProgressPublisher().setMode(3, 8, ProgressPublisher.OVERFLOW_CONFLATE, new Recorder(1));
+    }
+
+    static final class Recorder implements ProgressRingBuffer.Consumer {
+        final long[] values;
+        int count;
+
+        Recorder(int capacity) {
+            values = new long[capacity];
+        }
+
+        @Override
+        public void accept(long value) {
+            values[count++] = value;
+        }
+    }
+
+    static final class SetRecorder implements ProgressRingBuffer.Consumer {
+        final Set<Long> values = new HashSet<>();
+        int duplicates;
+
+        @Override
+        public void accept(long value) {
+            if (!values.add(ProgressRingBuffer.unpackProgress(value))) {
+                duplicates++;
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.ch.xseekbar.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link ProgressRingBuffer}的单元测试
+ */
+public class ProgressRingBufferTest {
+
+    @Test
+    public void pack_roundTrips() {
+        final long[] values = {0, 1, -1, ProgressRingBuffer.MAX_VALUE, ProgressRingBuffer.MIN_VALUE};
+        for (long value : values) {
+            final long packed = ProgressRingBuffer.pack(value, true, false);
+            assertEquals(value, ProgressRingBuffer.unpackProgress(packed));
+            assertTrue(ProgressRingBuffer.unpackFromUser(packed));
+            assertFalse(ProgressRingBuffer.unpackAnimate(packed));
+        }
+    }
+
+    @Test
+    public void offer_failsWhenFull() {
+        final ProgressRingBuffer buffer = new ProgressRingBuffer(3);
+        assertEquals(4, buffer.capacity());
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(i));
+        }
+        assertFalse(buffer.offer(4));
+    }
+
+    @Test
+    public void drain_preservesOrder() {
+        final ProgressRingBuffer buffer = new ProgressRingBuffer(8);
+        for (int i = 0; i < 6; i++) {
+            buffer.offer(i);
+        }
+        final long[] out = new long[8];
+        final int[] count = new int[1];
+        assertEquals(6, buffer.drain(new ProgressRingBuffer.Consumer() {
+            @Override
+            public void accept(long value) {
+                out[count[0]++] = value;
+            }
+        }));
+        for (int i = 0; i < 6; i++) {
+            assertEquals(i, out[i]);
+        }
+        // 出队后槽位可以重新写入
+        for (int i = 0; i < 8; i++) {
+            assertTrue(buffer.offer(i));
+        }
+    }
+
+    @Test
+    public void offer_concurrentProducersLoseNothing() throws InterruptedException {
+        final int producers = 4;
+        final int perProducer = 10000;
+        final ProgressRingBuffer buffer = new ProgressRingBuffer(64);
+        final Thread[] threads = new Thread[producers];
+        for (int p = 0; p < producers; p++) {
+            final int base = p * perProducer;
+            threads[p] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < perProducer; i++) {
+                        while (!buffer.offer(base + i)) {
+                            Thread.yield();
+                        }
+                    }
+                }
+            });
+            threads[p].start();
+        }
+
+        final boolean[] seen = new boolean[producers * perProducer];
+        final int[] total = new int[1];
+        final ProgressRingBuffer.Consumer consumer = new ProgressRingBuffer.Consumer() {
+            @Override
+            public void accept(long value) {
+                assertFalse(seen[(int) value]);
+                seen[(int) value] = true;
+                total[0]++;
+            }
+        };
+        while (total[0] < seen.length) {
+            buffer.drain(consumer);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(seen.length, total[0]);
+    }
+}
@@ -0,0 +1,94 @@
+package com.ch.xseekbar.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link ProgressTextFormat}的单元测试
+ */
+public class ProgressTextFormatTest {
+    private final char[] mOut = new char[ProgressTextFormat.MAX_LENGTH];
+
+    private String format(ProgressTextFormat format, long progress) {
+        return format(format, progress, 0, 100);
+    }
+
+    private String format(ProgressTextFormat format, long progress, long min, long max) {
+        final int length = format.format(progress, min, max, mOut);
+        return new String(mOut, 0, length);
+    }
+
+    @Test
+    public void integer() {
+        final ProgressTextFormat format = ProgressTextFormat.integer();
+        assertEquals("0", format(format, 0));
+        assertEquals("42", format(format, 42));
+        assertEquals("-7", format(format, -7));
+        assertEquals(String.valueOf(Long.MAX_VALUE), format(format, Long.MAX_VALUE));
+        assertEquals(String.valueOf(Long.MIN_VALUE), format(format, Long.MIN_VALUE));
+    }
+
+    @Test
+    public void percent() {
+        final ProgressTextFormat format = ProgressTextFormat.percent();
+        assertEquals("0%", format(format, 0));
+        assertEquals("50%", format(format, 50));
+        assertEquals("100%", format(format, 100));
+        assertEquals("33%", format(format, 1, 0, 3));
+        assertEquals("67%", format(format, 2, 0, 3));
+        assertEquals("50%", format(format, 0, Long.MIN_VALUE, Long.MAX_VALUE));
+    }
+
+    @Test
+    public void decimal() {
+        final ProgressTextFormat format = ProgressTextFormat.decimal(2);
+        assertEquals("12.34", format(format, 1234));
+        assertEquals("0.05", format(format, 5));
+        assertEquals("-0.05", format(format, -5));
+        assertEquals("-12.30", format(format, -1230));
+        assertEquals("-9.223372036854775808", format(ProgressTextFormat.decimal(18), Long.MIN_VALUE));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void decimal_rejectsInvalidScale() {
+        ProgressTextFormat.decimal(0);
+    }
+
+    @Test
+    public void minutesSeconds() {
+        final ProgressTextFormat millis = ProgressTextFormat.minutesSeconds(1);
+        assertEquals("00:00", format(millis, 999));
+        assertEquals("01:05", format(millis, 65000));
+        assertEquals("75:03", format(millis, 75 * 60000 + 3000));
+        assertEquals("-00:01", format(millis, -1500));
+
+        final ProgressTextFormat seconds = ProgressTextFormat.minutesSeconds(1000);
+        assertEquals("02:00", format(seconds, 120));
+    }
+
+    @Test
+    public void hoursMinutesSeconds() {
+        final ProgressTextFormat format = ProgressTextFormat.hoursMinutesSeconds(1000);
+        assertEquals("00:00:00", format(format, 0));
+        assertEquals("01:02:03", format(format, 3723));
+        assertEquals("100:00:59", format(format, 360059));
+        // 溢出时取边界
+        final String min = format(ProgressTextFormat.hoursMinutesSeconds(60000), Long.MIN_VALUE);
+        assertTrue(min.startsWith("-"));
+        assertTrue(min.length() <= ProgressTextFormat.MAX_LENGTH);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void duration_rejectsUnsupportedUnit() {
+        ProgressTextFormat.minutesSeconds(7);
+    }
+
+    @Test
+    public void glyphIndex_coversAllOutputCharacters() {
+        for (int i = 0; i < ProgressTextFormat.GLYPHS.length(); i++) {
+            assertEquals(i, ProgressTextFormat.glyphIndex(ProgressTextFormat.GLYPHS.charAt(i)));
+        }
+        assertEquals(-1, ProgressTextFormat.glyphIndex('a'));
+    }
+}
@@ -0,0 +1,109 @@
+package com.ch.xseekbar.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link RangeThumbs}的单元测试
+ */
+public class RangeThumbsTest {
+
+    @Test
+    public void constructor_distributesEvenly() {
+        final RangeThumbs thumbs = new RangeThumbs(3, 0, 100);
+        assertEquals(0, thumbs.getValue(0));
+        assertEquals(50, thumbs.getValue(1));
+        assertEquals(100, thumbs.getValue(2));
+    }
+
+    @Test
+    public void setValue_cannotCrossNeighbours() {
+        final RangeThumbs thumbs = new RangeThumbs(3, 0, 100);
+        thumbs.setMinSpacing(10);
+        assertTrue(thumbs.setValue(0, 80, 0, 100));
+        assertEquals(40, thumbs.getValue(0));
+        assertTrue(thumbs.setValue(2, 0, 0, 100));
+        assertEquals(60, thumbs.getValue(2));
+        // 两侧都只留出最小间距，中间触点无法移动
+        assertFalse(thumbs.setValue(1, 55, 0, 100));
+        assertEquals(50, thumbs.getValue(1));
+    }
+
+    @Test
+    public void hitTest_findsNearestThumb() {
+        final RangeThumbs thumbs = new RangeThumbs(5, 0, 100);
+        // 像素位置 0, 50, 100, 150, 200
+        assertEquals(0, thumbs.hitTest(-10, 0, 100, 200));
+        assertEquals(0, thumbs.hitTest(20, 0, 100, 200));
+        assertEquals(1, thumbs.hitTest(30, 0, 100, 200));
+        assertEquals(3, thumbs.hitTest(160, 0, 100, 200));
+        assertEquals(4, thumbs.hitTest(500, 0, 100, 200));
+    }
+
+    @Test
+    public void hitTest_overlappingThumbsMoveTowardTouch() {
+        final RangeThumbs thumbs = new RangeThumbs(2, 0, 100);
+        thumbs.setValue(0, 50, 0, 100);
+        thumbs.setValue(1, 50, 0, 100);
+        assertEquals(0, thumbs.hitTest(40, 0, 100, 100));
+        assertEquals(1, thumbs.hitTest(60, 0, 100, 100));
+    }
+
+    @Test
+    public void clampAll_keepsOrderInNewRange() {
+        final RangeThumbs thumbs = new RangeThumbs(3, 0, 100);
+        thumbs.clampAll(60, 80);
+        assertEquals(60, thumbs.getValue(0));
+        assertEquals(60, thumbs.getValue(1));
+        assertEquals(80, thumbs.getValue(2));
+    }
+
+    @Test
+    public void clampAll_keepsSpacingNearMax() {
+        final RangeThumbs thumbs = new RangeThumbs(3, 0, 100);
+        thumbs.setMinSpacing(10);
+        // 后两个触点超出新的上限，第二个触点后退以保持与最后一个的间距
+        thumbs.clampAll(0, 40);
+        assertEquals(0, thumbs.getValue(0));
+        assertEquals(30, thumbs.getValue(1));
+        assertEquals(40, thumbs.getValue(2));
+    }
+
+    @Test
+    public void clampAll_rangeTooSmallForSpacingStaysInRange() {
+        final RangeThumbs thumbs = new RangeThumbs(3, 0, 100);
+        thumbs.setMinSpacing(10);
+        thumbs.clampAll(0, 5);
+        for (int i = 0; i < thumbs.count(); i++) {
+            assertTrue(thumbs.getValue(i) >= 0 && thumbs.getValue(i) <= 5);
+        }
+        assertTrue(thumbs.getValue(0) <= thumbs.getValue(1));
+        assertTrue(thumbs.getValue(1) <= thumbs.getValue(2));
+    }
+
+    @Test
+    public void hitTestUnattached_skipsThumbsBoundToOtherPointers() {
+        final RangeThumbs thumbs = new RangeThumbs(3, 0, 100);
+        assertEquals(1, thumbs.hitTestUnattached(45, 0, 100, 100, null));
+        thumbs.attachPointer(1, 0);
+        // 最近的触点1已被拖动，选择剩余触点中较近的0
+        assertEquals(0, thumbs.hitTestUnattached(45, 0, 100, 100, null));
+        assertEquals(2, thumbs.hitTestUnattached(55, 0, 100, 100, null));
+        thumbs.attachPointer(0, 1);
+        assertEquals(2, thumbs.hitTestUnattached(5, 0, 100, 100, null));
+        thumbs.attachPointer(2, 2);
+        assertEquals(-1, thumbs.hitTestUnattached(5, 0, 100, 100, null));
+    }
+
+    @Test
+    public void pointers_attachAndDetach() {
+        final RangeThumbs thumbs = new RangeThumbs(2, 0, 100);
+        assertFalse(thumbs.hasPointer());
+        thumbs.attachPointer(1, 7);
+        assertEquals(7, thumbs.getPointerId(1));
+        assertEquals(1, thumbs.detachPointer(7));
+        assertEquals(RangeThumbs.NO_POINTER, thumbs.getPointerId(1));
+        assertEquals(-1, thumbs.detachPointer(7));
+    }
+}
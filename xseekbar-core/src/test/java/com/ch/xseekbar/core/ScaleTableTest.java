@@ -0,0 +1,62 @@
+package com.ch.xseekbar.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link ScaleTable}的单元测试
+ */
+public class ScaleTableTest {
+    private static final double DELTA = 1e-9;
+
+    @Test
+    public void linear_matchesProgressMath() {
+        final ScaleTable table = new ScaleTable(ValueScales.LINEAR, 0, 1000, 500);
+        for (int pos = 0; pos <= 500; pos++) {
+            assertEquals(ProgressMath.positionToProgress(pos, 500, 0, 1000), table.positionToValue(pos));
+        }
+        assertEquals(0.5, table.valueToFraction(500), DELTA);
+        // 落在两个像素之间时插值
+        assertEquals(0.501, table.valueToFraction(501), DELTA);
+    }
+
+    @Test
+    public void forwardAndInverseAreConsistent() {
+        final ValueScale[] scales = {ValueScales.logarithmic(), ValueScales.exponential(4),
+                ValueScales.piecewiseLinear(new long[]{1, 10, 100}, new double[]{0, 0.8, 1})};
+        for (ValueScale scale : scales) {
+            final ScaleTable table = new ScaleTable(scale, 1, 100, 720);
+            for (int pos = 0; pos <= 720; pos++) {
+                final long value = table.positionToValue(pos);
+                assertEquals(value, table.positionToValue(table.valueToFraction(value) * 720));
+            }
+            for (long value = 1; value <= 100; value++) {
+                final double fraction = table.valueToFraction(value);
+                assertTrue(fraction >= 0 && fraction <= 1);
+                if (value > 1) {
+                    assertTrue(fraction > table.valueToFraction(value - 1));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void valueToFraction_usesMiddleOfPixelRun() {
+        // 1000像素只有11个进度值
+        final ScaleTable table = new ScaleTable(ValueScales.LINEAR, 0, 10, 1000);
+        assertEquals(0.5, table.valueToFraction(5), 0.001);
+        assertEquals(0, table.valueToFraction(0), DELTA);
+        assertEquals(1, table.valueToFraction(10), DELTA);
+        assertEquals(5, table.positionToValue(table.valueToFraction(5) * 1000));
+    }
+
+    @Test
+    public void matches_detectsLayoutChange() {
+        final ValueScale scale = ValueScales.logarithmic();
+        final ScaleTable table = new ScaleTable(scale, 1, 100, 300);
+        assertTrue(table.matches(scale, 1, 100, 300));
+        assertFalse(table.matches(scale, 1, 100, 301));
+        assertFalse(table.matches(ValueScales.LINEAR, 1, 100, 300));
+    }
+}
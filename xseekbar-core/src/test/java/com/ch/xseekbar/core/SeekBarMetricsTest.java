@@ -0,0 +1,68 @@
+package com.ch.xseekbar.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link SeekBarMetrics}的单元测试
+ */
+public class SeekBarMetricsTest {
+
+    @Test
+    public void updates_countedByThread() {
+        final SeekBarMetrics metrics = new SeekBarMetrics();
+        metrics.onProgressUpdate(true);
+        metrics.onProgressUpdate(false);
+        metrics.onProgressUpdate(false);
+        metrics.onUpdateCoalesced();
+        metrics.onUpdateDropped();
+        metrics.onRefreshPosted();
+        assertEquals(1, metrics.getUiThreadUpdates());
+        assertEquals(2, metrics.getBackgroundUpdates());
+        assertEquals(1, metrics.getCoalescedUpdates());
+        assertEquals(1, metrics.getDroppedUpdates());
+        assertEquals(1, metrics.getRefreshPosts());
+    }
+
+    @Test
+    public void bucketOf_isLog2OfMicros() {
+        assertEquals(0, SeekBarMetrics.bucketOf(0));
+        assertEquals(0, SeekBarMetrics.bucketOf(1999));
+        assertEquals(1, SeekBarMetrics.bucketOf(2000));
+        assertEquals(1, SeekBarMetrics.bucketOf(3999));
+        assertEquals(4, SeekBarMetrics.bucketOf(16000));
+        assertEquals(SeekBarMetrics.DRAW_TIME_BUCKETS - 1, SeekBarMetrics.bucketOf(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void drawTimePercentile_usesBucketUpperBound() {
+        final SeekBarMetrics metrics = new SeekBarMetrics();
+        assertEquals(0, metrics.getDrawTimePercentileMicros(50));
+        for (int i = 0; i < 99; i++) {
+            // [256, 512)us
+            metrics.onFrameDrawn(300000);
+        }
+        // [8192, 16384)us
+        metrics.onFrameDrawn(10000000);
+        assertEquals(100, metrics.getFramesDrawn());
+        assertEquals(512, metrics.getDrawTimePercentileMicros(50));
+        assertEquals(512, metrics.getDrawTimePercentileMicros(99));
+        assertEquals(16384, metrics.getDrawTimePercentileMicros(100));
+    }
+
+    @Test
+    public void reset_clearsEverything() {
+        final SeekBarMetrics metrics = new SeekBarMetrics();
+        metrics.onFrameDrawn(1000);
+        metrics.onInvalidate(100);
+        metrics.onListenerCall(50);
+        metrics.reset();
+        assertEquals(0, metrics.getFramesDrawn());
+        assertEquals(0, metrics.getDrawNanos());
+        assertEquals(0, metrics.getInvalidatedArea());
+        assertEquals(0, metrics.getListenerCalls());
+        assertEquals(0, metrics.getListenerNanos());
+        assertEquals(0, metrics.getDrawTimePercentileMicros(100));
+    }
+}
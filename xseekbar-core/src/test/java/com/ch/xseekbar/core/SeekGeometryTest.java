@@ -0,0 +1,32 @@
+package com.ch.xseekbar.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link SeekGeometry}的单元测试
+ */
+public class SeekGeometryTest {
+
+    @Test
+    public void thumbStart_centersThumbOnProgress() {
+        assertEquals(-10, SeekGeometry.thumbStart(0, 200, 0, 20));
+        assertEquals(90, SeekGeometry.thumbStart(0.5, 200, 0, 20));
+        assertEquals(200, SeekGeometry.thumbStart(1, 200, 10, 20));
+    }
+
+    @Test
+    public void indicatorStart_followsProgress() {
+        assertEquals(10, SeekGeometry.indicatorStart(0, 200, 10));
+        assertEquals(60, SeekGeometry.indicatorStart(0.25, 200, 10));
+    }
+
+    @Test
+    public void touchToPosition_clampsToTrack() {
+        assertEquals(0, SeekGeometry.touchToPosition(5, 220, 10, 10), 0);
+        assertEquals(90, SeekGeometry.touchToPosition(100, 220, 10, 10), 0);
+        assertEquals(200, SeekGeometry.touchToPosition(300, 220, 10, 10), 0);
+        assertEquals(0, SeekGeometry.touchToPosition(300, 10, 10, 10), 0);
+    }
+}
@@ -0,0 +1,117 @@
+package com.ch.xseekbar.core;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link SeekRequestGate}的单元测试
+ */
+public class SeekRequestGateTest {
+
+    /**
+     * 记录每次请求的值和token
+     */
+    private static final class RecordingTarget implements SeekRequestGate.Target {
+        final List<Long> values = new ArrayList<>();
+        final List<Long> tokens = new ArrayList<>();
+
+        @Override
+        public void onSeekRequest(long value, long token) {
+            values.add(value);
+            tokens.add(token);
+        }
+
+        long lastToken() {
+            return tokens.get(tokens.size() - 1);
+        }
+    }
+
+    @Test
+    public void offer_deliversImmediatelyWhenIdle() {
+        final RecordingTarget target = new RecordingTarget();
+        final SeekRequestGate gate = new SeekRequestGate(target);
+        gate.offer(10);
+        assertEquals(1, target.values.size());
+        assertEquals(10L, (long) target.values.get(0));
+        assertTrue(target.lastToken() != SeekRequestGate.NO_TOKEN);
+        assertTrue(gate.isInFlight());
+        assertFalse(gate.hasPending());
+    }
+
+    @Test
+    public void offer_keepsOnlyNewestWhileInFlight() {
+        final RecordingTarget target = new RecordingTarget();
+        final SeekRequestGate gate = new SeekRequestGate(target);
+        gate.offer(1);
+        for (int i = 2; i <= 50; i++) {
+            gate.offer(i);
+        }
+        assertEquals(1, target.values.size());
+        assertTrue(gate.hasPending());
+
+        assertTrue(gate.acknowledge(target.lastToken()));
+        gate.dispatchPending();
+        assertEquals(2, target.values.size());
+        assertEquals(50L, (long) target.values.get(1));
+
+        assertFalse(gate.acknowledge(target.lastToken()));
+        assertFalse(gate.isInFlight());
+    }
+
+    @Test
+    public void acknowledge_ignoresStaleToken() {
+        final RecordingTarget target = new RecordingTarget();
+        final SeekRequestGate gate = new SeekRequestGate(target);
+        gate.offer(1);
+        final long first = target.lastToken();
+        assertFalse(gate.acknowledge(first));
+        gate.offer(2);
+        // 重复确认第一个请求不影响第二个
+        assertFalse(gate.acknowledge(first));
+        assertFalse(gate.acknowledge(SeekRequestGate.NO_TOKEN));
+        assertTrue(gate.isInFlight());
+        gate.offer(3);
+        assertEquals(2, target.values.size());
+    }
+
+    @Test
+    public void finish_alwaysDeliversFinalValue() {
+        final RecordingTarget target = new RecordingTarget();
+        final SeekRequestGate gate = new SeekRequestGate(target);
+        gate.offer(1);
+        gate.finish(7);
+        assertEquals(1, target.values.size());
+        assertTrue(gate.acknowledge(target.lastToken()));
+        gate.dispatchPending();
+        assertEquals(7L, (long) target.values.get(1));
+
+        // 与最后请求的值相同时不重复请求
+        gate.acknowledge(target.lastToken());
+        gate.finish(7);
+        assertEquals(2, target.values.size());
+        gate.finish(8);
+        assertEquals(3, target.values.size());
+        assertEquals(8L, (long) target.values.get(2));
+    }
+
+    @Test
+    public void reset_dropsPendingAndInFlight() {
+        final RecordingTarget target = new RecordingTarget();
+        final SeekRequestGate gate = new SeekRequestGate(target);
+        gate.offer(1);
+        final long token = target.lastToken();
+        gate.offer(2);
+        gate.reset();
+        assertFalse(gate.isInFlight());
+        assertFalse(gate.hasPending());
+        assertFalse(gate.acknowledge(token));
+        gate.dispatchPending();
+        assertEquals(1, target.values.size());
+        gate.finish(1);
+        assertEquals(2, target.values.size());
+    }
+}
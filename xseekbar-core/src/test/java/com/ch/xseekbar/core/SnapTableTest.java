@@ -0,0 +1,64 @@
+package com.ch.xseekbar.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link SnapTable}的单元测试
+ */
+public class SnapTableTest {
+
+    @Test
+    public void constructor_sortsAndRemovesDuplicates() {
+        final SnapTable table = new SnapTable(new long[]{50, 1, 5, 10, 2, 5, 20});
+        assertEquals(6, table.size());
+        assertEquals(1, table.get(0));
+        assertEquals(50, table.get(5));
+    }
+
+    @Test
+    public void snap_picksNearestValue() {
+        final SnapTable table = new SnapTable(new long[]{1, 2, 5, 10, 20, 50});
+        assertEquals(1, table.snap(0, 0, 100));
+        assertEquals(2, table.snap(3, 0, 100));
+        // 距离相同取较大的
+        assertEquals(20, table.snap(15, 0, 100));
+        assertEquals(10, table.snap(14, 0, 100));
+        assertEquals(50, table.snap(100, 0, 100));
+    }
+
+    @Test
+    public void snap_onlyUsesValuesInRange() {
+        final SnapTable table = new SnapTable(new long[]{1, 2, 5, 10, 20, 50});
+        assertEquals(5, table.snap(1, 3, 15));
+        assertEquals(10, table.snap(40, 3, 15));
+        // 范围内没有可选值
+        assertEquals(33, table.snap(33, 30, 40));
+        assertEquals(40, table.snap(99, 30, 40));
+    }
+
+    @Test
+    public void indices_useBinarySearch() {
+        final SnapTable table = new SnapTable(new long[]{1, 2, 5, 10});
+        assertEquals(0, table.ceilIndex(-3));
+        assertEquals(2, table.ceilIndex(3));
+        assertEquals(2, table.ceilIndex(5));
+        assertEquals(4, table.ceilIndex(11));
+        assertEquals(-1, table.floorIndex(0));
+        assertEquals(1, table.floorIndex(3));
+        assertEquals(3, table.floorIndex(11));
+    }
+
+    @Test
+    public void snap_fullLongRange() {
+        final SnapTable table = new SnapTable(new long[]{Long.MIN_VALUE, 0, Long.MAX_VALUE});
+        assertEquals(0, table.snap(1L << 60, Long.MIN_VALUE, Long.MAX_VALUE));
+        assertEquals(Long.MAX_VALUE, table.snap(Long.MAX_VALUE - 1, Long.MIN_VALUE, Long.MAX_VALUE));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_rejectsEmpty() {
+        new SnapTable(new long[0]);
+    }
+}
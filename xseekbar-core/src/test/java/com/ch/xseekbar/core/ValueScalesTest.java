@@ -0,0 +1,59 @@
+package com.ch.xseekbar.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link ValueScales}的单元测试
+ */
+public class ValueScalesTest {
+    private static final double DELTA = 1e-9;
+
+    @Test
+    public void logarithmic_equalRatiosTakeEqualLength() {
+        final ValueScale scale = ValueScales.logarithmic();
+        assertEquals(0, scale.toPosition(20, 20, 20000), DELTA);
+        assertEquals(1 / 3.0, scale.toPosition(200, 20, 20000), DELTA);
+        assertEquals(2 / 3.0, scale.toPosition(2000, 20, 20000), DELTA);
+        assertEquals(1, scale.toPosition(20000, 20, 20000), DELTA);
+        assertEquals(200, scale.toValue(1 / 3.0, 20, 20000));
+        assertEquals(20000, scale.toValue(1, 20, 20000));
+    }
+
+    @Test
+    public void logarithmic_shiftsNonPositiveMin() {
+        final ValueScale scale = ValueScales.logarithmic();
+        assertEquals(0, scale.toPosition(-10, -10, 90), DELTA);
+        assertEquals(1, scale.toPosition(90, -10, 90), DELTA);
+        for (long value = -10; value <= 90; value++) {
+            assertEquals(value, scale.toValue(scale.toPosition(value, -10, 90), -10, 90));
+        }
+    }
+
+    @Test
+    public void exponential_isInverseOfItself() {
+        final ValueScale scale = ValueScales.exponential(3);
+        assertTrue(scale.toPosition(500, 0, 1000) > 0.5);
+        for (long value = 0; value <= 1000; value += 7) {
+            assertEquals(value, scale.toValue(scale.toPosition(value, 0, 1000), 0, 1000));
+        }
+        final ValueScale reversed = ValueScales.exponential(-3);
+        assertTrue(reversed.toPosition(500, 0, 1000) < 0.5);
+        assertSame(ValueScales.LINEAR, ValueScales.exponential(0));
+    }
+
+    @Test
+    public void piecewiseLinear_interpolatesBetweenKnots() {
+        final ValueScale scale = ValueScales.piecewiseLinear(new long[]{0, 100, 1000}, new double[]{0, 0.5, 1});
+        assertEquals(0.25, scale.toPosition(50, 0, 1000), DELTA);
+        assertEquals(0.75, scale.toPosition(550, 0, 1000), DELTA);
+        assertEquals(550, scale.toValue(0.75, 0, 1000));
+        assertEquals(1000, scale.toValue(1, 0, 1000));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void piecewiseLinear_rejectsUnorderedKnots() {
+        ValueScales.piecewiseLinear(new long[]{0, 100, 50}, new double[]{0, 0.5, 1});
+    }
+}
@@ -0,0 +1,205 @@
+package com.ch.xseekbar;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.view.View;
+
+import com.ch.xseekbar.core.LongLruCache;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 在后台线程获取指示器内容，结果按进度缓存在有界LRU中
+ * 当前进度的内容未完成时返回最后一次完成的内容，完成后重绘；空闲时按{@link #prefetch(long[], int)}给出的顺序预取
+ * 同一时刻Executor中最多只有一个任务，新的进度覆盖未开始的请求，不会堆积过期的任务
+ * <p>
+ * 除后台任务外只能在UI线程使用
+ */
+final class AsyncIndicatorContent {
+    /**
+     * 默认缓存的内容数
+     */
+    static final int DEFAULT_CACHE_SIZE = 64;
+    /**
+     * 拖动时最多预取的进度数
+     */
+    static final int PREFETCH_COUNT = 8;
+
+    private final View mView;
+    /**
+     * 主线程Handler，后台任务通过它返回结果
+     * 不使用View#post：API 24以下View未附加到窗口时post的任务会丢失，mRunning无法清除，之后不再提交任务
+     */
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+    private final XSeekBar.AsyncIndicatorContentProvider mProvider;
+    private final Executor mExecutor;
+    private final LongLruCache<XSeekBar.IndicatorFontInfo> mCache;
+
+    /**
+     * 最后一次完成的当前进度内容，当前进度的内容未完成时绘制
+     */
+    private XSeekBar.IndicatorFontInfo mLastContent;
+    private int mWidth = -1;
+    private int mHeight = -1;
+    /**
+     * 指示器尺寸变化后递增，丢弃旧尺寸的结果
+     */
+    private int mGeneration;
+    /**
+     * 等待获取内容的当前进度
+     */
+    private boolean mHasWanted;
+    private long mWanted;
+    private final long[] mPrefetch = new long[PREFETCH_COUNT];
+    private int mPrefetchCount;
+    private int mPrefetchIndex;
+    private boolean mRunning;
+    private boolean mReleased;
+
+    /**
+     * 后台任务的参数和结果，UI线程在提交前写入参数，后台线程在post前写入结果，
+     * Executor和Handler保证了可见性
+     */
+    private long mTaskProgress;
+    private int mTaskWidth;
+    private int mTaskHeight;
+    private int mTaskGeneration;
+    private XSeekBar.IndicatorFontInfo mTaskResult;
+
+    private final Runnable mTask = new Runnable() {
+        @Override
+        public void run() {
+            XSeekBar.IndicatorFontInfo result = null;
+            try {
+                result = mProvider.getIndicatorContent(mTaskProgress, mTaskWidth, mTaskHeight);
+            } finally {
+                mTaskResult = result;
+                mMainHandler.post(mDeliver);
+            }
+        }
+    };
+    private final Runnable mDeliver = new Runnable() {
+        @Override
+        public void run() {
+            deliver();
+        }
+    };
+
+    AsyncIndicatorContent(View view, XSeekBar.AsyncIndicatorContentProvider provider, Executor executor, int cacheSize) {
+        mView = view;
+        mProvider = provider;
+        mExecutor = executor;
+        mCache = new LongLruCache<>(cacheSize);
+    }
+
+    /**
+     * 获取进度对应的内容，未缓存时提交后台任务
+     *
+     * @param progress
+     * @param width    指示器宽度
+     * @param height   指示器高度
+     * @return 未缓存时返回最后一次完成的内容，没有时返回null
+     */
+    XSeekBar.IndicatorFontInfo get(long progress, int width, int height) {
+        if (width != mWidth || height != mHeight) {
+            mWidth = width;
+            mHeight = height;
+            mGeneration++;
+            mCache.clear();
+        }
+
+        final XSeekBar.IndicatorFontInfo content = mCache.get(progress);
+        if (content != null) {
+            mLastContent = content;
+            mHasWanted = false;
+            return content;
+        }
+        mWanted = progress;
+        mHasWanted = true;
+        scheduleNext();
+        return mLastContent;
+    }
+
+    /**
+     * 设置预取的进度，替换之前未完成的预取，当前进度的请求优先
+     *
+     * @param values 按优先级排列
+     * @param count  values中有效的数量，最多{@link #PREFETCH_COUNT}
+     */
+    void prefetch(long[] values, int count) {
+        mPrefetchCount = Math.min(count, PREFETCH_COUNT);
+        System.arraycopy(values, 0, mPrefetch, 0, mPrefetchCount);
+        mPrefetchIndex = 0;
+        scheduleNext();
+    }
+
+    /**
+     * 停止使用，丢弃缓存和未完成的结果
+     */
+    void release() {
+        mReleased = true;
+        mHasWanted = false;
+        mPrefetchCount = 0;
+        mLastContent = null;
+        mCache.clear();
+    }
+
+    private void scheduleNext() {
+        if (mRunning || mReleased || mWidth < 0) {
+            return;
+        }
+
+        long progress;
+        if (mHasWanted && !mCache.contains(mWanted)) {
+            progress = mWanted;
+        } else {
+            while (true) {
+                if (mPrefetchIndex >= mPrefetchCount) {
+                    return;
+                }
+                progress = mPrefetch[mPrefetchIndex++];
+                if (!mCache.contains(progress)) {
+                    break;
+                }
+            }
+        }
+
+        mTaskProgress = progress;
+        mTaskWidth = mWidth;
+        mTaskHeight = mHeight;
+        mTaskGeneration = mGeneration;
+        mRunning = true;
+        try {
+            mExecutor.execute(mTask);
+        } catch (RejectedExecutionException e) {
+            // Executor已关闭，下次获取时重试
+            mRunning = false;
+        }
+    }
+
+    private void deliver() {
+        mRunning = false;
+        if (mReleased) {
+            return;
+        }
+
+        final XSeekBar.IndicatorFontInfo result = mTaskResult;
+        mTaskResult = null;
+        if (mTaskGeneration == mGeneration) {
+            final boolean wanted = mHasWanted && mWanted == mTaskProgress;
+            if (result != null) {
+                mCache.put(mTaskProgress, result);
+                if (wanted) {
+                    mLastContent = result;
+                    mView.invalidate();
+                }
+            }
+            if (wanted) {
+                // 获取失败时不重试，避免每次绘制都提交任务
+                mHasWanted = false;
+            }
+        }
+        scheduleNext();
+    }
+}
@@ -0,0 +1,133 @@
+package com.ch.xseekbar;
+
+import android.view.Choreographer;
+
+import com.ch.xseekbar.core.FlingSimulation;
+
+/**
+ * 松手后的惯性滑动，由{@link Choreographer}帧回调驱动
+ * 先按摩擦模型减速，停止后如果{@link Target#getSettlePosition(float)}给出的位置与当前位置不同，再用弹簧停到该位置
+ * 每帧只根据帧时间计算位置并回调{@link Target}，不创建对象、不装箱，高刷新率下同样只做一次计算
+ * <p>
+ * 只能在UI线程使用
+ */
+final class FlingAnimator implements Choreographer.FrameCallback {
+    private final Target mTarget;
+    private final Choreographer mChoreographer;
+    private final FlingSimulation mSimulation = new FlingSimulation();
+
+    private float mFriction = FlingSimulation.DEFAULT_FRICTION;
+    /**
+     * 当前阶段开始的帧时间，小于0表示在下一帧确定
+     */
+    private long mStartTimeNanos = -1;
+    /**
+     * 是否已进入弹簧阶段
+     */
+    private boolean mSettling;
+    private boolean mRunning;
+    private boolean mCallbackPosted;
+
+    FlingAnimator(Target target) {
+        mTarget = target;
+        mChoreographer = Choreographer.getInstance();
+    }
+
+    void setFriction(float friction) {
+        mFriction = friction;
+    }
+
+    boolean isRunning() {
+        return mRunning;
+    }
+
+    /**
+     * 开始惯性滑动，正在滑动时从新的位置和速度重新开始
+     *
+     * @param start    起始位置，相对于进度起点的像素
+     * @param velocity 像素/秒
+     * @param max      进度的像素长度
+     */
+    void fling(float start, float velocity, float max) {
+        mSimulation.fling(start, velocity, 0, max, mFriction);
+        mSettling = false;
+        mStartTimeNanos = -1;
+        mRunning = true;
+        postFrame();
+    }
+
+    /**
+     * 取消滑动，停留在当前位置，不回调{@link Target#onFlingEnd()}
+     */
+    void cancel() {
+        mRunning = false;
+        if (mCallbackPosted) {
+            mCallbackPosted = false;
+            mChoreographer.removeFrameCallback(this);
+        }
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        mCallbackPosted = false;
+        if (!mRunning) {
+            return;
+        }
+
+        if (mStartTimeNanos < 0) {
+            mStartTimeNanos = frameTimeNanos;
+        }
+        final float seconds = (frameTimeNanos - mStartTimeNanos) / 1e9f;
+        final FlingSimulation simulation = mSimulation;
+        final float position = simulation.getPosition(seconds);
+        mTarget.onFlingFrame(position);
+
+        if (!simulation.isAtRest(seconds)) {
+            postFrame();
+            return;
+        }
+        if (!mSettling) {
+            mSettling = true;
+            final float settle = mTarget.getSettlePosition(position);
+            if (Math.abs(settle - position) >= FlingSimulation.REST_DISTANCE) {
+                simulation.spring(position, simulation.getVelocity(seconds), settle,
+                        FlingSimulation.DEFAULT_SPRING_FREQUENCY);
+                mStartTimeNanos = frameTimeNanos;
+                postFrame();
+                return;
+            }
+        }
+        mRunning = false;
+        mTarget.onFlingEnd();
+    }
+
+    private void postFrame() {
+        if (!mCallbackPosted) {
+            mCallbackPosted = true;
+            mChoreographer.postFrameCallback(this);
+        }
+    }
+
+    /**
+     * 惯性滑动的接收者
+     */
+    interface Target {
+        /**
+         * @param position 当前帧的位置，相对于进度起点的像素
+         */
+        void onFlingFrame(float position);
+
+        /**
+         * 摩擦减速停止后的最终位置，例如对齐到最近的步长
+         *
+         * @param position 停止的位置
+         * @return 返回position表示不需要调整
+         */
+        float getSettlePosition(float position);
+
+        /**
+         * 滑动结束，已停在最终位置
+         */
+        void onFlingEnd();
+    }
+}
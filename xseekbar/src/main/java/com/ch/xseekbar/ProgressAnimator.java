@@ -0,0 +1,158 @@
+package com.ch.xseekbar;
+
+import android.animation.TimeInterpolator;
+import android.view.Choreographer;
+
+/**
+ * 进度动画引擎，由{@link Choreographer}帧回调驱动
+ * 每帧只做浮点计算并回调{@link Target}，不创建对象、不装箱
+ * 动画中设置新的目标值时从当前值平滑过渡到新目标，窗口分离时可暂停
+ * <p>
+ * 只能在UI线程使用
+ */
+final class ProgressAnimator implements Choreographer.FrameCallback {
+    private final Target mTarget;
+    private final Choreographer mChoreographer;
+
+    private TimeInterpolator mInterpolator;
+    private long mDurationNanos;
+
+    private float mFrom;
+    private float mTo;
+    /**
+     * 动画开始的帧时间，小于0表示在下一帧确定
+     */
+    private long mStartTimeNanos = -1;
+    /**
+     * 已执行的时长，暂停后恢复时从该时长继续
+     */
+    private long mElapsedNanos;
+
+    private boolean mRunning;
+    private boolean mPaused;
+    private boolean mCallbackPosted;
+
+    ProgressAnimator(Target target, TimeInterpolator interpolator, long durationMillis) {
+        mTarget = target;
+        mChoreographer = Choreographer.getInstance();
+        mInterpolator = interpolator;
+        setDuration(durationMillis);
+    }
+
+    void setInterpolator(TimeInterpolator interpolator) {
+        mInterpolator = interpolator;
+    }
+
+    void setDuration(long durationMillis) {
+        mDurationNanos = Math.max(0, durationMillis) * 1000000L;
+    }
+
+    boolean isRunning() {
+        return mRunning;
+    }
+
+    /**
+     * 获取动画的目标值
+     *
+     * @return
+     */
+    float getTargetValue() {
+        return mTo;
+    }
+
+    /**
+     * 开始动画，如果动画正在执行，则从当前值重新开始向新目标过渡
+     *
+     * @param from 起始值，一般为当前显示的值
+     * @param to   目标值
+     */
+    void animateTo(float from, float to) {
+        mFrom = from;
+        mTo = to;
+        mStartTimeNanos = -1;
+        mElapsedNanos = 0;
+        mRunning = true;
+        if (!mPaused) {
+            postFrame();
+        }
+    }
+
+    /**
+     * 取消动画，停留在当前值
+     */
+    void cancel() {
+        mRunning = false;
+        removeFrame();
+    }
+
+    /**
+     * 暂停动画，保留已执行的时长
+     */
+    void pause() {
+        if (!mPaused) {
+            mPaused = true;
+            removeFrame();
+        }
+    }
+
+    /**
+     * 恢复暂停的动画
+     */
+    void resume() {
+        if (mPaused) {
+            mPaused = false;
+            if (mRunning) {
+                mStartTimeNanos = -1;
+                postFrame();
+            }
+        }
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        mCallbackPosted = false;
+        if (!mRunning || mPaused) {
+            return;
+        }
+
+        if (mStartTimeNanos < 0) {
+            mStartTimeNanos = frameTimeNanos - mElapsedNanos;
+        }
+        mElapsedNanos = frameTimeNanos - mStartTimeNanos;
+
+        final float fraction = mDurationNanos > 0 ? Math.min(1f, mElapsedNanos / (float) mDurationNanos) : 1f;
+        final float interpolated = mInterpolator != null ? mInterpolator.getInterpolation(fraction) : fraction;
+        final float value = fraction >= 1f ? mTo : mFrom + (mTo - mFrom) * interpolated;
+
+        if (fraction >= 1f) {
+            mRunning = false;
+        } else {
+            postFrame();
+        }
+        mTarget.onAnimationFrame(value);
+    }
+
+    private void postFrame() {
+        if (!mCallbackPosted) {
+            mCallbackPosted = true;
+            mChoreographer.postFrameCallback(this);
+        }
+    }
+
+    private void removeFrame() {
+        if (mCallbackPosted) {
+            mCallbackPosted = false;
+            mChoreographer.removeFrameCallback(this);
+        }
+    }
+
+    /**
+     * 动画每一帧的接收者
+     */
+    interface Target {
+        /**
+         * @param value 当前帧的值
+         */
+        void onAnimationFrame(float value);
+    }
+}
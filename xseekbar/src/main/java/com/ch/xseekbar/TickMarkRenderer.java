@@ -0,0 +1,210 @@
+package com.ch.xseekbar;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.drawable.Drawable;
+
+/**
+ * 刻度绘制
+ * 刻度位置只在布局、范围、刻度Drawable变化时计算一次，并预先绘制到一张位图上，
+ * 每帧只需一次{@link Canvas#drawBitmap(Bitmap, float, float, Paint)}，与刻度数量无关
+ * 刻度位置由{@link Ticks}给出，相邻刻度间距小于最小间距时跳过部分刻度
+ * 位图只在{@link #prepare(Drawable, boolean, int)}中创建(布局、配置、刻度Drawable变化时)，
+ * {@link #rebuild(Drawable, boolean, int, int, int, Ticks, int)}只在已有位图上重新绘制，可在绘制时调用
+ * <p>
+ * 只能在UI线程使用
+ */
+final class TickMarkRenderer {
+    private final Canvas mCanvas = new Canvas();
+    private final Paint mPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+
+    private Bitmap mBitmap;
+    /**
+     * 位图在View坐标系中的左上角
+     */
+    private int mLeft;
+    private int mTop;
+    private boolean mDirty = true;
+    /**
+     * 位图中的刻度与最近一次重新绘制的参数一致
+     */
+    private boolean mVisible;
+
+    /**
+     * 标记刻度需要重新绘制
+     */
+    void invalidate() {
+        mDirty = true;
+    }
+
+    boolean isDirty() {
+        return mDirty;
+    }
+
+    /**
+     * 按刻度尺寸和进度长度准备位图，尺寸不变时复用，不能在绘制时调用
+     * 创建新位图后标记需要重新绘制
+     *
+     * @param tick       刻度Drawable，为null时释放位图
+     * @param horizontal 是否水平方向
+     * @param length     进度起点到终点的距离
+     */
+    void prepare(Drawable tick, boolean horizontal, int length) {
+        if (tick == null || length <= 0) {
+            release();
+            return;
+        }
+        final int bitmapWidth = bitmapWidth(tick, horizontal, length);
+        final int bitmapHeight = bitmapHeight(tick, horizontal, length);
+        if (mBitmap == null || mBitmap.getWidth() != bitmapWidth || mBitmap.getHeight() != bitmapHeight) {
+            release();
+            mBitmap = Bitmap.createBitmap(bitmapWidth, bitmapHeight, Bitmap.Config.ARGB_8888);
+            mDirty = true;
+        }
+    }
+
+    /**
+     * 重新计算刻度位置并绘制到{@link #prepare(Drawable, boolean, int)}准备的位图，不创建位图
+     * 位图尺寸与当前参数不符时(尚未重新布局)不绘制刻度，等待下一次准备
+     *
+     * @param tick       刻度Drawable
+     * @param horizontal 是否水平方向
+     * @param startX     第一个刻度中心点在View坐标系中的x
+     * @param startY     第一个刻度中心点在View坐标系中的y
+     * @param length     进度起点到终点的距离
+     * @param ticks      刻度位置
+     * @param minPitch   相邻刻度的最小间距
+     */
+    void rebuild(Drawable tick, boolean horizontal, int startX, int startY, int length, Ticks ticks, int minPitch) {
+        mDirty = false;
+        mVisible = false;
+        if (mBitmap == null || tick == null || length <= 0
+                || mBitmap.getWidth() != bitmapWidth(tick, horizontal, length)
+                || mBitmap.getHeight() != bitmapHeight(tick, horizontal, length)) {
+            return;
+        }
+        mBitmap.eraseColor(Color.TRANSPARENT);
+        mVisible = true;
+        final long count = ticks.count();
+        if (count <= 0) {
+            return;
+        }
+
+        final int halfW = halfSize(tick.getIntrinsicWidth());
+        final int halfH = halfSize(tick.getIntrinsicHeight());
+        mLeft = startX - halfW;
+        mTop = startY - halfH;
+        mCanvas.setBitmap(mBitmap);
+
+        // 均匀刻度的间距小于最小间距时，每stride个刻度绘制一个，跳过后仍然均匀
+        // 间距按前两个刻度的值计算，终点不在步长上时最后一段较短，不能用length / (count - 1)
+        long stride = 1;
+        if (ticks.isUniform() && count > 1) {
+            final double pitch = (ticks.fractionAt(1) - ticks.fractionAt(0)) * length;
+            stride = pitch >= minPitch ? 1 : (long) Math.ceil(minPitch / pitch);
+        } else if (count > length + 1) {
+            // 非均匀刻度数量超过像素数时先按比例跳过，避免逐个计算
+            stride = (count + length) / (length + 1);
+        }
+        final long last = count - 1;
+        final int endOffset = offsetOf(ticks, last, length);
+        boolean drawn = false;
+        int lastOffset = 0;
+        for (long i = 0; i < last; i += stride) {
+            final int offset = offsetOf(ticks, i, length);
+            // 与上一个绘制的刻度距离过近时跳过(非均匀刻度)；与终点过近时跳过，终点刻度总是绘制
+            if (drawn && (offset - lastOffset < minPitch || endOffset - offset < minPitch)) {
+                continue;
+            }
+            drawn = true;
+            lastOffset = offset;
+            drawTick(tick, horizontal, offset, halfW, halfH);
+        }
+        drawTick(tick, horizontal, endOffset, halfW, halfH);
+        mCanvas.setBitmap(null);
+    }
+
+    private static int offsetOf(Ticks ticks, long index, int length) {
+        return (int) Math.round(ticks.fractionAt(index) * length);
+    }
+
+    private void drawTick(Drawable tick, boolean horizontal, int offset, int halfW, int halfH) {
+        if (horizontal) {
+            tick.setBounds(offset, 0, offset + halfW * 2, halfH * 2);
+        } else {
+            tick.setBounds(0, offset, halfW * 2, offset + halfH * 2);
+        }
+        tick.draw(mCanvas);
+    }
+
+    /**
+     * 绘制刻度
+     *
+     * @param canvas View的Canvas
+     */
+    void draw(Canvas canvas) {
+        if (mBitmap != null && mVisible) {
+            canvas.drawBitmap(mBitmap, mLeft, mTop, mPaint);
+        }
+    }
+
+    /**
+     * 当前位图
+     *
+     * @return 未准备时为null
+     */
+    Bitmap getBitmap() {
+        return mBitmap;
+    }
+
+    /**
+     * 释放位图
+     */
+    void release() {
+        if (mBitmap != null) {
+            mBitmap.recycle();
+            mBitmap = null;
+        }
+        mVisible = false;
+    }
+
+    private static int bitmapWidth(Drawable tick, boolean horizontal, int length) {
+        final int width = halfSize(tick.getIntrinsicWidth()) * 2;
+        return horizontal ? length + width : width;
+    }
+
+    private static int bitmapHeight(Drawable tick, boolean horizontal, int length) {
+        final int height = halfSize(tick.getIntrinsicHeight()) * 2;
+        return horizontal ? height : length + height;
+    }
+
+    /**
+     * 刻度宽/高的一半，没有固有尺寸时为1
+     */
+    private static int halfSize(int intrinsicSize) {
+        return intrinsicSize >= 0 ? Math.max(1, intrinsicSize / 2) : 1;
+    }
+
+    /**
+     * 刻度位置，只在重新绘制刻度时调用
+     */
+    interface Ticks {
+        /**
+         * @return 刻度数量
+         */
+        long count();
+
+        /**
+         * @param index [0, count)
+         * @return 第index个刻度在进度上的[0...1]比例，升序
+         */
+        double fractionAt(long index);
+
+        /**
+         * @return 刻度是否等间距
+         */
+        boolean isUniform();
+    }
+}
@@ -0,0 +1,117 @@
+package com.ch.xseekbar;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.drawable.Drawable;
+
+/**
+ * 进度槽背景缓存
+ * 将{@link android.graphics.drawable.LayerDrawable}中{@link android.R.id#background}层预先绘制到位图，
+ * 之后每帧只绘制位图和其余的进度层，避免重复绘制平铺的{@link android.graphics.drawable.BitmapDrawable}等开销较大的背景
+ * 位图只在尺寸、状态、tint变化后重新绘制
+ * 位图只在{@link #prepare(Rect)}中创建(布局、更换进度Drawable时)，绘制时只在已有位图上重新绘制，
+ * 位图尺寸与进度边界不符时(尚未重新布局)本帧直接绘制背景层
+ * <p>
+ * 只能在UI线程使用
+ */
+final class TrackBackgroundCache {
+    private final Canvas mCanvas = new Canvas();
+    private final Paint mPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+
+    private Bitmap mBitmap;
+    private boolean mDirty = true;
+
+    /**
+     * 标记背景需要重新绘制
+     */
+    void invalidate() {
+        mDirty = true;
+    }
+
+    /**
+     * 按进度Drawable的边界准备位图，尺寸不变时复用，不能在绘制时调用
+     * 创建新位图后标记需要重新绘制
+     *
+     * @param bounds 进度Drawable的边界
+     */
+    void prepare(Rect bounds) {
+        final int width = bounds.width();
+        final int height = bounds.height();
+        if (width <= 0 || height <= 0) {
+            release();
+            return;
+        }
+        if (!matches(bounds)) {
+            // 不调用release()，位图已重新创建
+            recycleBitmap();
+            mBitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+            mDirty = true;
+        }
+    }
+
+    /**
+     * 绘制缓存的背景层，缓存失效时先在已有位图上重新绘制，不创建位图
+     * Canvas需已偏移到进度Drawable的坐标系
+     *
+     * @param canvas
+     * @param background {@link android.R.id#background}层
+     * @param bounds     进度Drawable的边界
+     */
+    void draw(Canvas canvas, Drawable background, Rect bounds) {
+        if (bounds.isEmpty()) {
+            return;
+        }
+        if (!matches(bounds)) {
+            // 尚未按新的尺寸准备位图
+            background.draw(canvas);
+            return;
+        }
+
+        if (mDirty) {
+            rebuild(background, bounds);
+        }
+        canvas.drawBitmap(mBitmap, bounds.left, bounds.top, mPaint);
+    }
+
+    private boolean matches(Rect bounds) {
+        return mBitmap != null && mBitmap.getWidth() == bounds.width() && mBitmap.getHeight() == bounds.height();
+    }
+
+    private void rebuild(Drawable background, Rect bounds) {
+        mBitmap.eraseColor(Color.TRANSPARENT);
+        mCanvas.setBitmap(mBitmap);
+        final int saveCount = mCanvas.save();
+        mCanvas.translate(-bounds.left, -bounds.top);
+        background.draw(mCanvas);
+        mCanvas.restoreToCount(saveCount);
+        mCanvas.setBitmap(null);
+        mDirty = false;
+    }
+
+    /**
+     * 是否需要在下次绘制时重新绘制位图
+     *
+     * @return
+     */
+    boolean isDirty() {
+        return mDirty || mBitmap == null;
+    }
+
+    /**
+     * 释放位图，下次{@link #prepare(Rect)}时重新创建
+     */
+    void release() {
+        recycleBitmap();
+        mDirty = true;
+    }
+
+    private void recycleBitmap() {
+        if (mBitmap != null) {
+            mBitmap.recycle();
+            mBitmap = null;
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.ch.xseekbar;
 
+import android.animation.TimeInterpolator;
 import android.content.Context;
 import android.content.res.ColorStateList;
+import android.content.res.Configuration;
 import android.content.res.TypedArray;
 import android.graphics.Canvas;
 import android.graphics.Color;
@@ -16,19 +18,43 @@ import android.graphics.drawable.Drawable;
 import android.graphics.drawable.LayerDrawable;
 import android.graphics.drawable.StateListDrawable;
 import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
 import android.support.annotation.Nullable;
-import android.support.v4.util.Pools;
 import android.text.TextUtils;
 import android.util.AttributeSet;
+import android.view.Display;
 import android.view.Gravity;
 import android.view.MotionEvent;
 import android.view.View;
 import android.view.ViewConfiguration;
 import android.view.ViewGroup;
 import android.view.ViewParent;
-
-import java.util.ArrayList;
-import java.util.List;
+import android.view.animation.DecelerateInterpolator;
+
+import com.ch.xseekbar.core.DragVelocityTracker;
+import com.ch.xseekbar.core.FlingSimulation;
+import com.ch.xseekbar.core.IndicatorContentState;
+import com.ch.xseekbar.core.LatencyRecorder;
+import com.ch.xseekbar.core.LatestValueDispatcher;
+import com.ch.xseekbar.core.ProgressMath;
+import com.ch.xseekbar.core.ProgressPublisher;
+import com.ch.xseekbar.core.ProgressRingBuffer;
+import com.ch.xseekbar.core.ProgressTextFormat;
+import com.ch.xseekbar.core.RangeThumbs;
+import com.ch.xseekbar.core.ScaleTable;
+import com.ch.xseekbar.core.SeekBarMetrics;
+import com.ch.xseekbar.core.SeekRequestGate;
+import com.ch.xseekbar.core.SeekGeometry;
+import com.ch.xseekbar.core.SnapTable;
+import com.ch.xseekbar.core.ValueScale;
+import com.ch.xseekbar.core.ValueScales;
+
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 
 /**
@@ -56,10 +82,18 @@ import java.util.List;
  * @attr R.styleable#XSeekBar_tickMark 刻度Drawable
  * @attr R.styleable#XSeekBar_tickMarkTintMode
  * @attr R.styleable#XSeekBar_tickMarkTint
+ * @attr R.styleable#XSeekBar_tickMarkMinPitch 相邻刻度的最小间距，小于该值时自动跳过部分刻度，默认4dp
  * @attr R.styleable#XSeekBar_min 进度最小值 默认0
  * @attr R.styleable#XSeekBar_max 进度最大值 默认100
  * @attr R.styleable#XSeekBar_progress 当前进度值
  * @attr R.styleable#XSeekBar_progressDrawable 进度Drawable
+ * @attr R.styleable#XSeekBar_trackBackgroundCache 是否缓存进度槽背景，默认false
+ * @attr R.styleable#XSeekBar_lowLatencyDrag 低延迟拖动，默认false
+ * @attr R.styleable#XSeekBar_dragPrediction 低延迟拖动时预测下一帧的触点位置，默认false
+ * @attr R.styleable#XSeekBar_stepSize 步长，拖动时进度对齐到从min开始的整数倍，默认0不对齐
+ * @attr R.styleable#XSeekBar_snapValues 可选进度值的整数数组资源，拖动时对齐到最近的值，优先于stepSize
+ * @attr R.styleable#XSeekBar_fling 松手后是否惯性滑动，默认false
+ * @attr R.styleable#XSeekBar_valueScale 进度值与位置的映射，线性或对数，默认线性
  * @attr R.styleable#XSeekBar_orientation 进度条绘制方向水平/垂直 默认水平
  * @attr R.styleable#XSeekBar_indicatorPos 指示器相对于进度条的位置需依据orientation的定义
  * @attr R.styleable#XSeekBar_indicator 指示器Drawable
@@ -87,9 +121,10 @@ import java.util.List;
  * </item>
  * </layer-list>
  * @see #setThumb(Drawable)
- * @see #setMin(int)
- * @see #setMax(int)
- * @see #setProgress(int)
+ * @see #setMin(long)
+ * @see #setMax(long)
+ * @see #setProgress(long)
+ * @see #setFraction(double)
  * @see #setProgressDrawable(Drawable)
  * @see #setIndicatorDrawable(Drawable)
  */
@@ -100,14 +135,65 @@ public class XSeekBar extends View {
      */
     private static final int MAX_LEVEL = 10000;
 
+    /**
+     * {@link RefreshMode#LOSSLESS}模式默认队列容量
+     */
+    private static final int DEFAULT_REFRESH_QUEUE_CAPACITY = 64;
+
+    /**
+     * 进度动画默认时长，单位毫秒
+     */
+    private static final long DEFAULT_PROGRESS_ANIM_DURATION = 200;
+
+    /**
+     * 相邻刻度默认最小间距，单位dp
+     */
+    private static final int DEFAULT_TICK_MARK_MIN_PITCH_DP = 4;
+
+    /**
+     * 进度取值范围的上限，子线程队列需要在long中保留标记位
+     *
+     * @see ProgressRingBuffer#pack(long, boolean, boolean)
+     */
+    public static final long MAX_PROGRESS_VALUE = ProgressRingBuffer.MAX_VALUE;
+    /**
+     * 进度取值范围的下限
+     */
+    public static final long MIN_PROGRESS_VALUE = ProgressRingBuffer.MIN_VALUE;
+
     int mMinWidth;
     int mMaxWidth;
     int mMinHeight;
     int mMaxHeight;
 
-    private int mProgress;
-    private int mMin;
-    private int mMax;
+    /**
+     * 当前进度和子线程的刷新状态，任意线程可写
+     */
+    private final ProgressPublisher mPublisher = new ProgressPublisher();
+    private volatile long mMin;
+    private volatile long mMax;
+    /**
+     * 修改范围时加锁，保证min不大于max；读取时直接读volatile字段，进度的读写不加锁
+     */
+    private final Object mRangeLock = new Object();
+    /**
+     * 子线程修改范围后已向主线程提交{@link #mRangeChangedRunnable}
+     */
+    private final AtomicBoolean mRangeChangePosted = new AtomicBoolean();
+    /**
+     * 刻度和区间模式触点只能在UI线程访问，子线程修改范围后在主线程更新
+     */
+    private final Runnable mRangeChangedRunnable = new Runnable() {
+        @Override
+        public void run() {
+            mRangeChangePosted.set(false);
+            applyRangeChange();
+        }
+    };
+    /**
+     * 最近一次回调给{@link OnSeekBarChangeListener}的进度值，只在UI线程读写
+     */
+    private long mRefreshedProgress;
     private int mDirection;
     private int mIndicatorPos;
     /**
@@ -116,6 +202,26 @@ public class XSeekBar extends View {
      */
     private float mVisualProgress;
 
+    /**
+     * 进度动画，第一次使用动画时在UI线程创建
+     */
+    private ProgressAnimator mProgressAnimator;
+    private TimeInterpolator mProgressInterpolator = new DecelerateInterpolator();
+    private long mProgressAnimDuration = DEFAULT_PROGRESS_ANIM_DURATION;
+
+    /**
+     * 进度变化时需要重绘的区域，避免每次创建对象
+     */
+    private final Rect mDirtyRect = new Rect();
+    /**
+     * 当前帧累计请求重绘的面积
+     */
+    private long mInvalidatedArea;
+    /**
+     * 上一帧请求重绘的面积，调试使用
+     */
+    private long mLastFrameInvalidatedArea;
+
     private Drawable mThumbDrawable;
     private ColorStateList mThumbTintList = null;
     private PorterDuff.Mode mThumbTintMode = null;
@@ -123,6 +229,56 @@ public class XSeekBar extends View {
     private Drawable mTickMarkDrawable;
     private ColorStateList mTickMarkTintList = null;
     private PorterDuff.Mode mTickMarkTintMode = null;
+    /**
+     * 相邻刻度的最小间距
+     */
+    private int mTickMarkMinPitch;
+    private final TickMarkRenderer mTickMarkRenderer = new TickMarkRenderer();
+    /**
+     * 刻度位置，与拖动对齐使用同样的步长或可选值
+     */
+    private final TickMarkRenderer.Ticks mTickPositions = new TickMarkRenderer.Ticks() {
+        @Override
+        public long count() {
+            final long min = mMin;
+            final long max = mMax;
+            if (max <= min) {
+                return 0;
+            }
+            final SnapTable table = mSnapTable;
+            if (table != null) {
+                return Math.max(0, table.floorIndex(max) - table.ceilIndex(min) + 1);
+            }
+            final long range = max - min;
+            if (range < 0) {
+                // 超过long范围，刻度无法分辨
+                return 0;
+            }
+            final long step = mStepSize;
+            if (step <= 0) {
+                return ProgressMath.saturatedAdd(range, 1);
+            }
+            // 从min开始的每个步长，max不在步长上时额外加一个
+            return range / step + 1 + (range % step != 0 ? 1 : 0);
+        }
+
+        @Override
+        public double fractionAt(long index) {
+            final SnapTable table = mSnapTable;
+            if (table != null) {
+                return progressToPosition(table.get(table.ceilIndex(mMin) + (int) index));
+            }
+            final long step = mStepSize > 0 ? mStepSize : 1;
+            // 最后一个刻度固定为max，index * step不会超过范围
+            final long value = index == count() - 1 ? mMax : mMin + index * step;
+            return progressToPosition(value);
+        }
+
+        @Override
+        public boolean isUniform() {
+            return mSnapTable == null && mValueScale == null;
+        }
+    };
 
     private Drawable mIndicatorDrawable;
     private ColorStateList mIndicatorTintList = null;
@@ -146,6 +302,12 @@ public class XSeekBar extends View {
     private PorterDuff.Mode mProgressTintMode = null;
     private PorterDuff.Mode mProgressBackgroundTintMode = null;
     private ColorStateList mProgressBackgroundTintList;
+    /**
+     * 进度槽背景缓存，未开启时为null
+     *
+     * @see #setTrackBackgroundCacheEnabled(boolean)
+     */
+    private TrackBackgroundCache mTrackBackgroundCache;
 
     private int mThumbOffset;
 
@@ -153,25 +315,193 @@ public class XSeekBar extends View {
 
     private boolean mIsDragging;
 
-    private boolean mRefreshIsPosted;
-
-    private boolean mIsAttachedToWindow;
+    private volatile boolean mIsAttachedToWindow;
 
-    private RefreshProgressRunnable mProgressRefreshRunnable;
+    private final RefreshProgressRunnable mProgressRefreshRunnable = new RefreshProgressRunnable();
     /**
-     * 进度列表，子线程刷新进度使用
+     * 未绘制的子线程进度对应的异步trace区间cookie，0表示没有
+     * 同一帧内的多次子线程修改共用一个区间
      */
-    private List<RefreshData> mProgressListData = new ArrayList();
+    private final AtomicInteger mPendingTraceCookie = new AtomicInteger();
 
     private OnSeekBarChangeListener mOnSeekBarChangeListener;
+    /**
+     * 性能统计，未开启时为null
+     *
+     * @see #setMetricsEnabled(boolean)
+     */
+    private volatile SeekBarMetrics mMetrics;
+    /**
+     * 区间模式的触点，单触点模式为null
+     *
+     * @see #setThumbCount(int)
+     */
+    private RangeThumbs mRangeThumbs;
+    private OnRangeChangeListener mOnRangeChangeListener;
+
+    /**
+     * 拖动延迟采样数
+     */
+    private static final int DRAG_LATENCY_SAMPLES = 256;
+    /**
+     * 拖动延迟统计，未设置{@link OnDragLatencyListener}时为null
+     */
+    private LatencyRecorder mDragLatency;
+    private OnDragLatencyListener mOnDragLatencyListener;
+    /**
+     * 正在处理的触摸事件时间({@link MotionEvent#getEventTime()})，不在处理触摸事件时为0
+     */
+    private long mInputEventTime;
+    /**
+     * 已修改进度但还未绘制的最早触摸事件时间，0表示没有
+     */
+    private long mPendingDrawInputTime;
+    /**
+     * 拖动已结束，等待最后一次绘制后回调
+     */
+    private boolean mDragLatencyReportPending;
+    private OnProgressChangeLongListener mOnProgressChangeLongListener;
+
+    private static final OnSeekBarChangeListener[] EMPTY_SEEK_BAR_LISTENERS = new OnSeekBarChangeListener[0];
+    private static final OnProgressChangeLongListener[] EMPTY_LONG_LISTENERS = new OnProgressChangeLongListener[0];
+    /**
+     * 修改监听数组时加锁，回调时直接遍历当前数组
+     */
+    private final Object mListenersLock = new Object();
+    /**
+     * 通过{@link #addOnSeekBarChangeListener(OnSeekBarChangeListener)}添加的监听，写时复制，回调时不创建对象
+     */
+    private volatile OnSeekBarChangeListener[] mSeekBarListeners = EMPTY_SEEK_BAR_LISTENERS;
+    /**
+     * 通过{@link #addOnProgressChangeLongListener(OnProgressChangeLongListener)}添加的监听，写时复制
+     */
+    private volatile OnProgressChangeLongListener[] mLongListeners = EMPTY_LONG_LISTENERS;
+    /**
+     * 进度回调的分发方式
+     *
+     * @see #setListenerDispatch(int, Executor)
+     */
+    private int mListenerDispatch = ListenerDispatch.IMMEDIATE;
+    /**
+     * {@link ListenerDispatch#PER_FRAME}模式下等待回调的最新进度，只在UI线程访问
+     */
+    private long mFrameDispatchProgress;
+    private boolean mFrameDispatchFromUser;
+    private boolean mFrameDispatchPosted;
+    private final Runnable mFrameDispatchRunnable = new Runnable() {
+        @Override
+        public void run() {
+            flushFrameDispatch();
+        }
+    };
+    /**
+     * {@link ListenerDispatch#EXECUTOR}模式的分发器，其他模式为null
+     */
+    private LatestValueDispatcher mListenerDispatcher;
+    /**
+     * {@link ListenerDispatch#EXECUTOR}模式在Executor中回调开始和结束触摸
+     */
+    private final Runnable mStartTrackingRunnable = new Runnable() {
+        @Override
+        public void run() {
+            deliverTrackingTouch(true);
+        }
+    };
+    private final Runnable mStopTrackingRunnable = new Runnable() {
+        @Override
+        public void run() {
+            deliverTrackingTouch(false);
+        }
+    };
+    /**
+     * 用户拖动产生的请求，同一时刻最多一个在执行，未设置{@link OnSeekRequestListener}时为null
+     */
+    private volatile SeekRequestGate mSeekRequestGate;
+    private volatile OnSeekRequestListener mOnSeekRequestListener;
+    /**
+     * 子线程确认请求后在主线程发出下一个请求
+     * 不使用View#post：API 24以下View未附加到窗口时post的任务会丢失，等待中的请求不会再发出
+     */
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+    private final Runnable mSeekDispatchRunnable = new Runnable() {
+        @Override
+        public void run() {
+            final SeekRequestGate gate = mSeekRequestGate;
+            if (gate != null) {
+                gate.dispatchPending();
+            }
+        }
+    };
     /**
      * 指示器内容Provider
      */
     private IndicatorContentProvider mIndicatorContentProvider;
+    /**
+     * 异步获取的指示器内容，未设置{@link AsyncIndicatorContentProvider}时为null
+     */
+    private AsyncIndicatorContent mAsyncIndicatorContent;
+    /**
+     * 预取的进度，避免每帧创建数组
+     */
+    private final long[] mIndicatorPrefetch = new long[AsyncIndicatorContent.PREFETCH_COUNT];
     /**
      * 指示器内容画笔
      */
     private Paint mIndicatorContentPaint;
+    /**
+     * 指示器内容粗体字体，避免绘制时创建
+     */
+    private Typeface mBoldTypeface;
+    /**
+     * 直接修改指示器内容的Binder，与{@link IndicatorContentProvider}互斥
+     */
+    private IndicatorContentBinder mIndicatorContentBinder;
+    /**
+     * 每个View一个的指示器内容槽，Provider返回的内容复制到这里，Binder直接修改
+     * 记录修改过的字段，绘制时只更新变化的Paint属性
+     */
+    private final IndicatorFontInfo mIndicatorContent = new IndicatorFontInfo();
+    /**
+     * 内容槽中是否有可绘制的内容
+     */
+    private boolean mIndicatorContentPresent;
+    /**
+     * 内容槽对应的进度和指示器尺寸
+     */
+    private long mIndicatorContentProgress;
+    private int mIndicatorContentWidth;
+    private int mIndicatorContentHeight;
+    private boolean mIndicatorContentValid;
+    /**
+     * 内置指示器文字的默认大小，像素
+     */
+    private static final float DEFAULT_INDICATOR_TEXT_SIZE = 18;
+    /**
+     * 内置的指示器文字格式，为null时使用{@link IndicatorContentProvider}
+     */
+    private ProgressTextFormat mIndicatorTextFormat;
+    /**
+     * 内置文字的画笔，与Provider的内容画笔分开，字符宽度只在样式变化后重新测量
+     */
+    private Paint mIndicatorTextPaint;
+    private final char[] mIndicatorText = new char[ProgressTextFormat.MAX_LENGTH];
+    private int mIndicatorTextLength;
+    /**
+     * 已格式化的进度和范围，不变时不重新格式化
+     */
+    private long mIndicatorTextProgress;
+    private long mIndicatorTextMin;
+    private long mIndicatorTextMax;
+    private boolean mIndicatorTextValid;
+    /**
+     * {@link ProgressTextFormat#GLYPHS}中每个字符的宽度
+     */
+    private final float[] mIndicatorGlyphWidths = new float[ProgressTextFormat.GLYPHS.length()];
+    private boolean mIndicatorGlyphWidthsValid;
+    /**
+     * 文字垂直居中时基线相对于中心的偏移
+     */
+    private float mIndicatorTextBaselineOffset;
 
     private int mScaledTouchSlop;
     /**
@@ -181,8 +511,64 @@ public class XSeekBar extends View {
 
     private float mTouchDownX;
 
+    /**
+     * valueScale属性的取值
+     */
+    private static final int VALUE_SCALE_LINEAR = 0;
+    private static final int VALUE_SCALE_LOGARITHMIC = 1;
+
+    /**
+     * 无法获取屏幕刷新率时使用的帧间隔
+     */
+    private static final long DEFAULT_FRAME_INTERVAL_MILLIS = 16;
+    /**
+     * 低延迟拖动：拖动时请求不经过批处理的触摸事件，并使用历史采样估算拖动速度
+     */
+    private boolean mLowLatencyDrag;
+    /**
+     * 低延迟拖动时是否按拖动速度预测一帧之后的触点位置
+     */
+    private boolean mDragPrediction;
+    /**
+     * 当前绘制的是预测位置而不是实际进度
+     */
+    private boolean mVisualPredicted;
+    private final DragVelocityTracker mDragVelocityTracker = new DragVelocityTracker();
+    /**
+     * 预测的时长，即屏幕一帧的时间，附加到窗口时根据刷新率更新
+     */
+    private long mFrameIntervalMillis = DEFAULT_FRAME_INTERVAL_MILLIS;
+
+    /**
+     * 步长，大于0时拖动和惯性滑动得到的进度对齐到从{@link #mMin}开始的整数倍
+     */
+    private volatile long mStepSize;
+    /**
+     * 非均匀的可选进度值，不为null时代替{@link #mStepSize}
+     */
+    private volatile SnapTable mSnapTable;
+
+    /**
+     * 进度值与位置的映射，为null时线性
+     */
+    private volatile ValueScale mValueScale;
+    /**
+     * {@link #mValueScale}按当前布局和范围生成的查找表，只在UI线程访问
+     */
+    private ScaleTable mScaleTable;
+    /**
+     * 松手后是否按拖动速度惯性滑动
+     */
+    private boolean mFlingEnabled;
+    private FlingAnimator mFlingAnimator;
+    private float mFlingFriction = FlingSimulation.DEFAULT_FRICTION;
+    /**
+     * 触发惯性滑动的最小速度，像素/秒
+     */
+    private int mMinFlingVelocity;
+
     public XSeekBar(Context context) {
-        super(context);
+        this(context, null);
     }
 
     public XSeekBar(Context context, @Nullable AttributeSet attrs) {
@@ -240,6 +626,7 @@ public class XSeekBar extends View {
             mTickMarkTintList = a.getColorStateList(R.styleable.XSeekBar_tickMarkTint);
         }
         setTickMark(tickMark);
+        mTickMarkMinPitch = a.getDimensionPixelSize(R.styleable.XSeekBar_tickMarkMinPitch, mTickMarkMinPitch);
 
         // 进度 Drawable
         final Drawable progressDrawable = a.getDrawable(R.styleable.XSeekBar_progressDrawable);
@@ -262,6 +649,25 @@ public class XSeekBar extends View {
         if (a.hasValue(R.styleable.XSeekBar_progressBackgroundTint)) {
             this.mProgressBackgroundTintList = a.getColorStateList(R.styleable.XSeekBar_progressBackgroundTint);
         }
+        setTrackBackgroundCacheEnabled(a.getBoolean(R.styleable.XSeekBar_trackBackgroundCache, false));
+        mLowLatencyDrag = a.getBoolean(R.styleable.XSeekBar_lowLatencyDrag, false);
+        mDragPrediction = a.getBoolean(R.styleable.XSeekBar_dragPrediction, false);
+        mStepSize = Math.max(0, a.getInt(R.styleable.XSeekBar_stepSize, 0));
+        final int snapValuesId = a.getResourceId(R.styleable.XSeekBar_snapValues, 0);
+        if (snapValuesId != 0) {
+            final int[] snapValues = getResources().getIntArray(snapValuesId);
+            if (snapValues.length > 0) {
+                final long[] values = new long[snapValues.length];
+                for (int i = 0; i < snapValues.length; i++) {
+                    values[i] = snapValues[i];
+                }
+                mSnapTable = new SnapTable(values);
+            }
+        }
+        mFlingEnabled = a.getBoolean(R.styleable.XSeekBar_fling, false);
+        if (a.getInt(R.styleable.XSeekBar_valueScale, VALUE_SCALE_LINEAR) == VALUE_SCALE_LOGARITHMIC) {
+            mValueScale = ValueScales.logarithmic();
+        }
 
         // 指示器Drawable
         final Drawable indicatorDrawable = a.getDrawable(R.styleable.XSeekBar_indicator);
@@ -280,10 +686,10 @@ public class XSeekBar extends View {
         mMinHeight = a.getDimensionPixelOffset(R.styleable.XSeekBar_minHeight, mMinHeight);
         mMaxHeight = a.getDimensionPixelOffset(R.styleable.XSeekBar_maxHeight, mMaxHeight);
 
-        setMin(a.getInt(R.styleable.XSeekBar_min, mMin));
-        setMax(a.getInt(R.styleable.XSeekBar_max, mMax));
+        setMin(a.getInt(R.styleable.XSeekBar_min, ProgressMath.toIntProgress(mMin)));
+        setMax(a.getInt(R.styleable.XSeekBar_max, ProgressMath.toIntProgress(mMax)));
 
-        setProgress(a.getInt(R.styleable.XSeekBar_progress, mProgress));
+        setProgress(a.getInt(R.styleable.XSeekBar_progress, ProgressMath.toIntProgress(mPublisher.get())));
 
         a.recycle();
 
@@ -330,7 +736,7 @@ public class XSeekBar extends View {
     private void initParam() {
         mMin = 0;
         mMax = 100;
-        mProgress = 0;
+        mPublisher.set(0);
         mMinWidth = 6;
         mMaxWidth = 100;
         mMinHeight = 6;
@@ -338,27 +744,172 @@ public class XSeekBar extends View {
         mDirection = Direction.HORIZONTAL;
         mIndicatorPos = IndicatorPosition.TOP;
         mIsUserSeekable = true;
-        mScaledTouchSlop = ViewConfiguration.get(getContext()).getScaledTouchSlop();
+        final ViewConfiguration configuration = ViewConfiguration.get(getContext());
+        mScaledTouchSlop = configuration.getScaledTouchSlop();
+        mMinFlingVelocity = configuration.getScaledMinimumFlingVelocity();
         mIndicatorOffset = 0;
+        mTickMarkMinPitch = (int) (DEFAULT_TICK_MARK_MIN_PITCH_DP * getResources().getDisplayMetrics().density + 0.5f);
         // 指示器内容
         mIndicatorContentPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        mBoldTypeface = Typeface.create(Typeface.SANS_SERIF, Typeface.BOLD);
+    }
+
+    /**
+     * 设置当前进度，可在子线程调用
+     * 子线程调用不会加锁，同一帧内的多次调用只会在UI线程刷新一次最新值
+     *
+     * @param progress
+     */
+    public void setProgress(int progress) {
+        setProgressInternal(progress, false, false);
     }
 
     /**
      * 设置当前进度，可在子线程调用
+     * 取值范围[{@link #MIN_PROGRESS_VALUE}, {@link #MAX_PROGRESS_VALUE}]，可直接使用字节数等超出int范围的值
      *
      * @param progress
      */
-    public synchronized void setProgress(int progress) {
+    public void setProgress(long progress) {
         setProgressInternal(progress, false, false);
     }
 
     /**
-     * 在当前进度增加progressBy值
+     * 设置当前进度，可在子线程调用
+     * animate为true时进度条从当前位置平滑过渡到新进度，{@link OnSeekBarChangeListener}仍立即回调新进度
+     *
+     * @param progress
+     * @param animate  是否使用动画
+     * @see #setProgressInterpolator(TimeInterpolator)
+     * @see #setProgressAnimationDuration(long)
+     */
+    public void setProgress(int progress, boolean animate) {
+        setProgressInternal(progress, false, animate);
+    }
+
+    /**
+     * 设置当前进度，可在子线程调用
+     *
+     * @param progress
+     * @param animate  是否使用动画
+     * @see #setProgress(int, boolean)
+     */
+    public void setProgress(long progress, boolean animate) {
+        setProgressInternal(progress, false, animate);
+    }
+
+    /**
+     * 按比例设置当前进度，可在子线程调用
+     *
+     * @param fraction [0...1]，0对应{@link #getMin()}，1对应{@link #getMax()}
+     */
+    public void setFraction(double fraction) {
+        setFraction(fraction, false);
+    }
+
+    /**
+     * 按比例设置当前进度，可在子线程调用
+     *
+     * @param fraction [0...1]，0对应{@link #getMin()}，1对应{@link #getMax()}
+     * @param animate  是否使用动画
+     */
+    public void setFraction(double fraction, boolean animate) {
+        setProgressInternal(ProgressMath.fromFraction(fraction, mMin, mMax), false, animate);
+    }
+
+    /**
+     * 获取当前进度的比例
+     *
+     * @return [0...1]
+     */
+    public double getFraction() {
+        return ProgressMath.toFraction(mPublisher.get(), mMin, mMax);
+    }
+
+    /**
+     * 设置进度动画的插值器，默认{@link DecelerateInterpolator}
+     *
+     * @param interpolator
+     */
+    public void setProgressInterpolator(TimeInterpolator interpolator) {
+        this.mProgressInterpolator = interpolator;
+        if (mProgressAnimator != null) {
+            mProgressAnimator.setInterpolator(interpolator);
+        }
+    }
+
+    /**
+     * 设置进度动画时长
+     *
+     * @param duration 单位毫秒，默认{@link #DEFAULT_PROGRESS_ANIM_DURATION}
+     */
+    public void setProgressAnimationDuration(long duration) {
+        this.mProgressAnimDuration = duration;
+        if (mProgressAnimator != null) {
+            mProgressAnimator.setDuration(duration);
+        }
+    }
+
+    /**
+     * 在当前进度增加progressBy值，可在子线程调用
+     * 多个线程同时调用时增量不会丢失
+     *
+     * @param progressBy 正数是增加  负数是减小
+     */
+    public void setProgressBy(int progressBy) {
+        setProgressBy((long) progressBy);
+    }
+
+    /**
+     * 在当前进度增加progressBy值，可在子线程调用
+     *
      * @param progressBy 正数是增加  负数是减小
+     * @see #setProgressBy(int)
      */
-    public synchronized void setProgressBy(int progressBy) {
-        setProgressInternal(this.mProgress + progressBy, false,false);
+    public void setProgressBy(long progressBy) {
+        final long progress = mPublisher.addAndClamp(progressBy, mMin, mMax);
+        if (progress == ProgressPublisher.UNCHANGED) {
+            return;
+        }
+
+        refreshProgress(progress, false, false);
+    }
+
+    /**
+     * 获取当前进度
+     * 进度超出int范围时返回{@link Integer#MAX_VALUE}或{@link Integer#MIN_VALUE}，可使用{@link #getProgressLong()}
+     *
+     * @return
+     */
+    public int getProgress() {
+        return ProgressMath.toIntProgress(mPublisher.get());
+    }
+
+    /**
+     * 获取当前进度
+     *
+     * @return
+     */
+    public long getProgressLong() {
+        return mPublisher.get();
+    }
+
+    /**
+     * 获取最小值
+     *
+     * @return
+     */
+    public long getMin() {
+        return mMin;
+    }
+
+    /**
+     * 获取最大值
+     *
+     * @return
+     */
+    public long getMax() {
+        return mMax;
     }
 
     /**
@@ -398,47 +949,176 @@ public class XSeekBar extends View {
      * @param animate  是否需要动画
      * @return 进度是否修改，如果当前进度与设置的进度相同返回false
      */
-    private synchronized boolean setProgressInternal(int progress, boolean fromUser, boolean animate) {
-        if (progress > mMax) {
-            progress = mMax;
+    private boolean setProgressInternal(long progress, boolean fromUser, boolean animate) {
+        final SeekBarMetrics metrics = mMetrics;
+        if (metrics != null) {
+            metrics.onProgressUpdate(mUiThreadId == Thread.currentThread().getId());
         }
-        if (progress < mMin) {
-            progress = mMin;
-        }
-
-        if (progress == mProgress) {
+        progress = ProgressMath.clamp(progress, mMin, mMax);
+        if (!mPublisher.set(progress)) {
             return false;
         }
 
-        mProgress = progress;
-        refreshProgress(mProgress, fromUser, animate);
+        refreshProgress(progress, fromUser, animate);
         return true;
     }
 
     /**
      * 刷新进度，区分主线程和子线程
+     * 子线程只记录刷新标记，由UI线程在下一帧读取{@link #mPublisher}的最新值，不会阻塞任何线程
      *
      * @param progress
      * @param fromUser
      * @param animate
      */
-    private synchronized void refreshProgress(int progress, boolean fromUser, boolean animate) {
-        // 主线程处理
-        if (mUiThreadId == Thread.currentThread().getId()) {
-            doRefreshProgress(progress, fromUser, true, animate);
+    private void refreshProgress(long progress, boolean fromUser, boolean animate) {
+        final boolean trace = XSeekBarTrace.sEnabled;
+        if (trace) {
+            XSeekBarTrace.beginSection(XSeekBarTrace.REFRESH_PROGRESS);
         }
-        // 子线程处理
-        else {
-            if (mProgressRefreshRunnable == null) {
-                mProgressRefreshRunnable = new RefreshProgressRunnable();
+        try {
+            // 主线程处理
+            if (mUiThreadId == Thread.currentThread().getId()) {
+                // LOSSLESS模式队列中是更早写入的进度，先回调，保持回调顺序
+                mProgressRefreshRunnable.drainCallbacks();
+                doRefreshProgress(progress, fromUser, true, animate);
             }
-
-            if (mIsAttachedToWindow && !mRefreshIsPosted) {
-                post(mProgressRefreshRunnable);
-                mRefreshIsPosted = true;
-            }
-        }
-    }
+            // 子线程处理
+            else {
+                if (trace) {
+                    beginPendingProgressTrace();
+                }
+                final int published = mPublisher.publish(progress, fromUser, animate);
+                if (published == ProgressPublisher.PUBLISHED_DROPPED) {
+                    // 队列已满且策略为DROP
+                    final SeekBarMetrics metrics = mMetrics;
+                    if (metrics != null) {
+                        metrics.onUpdateDropped();
+                    }
+                }
+                if (!scheduleRefresh() && published == ProgressPublisher.PUBLISHED_LATEST) {
+                    // 已有未执行的刷新，本次进度将与其合并
+                    final SeekBarMetrics metrics = mMetrics;
+                    if (metrics != null) {
+                        metrics.onUpdateCoalesced();
+                    }
+                }
+            }
+        } finally {
+            if (trace) {
+                XSeekBarTrace.endSection();
+            }
+        }
+    }
+
+    /**
+     * 设置子线程刷新进度的模式
+     * {@link RefreshMode#LOSSLESS}使用默认容量{@link #DEFAULT_REFRESH_QUEUE_CAPACITY}和{@link OverflowPolicy#CONFLATE}
+     *
+     * @param mode {@link RefreshMode}
+     */
+    public void setRefreshMode(int mode) {
+        setRefreshMode(mode, DEFAULT_REFRESH_QUEUE_CAPACITY, OverflowPolicy.CONFLATE);
+    }
+
+    /**
+     * 设置子线程刷新进度的模式，需在UI线程调用
+     *
+     * @param mode           {@link RefreshMode}
+     * @param capacity       {@link RefreshMode#LOSSLESS}模式的队列容量，向上取整为2的幂
+     * @param overflowPolicy 队列满时的处理策略{@link OverflowPolicy}
+     */
+    public void setRefreshMode(int mode, int capacity, int overflowPolicy) {
+        if (mode != RefreshMode.LATEST_ONLY && mode != RefreshMode.LOSSLESS) {
+            throw new IllegalArgumentException("未知的刷新模式:" + mode);
+        }
+        if (overflowPolicy != OverflowPolicy.CONFLATE && overflowPolicy != OverflowPolicy.DROP) {
+            throw new IllegalArgumentException("未知的溢出策略:" + overflowPolicy);
+        }
+
+        // 旧队列中未消费的数据不丢弃，UI线程先消费完
+        mPublisher.setMode(mode, capacity, overflowPolicy, mProgressRefreshRunnable);
+        mProgressRefreshRunnable.renderIfDrained();
+    }
+
+    /**
+     * 设置进度回调的分发方式，{@link ListenerDispatch#EXECUTOR}需使用{@link #setListenerDispatch(int, Executor)}
+     *
+     * @param mode {@link ListenerDispatch}
+     */
+    public void setListenerDispatch(int mode) {
+        setListenerDispatch(mode, null);
+    }
+
+    /**
+     * 设置进度回调({@link OnSeekBarChangeListener#onProgressChanged(XSeekBar, int, boolean)}和
+     * {@link OnProgressChangeLongListener})的分发方式，需在UI线程调用
+     * {@link ListenerDispatch#EXECUTOR}模式下开始和结束触摸也在Executor中回调，与进度回调保持顺序，
+     * 结束触摸在最后一次进度回调之后；其他模式开始和结束触摸在UI线程立即回调；切换模式前等待回调的进度会先回调
+     *
+     * @param mode     {@link ListenerDispatch}
+     * @param executor {@link ListenerDispatch#EXECUTOR}模式执行回调的Executor，其他模式忽略
+     */
+    public void setListenerDispatch(int mode, Executor executor) {
+        if (mode != ListenerDispatch.IMMEDIATE && mode != ListenerDispatch.PER_FRAME
+                && mode != ListenerDispatch.EXECUTOR) {
+            throw new IllegalArgumentException("未知的回调分发方式:" + mode);
+        }
+        if (mode == ListenerDispatch.EXECUTOR && executor == null) {
+            throw new IllegalArgumentException("EXECUTOR模式需要指定Executor");
+        }
+        flushFrameDispatch();
+        if (mode == ListenerDispatch.EXECUTOR) {
+            final LatestValueDispatcher dispatcher = mListenerDispatcher;
+            if (dispatcher == null || dispatcher.getExecutor() != executor) {
+                mListenerDispatcher = new LatestValueDispatcher(executor, new ProgressRingBuffer.Consumer() {
+                    @Override
+                    public void accept(long value) {
+                        deliverProgressChanged(ProgressRingBuffer.unpackProgress(value),
+                                ProgressRingBuffer.unpackFromUser(value));
+                    }
+                });
+            }
+        } else {
+            mListenerDispatcher = null;
+        }
+        mListenerDispatch = mode;
+    }
+
+    /**
+     * 获取进度回调的分发方式
+     *
+     * @return {@link ListenerDispatch}
+     */
+    public int getListenerDispatch() {
+        return mListenerDispatch;
+    }
+
+    /**
+     * 获取子线程刷新进度的模式
+     *
+     * @return {@link RefreshMode}
+     */
+    public int getRefreshMode() {
+        return mPublisher.getMode();
+    }
+
+    /**
+     * 向UI线程提交刷新任务，已提交未执行时不会重复提交
+     *
+     * @return 是否提交了新的刷新任务
+     */
+    private boolean scheduleRefresh() {
+        if (mIsAttachedToWindow && mPublisher.tryMarkPosted()) {
+            postOnAnimation(mProgressRefreshRunnable);
+            final SeekBarMetrics metrics = mMetrics;
+            if (metrics != null) {
+                metrics.onRefreshPosted();
+            }
+            return true;
+        }
+        return false;
+    }
 
     /**
      * 刷新进度
@@ -446,28 +1126,141 @@ public class XSeekBar extends View {
      * @param progress
      * @param fromUser
      * @param callBackToApp
-     * @param animate       TODO 未对动画做处理
+     * @param animate       是否使用动画过渡到新进度
      */
-    private synchronized void doRefreshProgress(int progress, boolean fromUser, boolean callBackToApp, boolean animate) {
-        int range = mMax - mMin;
-        final float scale = range > 0 ? (progress - mMin) / (float) range : 0;
-        setVisualProgress(scale);
+    private void doRefreshProgress(long progress, boolean fromUser, boolean callBackToApp, boolean animate) {
+        // 使用double计算比例，超大范围也不会溢出或丢失精度
+        final float scale = (float) progressToPosition(progress);
+        if (animate && mIsAttachedToWindow) {
+            startProgressAnimation(scale);
+        } else {
+            if (mProgressAnimator != null) {
+                mProgressAnimator.cancel();
+            }
+            setVisualProgress(scale);
+        }
 
         if (callBackToApp) {
+            mRefreshedProgress = progress;
             onProgressRefresh(scale, fromUser, progress);
         }
     }
 
+    /**
+     * 从当前显示位置动画过渡到scale，动画进行中则直接修改目标
+     *
+     * @param scale [0...1]的比例值
+     */
+    private void startProgressAnimation(float scale) {
+        if (mProgressAnimator == null) {
+            mProgressAnimator = new ProgressAnimator(new ProgressAnimator.Target() {
+                @Override
+                public void onAnimationFrame(float value) {
+                    setVisualProgress(value);
+                }
+            }, mProgressInterpolator, mProgressAnimDuration);
+        }
+
+        if (mProgressAnimator.isRunning() && mProgressAnimator.getTargetValue() == scale) {
+            return;
+        }
+        mProgressAnimator.animateTo(mVisualProgress, scale);
+    }
+
     /**
      * 供子类实现的方法，进度变化会调用该方法
+     * 进度类型改为long之前的签名，重写该方法的子类仍会被回调，超出int范围的进度会被截断
      *
      * @param scale
      * @param fromUser
-     * @param progress
+     * @param progress 截断到int范围的进度
+     * @deprecated 重写{@link #onProgressRefresh(float, boolean, long)}
      */
+    @Deprecated
     protected void onProgressRefresh(float scale, boolean fromUser, int progress) {
-        if (this.mOnSeekBarChangeListener != null) {
-            this.mOnSeekBarChangeListener.onProgressChanged(this, progress, fromUser);
+    }
+
+    /**
+     * 供子类实现的方法，进度变化会调用该方法
+     * 重写时需调用super，否则不会回调监听
+     *
+     * @param scale
+     * @param fromUser
+     * @param progress
+     */
+    protected void onProgressRefresh(float scale, boolean fromUser, long progress) {
+        onProgressRefresh(scale, fromUser, ProgressMath.toIntProgress(progress));
+        final SeekRequestGate gate = mSeekRequestGate;
+        if (fromUser && gate != null) {
+            gate.offer(progress);
+        }
+        switch (mListenerDispatch) {
+            case ListenerDispatch.PER_FRAME:
+                mFrameDispatchProgress = progress;
+                mFrameDispatchFromUser = fromUser;
+                if (!mFrameDispatchPosted) {
+                    mFrameDispatchPosted = true;
+                    postOnAnimation(mFrameDispatchRunnable);
+                }
+                break;
+            case ListenerDispatch.EXECUTOR:
+                // animate标记位始终置位，保证打包后的值不等于LatestValueDispatcher.NONE
+                mListenerDispatcher.offer(ProgressRingBuffer.pack(progress, fromUser, true));
+                break;
+            default:
+                deliverProgressChanged(progress, fromUser);
+                break;
+        }
+    }
+
+    /**
+     * 立即回调{@link ListenerDispatch#PER_FRAME}模式下等待的进度
+     */
+    private void flushFrameDispatch() {
+        if (mFrameDispatchPosted) {
+            mFrameDispatchPosted = false;
+            removeCallbacks(mFrameDispatchRunnable);
+            deliverProgressChanged(mFrameDispatchProgress, mFrameDispatchFromUser);
+        }
+    }
+
+    /**
+     * 回调所有进度监听
+     *
+     * @param progress
+     * @param fromUser
+     */
+    private void deliverProgressChanged(long progress, boolean fromUser) {
+        final boolean trace = XSeekBarTrace.sEnabled;
+        if (trace) {
+            XSeekBarTrace.beginSection(XSeekBarTrace.LISTENER);
+        }
+        try {
+            final SeekBarMetrics metrics = mMetrics;
+            final long start = metrics != null ? System.nanoTime() : 0;
+            if (this.mOnSeekBarChangeListener != null) {
+                this.mOnSeekBarChangeListener.onProgressChanged(this, ProgressMath.toIntProgress(progress), fromUser);
+            }
+            if (this.mOnProgressChangeLongListener != null) {
+                this.mOnProgressChangeLongListener.onProgressChanged(this, progress, fromUser);
+            }
+            final OnSeekBarChangeListener[] listeners = mSeekBarListeners;
+            if (listeners.length > 0) {
+                final int intProgress = ProgressMath.toIntProgress(progress);
+                for (OnSeekBarChangeListener l : listeners) {
+                    l.onProgressChanged(this, intProgress, fromUser);
+                }
+            }
+            for (OnProgressChangeLongListener l : mLongListeners) {
+                l.onProgressChanged(this, progress, fromUser);
+            }
+            if (metrics != null) {
+                metrics.onListenerCall(System.nanoTime() - start);
+            }
+        } finally {
+            if (trace) {
+                XSeekBarTrace.endSection();
+            }
         }
     }
 
@@ -478,7 +1271,14 @@ public class XSeekBar extends View {
      * @param progress [0...1]的比例值
      */
     private void setVisualProgress(float progress) {
+        final float oldProgress = mVisualProgress;
         mVisualProgress = progress;
+        markInputPendingDraw();
+
+        // 变化前触点和指示器所在区域
+        final Rect dirty = mDirtyRect;
+        dirty.setEmpty();
+        unionThumbAndIndicatorBounds(dirty);
 
         // 修改进度值
         Drawable d = mProgressDrawable;
@@ -489,12 +1289,14 @@ public class XSeekBar extends View {
             }
         }
         if (d != null) {
-            final int level = (int) (progress * MAX_LEVEL);
-            d.setLevel(level);
+            // 区间模式进度层通过裁剪绘制首尾触点之间的部分
+            final Rect bounds = d.getBounds();
+            final int length = mDirection == Direction.HORIZONTAL ? bounds.width() : bounds.height();
+            d.setLevel(mRangeThumbs != null ? MAX_LEVEL : ProgressMath.toLevel(progress, length, MAX_LEVEL));
         }
 
-        // 更新触点位置
-        if (mThumbDrawable != null) {
+        // 更新触点位置，区间模式的触点边界由drawThumb设置
+        if (mThumbDrawable != null && mRangeThumbs == null) {
             updateThumbPos(getWidth(), getHeight(), mThumbDrawable, progress, 0);
         }
 
@@ -503,11 +1305,184 @@ public class XSeekBar extends View {
             updateIndicatorPos(getWidth(), getHeight(), mIndicatorDrawable, progress);
         }
 
-        invalidate();
+        // 进度变化的区域以及变化后触点和指示器所在区域
+        if (d != null) {
+            unionProgressBounds(dirty, d, oldProgress, progress);
+        }
+        unionThumbAndIndicatorBounds(dirty);
+        invalidateDirtyRect(dirty);
 
         onVisualProgressChanged(progress);
     }
 
+    /**
+     * 将触点和指示器当前所在区域(View坐标系)合并到dirty中
+     *
+     * @param dirty
+     */
+    private void unionThumbAndIndicatorBounds(Rect dirty) {
+        if (mThumbDrawable != null && mRangeThumbs == null) {
+            unionDrawableBounds(dirty, mThumbDrawable, getThumbTranslationX(), getThumbTranslationY());
+        }
+        if (mIndicatorDrawable != null) {
+            unionDrawableBounds(dirty, mIndicatorDrawable, getIndicatorTranslationX(), getIndicatorTranslationY());
+        }
+    }
+
+    /**
+     * 将Drawable的边界偏移到View坐标系后合并到dirty中
+     *
+     * @param dirty
+     * @param d
+     * @param dx    绘制时Canvas的水平偏移
+     * @param dy    绘制时Canvas的垂直偏移
+     */
+    private static void unionDrawableBounds(Rect dirty, Drawable d, int dx, int dy) {
+        final Rect bounds = d.getBounds();
+        dirty.union(bounds.left + dx, bounds.top + dy, bounds.right + dx, bounds.bottom + dy);
+    }
+
+    /**
+     * 将进度从oldProgress变为newProgress时进度Drawable变化的区域合并到dirty中
+     * {@link ClipDrawable}只有新旧进度之间的部分会变化，两端各多算1px覆盖抗锯齿的边缘
+     *
+     * @param dirty
+     * @param progressDrawable 进度Drawable，{@link android.R.id#progress}对应的层
+     * @param oldProgress      [0...1]的比例值
+     * @param newProgress      [0...1]的比例值
+     */
+    private void unionProgressBounds(Rect dirty, Drawable progressDrawable, float oldProgress, float newProgress) {
+        final int dx = getTrackTranslationX();
+        final int dy = getTrackTranslationY();
+        final Rect bounds = progressDrawable.getBounds();
+        if (!(progressDrawable instanceof ClipDrawable)) {
+            unionDrawableBounds(dirty, progressDrawable, dx, dy);
+            return;
+        }
+
+        final float from = Math.min(oldProgress, newProgress);
+        final float to = Math.max(oldProgress, newProgress);
+        if (mDirection == Direction.HORIZONTAL) {
+            final int width = bounds.width();
+            final int left = bounds.left + (int) (width * from) - 1;
+            final int right = bounds.left + (int) Math.ceil(width * to) + 1;
+            dirty.union(left + dx, bounds.top + dy, right + dx, bounds.bottom + dy);
+        } else {
+            final int height = bounds.height();
+            final int top = bounds.top + (int) (height * from) - 1;
+            final int bottom = bounds.top + (int) Math.ceil(height * to) + 1;
+            dirty.union(bounds.left + dx, top + dy, bounds.right + dx, bottom + dy);
+        }
+    }
+
+    /**
+     * 只重绘dirty区域，并记录本帧的重绘面积
+     * 硬件加速时API 21起invalidate(Rect)的区域被忽略，整个View都会重绘，此时按整个View的面积记录
+     *
+     * @param dirty View坐标系下的区域
+     * @see #getLastFrameInvalidatedArea()
+     */
+    private void invalidateDirtyRect(Rect dirty) {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        // 限制在View范围内
+        if (!dirty.intersect(0, 0, getWidth(), getHeight())) {
+            return;
+        }
+        final boolean ignoresDirtyRect = Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP
+                && isHardwareAccelerated();
+        final long area = ignoresDirtyRect
+                ? (long) getWidth() * getHeight()
+                : (long) dirty.width() * dirty.height();
+        mInvalidatedArea += area;
+        final SeekBarMetrics metrics = mMetrics;
+        if (metrics != null) {
+            metrics.onInvalidate(area);
+        }
+        if (ignoresDirtyRect) {
+            invalidate();
+        } else {
+            invalidate(dirty.left, dirty.top, dirty.right, dirty.bottom);
+        }
+    }
+
+    /**
+     * 调试用，获取上一帧因进度变化请求重绘的面积(像素)
+     * 同一帧内多次进度变化的面积会累加，可用于对比整体重绘{@link #getWidth()} * {@link #getHeight()}的开销
+     * 局部重绘只在软件绘制(未开启硬件加速，或API 21以下)时生效；硬件加速时系统忽略重绘区域，
+     * 每次进度变化都按整个View的面积记录
+     *
+     * @return 重绘面积，单位px²
+     */
+    public long getLastFrameInvalidatedArea() {
+        return mLastFrameInvalidatedArea;
+    }
+
+    /**
+     * 开启或关闭性能统计，关闭时不产生任何开销
+     * 统计进度修改次数(区分UI线程和子线程)、被合并或丢弃的修改、提交的刷新、绘制帧数和耗时分布、重绘面积、监听回调耗时
+     *
+     * @param enabled
+     * @see #getMetrics()
+     */
+    public void setMetricsEnabled(boolean enabled) {
+        if (enabled) {
+            if (mMetrics == null) {
+                mMetrics = new SeekBarMetrics();
+            }
+        } else {
+            mMetrics = null;
+        }
+    }
+
+    /**
+     * 获取性能统计，可在任意线程读取
+     *
+     * @return 未开启时返回null
+     */
+    public SeekBarMetrics getMetrics() {
+        return mMetrics;
+    }
+
+    /**
+     * 开启或关闭systrace/Perfetto埋点，对所有XSeekBar生效
+     * 开启后onMeasure、onDraw、refreshProgress、刷新任务和监听回调输出同步区间，
+     * Android 10及以上子线程setProgress到该进度被绘制之间输出异步区间XSeekBar#pendingProgress
+     * 关闭时每处埋点只有一次判断
+     *
+     * @param enabled
+     */
+    public static void setTraceEnabled(boolean enabled) {
+        XSeekBarTrace.setEnabled(enabled);
+    }
+
+    /**
+     * 子线程修改进度时开始异步区间，已有未结束的区间时不重复开始
+     */
+    private void beginPendingProgressTrace() {
+        if (mPendingTraceCookie.get() != 0) {
+            return;
+        }
+        // 先输出开始再发布cookie，保证绘制线程结束的区间都已开始
+        final int cookie = XSeekBarTrace.nextCookie();
+        XSeekBarTrace.beginAsyncSection(XSeekBarTrace.PENDING_PROGRESS, cookie);
+        if (!mPendingTraceCookie.compareAndSet(0, cookie)) {
+            // 其他线程已开始区间
+            XSeekBarTrace.endAsyncSection(XSeekBarTrace.PENDING_PROGRESS, cookie);
+        }
+    }
+
+    /**
+     * 绘制时结束子线程进度的异步区间
+     */
+    private void endPendingProgressTrace() {
+        final int cookie = mPendingTraceCookie.getAndSet(0);
+        if (cookie != 0) {
+            XSeekBarTrace.endAsyncSection(XSeekBarTrace.PENDING_PROGRESS, cookie);
+        }
+    }
+
     /**
      * 供子类实现的方法，当
      *
@@ -624,6 +1599,7 @@ public class XSeekBar extends View {
             }
 
             mProgressDrawable = d;
+            invalidateTrackBackgroundCache();
 
             if (d != null) {
                 d.setCallback(this);
@@ -656,7 +1632,7 @@ public class XSeekBar extends View {
             updateDrawableBounds(getWidth(), getHeight());
             updateDrawableState();
 
-            doRefreshProgress(mProgress, false, false, false);
+            doRefreshProgress(mPublisher.get(), false, false, false);
         }
     }
 
@@ -684,45 +1660,60 @@ public class XSeekBar extends View {
             return false;
         }
 
-        switch (event.getAction()) {
-            case MotionEvent.ACTION_DOWN:
-                if (isInScrollingContainer()) {
-                    mTouchDownX = event.getX();
-                } else {
-                    startDrag(event);
-                }
-                break;
-            case MotionEvent.ACTION_MOVE:
-                if (mIsDragging) {
-                    trackTouchEvent(event);
-                } else {
-                    final float x = event.getX();
-                    if (Math.abs(x - mTouchDownX) > mScaledTouchSlop) {
+        // 拖动延迟：进度变化时记录事件时间，绘制触点时计算延迟
+        mInputEventTime = mDragLatency != null ? event.getEventTime() : 0;
+        try {
+            if (mRangeThumbs != null) {
+                return onRangeTouchEvent(event);
+            }
+
+            switch (event.getAction()) {
+                case MotionEvent.ACTION_DOWN:
+                    // 按下时停止上一次的惯性滑动
+                    stopFling();
+                    if (isInScrollingContainer()) {
+                        mTouchDownX = event.getX();
+                    } else {
                         startDrag(event);
                     }
-                }
-                break;
-            case MotionEvent.ACTION_UP:
-                if (mIsDragging) {
-                    trackTouchEvent(event);
-                    onStopTrackingTouch();
-                    setPressed(false);
-                } else {
-                    onStartTrackingTouch();
-                    trackTouchEvent(event);
-                    onStopTrackingTouch();
-                }
+                    break;
+                case MotionEvent.ACTION_MOVE:
+                    if (mIsDragging) {
+                        trackTouchEvent(event);
+                    } else {
+                        final float x = event.getX();
+                        if (Math.abs(x - mTouchDownX) > mScaledTouchSlop) {
+                            startDrag(event);
+                        }
+                    }
+                    break;
+                case MotionEvent.ACTION_UP:
+                    if (mIsDragging) {
+                        trackTouchEvent(event);
+                        // 惯性滑动时在停止后回调
+                        if (!startFling()) {
+                            onStopTrackingTouch();
+                        }
+                        setPressed(false);
+                    } else {
+                        onStartTrackingTouch();
+                        trackTouchEvent(event);
+                        onStopTrackingTouch();
+                    }
 
-                invalidate();
-                break;
-            case MotionEvent.ACTION_CANCEL:
-                if (mIsDragging) {
-                    onStopTrackingTouch();
-                    setPressed(false);
-                }
-                invalidate();
-                break;
-            default:
+                    invalidate();
+                    break;
+                case MotionEvent.ACTION_CANCEL:
+                    if (mIsDragging) {
+                        onStopTrackingTouch();
+                        setPressed(false);
+                    }
+                    invalidate();
+                    break;
+                default:
+            }
+        } finally {
+            mInputEventTime = 0;
         }
         return true;
     }
@@ -731,7 +1722,13 @@ public class XSeekBar extends View {
     protected void onSizeChanged(int w, int h, int oldw, int oldh) {
         super.onSizeChanged(w, h, oldw, oldh);
         updateDrawableBounds(w, h);
-        if (mThumbDrawable != null) {
+        // 非线性映射按新的长度生成查找表并重新计算位置
+        if (mValueScale != null && !isFlinging() && (mProgressAnimator == null || !mProgressAnimator.isRunning())) {
+            setVisualProgress((float) progressToPosition(mPublisher.get()));
+        }
+        mTickMarkRenderer.invalidate();
+        invalidateTrackBackgroundCache();
+        if (mThumbDrawable != null && mRangeThumbs == null) {
             updateThumbPos(w, h, mThumbDrawable, mVisualProgress, 0);
         }
 
@@ -740,27 +1737,83 @@ public class XSeekBar extends View {
         }
     }
 
+    @Override
+    protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
+        super.onLayout(changed, left, top, right, bottom);
+        // 尺寸或padding变化后在布局时准备刻度和进度槽背景位图，绘制时不创建位图
+        prepareTickMarks();
+        prepareTrackBackgroundCache();
+    }
+
+    @Override
+    protected void onConfigurationChanged(Configuration newConfig) {
+        super.onConfigurationChanged(newConfig);
+        // 刻度Drawable可能随配置变化尺寸
+        mTickMarkRenderer.invalidate();
+        prepareTickMarks();
+    }
+
     @Override
     protected void onDraw(Canvas canvas) {
-        super.onDraw(canvas);
-        // 绘制进度和背景
-        drawTrack(canvas);
-        // 绘制触点
-        drawThumb(canvas);
-        // 绘制指示器
-        drawIndicator(canvas);
+        final boolean trace = XSeekBarTrace.sEnabled;
+        if (trace) {
+            XSeekBarTrace.beginSection(XSeekBarTrace.DRAW);
+            endPendingProgressTrace();
+        }
+        try {
+            final SeekBarMetrics metrics = mMetrics;
+            final long start = metrics != null ? System.nanoTime() : 0;
+            super.onDraw(canvas);
+            mLastFrameInvalidatedArea = mInvalidatedArea;
+            mInvalidatedArea = 0;
+            // 绘制进度和背景
+            drawTrack(canvas);
+            // 绘制刻度
+            drawTickMarks(canvas);
+            // 绘制触点
+            drawThumb(canvas);
+            // 绘制指示器
+            drawIndicator(canvas);
+            if (metrics != null) {
+                metrics.onFrameDrawn(System.nanoTime() - start);
+            }
+        } finally {
+            if (trace) {
+                XSeekBarTrace.endSection();
+            }
+        }
     }
 
     @Override
     protected void onAttachedToWindow() {
         super.onAttachedToWindow();
         mIsAttachedToWindow = true;
+        if (XSeekBarRegistry.isEnabled()) {
+            XSeekBarRegistry.register(this);
+        }
+        final Display display = getDisplay();
+        final float refreshRate = display != null ? display.getRefreshRate() : 0;
+        mFrameIntervalMillis = refreshRate >= 1 ? Math.round(1000 / refreshRate) : DEFAULT_FRAME_INTERVAL_MILLIS;
+        if (mProgressAnimator != null) {
+            mProgressAnimator.resume();
+        }
+        // 未附加到窗口期间子线程写入的进度
+        if (mPublisher.hasPending()) {
+            scheduleRefresh();
+        }
     }
 
     @Override
     protected void onDetachedFromWindow() {
         super.onDetachedFromWindow();
         mIsAttachedToWindow = false;
+        if (mProgressAnimator != null) {
+            mProgressAnimator.pause();
+        }
+        stopFling();
+        removeCallbacks(mProgressRefreshRunnable);
+        mPublisher.clearPosted();
+        flushFrameDispatch();
     }
 
     @Override
@@ -786,49 +1839,59 @@ public class XSeekBar extends View {
      */
     @Override
     protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
-        int dw = 0;
-        int dh = 0;
-        int maxDrawableWidth, maxDrawableHeight;
-        int indicatorWidth = 0, indicatorHeight = 0;
-        int indicatorOffset = 0;
-
-        final Drawable progressD = mProgressDrawable;
-        final Drawable thumbD = mThumbDrawable;
-        final Drawable indicatorD = mIndicatorDrawable;
-
-        if (indicatorD != null) {
-            indicatorWidth = indicatorD.getIntrinsicWidth();
-            indicatorHeight = indicatorD.getIntrinsicHeight();
-
-            indicatorWidth = indicatorWidth < 0 ? 0 : indicatorWidth;
-            indicatorHeight = indicatorHeight < 0 ? 0 : indicatorHeight;
-            indicatorOffset = mIndicatorOffset;
+        final boolean trace = XSeekBarTrace.sEnabled;
+        if (trace) {
+            XSeekBarTrace.beginSection(XSeekBarTrace.MEASURE);
         }
+        try {
+            int dw = 0;
+            int dh = 0;
+            int maxDrawableWidth, maxDrawableHeight;
+            int indicatorWidth = 0, indicatorHeight = 0;
+            int indicatorOffset = 0;
+
+            final Drawable progressD = mProgressDrawable;
+            final Drawable thumbD = mThumbDrawable;
+            final Drawable indicatorD = mIndicatorDrawable;
+
+            if (indicatorD != null) {
+                indicatorWidth = indicatorD.getIntrinsicWidth();
+                indicatorHeight = indicatorD.getIntrinsicHeight();
+
+                indicatorWidth = indicatorWidth < 0 ? 0 : indicatorWidth;
+                indicatorHeight = indicatorHeight < 0 ? 0 : indicatorHeight;
+                indicatorOffset = mIndicatorOffset;
+            }
 
-        // 触点Drawable和进度Drawable中的最大宽高
-        maxDrawableWidth = Math.max(progressD.getIntrinsicWidth(), thumbD.getIntrinsicWidth());
-        maxDrawableHeight = Math.max(progressD.getIntrinsicHeight(), thumbD.getIntrinsicHeight());
+            // 触点Drawable和进度Drawable中的最大宽高
+            maxDrawableWidth = Math.max(progressD.getIntrinsicWidth(), thumbD.getIntrinsicWidth());
+            maxDrawableHeight = Math.max(progressD.getIntrinsicHeight(), thumbD.getIntrinsicHeight());
 
-        // 水平方向
-        if (mDirection == Direction.HORIZONTAL) {
-            dw = Math.max(mMinWidth, Math.min(mMaxWidth, maxDrawableWidth));
-            dh = Math.max(mMinHeight, Math.min(mMaxHeight, maxDrawableHeight + indicatorOffset + indicatorHeight));
-        }
+            // 水平方向
+            if (mDirection == Direction.HORIZONTAL) {
+                dw = Math.max(mMinWidth, Math.min(mMaxWidth, maxDrawableWidth));
+                dh = Math.max(mMinHeight, Math.min(mMaxHeight, maxDrawableHeight + indicatorOffset + indicatorHeight));
+            }
 
-        // 垂直方向
-        if (mDirection == Direction.VERTICAL) {
-            dw = Math.max(mMinWidth, Math.min(mMaxWidth, maxDrawableWidth + indicatorOffset + indicatorWidth));
-            dh = Math.max(mMinHeight, Math.min(mMaxHeight, maxDrawableHeight));
-        }
+            // 垂直方向
+            if (mDirection == Direction.VERTICAL) {
+                dw = Math.max(mMinWidth, Math.min(mMaxWidth, maxDrawableWidth + indicatorOffset + indicatorWidth));
+                dh = Math.max(mMinHeight, Math.min(mMaxHeight, maxDrawableHeight));
+            }
 
-        updateDrawableState();
+            updateDrawableState();
 
-        dw += getPaddingLeft() + getPaddingRight();
-        dh += getPaddingTop() + getPaddingBottom();
+            dw += getPaddingLeft() + getPaddingRight();
+            dh += getPaddingTop() + getPaddingBottom();
 
-        final int measuredWidth = resolveSizeAndState(dw, widthMeasureSpec, 0);
-        final int measuredHeight = resolveSizeAndState(dh, heightMeasureSpec, 0);
-        setMeasuredDimension(measuredWidth, measuredHeight);
+            final int measuredWidth = resolveSizeAndState(dw, widthMeasureSpec, 0);
+            final int measuredHeight = resolveSizeAndState(dh, heightMeasureSpec, 0);
+            setMeasuredDimension(measuredWidth, measuredHeight);
+        } finally {
+            if (trace) {
+                XSeekBarTrace.endSection();
+            }
+        }
     }
 
     /**
@@ -839,6 +1902,16 @@ public class XSeekBar extends View {
 
         if (mProgressDrawable != null && mProgressDrawable.isStateful()) {
             if (mProgressDrawable.setState(state)) {
+                invalidateTrackBackgroundCache();
+                invalidate();
+            }
+        }
+
+        if (mTickMarkDrawable != null && mTickMarkDrawable.isStateful()) {
+            if (mTickMarkDrawable.setState(state)) {
+                // 不同状态的刻度尺寸可能不同
+                mTickMarkRenderer.invalidate();
+                prepareTickMarks();
                 invalidate();
             }
         }
@@ -853,48 +1926,248 @@ public class XSeekBar extends View {
      */
     void drawTrack(Canvas canvas) {
         final Drawable d = mProgressDrawable;
-        // 是否存在指示器
-        final boolean hasIndicator = this.mIndicatorDrawable != null;
 
         if (d != null) {
-            // 如果ProgressDrawable没有设置size属性则使用minXXX属性
-            int progressDWidth = mProgressDrawable.getIntrinsicWidth() < 0 ? mMinWidth : mProgressDrawable.getIntrinsicWidth();
-            int progressDHeight = mProgressDrawable.getIntrinsicHeight() < 0 ? mMinHeight : mProgressDrawable.getIntrinsicHeight();
-
-            // 是否触点的宽/高大于进度的宽/高,如果是的话进度还要进一步的偏移
-            final boolean isThumbWidthBigger = progressDWidth < mThumbDrawable.getIntrinsicWidth();
-            final boolean isThumbHeightBigger = progressDHeight < mThumbDrawable.getIntrinsicHeight();
-            int vSpace = 0, hSpace = 0;
-            if (isThumbHeightBigger) {
-                vSpace = (mThumbDrawable.getIntrinsicHeight() - progressDHeight) / 2;
-            }
-            if (isThumbWidthBigger) {
-                hSpace = (mThumbDrawable.getIntrinsicWidth() - progressDWidth) / 2;
+            final int saveCount = canvas.save();
+            canvas.translate(getTrackTranslationX(), getTrackTranslationY());
+            if ((mTrackBackgroundCache != null || mRangeThumbs != null) && d instanceof LayerDrawable) {
+                drawTrackLayers(canvas, (LayerDrawable) d);
+            } else {
+                d.draw(canvas);
             }
+            canvas.restoreToCount(saveCount);
+        }
+    }
 
-            final int saveCount = canvas.save();
-            // 指示器在进度上方
-            if (mDirection == Direction.HORIZONTAL && hasIndicator && mIndicatorPos == IndicatorPosition.TOP) {
-                canvas.translate(getPaddingLeft(), getPaddingTop() + mIndicatorDrawable.getIntrinsicHeight() + mIndicatorOffset + vSpace);
-            }
-            // 指示器在进度左侧
-            else if (mDirection == Direction.VERTICAL && hasIndicator && mIndicatorPos == IndicatorPosition.LEFT) {
-                canvas.translate(getPaddingLeft() + mIndicatorDrawable.getIntrinsicWidth() + mIndicatorOffset + hSpace, getPaddingTop());
-            }
-            // 水平方向，但是没有指示器
-            else if (mDirection == Direction.HORIZONTAL) {
-                canvas.translate(getPaddingLeft(), getPaddingTop() + vSpace);
-            }
-            // 垂直方向，没有指示器
-            else {
-                canvas.translate(getPaddingLeft() + hSpace, getPaddingTop());
+    /**
+     * 逐层绘制进度Drawable
+     * 背景层在开启缓存时使用缓存位图，区间模式下进度层只绘制首尾触点之间的部分
+     *
+     * @param canvas 已偏移到进度Drawable坐标系的Canvas
+     * @param track
+     */
+    private void drawTrackLayers(Canvas canvas, LayerDrawable track) {
+        final int count = track.getNumberOfLayers();
+        for (int i = 0; i < count; i++) {
+            final int id = track.getId(i);
+            final Drawable layer = track.getDrawable(i);
+            if (id == android.R.id.background && mTrackBackgroundCache != null) {
+                mTrackBackgroundCache.draw(canvas, layer, track.getBounds());
+            } else if (id == android.R.id.progress && mRangeThumbs != null) {
+                final int saveCount = canvas.save();
+                clipRangeProgress(canvas, track.getBounds());
+                layer.draw(canvas);
+                canvas.restoreToCount(saveCount);
+            } else {
+                layer.draw(canvas);
             }
+        }
+    }
 
-            d.draw(canvas);
-            canvas.restoreToCount(saveCount);
+    /**
+     * 区间模式下将Canvas裁剪到第一个与最后一个触点之间
+     *
+     * @param canvas
+     * @param bounds 进度Drawable的边界
+     */
+    private void clipRangeProgress(Canvas canvas, Rect bounds) {
+        final RangeThumbs thumbs = mRangeThumbs;
+        final long min = mMin;
+        final long max = mMax;
+        final int last = thumbs.count() - 1;
+        final ScaleTable scale = getScaleTable();
+        if (mDirection == Direction.HORIZONTAL) {
+            final int length = bounds.width();
+            canvas.clipRect(bounds.left + thumbs.pixelOf(0, min, max, length, scale), bounds.top,
+                    bounds.left + thumbs.pixelOf(last, min, max, length, scale), bounds.bottom);
+        } else {
+            final int length = bounds.height();
+            canvas.clipRect(bounds.left, bounds.top + thumbs.pixelOf(0, min, max, length, scale),
+                    bounds.right, bounds.top + thumbs.pixelOf(last, min, max, length, scale));
+        }
+    }
+
+    /**
+     * 设置是否缓存进度槽背景
+     * 开启后{@link android.R.id#background}层会绘制到位图中缓存，每帧只绘制进度层和触点，
+     * 只有尺寸、状态、tint变化时才重新绘制背景，适合平铺位图等绘制开销较大的背景
+     * 只对包含{@link android.R.id#background}层的{@link LayerDrawable}生效，会额外占用一张进度槽大小的位图
+     *
+     * @param enabled
+     */
+    public void setTrackBackgroundCacheEnabled(boolean enabled) {
+        if (enabled == (mTrackBackgroundCache != null)) {
+            return;
+        }
+        if (enabled) {
+            mTrackBackgroundCache = new TrackBackgroundCache();
+            prepareTrackBackgroundCache();
+        } else {
+            mTrackBackgroundCache.release();
+            mTrackBackgroundCache = null;
+        }
+        invalidate();
+    }
+
+    /**
+     * 是否缓存进度槽背景
+     *
+     * @return
+     */
+    public boolean isTrackBackgroundCacheEnabled() {
+        return mTrackBackgroundCache != null;
+    }
+
+    /**
+     * 按进度Drawable当前的边界准备进度槽背景缓存的位图，只能在UI线程的绘制之外调用
+     */
+    private void prepareTrackBackgroundCache() {
+        if (mTrackBackgroundCache != null && mProgressDrawable != null) {
+            mTrackBackgroundCache.prepare(mProgressDrawable.getBounds());
+        }
+    }
+
+    /**
+     * 使进度槽背景缓存失效
+     */
+    private void invalidateTrackBackgroundCache() {
+        if (mTrackBackgroundCache != null) {
+            mTrackBackgroundCache.invalidate();
+        }
+    }
+
+    /**
+     * 进度绘制时Canvas的水平偏移
+     *
+     * @return
+     * @see #drawTrack(Canvas)
+     */
+    private int getTrackTranslationX() {
+        if (mDirection == Direction.HORIZONTAL) {
+            return getPaddingLeft();
+        }
+
+        // 如果ProgressDrawable没有设置size属性则使用minXXX属性
+        final int progressDWidth = mProgressDrawable.getIntrinsicWidth() < 0 ? mMinWidth : mProgressDrawable.getIntrinsicWidth();
+        // 是否触点的宽大于进度的宽,如果是的话进度还要进一步的偏移
+        int hSpace = 0;
+        if (mThumbDrawable != null && progressDWidth < mThumbDrawable.getIntrinsicWidth()) {
+            hSpace = (mThumbDrawable.getIntrinsicWidth() - progressDWidth) / 2;
+        }
+
+        // 指示器在进度左侧
+        if (mIndicatorDrawable != null && mIndicatorPos == IndicatorPosition.LEFT) {
+            return getPaddingLeft() + mIndicatorDrawable.getIntrinsicWidth() + mIndicatorOffset + hSpace;
+        }
+        // 垂直方向，没有指示器
+        return getPaddingLeft() + hSpace;
+    }
+
+    /**
+     * 进度绘制时Canvas的垂直偏移
+     *
+     * @return
+     * @see #drawTrack(Canvas)
+     */
+    private int getTrackTranslationY() {
+        if (mDirection == Direction.VERTICAL) {
+            return getPaddingTop();
+        }
+
+        // 如果ProgressDrawable没有设置size属性则使用minXXX属性
+        final int progressDHeight = mProgressDrawable.getIntrinsicHeight() < 0 ? mMinHeight : mProgressDrawable.getIntrinsicHeight();
+        // 是否触点的高大于进度的高,如果是的话进度还要进一步的偏移
+        int vSpace = 0;
+        if (mThumbDrawable != null && progressDHeight < mThumbDrawable.getIntrinsicHeight()) {
+            vSpace = (mThumbDrawable.getIntrinsicHeight() - progressDHeight) / 2;
+        }
+
+        // 指示器在进度上方
+        if (mIndicatorDrawable != null && mIndicatorPos == IndicatorPosition.TOP) {
+            return getPaddingTop() + mIndicatorDrawable.getIntrinsicHeight() + mIndicatorOffset + vSpace;
+        }
+        // 水平方向，但是没有指示器
+        return getPaddingTop() + vSpace;
+    }
+
+    /**
+     * 绘制刻度
+     * 刻度位置只在布局或范围变化后计算一次，所有刻度通过一次位图绘制完成
+     * 位图在布局时由{@link #prepareTickMarks()}创建，范围变化后在已有位图上重新绘制
+     *
+     * @param canvas
+     * @see TickMarkRenderer
+     */
+    void drawTickMarks(Canvas canvas) {
+        if (mTickMarkDrawable == null) {
+            return;
+        }
+
+        if (mTickMarkRenderer.isDirty()) {
+            rebuildTickMarks();
+        }
+        mTickMarkRenderer.draw(canvas);
+    }
+
+    /**
+     * 按当前布局准备刻度位图并重新绘制刻度，只能在UI线程的绘制之外调用
+     */
+    private void prepareTickMarks() {
+        final boolean horizontal = mDirection == Direction.HORIZONTAL;
+        mTickMarkRenderer.prepare(mTickMarkDrawable, horizontal, getTickMarkLength(horizontal));
+        if (mTickMarkDrawable != null && mTickMarkRenderer.isDirty()) {
+            rebuildTickMarks();
+        }
+    }
+
+    private int getTickMarkLength(boolean horizontal) {
+        return horizontal ? getWidth() - getPaddingLeft() - getPaddingRight()
+                : getHeight() - getPaddingTop() - getPaddingBottom();
+    }
+
+    /**
+     * 计算刻度位置并重新绘制刻度位图
+     * 刻度中心与触点在对应进度时的中心对齐，垂直于进度方向上与进度居中对齐
+     */
+    private void rebuildTickMarks() {
+        final boolean horizontal = mDirection == Direction.HORIZONTAL;
+        final int available = getTickMarkLength(horizontal);
+
+        int startX;
+        int startY;
+        if (horizontal) {
+            startX = mThumbDrawable != null ? getThumbTranslationX() + mThumbOffset : getPaddingLeft();
+            startY = getTrackTranslationY() + (mProgressDrawable != null ? mProgressDrawable.getBounds().centerY() : 0);
+        } else {
+            startX = getTrackTranslationX() + (mProgressDrawable != null ? mProgressDrawable.getBounds().centerX() : 0);
+            startY = mThumbDrawable != null ? getThumbTranslationY() + mThumbOffset : getPaddingTop();
+        }
+
+        mTickMarkRenderer.rebuild(mTickMarkDrawable, horizontal, startX, startY, available, mTickPositions, mTickMarkMinPitch);
+    }
+
+    /**
+     * 设置相邻刻度的最小间距，刻度过密时自动跳过部分刻度
+     *
+     * @param minPitch 单位px
+     */
+    public void setTickMarkMinPitch(int minPitch) {
+        if (mTickMarkMinPitch != minPitch) {
+            mTickMarkMinPitch = minPitch;
+            mTickMarkRenderer.invalidate();
+            invalidate();
         }
     }
 
+    /**
+     * 获取相邻刻度的最小间距
+     *
+     * @return 单位px
+     */
+    public int getTickMarkMinPitch() {
+        return mTickMarkMinPitch;
+    }
+
     /**
      * 绘制触点
      * canvas需偏移出padding和指示器的宽/高以及{@link #mIndicatorOffset}
@@ -902,35 +2175,127 @@ public class XSeekBar extends View {
      * @param canvas
      */
     void drawThumb(Canvas canvas) {
+        if (mPendingDrawInputTime != 0 || mDragLatencyReportPending) {
+            recordDragLatency();
+        }
         if (mThumbDrawable != null) {
-            // 是否存在指示器
-            final boolean hasIndicator = this.mIndicatorDrawable != null;
-            final int thumbWidth = mThumbDrawable.getIntrinsicWidth();
-            final int thumbHeight = mThumbDrawable.getIntrinsicHeight();
-
             final int saveCount = canvas.save();
-            // 指示器在进度上方
-            if (mDirection == Direction.HORIZONTAL && hasIndicator && mIndicatorPos == IndicatorPosition.TOP) {
-                canvas.translate(getPaddingLeft() - thumbWidth / 2, getPaddingTop() + mIndicatorDrawable.getIntrinsicHeight() + mIndicatorOffset);
-            }
-            // 指示器在进度左侧
-            else if (mDirection == Direction.VERTICAL && hasIndicator && mIndicatorPos == IndicatorPosition.LEFT) {
-                canvas.translate(getPaddingLeft() + mIndicatorDrawable.getIntrinsicWidth() + mIndicatorOffset, getPaddingTop() - thumbHeight / 2);
-            }
-            // 水平方向，但是没有指示器
-            else if (mDirection == Direction.HORIZONTAL) {
-                canvas.translate(getPaddingLeft() - thumbWidth / 2, getPaddingTop());
-            }
-            // 垂直方向，没有指示器
-            else {
-                canvas.translate(getPaddingLeft(), getPaddingTop() - thumbHeight / 2);
+            canvas.translate(getThumbTranslationX(), getThumbTranslationY());
+            if (mRangeThumbs != null) {
+                // 区间模式共用一个触点Drawable，边界不变，依次平移Canvas到各触点位置后绘制
+                setRangeThumbBaseBounds();
+                final int count = mRangeThumbs.count();
+                int translated = 0;
+                for (int i = 0; i < count; i++) {
+                    final int offset = getRangeThumbOffset(i);
+                    if (mDirection == Direction.HORIZONTAL) {
+                        canvas.translate(offset - translated, 0);
+                    } else {
+                        canvas.translate(0, offset - translated);
+                    }
+                    translated = offset;
+                    mThumbDrawable.draw(canvas);
+                }
+            } else {
+                mThumbDrawable.draw(canvas);
             }
-
-            mThumbDrawable.draw(canvas);
             canvas.restoreToCount(saveCount);
         }
     }
 
+    /**
+     * 区间模式下{@link #mThumbDrawable}的边界，以触点中心为进度方向的原点，
+     * 各触点绘制时平移{@link #getRangeThumbOffset(int)}，边界不随触点变化，只在尺寸变化后实际修改
+     */
+    private void setRangeThumbBaseBounds() {
+        final Drawable thumb = mThumbDrawable;
+        final int thumbWidth = thumb.getIntrinsicWidth();
+        final int thumbHeight = thumb.getIntrinsicHeight();
+        if (mDirection == Direction.HORIZONTAL) {
+            final int left = -thumbWidth / 2;
+            thumb.setBounds(left, 0, left + thumbWidth, thumbHeight);
+        } else {
+            final int top = -thumbHeight / 2;
+            thumb.setBounds(0, top, thumbWidth, top + thumbHeight);
+        }
+    }
+
+    /**
+     * 区间模式下第index个触点在进度方向上的偏移，坐标系与{@link #updateThumbPos(int, int, Drawable, float, int)}相同
+     *
+     * @param index
+     * @return
+     */
+    private int getRangeThumbOffset(int index) {
+        return mThumbOffset + mRangeThumbs.pixelOf(index, mMin, mMax, getTrackAvailable(), getScaleTable());
+    }
+
+    /**
+     * 将区间模式下第index个触点所在区域(View坐标系)合并到dirty中
+     *
+     * @param dirty
+     * @param index
+     */
+    private void unionRangeThumbBounds(Rect dirty, int index) {
+        setRangeThumbBaseBounds();
+        final int offset = getRangeThumbOffset(index);
+        if (mDirection == Direction.HORIZONTAL) {
+            unionDrawableBounds(dirty, mThumbDrawable, getThumbTranslationX() + offset, getThumbTranslationY());
+        } else {
+            unionDrawableBounds(dirty, mThumbDrawable, getThumbTranslationX(), getThumbTranslationY() + offset);
+        }
+    }
+
+    /**
+     * 进度方向上可用的像素长度
+     *
+     * @return
+     */
+    private int getTrackAvailable() {
+        if (mDirection == Direction.HORIZONTAL) {
+            return SeekGeometry.available(getWidth(), getPaddingLeft(), getPaddingRight());
+        }
+        return SeekGeometry.available(getHeight(), getPaddingTop(), getPaddingBottom());
+    }
+
+    /**
+     * 触点绘制时Canvas的水平偏移
+     *
+     * @return
+     * @see #drawThumb(Canvas)
+     */
+    private int getThumbTranslationX() {
+        // 水平方向
+        if (mDirection == Direction.HORIZONTAL) {
+            return getPaddingLeft() - mThumbDrawable.getIntrinsicWidth() / 2;
+        }
+        // 指示器在进度左侧
+        if (mIndicatorDrawable != null && mIndicatorPos == IndicatorPosition.LEFT) {
+            return getPaddingLeft() + mIndicatorDrawable.getIntrinsicWidth() + mIndicatorOffset;
+        }
+        // 垂直方向，没有指示器
+        return getPaddingLeft();
+    }
+
+    /**
+     * 触点绘制时Canvas的垂直偏移
+     *
+     * @return
+     * @see #drawThumb(Canvas)
+     */
+    private int getThumbTranslationY() {
+        // 垂直方向
+        if (mDirection == Direction.VERTICAL) {
+            return getPaddingTop() - mThumbDrawable.getIntrinsicHeight() / 2;
+        }
+        // 指示器在进度上方
+        if (mIndicatorDrawable != null && mIndicatorPos == IndicatorPosition.TOP) {
+            return getPaddingTop() + mIndicatorDrawable.getIntrinsicHeight() + mIndicatorOffset;
+        }
+        // 水平方向，但是没有指示器
+        return getPaddingTop();
+    }
+
     /**
      * 绘制指示器和内容
      * canvas需偏移出padding,如果padding或者{@link #mIndicatorOffset}的值小于指示器宽/高的1/2有可能导致
@@ -943,39 +2308,210 @@ public class XSeekBar extends View {
             final int saveCount = canvas.save();
             final int indicatorWidth = mIndicatorDrawable.getIntrinsicWidth();
             final int indicatorHeight = mIndicatorDrawable.getIntrinsicHeight();
-            if (mDirection == Direction.HORIZONTAL) {
-                canvas.translate(-indicatorWidth / 2, getPaddingTop());
-            } else {
-                canvas.translate(getPaddingLeft(), -(indicatorHeight / 2));
-            }
+            canvas.translate(getIndicatorTranslationX(), getIndicatorTranslationY());
 
             mIndicatorDrawable.draw(canvas);
 
             // 指示器内容
-            if (mIndicatorContentProvider != null) {
-                IndicatorFontInfo indicatorFontInfo = mIndicatorContentProvider.getIndicatorContent(mProgress, indicatorWidth, indicatorHeight);
-                if (indicatorFontInfo != null) {
-                    String content = indicatorFontInfo.getText();
-                    if (!TextUtils.isEmpty(content)) {
-                        if (mIndicatorContentPaint.getTextSize() != indicatorFontInfo.getTextSize()) {
-                            mIndicatorContentPaint.setTextSize(indicatorFontInfo.getTextSize());
-                        }
-                        if (mIndicatorContentPaint.getColor() != indicatorFontInfo.getTextColor()) {
-                            mIndicatorContentPaint.setColor(indicatorFontInfo.getTextColor());
-                        }
-                        if (indicatorFontInfo.isBold() && mIndicatorContentPaint.getTypeface() != null && !mIndicatorContentPaint.getTypeface().isBold()) {
-                            Typeface font = Typeface.create(Typeface.SANS_SERIF, Typeface.BOLD);
-                            mIndicatorContentPaint.setTypeface(font);
-                        }
-                        Rect indicatorBounds = mIndicatorDrawable.getBounds();
-                        canvas.drawText(content, indicatorBounds.left + indicatorFontInfo.getOffsetX(), indicatorBounds.top + indicatorFontInfo.getOffsetY() + indicatorFontInfo.getTextSize(), mIndicatorContentPaint);
-                    }
+            if (mIndicatorTextFormat != null) {
+                drawIndicatorText(canvas);
+            } else if (mIndicatorContentBinder != null || mIndicatorContentProvider != null
+                    || mAsyncIndicatorContent != null) {
+                final boolean present = mAsyncIndicatorContent != null
+                        ? obtainAsyncIndicatorContent(indicatorWidth, indicatorHeight)
+                        : obtainIndicatorContent(indicatorWidth, indicatorHeight);
+                if (present) {
+                    drawIndicatorContent(canvas);
                 }
             }
             canvas.restoreToCount(saveCount);
         }
     }
 
+    /**
+     * 绘制内置格式的指示器文字，在指示器内居中
+     * 只在进度或范围变化时重新格式化，宽度由预先测量的字符宽度累加，不测量整段文字，不创建对象
+     *
+     * @param canvas
+     */
+    private void drawIndicatorText(Canvas canvas) {
+        final long progress = mPublisher.get();
+        final long min = mMin;
+        final long max = mMax;
+        if (!mIndicatorTextValid || mIndicatorTextProgress != progress
+                || mIndicatorTextMin != min || mIndicatorTextMax != max) {
+            mIndicatorTextLength = mIndicatorTextFormat.format(progress, min, max, mIndicatorText);
+            mIndicatorTextProgress = progress;
+            mIndicatorTextMin = min;
+            mIndicatorTextMax = max;
+            mIndicatorTextValid = true;
+        }
+
+        final Paint paint = mIndicatorTextPaint;
+        if (!mIndicatorGlyphWidthsValid) {
+            paint.getTextWidths(ProgressTextFormat.GLYPHS, mIndicatorGlyphWidths);
+            mIndicatorTextBaselineOffset = -(paint.ascent() + paint.descent()) / 2;
+            mIndicatorGlyphWidthsValid = true;
+        }
+        final char[] text = mIndicatorText;
+        final int length = mIndicatorTextLength;
+        float width = 0;
+        for (int i = 0; i < length; i++) {
+            width += mIndicatorGlyphWidths[ProgressTextFormat.glyphIndex(text[i])];
+        }
+
+        final Rect bounds = mIndicatorDrawable.getBounds();
+        canvas.drawText(text, 0, length, bounds.exactCenterX() - width / 2,
+                bounds.exactCenterY() + mIndicatorTextBaselineOffset, paint);
+    }
+
+    /**
+     * 绘制内容槽中的指示器内容，只更新上次绘制后变化的Paint属性
+     *
+     * @param canvas
+     */
+    private void drawIndicatorContent(Canvas canvas) {
+        final IndicatorFontInfo content = mIndicatorContent;
+        final Paint paint = mIndicatorContentPaint;
+        final int dirty = content.state.takeDirty();
+        if ((dirty & IndicatorContentState.DIRTY_TEXT_SIZE) != 0) {
+            paint.setTextSize(content.getTextSize());
+        }
+        if ((dirty & IndicatorContentState.DIRTY_TEXT_COLOR) != 0) {
+            paint.setColor(content.getTextColor());
+        }
+        if ((dirty & IndicatorContentState.DIRTY_BOLD) != 0) {
+            // 粗体字体在初始化时创建，绘制时只切换引用
+            paint.setTypeface(content.isBold() ? mBoldTypeface : null);
+        }
+        final String text = content.getText();
+        if (!TextUtils.isEmpty(text)) {
+            final Rect indicatorBounds = mIndicatorDrawable.getBounds();
+            canvas.drawText(text, indicatorBounds.left + content.getOffsetX(),
+                    indicatorBounds.top + content.getOffsetY() + content.getTextSize(), paint);
+        }
+    }
+
+    /**
+     * 更新内容槽，只有进度或指示器尺寸变化时才重新向{@link IndicatorContentBinder}或{@link IndicatorContentProvider}获取
+     *
+     * @param indicatorWidth
+     * @param indicatorHeight
+     * @return 是否有可绘制的内容
+     */
+    private boolean obtainIndicatorContent(int indicatorWidth, int indicatorHeight) {
+        final long progress = mPublisher.get();
+        if (mIndicatorContentValid && mIndicatorContentProgress == progress
+                && mIndicatorContentWidth == indicatorWidth && mIndicatorContentHeight == indicatorHeight) {
+            return mIndicatorContentPresent;
+        }
+
+        if (mIndicatorContentBinder != null) {
+            mIndicatorContentBinder.onBindIndicatorContent(this, progress, indicatorWidth, indicatorHeight, mIndicatorContent);
+            mIndicatorContentPresent = true;
+        } else {
+            final IndicatorFontInfo content = mIndicatorContentProvider.getIndicatorContent(
+                    ProgressMath.toIntProgress(progress), indicatorWidth, indicatorHeight);
+            if (content != null) {
+                mIndicatorContent.set(content);
+            }
+            mIndicatorContentPresent = content != null;
+        }
+        mIndicatorContentProgress = progress;
+        mIndicatorContentWidth = indicatorWidth;
+        mIndicatorContentHeight = indicatorHeight;
+        mIndicatorContentValid = true;
+        return mIndicatorContentPresent;
+    }
+
+    /**
+     * 获取异步的指示器内容，拖动时按拖动方向预取即将经过的进度
+     *
+     * @param indicatorWidth
+     * @param indicatorHeight
+     * @return 是否有可绘制的内容，当前进度的内容未完成时使用最后一次完成的内容
+     */
+    private boolean obtainAsyncIndicatorContent(int indicatorWidth, int indicatorHeight) {
+        final AsyncIndicatorContent asyncContent = mAsyncIndicatorContent;
+        final IndicatorFontInfo content = asyncContent.get(mPublisher.get(), indicatorWidth, indicatorHeight);
+        if (mIsDragging) {
+            asyncContent.prefetch(mIndicatorPrefetch, collectPrefetchProgress(mIndicatorPrefetch));
+        }
+        if (content == null) {
+            return false;
+        }
+        mIndicatorContent.set(content);
+        return true;
+    }
+
+    /**
+     * 按拖动速度推算之后几帧触点经过的进度，用于预取指示器内容
+     * 速度较慢时每像素取一个位置，跳过重复的进度，到达进度边界时停止
+     *
+     * @param out 输出的进度，按经过的先后排列
+     * @return 输出的数量
+     */
+    private int collectPrefetchProgress(long[] out) {
+        final DragVelocityTracker tracker = mDragVelocityTracker;
+        final float velocity = tracker.velocity();
+        if (tracker.count() == 0 || velocity == 0) {
+            return 0;
+        }
+        final int available = getTrackAvailable();
+        final float stride = Math.max(1f, Math.abs(velocity) * mFrameIntervalMillis / 1000f);
+        final float step = velocity > 0 ? stride : -stride;
+        float pos = tracker.lastPosition();
+        long last = mPublisher.get();
+        int count = 0;
+        // 步长较小时多个位置可能对应同一进度，限制遍历次数
+        for (int i = 0; i < out.length * 4 && count < out.length; i++) {
+            pos += step;
+            if (pos < 0 || pos > available) {
+                break;
+            }
+            final long value = touchPositionToValue(pos);
+            if (value != last) {
+                out[count++] = value;
+                last = value;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 使缓存的指示器内容失效，下次绘制时重新获取
+     */
+    private void invalidateIndicatorContent() {
+        mIndicatorContentValid = false;
+        mIndicatorContentPresent = false;
+    }
+
+    /**
+     * 指示器绘制时Canvas的水平偏移
+     *
+     * @return
+     * @see #drawIndicator(Canvas)
+     */
+    private int getIndicatorTranslationX() {
+        if (mDirection == Direction.HORIZONTAL) {
+            return -mIndicatorDrawable.getIntrinsicWidth() / 2;
+        }
+        return getPaddingLeft();
+    }
+
+    /**
+     * 指示器绘制时Canvas的垂直偏移
+     *
+     * @return
+     * @see #drawIndicator(Canvas)
+     */
+    private int getIndicatorTranslationY() {
+        if (mDirection == Direction.HORIZONTAL) {
+            return getPaddingTop();
+        }
+        return -(mIndicatorDrawable.getIntrinsicHeight() / 2);
+    }
+
     /**
      * 更新ProgressDrawable的边界
      * 绘制Progress的时候Canvas已偏移出padding和指示器的宽/高，因此起点是0,0点
@@ -1003,6 +2539,7 @@ public class XSeekBar extends View {
             } else {
                 mProgressDrawable.setBounds(0, 0, dW, bottom);
             }
+            prepareTrackBackgroundCache();
         }
     }
 
@@ -1034,10 +2571,10 @@ public class XSeekBar extends View {
 
         // 水平方向
         if (mDirection == Direction.HORIZONTAL) {
-            available = w - paddingLeft - paddingRight;
+            available = SeekGeometry.available(w, paddingLeft, paddingRight);
 
             // 触点左侧位置
-            final int thumbPos = (int) (mThumbOffset + scale * available - thumbWidth / 2);
+            final int thumbPos = SeekGeometry.thumbStart(scale, available, mThumbOffset, thumbWidth);
 
             top = offset;
             bottom = offset + thumbHeight;
@@ -1055,10 +2592,10 @@ public class XSeekBar extends View {
 
         // 垂直方向
         if (mDirection == Direction.VERTICAL) {
-            available = h - paddingTop - paddingBottom;
+            available = SeekGeometry.available(h, paddingTop, paddingBottom);
 
             // 触点顶部位置
-            final int thumbPos = (int) (mThumbOffset + scale * available - thumbHeight / 2);
+            final int thumbPos = SeekGeometry.thumbStart(scale, available, mThumbOffset, thumbHeight);
 
             top = thumbPos;
             bottom = top + thumbHeight;
@@ -1096,184 +2633,1184 @@ public class XSeekBar extends View {
             int paddingBottom = getPaddingBottom();
             int available = 0;
 
-            final Rect rect = new Rect(0, 0, 0, 0);
+            int left = 0, top = 0, right = 0, bottom = 0;
             final int width = indicator.getIntrinsicWidth();
             final int height = indicator.getIntrinsicHeight();
 
             // 水平方向
             if (mDirection == Direction.HORIZONTAL) {
-                available = w - paddingLeft - paddingRight;
-
-                final int left = (int) (mThumbOffset + scale * available);
+                available = SeekGeometry.available(w, paddingLeft, paddingRight);
 
-                rect.left = left;
-                rect.right = rect.left + width;
+                left = SeekGeometry.indicatorStart(scale, available, mThumbOffset);
+                right = left + width;
                 // 指示器在进度上方
                 if (mIndicatorPos == IndicatorPosition.TOP) {
-                    rect.top = 0;
-                    rect.bottom = rect.top + height;
+                    top = 0;
+                    bottom = top + height;
                 }
                 // 指示器在进度下方
                 else {
                     int progressDHeight = mProgressDrawable.getIntrinsicHeight() < 0 ? mMinHeight : mProgressDrawable.getIntrinsicHeight();
-                    rect.top = Math.max(progressDHeight, mThumbDrawable.getIntrinsicHeight()) + mIndicatorOffset;
-                    rect.bottom = rect.top + height;
+                    top = Math.max(progressDHeight, mThumbDrawable.getIntrinsicHeight()) + mIndicatorOffset;
+                    bottom = top + height;
                 }
             }
 
             // 垂直方向
             if (mDirection == Direction.VERTICAL) {
-                available = h - paddingTop - paddingBottom;
+                available = SeekGeometry.available(h, paddingTop, paddingBottom);
 
-                final int top = (int) (mThumbOffset + scale * available);
-
-                rect.top = top;
-                rect.bottom = rect.top + height;
+                top = SeekGeometry.indicatorStart(scale, available, mThumbOffset);
+                bottom = top + height;
                 // 指示器在进度左侧
                 if (mIndicatorPos == IndicatorPosition.LEFT) {
-                    rect.left = 0;
-                    rect.right = rect.left + width;
+                    left = 0;
+                    right = left + width;
                 }
                 // 指示器在进度右侧
                 else {
                     int progressDWidth = mProgressDrawable.getIntrinsicWidth() < 0 ? mMinWidth : mProgressDrawable.getIntrinsicWidth();
-                    rect.left = Math.max(progressDWidth, mThumbDrawable.getIntrinsicWidth()) + mIndicatorOffset;
-                    rect.right = rect.left + width;
+                    left = Math.max(progressDWidth, mThumbDrawable.getIntrinsicWidth()) + mIndicatorOffset;
+                    right = left + width;
                 }
             }
 
-            indicator.setBounds(rect);
-        }
+            indicator.setBounds(left, top, right, bottom);
+        }
+
+    }
+
+    /**
+     * 获取进度监听器
+     *
+     * @return
+     */
+    public OnSeekBarChangeListener getOnSeekBarChangeListener() {
+        return this.mOnSeekBarChangeListener;
+    }
+
+    /**
+     * 设置进度变化的监听，另外可监听用户开始和接收触摸的手势动作
+     *
+     * @param l 监听器
+     * @see OnSeekBarChangeListener
+     */
+    public void setOnSeekBarChangeListener(OnSeekBarChangeListener l) {
+        mOnSeekBarChangeListener = l;
+    }
+
+    /**
+     * 添加进度监听，与{@link #setOnSeekBarChangeListener(OnSeekBarChangeListener)}设置的监听同时生效
+     * 可在任意线程调用，添加时复制监听数组，回调时不创建对象
+     *
+     * @param l 监听器，重复添加时忽略
+     */
+    public void addOnSeekBarChangeListener(OnSeekBarChangeListener l) {
+        if (l == null) {
+            return;
+        }
+        synchronized (mListenersLock) {
+            final OnSeekBarChangeListener[] old = mSeekBarListeners;
+            for (OnSeekBarChangeListener listener : old) {
+                if (listener == l) {
+                    return;
+                }
+            }
+            final OnSeekBarChangeListener[] listeners = Arrays.copyOf(old, old.length + 1);
+            listeners[old.length] = l;
+            mSeekBarListeners = listeners;
+        }
+    }
+
+    /**
+     * 移除通过{@link #addOnSeekBarChangeListener(OnSeekBarChangeListener)}添加的监听
+     *
+     * @param l
+     */
+    public void removeOnSeekBarChangeListener(OnSeekBarChangeListener l) {
+        synchronized (mListenersLock) {
+            final OnSeekBarChangeListener[] old = mSeekBarListeners;
+            for (int i = 0; i < old.length; i++) {
+                if (old[i] == l) {
+                    if (old.length == 1) {
+                        mSeekBarListeners = EMPTY_SEEK_BAR_LISTENERS;
+                        return;
+                    }
+                    final OnSeekBarChangeListener[] listeners = new OnSeekBarChangeListener[old.length - 1];
+                    System.arraycopy(old, 0, listeners, 0, i);
+                    System.arraycopy(old, i + 1, listeners, i, old.length - i - 1);
+                    mSeekBarListeners = listeners;
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * 设置触点数量，大于1时进入区间模式
+     * 区间模式下各触点的值在[{@link #getMin()}, {@link #getMax()}]之间均匀分布，进度层绘制首尾触点之间的部分，
+     * 不显示指示器，{@link #setProgress(long)}不影响显示，触点值通过{@link #setThumbValue(int, long)}修改，
+     * 变化通过{@link OnRangeChangeListener}通知，支持多指同时拖动不同触点
+     * 需在UI线程调用
+     *
+     * @param count 触点数量，小于等于1时恢复单触点模式
+     */
+    public void setThumbCount(int count) {
+        final long spacing = mRangeThumbs != null ? mRangeThumbs.getMinSpacing() : 0;
+        if (count <= 1) {
+            mRangeThumbs = null;
+        } else if (mRangeThumbs == null || mRangeThumbs.count() != count) {
+            mRangeThumbs = new RangeThumbs(count, mMin, mMax);
+            mRangeThumbs.setMinSpacing(spacing);
+            mRangeThumbs.clampAll(mMin, mMax);
+        }
+        // 重新设置进度层level和触点位置
+        setVisualProgress(mVisualProgress);
+        invalidate();
+    }
+
+    /**
+     * 获取触点数量
+     *
+     * @return
+     */
+    public int getThumbCount() {
+        return mRangeThumbs != null ? mRangeThumbs.count() : 1;
+    }
+
+    /**
+     * 设置区间模式下相邻触点的最小间距，相邻触点不能交叉
+     *
+     * @param spacing 进度值的间距
+     */
+    public void setThumbMinSpacing(long spacing) {
+        if (mRangeThumbs != null) {
+            mRangeThumbs.setMinSpacing(spacing);
+            clampRangeThumbs();
+        }
+    }
+
+    /**
+     * 设置区间模式下第index个触点的值，需在UI线程调用
+     * 值会被限制在[{@link #getMin()}, {@link #getMax()}]以及相邻触点和最小间距允许的范围内
+     *
+     * @param index 触点序号，从0开始
+     * @param value
+     */
+    public void setThumbValue(int index, long value) {
+        if (mRangeThumbs == null) {
+            if (index == 0) {
+                setProgress(value);
+            }
+            return;
+        }
+        setRangeThumbValue(index, value, false);
+    }
+
+    /**
+     * 获取第index个触点的值，单触点模式下返回当前进度
+     *
+     * @param index 触点序号，从0开始
+     * @return
+     */
+    public long getThumbValue(int index) {
+        if (mRangeThumbs == null) {
+            return mPublisher.get();
+        }
+        return mRangeThumbs.getValue(index);
+    }
+
+    /**
+     * 设置区间模式触点值变化的监听
+     *
+     * @param l
+     */
+    public void setOnRangeChangeListener(OnRangeChangeListener l) {
+        mOnRangeChangeListener = l;
+    }
+
+    /**
+     * 设置拖动延迟监听，设置为null关闭统计
+     * 统计从触摸事件产生({@link MotionEvent#getEventTime()})到对应进度的触点被绘制的时间，
+     * 每次拖动结束后回调本次拖动的p50/p95/p99，单位毫秒
+     * 绘制之后还需要经过RenderThread和系统合成才会显示到屏幕上，因此该值是输入到绘制的延迟，不包含合成和显示的时间
+     *
+     * @param l
+     */
+    public void setOnDragLatencyListener(OnDragLatencyListener l) {
+        mOnDragLatencyListener = l;
+        if (l == null) {
+            mDragLatency = null;
+            mPendingDrawInputTime = 0;
+            mDragLatencyReportPending = false;
+        } else if (mDragLatency == null) {
+            mDragLatency = new LatencyRecorder(DRAG_LATENCY_SAMPLES);
+        }
+    }
+
+    /**
+     * 触摸事件修改了进度，记录等待绘制的事件时间
+     * 多次修改在同一帧绘制时按最早的事件计算
+     */
+    private void markInputPendingDraw() {
+        if (mInputEventTime != 0 && mPendingDrawInputTime == 0) {
+            mPendingDrawInputTime = mInputEventTime;
+        }
+    }
+
+    /**
+     * 绘制触点时记录延迟，拖动已结束时回调统计结果
+     */
+    private void recordDragLatency() {
+        final LatencyRecorder recorder = mDragLatency;
+        if (recorder == null) {
+            mPendingDrawInputTime = 0;
+            mDragLatencyReportPending = false;
+            return;
+        }
+        if (mPendingDrawInputTime != 0) {
+            recorder.record(SystemClock.uptimeMillis() - mPendingDrawInputTime);
+            mPendingDrawInputTime = 0;
+        }
+        if (mDragLatencyReportPending) {
+            mDragLatencyReportPending = false;
+            if (recorder.count() > 0 && mOnDragLatencyListener != null) {
+                mOnDragLatencyListener.onDragLatency(this, recorder.percentile(50), recorder.percentile(95),
+                        recorder.percentile(99), recorder.count());
+            }
+            recorder.reset();
+        }
+    }
+
+    /**
+     * 修改区间模式触点值，只重绘该触点以及受影响的进度区域
+     *
+     * @param index
+     * @param value
+     * @param fromUser
+     */
+    private void setRangeThumbValue(int index, long value, boolean fromUser) {
+        final RangeThumbs thumbs = mRangeThumbs;
+        final int last = thumbs.count() - 1;
+        final int oldPixel = thumbs.pixelOf(index, mMin, mMax, getTrackAvailable(), getScaleTable());
+        final Rect dirty = mDirtyRect;
+        dirty.setEmpty();
+        if (mThumbDrawable != null) {
+            unionRangeThumbBounds(dirty, index);
+        }
+
+        if (!thumbs.setValue(index, value, mMin, mMax)) {
+            return;
+        }
+        markInputPendingDraw();
+
+        if (mThumbDrawable != null) {
+            unionRangeThumbBounds(dirty, index);
+        }
+        // 首尾触点移动时进度区域也会变化
+        if ((index == 0 || index == last) && mProgressDrawable != null) {
+            unionRangeProgressBounds(dirty, oldPixel, thumbs.pixelOf(index, mMin, mMax, getTrackAvailable(), getScaleTable()));
+        }
+        invalidateDirtyRect(dirty);
+
+        if (mOnRangeChangeListener != null) {
+            mOnRangeChangeListener.onRangeChanged(this, index, thumbs.getValue(index), fromUser);
+        }
+    }
+
+    /**
+     * 将进度Drawable在from与to两个像素位置之间的区域合并到dirty中
+     *
+     * @param dirty
+     * @param from  相对于进度起点的像素位置
+     * @param to    相对于进度起点的像素位置
+     */
+    private void unionRangeProgressBounds(Rect dirty, int from, int to) {
+        final Rect bounds = mProgressDrawable.getBounds();
+        final int dx = getTrackTranslationX();
+        final int dy = getTrackTranslationY();
+        final int start = Math.min(from, to) - 1;
+        final int end = Math.max(from, to) + 1;
+        if (mDirection == Direction.HORIZONTAL) {
+            dirty.union(bounds.left + start + dx, bounds.top + dy, bounds.left + end + dx, bounds.bottom + dy);
+        } else {
+            dirty.union(bounds.left + dx, bounds.top + start + dy, bounds.right + dx, bounds.top + end + dy);
+        }
+    }
+
+    /**
+     * 范围或最小间距变化后重新约束区间模式的触点，只能在UI线程调用
+     * 值被改变的触点逐个回调{@link OnRangeChangeListener}
+     */
+    private void clampRangeThumbs() {
+        final RangeThumbs thumbs = mRangeThumbs;
+        if (thumbs == null) {
+            return;
+        }
+        final int count = thumbs.count();
+        // 范围变化不频繁，这里的分配不在绘制和拖动路径上
+        final long[] old = new long[count];
+        for (int i = 0; i < count; i++) {
+            old[i] = thumbs.getValue(i);
+        }
+        thumbs.clampAll(mMin, mMax);
+        invalidate();
+        final OnRangeChangeListener listener = mOnRangeChangeListener;
+        if (listener == null) {
+            return;
+        }
+        for (int i = 0; i < count; i++) {
+            final long value = thumbs.getValue(i);
+            if (value != old[i]) {
+                listener.onRangeChanged(this, i, value, false);
+            }
+        }
+    }
+
+    /**
+     * 区间模式的触摸事件处理
+     * 每个手指按下时二分查找最近的未被拖动的触点并与之绑定，移动时只更新各手指绑定的触点
+     * 与单触点模式相同，在可滚动的父容器中移动超过触摸阈值后才开始拖动
+     *
+     * @param event
+     * @return
+     */
+    private boolean onRangeTouchEvent(MotionEvent event) {
+        final RangeThumbs thumbs = mRangeThumbs;
+        switch (event.getActionMasked()) {
+            case MotionEvent.ACTION_DOWN:
+                if (isInScrollingContainer()) {
+                    mTouchDownX = event.getX();
+                } else {
+                    startRangeDrag(event, 0);
+                }
+                break;
+            case MotionEvent.ACTION_POINTER_DOWN: {
+                final int pointerIndex = event.getActionIndex();
+                if (!mIsDragging) {
+                    // 等待触摸阈值期间按下第二个手指，先开始第一个手指的拖动
+                    startRangeDrag(event, pointerIndex == 0 ? 1 : 0);
+                }
+                attachRangePointer(event, pointerIndex);
+                break;
+            }
+            case MotionEvent.ACTION_MOVE: {
+                if (!mIsDragging) {
+                    if (Math.abs(event.getX() - mTouchDownX) > mScaledTouchSlop) {
+                        startRangeDrag(event, 0);
+                    }
+                    break;
+                }
+                final int count = thumbs.count();
+                for (int i = 0; i < count; i++) {
+                    final int pointerId = thumbs.getPointerId(i);
+                    if (pointerId == RangeThumbs.NO_POINTER) {
+                        continue;
+                    }
+                    final int pointerIndex = event.findPointerIndex(pointerId);
+                    if (pointerIndex >= 0) {
+                        setRangeThumbValue(i, touchPositionToValue(getRangeTouchPosition(event, pointerIndex)), true);
+                    }
+                }
+                break;
+            }
+            case MotionEvent.ACTION_POINTER_UP:
+                thumbs.detachPointer(event.getPointerId(event.getActionIndex()));
+                break;
+            case MotionEvent.ACTION_UP:
+                if (!mIsDragging) {
+                    // 可滚动的父容器中未超过触摸阈值的点击
+                    startRangeDrag(event, 0);
+                }
+                // fall through
+            case MotionEvent.ACTION_CANCEL:
+                thumbs.detachAllPointers();
+                if (mIsDragging) {
+                    onStopTrackingTouch();
+                }
+                setPressed(false);
+                break;
+            default:
+        }
+        return true;
+    }
+
+    /**
+     * 区间模式开始拖动，绑定pointerIndex对应的手指
+     *
+     * @param event
+     * @param pointerIndex
+     */
+    private void startRangeDrag(MotionEvent event, int pointerIndex) {
+        setPressed(true);
+        onStartTrackingTouch();
+        requestLowLatencyDispatch(event);
+        attemptClaimDrag();
+        attachRangePointer(event, pointerIndex);
+    }
+
+    /**
+     * 将手指绑定到最近的未被其他手指拖动的触点，并将该触点移动到手指位置
+     *
+     * @param event
+     * @param pointerIndex
+     */
+    private void attachRangePointer(MotionEvent event, int pointerIndex) {
+        final RangeThumbs thumbs = mRangeThumbs;
+        final float pos = getRangeTouchPosition(event, pointerIndex);
+        final int thumb = thumbs.hitTestUnattached(pos, mMin, mMax, getTrackAvailable(), getScaleTable());
+        if (thumb < 0) {
+            // 所有触点都已被其他手指拖动
+            return;
+        }
+        thumbs.attachPointer(thumb, event.getPointerId(pointerIndex));
+        setRangeThumbValue(thumb, touchPositionToValue(pos), true);
+    }
+
+    /**
+     * 触摸点相对于进度起点的像素位置
+     *
+     * @param event
+     * @param pointerIndex
+     * @return
+     */
+    private float getRangeTouchPosition(MotionEvent event, int pointerIndex) {
+        if (mDirection == Direction.HORIZONTAL) {
+            return SeekGeometry.touchToPosition(event.getX(pointerIndex), getWidth(), getPaddingLeft(), getPaddingRight());
+        }
+        return SeekGeometry.touchToPosition(event.getY(pointerIndex), getHeight(), getPaddingTop(), getPaddingBottom());
+    }
+
+    /**
+     * 将相对于进度起点的像素位置转为进度值
+     *
+     * @param pos
+     * @return
+     */
+    private long touchPositionToValue(float pos) {
+        return snapProgress(positionToProgress(pos, getTrackAvailable()));
+    }
+
+    /**
+     * 设置long类型的进度变化监听
+     * 与{@link OnSeekBarChangeListener}同时生效，超出int范围的进度只能通过该监听获取准确值
+     *
+     * @param l
+     */
+    public void setOnProgressChangeLongListener(OnProgressChangeLongListener l) {
+        mOnProgressChangeLongListener = l;
+    }
+
+    /**
+     * 添加long类型的进度监听，与{@link #setOnProgressChangeLongListener(OnProgressChangeLongListener)}设置的监听同时生效
+     * 可在任意线程调用
+     *
+     * @param l 监听器，重复添加时忽略
+     */
+    public void addOnProgressChangeLongListener(OnProgressChangeLongListener l) {
+        if (l == null) {
+            return;
+        }
+        synchronized (mListenersLock) {
+            final OnProgressChangeLongListener[] old = mLongListeners;
+            for (OnProgressChangeLongListener listener : old) {
+                if (listener == l) {
+                    return;
+                }
+            }
+            final OnProgressChangeLongListener[] listeners = Arrays.copyOf(old, old.length + 1);
+            listeners[old.length] = l;
+            mLongListeners = listeners;
+        }
+    }
+
+    /**
+     * 移除通过{@link #addOnProgressChangeLongListener(OnProgressChangeLongListener)}添加的监听
+     *
+     * @param l
+     */
+    public void removeOnProgressChangeLongListener(OnProgressChangeLongListener l) {
+        synchronized (mListenersLock) {
+            final OnProgressChangeLongListener[] old = mLongListeners;
+            for (int i = 0; i < old.length; i++) {
+                if (old[i] == l) {
+                    if (old.length == 1) {
+                        mLongListeners = EMPTY_LONG_LISTENERS;
+                        return;
+                    }
+                    final OnProgressChangeLongListener[] listeners = new OnProgressChangeLongListener[old.length - 1];
+                    System.arraycopy(old, 0, listeners, 0, i);
+                    System.arraycopy(old, i + 1, listeners, i, old.length - i - 1);
+                    mLongListeners = listeners;
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * 设置基于确认的请求监听，用于拖动时执行开销较大的操作，例如播放器seek、数据库查询
+     * 用户拖动产生的进度依次作为请求回调，每个请求完成后需调用{@link #acknowledgeSeek(long)}确认；
+     * 请求未确认前只保留最新的进度，确认后再回调，因此同一时刻最多只有一个请求在执行
+     * 结束触摸时最终进度一定会被请求；代码设置的进度和区间模式的拖动不会产生请求
+     *
+     * @param l 为null时取消，正在等待的请求被丢弃
+     */
+    public void setOnSeekRequestListener(OnSeekRequestListener l) {
+        final SeekRequestGate old = mSeekRequestGate;
+        if (old != null) {
+            old.reset();
+        }
+        mOnSeekRequestListener = l;
+        mSeekRequestGate = l == null ? null : new SeekRequestGate(new SeekRequestGate.Target() {
+            @Override
+            public void onSeekRequest(long value, long token) {
+                final OnSeekRequestListener listener = mOnSeekRequestListener;
+                if (listener != null) {
+                    listener.onSeekRequest(XSeekBar.this, value, token);
+                }
+            }
+        });
+    }
+
+    /**
+     * 确认请求已完成，执行失败也需要确认，可在任意线程调用
+     * 有等待中的进度时在UI线程回调下一个请求
+     *
+     * @param token {@link OnSeekRequestListener#onSeekRequest(XSeekBar, long, long)}中的token
+     */
+    public void acknowledgeSeek(long token) {
+        final SeekRequestGate gate = mSeekRequestGate;
+        if (gate == null || !gate.acknowledge(token)) {
+            return;
+        }
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            gate.dispatchPending();
+        } else {
+            mMainHandler.post(mSeekDispatchRunnable);
+        }
+    }
+
+    /**
+     * 设置指示器内容提供者
+     *
+     * @param provider
+     */
+    public void setIndicatorContentProvider(IndicatorContentProvider provider) {
+        releaseAsyncIndicatorContent();
+        mIndicatorTextFormat = null;
+        mIndicatorContentBinder = null;
+        this.mIndicatorContentProvider = provider;
+        invalidateIndicatorContent();
+        invalidate();
+    }
+
+    /**
+     * 设置指示器内容Binder，替换{@link IndicatorContentProvider}
+     * XSeekBar持有一个内容对象，进度或指示器尺寸变化时交给Binder修改，不需要创建对象，也没有全局对象池
+     *
+     * @param binder
+     */
+    public void setIndicatorContentBinder(IndicatorContentBinder binder) {
+        releaseAsyncIndicatorContent();
+        mIndicatorTextFormat = null;
+        this.mIndicatorContentProvider = null;
+        this.mIndicatorContentBinder = binder;
+        invalidateIndicatorContent();
+        invalidate();
+    }
+
+    /**
+     * 设置异步的指示器内容提供者，默认缓存64个内容
+     *
+     * @param provider
+     * @param executor 获取内容的Executor
+     * @see #setIndicatorContentProvider(AsyncIndicatorContentProvider, Executor, int)
+     */
+    public void setIndicatorContentProvider(AsyncIndicatorContentProvider provider, Executor executor) {
+        setIndicatorContentProvider(provider, executor, AsyncIndicatorContent.DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * 设置异步的指示器内容提供者，替换{@link IndicatorContentProvider}，需在UI线程调用
+     * 内容在executor中获取，结果按进度缓存；当前进度的内容未完成时指示器显示最后一次完成的内容，完成后重绘
+     * 拖动时按拖动方向预取即将经过的进度
+     *
+     * @param provider  为null时取消
+     * @param executor  获取内容的Executor
+     * @param cacheSize 缓存的内容数量
+     */
+    public void setIndicatorContentProvider(AsyncIndicatorContentProvider provider, Executor executor, int cacheSize) {
+        if (provider != null && executor == null) {
+            throw new IllegalArgumentException("executor == null");
+        }
+        releaseAsyncIndicatorContent();
+        mIndicatorTextFormat = null;
+        mIndicatorContentBinder = null;
+        this.mIndicatorContentProvider = null;
+        invalidateIndicatorContent();
+        if (provider != null) {
+            mAsyncIndicatorContent = new AsyncIndicatorContent(this, provider, executor, cacheSize);
+        }
+        invalidate();
+    }
+
+    /**
+     * 使用内置格式显示指示器文字，替换{@link IndicatorContentProvider}
+     * 覆盖整数、百分比、小数和时长等常见场景，格式化和绘制都不创建对象，也不回调Provider
+     *
+     * @param format 为null时取消
+     * @see #setIndicatorTextStyle(int, float, boolean)
+     */
+    public void setIndicatorTextFormat(ProgressTextFormat format) {
+        if (format != null) {
+            releaseAsyncIndicatorContent();
+            mIndicatorContentBinder = null;
+            this.mIndicatorContentProvider = null;
+            invalidateIndicatorContent();
+            if (mIndicatorTextPaint == null) {
+                mIndicatorTextPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+                mIndicatorTextPaint.setColor(Color.BLACK);
+                mIndicatorTextPaint.setTextSize(DEFAULT_INDICATOR_TEXT_SIZE);
+                mIndicatorGlyphWidthsValid = false;
+            }
+        }
+        mIndicatorTextFormat = format;
+        mIndicatorTextValid = false;
+        invalidate();
+    }
+
+    public ProgressTextFormat getIndicatorTextFormat() {
+        return mIndicatorTextFormat;
+    }
+
+    /**
+     * 设置内置格式的指示器文字样式
+     *
+     * @param textColor 文字颜色
+     * @param textSize  文字大小，像素
+     * @param bold      是否加粗
+     * @see #setIndicatorTextFormat(ProgressTextFormat)
+     */
+    public void setIndicatorTextStyle(int textColor, float textSize, boolean bold) {
+        if (mIndicatorTextPaint == null) {
+            mIndicatorTextPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        }
+        final Paint paint = mIndicatorTextPaint;
+        paint.setColor(textColor);
+        final Typeface typeface = bold ? mBoldTypeface : null;
+        if (paint.getTextSize() != textSize || paint.getTypeface() != typeface) {
+            paint.setTextSize(textSize);
+            paint.setTypeface(typeface);
+            mIndicatorGlyphWidthsValid = false;
+        }
+        invalidate();
+    }
+
+    private void releaseAsyncIndicatorContent() {
+        if (mAsyncIndicatorContent != null) {
+            mAsyncIndicatorContent.release();
+            mAsyncIndicatorContent = null;
+        }
+    }
+
+    /**
+     * 手指开始触摸XSeekBar
+     *
+     * @param event
+     */
+    private void startDrag(MotionEvent event) {
+        setPressed(true);
+
+        if (mThumbDrawable != null) {
+            invalidate(mThumbDrawable.getBounds());
+        }
+
+        onStartTrackingTouch();
+        requestLowLatencyDispatch(event);
+        trackTouchEvent(event);
+        attemptClaimDrag();
+    }
+
+    /**
+     * 用户手指开始触摸XSeekBar的回调方法
+     */
+    void onStartTrackingTouch() {
+        mIsDragging = true;
+        mDragVelocityTracker.clear();
+        if (mDragLatency != null) {
+            mDragLatency.reset();
+            mDragLatencyReportPending = false;
+        }
+        dispatchTrackingTouch(true);
+    }
+
+    /**
+     * 用户手指结束触摸XSeekBar的回调方法
+     */
+    void onStopTrackingTouch() {
+        mIsDragging = false;
+        if (mVisualPredicted) {
+            // 取消触摸时没有抬起事件，触点回到实际进度
+            setVisualProgress((float) progressToPosition(mPublisher.get()));
+            mVisualPredicted = false;
+        }
+        if (mDragLatency != null) {
+            // 最后一次移动的进度还未绘制，绘制后再回调
+            mDragLatencyReportPending = true;
+            invalidate();
+        }
+        // 结束回调之前先回调最后一次进度
+        flushFrameDispatch();
+        // 区间模式拖动的是各个触点，没有产生请求，mPublisher中的进度也不是用户拖动的值
+        final SeekRequestGate gate = mSeekRequestGate;
+        if (gate != null && mRangeThumbs == null) {
+            gate.finish(mPublisher.get());
+        }
+        dispatchTrackingTouch(false);
+    }
+
+    /**
+     * 回调开始或结束触摸，{@link ListenerDispatch#EXECUTOR}模式在Executor中排在之前的进度回调之后
+     *
+     * @param start true:开始触摸 false:结束触摸
+     */
+    private void dispatchTrackingTouch(boolean start) {
+        if (this.mOnSeekBarChangeListener == null && mSeekBarListeners.length == 0) {
+            return;
+        }
+        if (mListenerDispatch == ListenerDispatch.EXECUTOR) {
+            mListenerDispatcher.execute(start ? mStartTrackingRunnable : mStopTrackingRunnable);
+        } else {
+            deliverTrackingTouch(start);
+        }
+    }
+
+    /**
+     * 回调所有监听的开始或结束触摸
+     *
+     * @param start true:开始触摸 false:结束触摸
+     */
+    private void deliverTrackingTouch(boolean start) {
+        final OnSeekBarChangeListener[] listeners = mSeekBarListeners;
+        final OnSeekBarChangeListener listener = this.mOnSeekBarChangeListener;
+        final boolean trace = XSeekBarTrace.sEnabled;
+        if (trace) {
+            XSeekBarTrace.beginSection(XSeekBarTrace.LISTENER);
+        }
+        final SeekBarMetrics metrics = mMetrics;
+        final long startTime = metrics != null ? System.nanoTime() : 0;
+        try {
+            if (listener != null) {
+                if (start) {
+                    listener.onStartTrackingTouch(this);
+                } else {
+                    listener.onStopTrackingTouch(this);
+                }
+            }
+            for (OnSeekBarChangeListener l : listeners) {
+                if (start) {
+                    l.onStartTrackingTouch(this);
+                } else {
+                    l.onStopTrackingTouch(this);
+                }
+            }
+        } finally {
+            if (metrics != null) {
+                metrics.onListenerCall(System.nanoTime() - startTime);
+            }
+            if (trace) {
+                XSeekBarTrace.endSection();
+            }
+        }
+    }
+
+    /**
+     * 声明该XSeekBar处理所有的触摸事件
+     * 禁止父View拦截触摸事件
+     */
+    private void attemptClaimDrag() {
+        if (getParent() != null) {
+            getParent().requestDisallowInterceptTouchEvent(true);
+        }
+    }
+
+    /**
+     * 手指滑动事件处理
+     *
+     * @param event
+     */
+    private void trackTouchEvent(MotionEvent event) {
+        final float x = event.getX();
+        final float y = event.getY();
+
+        // 相对于进度起点的像素位置，超出进度范围时取边界
+        final float pos = getTouchPosition(x, y);
+        float visualPos = pos;
+        if (mLowLatencyDrag || mFlingEnabled || mAsyncIndicatorContent != null) {
+            visualPos = trackDragVelocity(event, pos);
+        }
+
+        // 进度始终使用实际触摸位置，从mMin开始计算，对齐后仍在同一格内时进度不变，不回调也不重绘
+        final int available = getTrackAvailable();
+        final boolean changed = setProgressInternal(snapProgress(positionToProgress(pos, available)), true, false);
+        if (visualPos != pos) {
+            // 预测位置只用于绘制
+            setVisualProgress((float) progressToPosition(snapProgress(positionToProgress(visualPos, available))));
+            mVisualPredicted = true;
+        } else if (mVisualPredicted) {
+            // 停止预测后回到实际进度
+            setVisualProgress((float) progressToPosition(mPublisher.get()));
+            mVisualPredicted = false;
+        }
+        if (changed || event.getActionMasked() == MotionEvent.ACTION_DOWN) {
+            setHotspot(x, y);
+        }
+    }
+
+    /**
+     * 触摸点转为相对于进度起点的像素位置，超出进度范围时取边界
+     *
+     * @param x
+     * @param y
+     * @return
+     */
+    private float getTouchPosition(float x, float y) {
+        if (mDirection == Direction.HORIZONTAL) {
+            return SeekGeometry.touchToPosition(x, getWidth(), getPaddingLeft(), getPaddingRight());
+        }
+        return SeekGeometry.touchToPosition(y, getHeight(), getPaddingTop(), getPaddingBottom());
+    }
+
+    /**
+     * 将事件中批量的历史采样和当前采样加入速度估算
+     * 开启预测且手指仍在移动时，返回按速度推算的一帧之后的位置，否则返回当前位置
+     *
+     * @param event
+     * @param pos   当前采样的位置
+     * @return 相对于进度起点的像素位置
+     */
+    private float trackDragVelocity(MotionEvent event, float pos) {
+        final DragVelocityTracker tracker = mDragVelocityTracker;
+        final int historySize = event.getHistorySize();
+        for (int i = 0; i < historySize; i++) {
+            tracker.addSample(event.getHistoricalEventTime(i),
+                    getTouchPosition(event.getHistoricalX(i), event.getHistoricalY(i)));
+        }
+        tracker.addSample(event.getEventTime(), pos);
+
+        // 抬起时使用实际位置，保证最终进度准确
+        if (!mLowLatencyDrag || !mDragPrediction || event.getActionMasked() != MotionEvent.ACTION_MOVE) {
+            return pos;
+        }
+        final float predicted = tracker.predict(mFrameIntervalMillis, SystemClock.uptimeMillis());
+        return Math.max(0, Math.min(predicted, getTrackAvailable()));
+    }
+
+    /**
+     * 低延迟拖动时请求不经过批处理的触摸事件，事件到达后立即分发而不是等到下一帧
+     * minSdkVersion为21，{@link View#requestUnbufferedDispatch(MotionEvent)}始终可用
+     *
+     * @param event 开始拖动的事件
+     */
+    private void requestLowLatencyDispatch(MotionEvent event) {
+        if (mLowLatencyDrag) {
+            requestUnbufferedDispatch(event);
+        }
+    }
+
+    /**
+     * 设置低延迟拖动
+     * 开启后拖动期间请求不经过批处理的触摸事件，并将每个事件中批量的历史采样加入拖动速度估算
+     * 会增加拖动期间的触摸事件数量和CPU占用，适合对跟手要求高的场景，例如视频拖动预览
+     *
+     * @param enabled
+     * @see #setDragPredictionEnabled(boolean)
+     */
+    public void setLowLatencyDragEnabled(boolean enabled) {
+        mLowLatencyDrag = enabled;
+        if (!enabled) {
+            mDragVelocityTracker.clear();
+        }
+    }
+
+    public boolean isLowLatencyDragEnabled() {
+        return mLowLatencyDrag;
+    }
+
+    /**
+     * 设置是否预测触点位置，只在低延迟拖动开启时生效
+     * 开启后拖动时按估算的速度将触点绘制在一帧之后的位置以抵消绘制延迟，手指抬起时回到实际位置
+     * 预测只影响绘制，进度和回调始终是手指的实际位置；快速变向时触点可能短暂越过手指位置
+     *
+     * @param enabled
+     */
+    public void setDragPredictionEnabled(boolean enabled) {
+        mDragPrediction = enabled;
+    }
+
+    public boolean isDragPredictionEnabled() {
+        return mDragPrediction;
+    }
+
+    /**
+     * 设置进度值与位置之间的映射，例如音量使用{@link ValueScales#logarithmic()}，缩放倍数使用{@link ValueScales#exponential(double)}
+     * 映射在每次布局或范围变化时按像素生成一张查找表，拖动和绘制只查表，不再调用映射
+     * 只影响进度与位置之间的转换，{@link #setFraction(double)}仍然是进度值的线性比例
+     * 只能在UI线程调用
+     *
+     * @param scale 为null或{@link ValueScales#LINEAR}时线性
+     */
+    public void setValueScale(ValueScale scale) {
+        mValueScale = scale == ValueScales.LINEAR ? null : scale;
+        mScaleTable = null;
+        mTickMarkRenderer.invalidate();
+        if (mProgressAnimator != null) {
+            mProgressAnimator.cancel();
+        }
+        setVisualProgress((float) progressToPosition(mPublisher.get()));
+        invalidate();
+    }
+
+    /**
+     * 进度值与位置之间的映射
+     *
+     * @return 线性时返回{@link ValueScales#LINEAR}
+     */
+    public ValueScale getValueScale() {
+        final ValueScale scale = mValueScale;
+        return scale != null ? scale : ValueScales.LINEAR;
+    }
 
+    /**
+     * 当前布局和范围对应的查找表，布局或范围变化后第一次调用时重新生成
+     * 只在UI线程调用
+     *
+     * @return 线性或尚未布局时返回null
+     */
+    private ScaleTable getScaleTable() {
+        final ValueScale scale = mValueScale;
+        if (scale == null) {
+            return null;
+        }
+        final int available = getTrackAvailable();
+        if (available <= 0) {
+            return null;
+        }
+        ScaleTable table = mScaleTable;
+        if (table == null || !table.matches(scale, mMin, mMax, available)) {
+            table = new ScaleTable(scale, mMin, mMax, available);
+            mScaleTable = table;
+        }
+        return table;
     }
 
     /**
-     * 获取进度监听器
+     * 进度值转为进度方向上[0...1]的位置比例
      *
+     * @param progress
      * @return
      */
-    public OnSeekBarChangeListener getOnSeekBarChangeListener() {
-        return this.mOnSeekBarChangeListener;
+    private double progressToPosition(long progress) {
+        final ScaleTable table = getScaleTable();
+        if (table != null) {
+            return table.valueToFraction(progress);
+        }
+        final ValueScale scale = mValueScale;
+        // 尚未布局时没有查找表，直接计算
+        return scale != null ? scale.toPosition(progress, mMin, mMax) : ProgressMath.toFraction(progress, mMin, mMax);
     }
 
     /**
-     * 设置进度变化的监听，另外可监听用户开始和接收触摸的手势动作
+     * 相对于进度起点的像素位置转为进度值
      *
-     * @param l 监听器
-     * @see OnSeekBarChangeListener
+     * @param pos
+     * @param available 进度的像素长度
+     * @return
      */
-    public void setOnSeekBarChangeListener(OnSeekBarChangeListener l) {
-        mOnSeekBarChangeListener = l;
+    private long positionToProgress(double pos, int available) {
+        final ScaleTable table = getScaleTable();
+        if (table != null && table.getAvailable() == available) {
+            return table.positionToValue(pos);
+        }
+        return ProgressMath.positionToProgress(pos, available, mMin, mMax);
     }
 
     /**
-     * 设置指示器内容提供者
+     * 将进度对齐到可选值或步长
      *
-     * @param provider
+     * @param progress
+     * @return 未设置步长和可选值时返回限制在范围内的progress
      */
-    public void setIndicatorContentProvider(IndicatorContentProvider provider) {
-        this.mIndicatorContentProvider = provider;
+    private long snapProgress(long progress) {
+        final SnapTable table = mSnapTable;
+        if (table != null) {
+            return table.snap(progress, mMin, mMax);
+        }
+        return ProgressMath.snapToStep(progress, mMin, mMax, mStepSize);
     }
 
     /**
-     * 手指开始触摸XSeekBar
+     * 设置步长，拖动和惯性滑动得到的进度对齐到从最小值开始的整数倍，最大值始终可以到达，刻度也按步长绘制
+     * 设置后当前进度也会对齐，并清除{@link #setSnapValues(long[])}设置的可选值；{@link #setProgress(long)}不受影响
      *
-     * @param event
+     * @param stepSize 小于等于0时不对齐
      */
-    private void startDrag(MotionEvent event) {
-        setPressed(true);
+    public void setStepSize(long stepSize) {
+        mStepSize = Math.max(0, stepSize);
+        mSnapTable = null;
+        onSnapChanged();
+    }
 
-        if (mThumbDrawable != null) {
-            invalidate(mThumbDrawable.getBounds());
-        }
+    public long getStepSize() {
+        return mStepSize;
+    }
 
-        onStartTrackingTouch();
-        trackTouchEvent(event);
-        attemptClaimDrag();
+    /**
+     * 设置非均匀的可选进度值，例如1, 2, 5, 10, 20, 50，拖动和惯性滑动得到的进度对齐到[min, max]内最近的值，
+     * 刻度也只绘制在这些值上
+     * 对齐时二分查找，与可选值数量无关；设置后当前进度也会对齐，并清除{@link #setStepSize(long)}设置的步长
+     *
+     * @param values 可以无序或重复，为null或空时取消
+     */
+    public void setSnapValues(long[] values) {
+        mSnapTable = values != null && values.length > 0 ? new SnapTable(values) : null;
+        mStepSize = 0;
+        onSnapChanged();
     }
 
     /**
-     * 用户手指开始触摸XSeekBar的回调方法
+     * 可选进度值
+     *
+     * @return 升序的副本，未设置时返回null
      */
-    void onStartTrackingTouch() {
-        mIsDragging = true;
-        if (this.mOnSeekBarChangeListener != null) {
-            this.mOnSeekBarChangeListener.onStartTrackingTouch(this);
+    public long[] getSnapValues() {
+        final SnapTable table = mSnapTable;
+        if (table == null) {
+            return null;
+        }
+        final long[] values = new long[table.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = table.get(i);
         }
+        return values;
     }
 
     /**
-     * 用户手指结束触摸XSeekBar的回调方法
+     * 步长或可选值变化，对齐当前进度并重新绘制刻度
      */
-    void onStopTrackingTouch() {
-        mIsDragging = false;
-        if (this.mOnSeekBarChangeListener != null) {
-            this.mOnSeekBarChangeListener.onStopTrackingTouch(this);
+    private void onSnapChanged() {
+        if (mStepSize > 0 || mSnapTable != null) {
+            setProgressInternal(snapProgress(mPublisher.get()), false, false);
         }
+        mTickMarkRenderer.invalidate();
+        postInvalidate();
     }
 
     /**
-     * 声明该XSeekBar处理所有的触摸事件
-     * 禁止父View拦截触摸事件
+     * 设置松手后是否惯性滑动
+     * 开启后拖动时记录速度，松手时速度超过系统的最小fling速度则按摩擦减速继续移动，设置了步长时最后用弹簧停在最近的步长上，
+     * 停止后才回调{@link OnSeekBarChangeListener#onStopTrackingTouch(XSeekBar)}，
+     * 滑动期间的进度变化与拖动相同，fromUser为true；再次按下或View从窗口分离时立即停止
+     * 只作用于单触点模式
+     *
+     * @param enabled
      */
-    private void attemptClaimDrag() {
-        if (getParent() != null) {
-            getParent().requestDisallowInterceptTouchEvent(true);
+    public void setFlingEnabled(boolean enabled) {
+        mFlingEnabled = enabled;
+        if (!enabled) {
+            stopFling();
         }
     }
 
+    public boolean isFlingEnabled() {
+        return mFlingEnabled;
+    }
+
     /**
-     * 手指滑动事件处理
+     * 设置惯性滑动的摩擦系数，越大停得越快
      *
-     * @param event
+     * @param friction 1/秒，默认{@link FlingSimulation#DEFAULT_FRICTION}
      */
-    private void trackTouchEvent(MotionEvent event) {
-        final int paddingLeft = getPaddingLeft();
-        final int paddingRight = getPaddingRight();
-        final int paddingTop = getPaddingTop();
-        final int paddingBottom = getPaddingBottom();
-
-        final int x = Math.round(event.getX());
-        final int y = Math.round(event.getY());
-        final int width = getWidth();
-        final int height = getHeight();
+    public void setFlingFriction(float friction) {
+        mFlingFriction = friction > 0 ? friction : FlingSimulation.DEFAULT_FRICTION;
+        if (mFlingAnimator != null) {
+            mFlingAnimator.setFriction(mFlingFriction);
+        }
+    }
 
-        final int range = mMax - mMin;
+    /**
+     * 是否正在惯性滑动
+     *
+     * @return
+     */
+    public boolean isFlinging() {
+        return mFlingAnimator != null && mFlingAnimator.isRunning();
+    }
 
-        float scale;
-        int available;
-        float progress = 0.0f;
+    /**
+     * 松手时按拖动速度开始惯性滑动
+     *
+     * @return 是否开始滑动，返回true时{@link #onStopTrackingTouch()}在滑动停止后回调
+     */
+    private boolean startFling() {
+        if (!mFlingEnabled || mRangeThumbs != null) {
+            return false;
+        }
+        final float velocity = mDragVelocityTracker.velocity();
+        if (Math.abs(velocity) < mMinFlingVelocity) {
+            return false;
+        }
+        if (mFlingAnimator == null) {
+            mFlingAnimator = new FlingAnimator(new FlingAnimator.Target() {
+                @Override
+                public void onFlingFrame(float position) {
+                    setFlingPosition(position);
+                }
 
-        // 水平方向
-        if (mDirection == Direction.HORIZONTAL) {
-            available = width - paddingLeft - paddingRight;
-            if (x < paddingLeft) {
-                scale = 0.0f;
-            } else if (x > width - paddingRight) {
-                scale = 1.0f;
-            } else {
-                scale = (x - paddingLeft) / (float) available;
-            }
+                @Override
+                public float getSettlePosition(float position) {
+                    if (mStepSize <= 0 && mSnapTable == null) {
+                        return position;
+                    }
+                    final int available = getTrackAvailable();
+                    final long progress = snapProgress(positionToProgress(position, available));
+                    return (float) (progressToPosition(progress) * available);
+                }
 
-            progress = scale * range;
+                @Override
+                public void onFlingEnd() {
+                    onStopTrackingTouch();
+                }
+            });
+            mFlingAnimator.setFriction(mFlingFriction);
         }
+        final int available = getTrackAvailable();
+        final float start = (float) (progressToPosition(mPublisher.get()) * available);
+        mFlingAnimator.fling(start, velocity, available);
+        return true;
+    }
 
-        // 垂直方向
-        if (mDirection == Direction.VERTICAL) {
-            available = height - paddingTop - paddingBottom;
-            if (y < paddingTop) {
-                scale = 0.0f;
-            } else if (y > height - paddingBottom) {
-                scale = 1.0f;
-            } else {
-                scale = (y - paddingTop) / (float) available;
-            }
+    /**
+     * 惯性滑动的一帧，进度对齐到步长，触点按实际位置平滑移动
+     *
+     * @param position 相对于进度起点的像素位置
+     */
+    private void setFlingPosition(float position) {
+        final int available = getTrackAvailable();
+        setProgressInternal(snapProgress(positionToProgress(position, available)), true, false);
+        setVisualProgress((float) ProgressMath.positionToFraction(position, available));
+    }
 
-            progress = scale * range;
+    /**
+     * 停止惯性滑动，触点停在当前进度上并回调{@link #onStopTrackingTouch()}
+     */
+    private void stopFling() {
+        if (mFlingAnimator != null && mFlingAnimator.isRunning()) {
+            mFlingAnimator.cancel();
+            setVisualProgress((float) progressToPosition(mPublisher.get()));
+            onStopTrackingTouch();
         }
-
-        setHotspot(x, y);
-        setProgressInternal(Math.round(progress), true, false);
     }
 
     /**
@@ -1407,21 +3944,33 @@ public class XSeekBar extends View {
      *
      * @param min
      */
-    public synchronized void setMin(int min) {
-        if (min > mMax) {
-            min = mMax;
-        }
-        if (min != mMin) {
-            mMin = min;
-            postInvalidate();
+    public void setMin(int min) {
+        setMin((long) min);
+    }
 
-            if (mProgress < min) {
-                mProgress = min;
+    /**
+     * 设置最小值，可在任意线程调用
+     * 当前进度立即限制在新的范围内；刻度和区间模式的触点在UI线程更新，子线程调用时在主线程异步更新，
+     * 被限制而改变的触点回调{@link OnRangeChangeListener}，fromUser为false
+     *
+     * @param min 不小于{@link #MIN_PROGRESS_VALUE}
+     */
+    public void setMin(long min) {
+        if (min < MIN_PROGRESS_VALUE) {
+            min = MIN_PROGRESS_VALUE;
+        }
+        final long max;
+        synchronized (mRangeLock) {
+            max = mMax;
+            if (min > max) {
+                min = max;
+            }
+            if (min == mMin) {
+                return;
             }
-            refreshProgress(mProgress, false, false);
-        } else {
             mMin = min;
         }
+        onRangeChanged(min, max);
     }
 
     /**
@@ -1429,21 +3978,59 @@ public class XSeekBar extends View {
      *
      * @param max
      */
-    public synchronized void setMax(int max) {
-        if (max < mMin) {
-            max = mMin;
-        }
-        if (max != mMax) {
-            mMax = max;
-            postInvalidate();
+    public void setMax(int max) {
+        setMax((long) max);
+    }
 
-            if (mProgress > max) {
-                mProgress = max;
+    /**
+     * 设置最大值，可在任意线程调用
+     * 当前进度立即限制在新的范围内；刻度和区间模式的触点在UI线程更新，子线程调用时在主线程异步更新，
+     * 被限制而改变的触点回调{@link OnRangeChangeListener}，fromUser为false
+     *
+     * @param max 不大于{@link #MAX_PROGRESS_VALUE}
+     */
+    public void setMax(long max) {
+        if (max > MAX_PROGRESS_VALUE) {
+            max = MAX_PROGRESS_VALUE;
+        }
+        final long min;
+        synchronized (mRangeLock) {
+            min = mMin;
+            if (max < min) {
+                max = min;
+            }
+            if (max == mMax) {
+                return;
             }
-            refreshProgress(mProgress, false, false);
-        } else {
             mMax = max;
         }
+        onRangeChanged(min, max);
+    }
+
+    /**
+     * 范围变化后限制进度，刻度和区间模式触点在UI线程更新
+     *
+     * @param min
+     * @param max
+     */
+    private void onRangeChanged(long min, long max) {
+        mPublisher.clampTo(min, max);
+        refreshProgress(mPublisher.get(), false, false);
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            applyRangeChange();
+        } else if (mRangeChangePosted.compareAndSet(false, true)) {
+            // 多次修改合并为一次，执行时读取最新的范围
+            mMainHandler.post(mRangeChangedRunnable);
+        }
+    }
+
+    /**
+     * 按当前范围重新绘制刻度并约束区间模式的触点，只能在UI线程调用
+     */
+    private void applyRangeChange() {
+        mTickMarkRenderer.invalidate();
+        clampRangeThumbs();
+        invalidate();
     }
 
     /**
@@ -1466,6 +4053,8 @@ public class XSeekBar extends View {
             applyTickMarkTint();
         }
 
+        mTickMarkRenderer.invalidate();
+        prepareTickMarks();
         invalidate();
     }
 
@@ -1496,6 +4085,7 @@ public class XSeekBar extends View {
      * 配置进度和背景Drawable tint及State
      */
     private void applyProgressTints() {
+        invalidateTrackBackgroundCache();
         if (mProgressDrawable != null && (mProgressTintMode != null || mProgressTintList != null)) {
             // 进度
             final Drawable progressD = getTargetDrawable(android.R.id.progress);
@@ -1585,7 +4175,7 @@ public class XSeekBar extends View {
 
             mTickMarkDrawable.setTintList(mTickMarkTintList);
 
-            mTickMarkDrawable.setTintMode(mThumbTintMode);
+            mTickMarkDrawable.setTintMode(mTickMarkTintMode);
 
             if (mTickMarkDrawable.isStateful()) {
                 mTickMarkDrawable.setState(getDrawableState());
@@ -1622,12 +4212,82 @@ public class XSeekBar extends View {
         void onStopTrackingTouch(XSeekBar seekBar);
     }
 
+    /**
+     * long类型的进度变化监听，进度超出int范围时使用
+     *
+     * @see #setOnProgressChangeLongListener(OnProgressChangeLongListener)
+     */
+    public interface OnProgressChangeLongListener {
+        /**
+         * 进度变化通知
+         *
+         * @param seekBar
+         * @param progress 当前进度值min-max
+         * @param fromUser 是否是用户触摸导致进度变化
+         */
+        void onProgressChanged(XSeekBar seekBar, long progress, boolean fromUser);
+    }
+
+    /**
+     * 基于确认的请求监听
+     *
+     * @see #setOnSeekRequestListener(OnSeekRequestListener)
+     */
+    public interface OnSeekRequestListener {
+        /**
+         * 开始执行一个请求，在UI线程回调
+         * 完成后需调用{@link #acknowledgeSeek(long)}，确认前不会再回调
+         *
+         * @param seekBar
+         * @param progress 请求的进度
+         * @param token    确认时使用
+         */
+        void onSeekRequest(XSeekBar seekBar, long progress, long token);
+    }
+
+    /**
+     * 区间模式触点值变化的监听
+     *
+     * @see #setThumbCount(int)
+     */
+    public interface OnRangeChangeListener {
+        /**
+         * 触点值变化通知
+         *
+         * @param seekBar
+         * @param thumbIndex 触点序号
+         * @param value      触点当前值
+         * @param fromUser   是否是用户触摸导致变化
+         */
+        void onRangeChanged(XSeekBar seekBar, int thumbIndex, long value, boolean fromUser);
+    }
+
+    /**
+     * 拖动延迟监听
+     *
+     * @see #setOnDragLatencyListener(OnDragLatencyListener)
+     */
+    public interface OnDragLatencyListener {
+        /**
+         * 一次拖动结束后回调，在UI线程的绘制过程中调用，不应执行耗时操作
+         *
+         * @param seekBar
+         * @param p50Millis 触摸事件到绘制的延迟中位数
+         * @param p95Millis
+         * @param p99Millis
+         * @param samples   本次拖动的样本数
+         */
+        void onDragLatency(XSeekBar seekBar, long p50Millis, long p95Millis, long p99Millis, int samples);
+    }
+
     /**
      * 指示器内容Provider
+     * 返回的内容会复制到XSeekBar持有的内容对象，XSeekBar不会回收或持有返回的对象，可以返回复用的实例；
+     * 不需要创建对象时使用{@link IndicatorContentBinder}
      */
     public interface IndicatorContentProvider {
         /**
-         * 获取指示器内容
+         * 获取指示器内容，只在进度或指示器尺寸变化时调用
          *
          * @param progress        当前进度
          * @param indicatorWidth  指示器Drawable的宽度
@@ -1637,6 +4297,43 @@ public class XSeekBar extends View {
         IndicatorFontInfo getIndicatorContent(int progress, int indicatorWidth, int indicatorHeight);
     }
 
+    /**
+     * 修改XSeekBar持有的指示器内容，替代每次返回新对象的{@link IndicatorContentProvider}
+     *
+     * @see #setIndicatorContentBinder(IndicatorContentBinder)
+     */
+    public interface IndicatorContentBinder {
+        /**
+         * 进度或指示器尺寸变化时在UI线程回调，只需修改变化的字段，未修改的字段保持上一次的值
+         *
+         * @param seekBar
+         * @param progress        当前进度
+         * @param indicatorWidth  指示器Drawable的宽度
+         * @param indicatorHeight 指示器Drawable的高度
+         * @param content         该XSeekBar的内容对象，不要在回调之外持有或修改
+         */
+        void onBindIndicatorContent(XSeekBar seekBar, long progress, int indicatorWidth, int indicatorHeight,
+                                    IndicatorFontInfo content);
+    }
+
+    /**
+     * 异步的指示器内容Provider，在后台线程获取内容，适合格式化较慢的内容，例如本地化的金额、时长
+     *
+     * @see #setIndicatorContentProvider(AsyncIndicatorContentProvider, Executor, int)
+     */
+    public interface AsyncIndicatorContentProvider {
+        /**
+         * 获取指示器内容，在设置的Executor中调用
+         * 返回的对象会被缓存并多次绘制，返回后不要再修改
+         *
+         * @param progress        进度，可能是当前进度或预取的进度
+         * @param indicatorWidth  指示器Drawable的宽度
+         * @param indicatorHeight 指示器Drawable的高度
+         * @return 返回null时不缓存
+         */
+        IndicatorFontInfo getIndicatorContent(long progress, int indicatorWidth, int indicatorHeight);
+    }
+
     /**
      * 显示方向定义
      */
@@ -1667,164 +4364,229 @@ public class XSeekBar extends View {
     }
 
     /**
-     * 指示器文字信息配置
-     * 包括字体颜色、字体大小、文字偏移
-     * 系统会频繁创建该对象，为避免内存泄漏，使用对象池
+     * 子线程刷新进度的模式
      *
-     * @see Pools.SynchronizedPool
+     * @see #setRefreshMode(int, int, int)
      */
-    public static final class IndicatorFontInfo {
-        private static final int MAX_POOL = 10;
-        private static final Pools.SynchronizedPool<IndicatorFontInfo> pool = new Pools.SynchronizedPool<>(MAX_POOL);
-        private String text;
-        private int textColor;
-        private int textSize;
+    public static final class RefreshMode {
+        /**
+         * 只保留最新值，一帧内的多次刷新合并为一次回调，默认模式
+         */
+        public static final int LATEST_ONLY = ProgressPublisher.MODE_LATEST_ONLY;
+        /**
+         * 使用有界队列保存每一次刷新，按顺序回调每一个中间值
+         */
+        public static final int LOSSLESS = ProgressPublisher.MODE_LOSSLESS;
+    }
+
+    /**
+     * 进度回调的分发方式
+     *
+     * @see #setListenerDispatch(int, Executor)
+     */
+    public static final class ListenerDispatch {
+        /**
+         * 每次进度变化都在UI线程立即回调，默认方式
+         */
+        public static final int IMMEDIATE = 1;
+        /**
+         * 每帧最多回调一次，回调该帧内的最新进度，结束触摸前会先回调最后的进度
+         */
+        public static final int PER_FRAME = 2;
+        /**
+         * 在指定的{@link Executor}中回调，上一次回调未结束时新的进度合并为最新值
+         * 开始和结束触摸同样在Executor中回调，{@link OnSeekBarChangeListener#onStopTrackingTouch(XSeekBar)}
+         * 在最后一次进度回调之后；回调不在UI线程执行
+         */
+        public static final int EXECUTOR = 3;
+    }
+
+    /**
+     * {@link RefreshMode#LOSSLESS}模式队列满时的处理策略
+     * 无论哪种策略，进度条显示的始终是最新进度
+     */
+    public static final class OverflowPolicy {
         /**
-         * 是否文字加粗
+         * 溢出的进度合并为最新值，在队列中的数据回调完成后回调一次
          */
-        private boolean bold;
+        public static final int CONFLATE = ProgressPublisher.OVERFLOW_CONFLATE;
         /**
-         * 文字左上角相对于指示器(0,0)点偏移
+         * 丢弃溢出的进度，不回调
          */
-        private int offsetX;
-        private int offsetY;
+        public static final int DROP = ProgressPublisher.OVERFLOW_DROP;
+    }
 
+    /**
+     * 指示器文字信息配置
+     * 包括字体颜色、字体大小、文字偏移
+     * 每个XSeekBar持有一个实例作为内容槽，通过{@link IndicatorContentBinder}直接修改；
+     * setter只在值变化时记录修改的字段，绘制时只更新变化的Paint属性
+     * <p>
+     * 只能在UI线程修改
+     */
+    public static final class IndicatorFontInfo {
         /**
-         * 私有化构造方法，避免随意创建对象
+         * 字段和修改记录，绘制时只更新变化的Paint属性
          */
-        private IndicatorFontInfo() {
+        final IndicatorContentState state;
+
+        public IndicatorFontInfo() {
             // 使用默认值初始化
             this("", Color.BLACK, 18, false, 0, 0);
         }
 
-        private IndicatorFontInfo(String text, int textColor, int textSize, boolean bold, int offsetX, int offsetY) {
-            this.text = text;
-            this.textColor = textColor;
-            this.textSize = textSize;
-            this.offsetX = offsetX;
-            this.offsetY = offsetY;
-            this.bold = bold;
+        public IndicatorFontInfo(String text, int textColor, int textSize, boolean bold, int offsetX, int offsetY) {
+            state = new IndicatorContentState(text, textColor, textSize, bold, offsetX, offsetY);
         }
 
         /**
-         * 唯一实例化方法，为避免内存泄漏，必须使用该入口实例化
+         * 创建实例，不再使用对象池
          *
-         * @param text
-         * @param textColor
-         * @param textSize
-         * @param offsetX
-         * @param offsetY
-         * @return
+         * @deprecated 使用{@link IndicatorContentBinder}修改XSeekBar持有的内容，不需要创建对象
          */
+        @Deprecated
         public static IndicatorFontInfo acquire(String text, int textColor, int textSize, boolean bold, int offsetX, int offsetY) {
-            IndicatorFontInfo info = pool.acquire();
-            if (info == null) {
-                info = new IndicatorFontInfo(text, textColor, textSize, bold, offsetX, offsetY);
-            }
-            return info;
+            return new IndicatorFontInfo(text, textColor, textSize, bold, offsetX, offsetY);
         }
 
+        /**
+         * @deprecated 不再使用对象池，无需回收
+         */
+        @Deprecated
         public void recycle() {
-            pool.release(this);
+        }
+
+        /**
+         * 复制other的全部字段，只记录变化的字段
+         *
+         * @param other
+         */
+        public void set(IndicatorFontInfo other) {
+            state.set(other.state);
         }
 
         public String getText() {
+            final String text = state.getText();
             return text == null ? "" : text;
         }
 
         public void setText(String text) {
-            this.text = text;
+            state.setText(text);
         }
 
         public int getTextColor() {
-            return textColor;
+            return state.getTextColor();
         }
 
         public void setTextColor(int textColor) {
-            this.textColor = textColor;
+            state.setTextColor(textColor);
         }
 
         public int getTextSize() {
-            return textSize;
+            return state.getTextSize();
         }
 
         public void setTextSize(int textSize) {
-            this.textSize = textSize;
+            state.setTextSize(textSize);
         }
 
         public int getOffsetX() {
-            return offsetX;
+            return state.getOffsetX();
         }
 
         public void setOffsetX(int offsetX) {
-            this.offsetX = offsetX;
+            state.setOffset(offsetX, state.getOffsetY());
         }
 
         public int getOffsetY() {
-            return offsetY;
+            return state.getOffsetY();
         }
 
         public void setOffsetY(int offsetY) {
-            this.offsetY = offsetY;
+            state.setOffset(state.getOffsetX(), offsetY);
         }
 
         public boolean isBold() {
-            return this.bold;
+            return state.isBold();
         }
 
         public void setBold(boolean bold) {
-            this.bold = bold;
+            state.setBold(bold);
         }
     }
 
     /**
-     * 进度刷新bean，在子线程中刷新进度使用，使用对象池保存
+     * 在子线程刷新进度
+     * LOSSLESS模式队列中的进度只用于按顺序回调，显示始终使用{@link #mPublisher}的最新进度
      */
-    private static class RefreshData {
-        private static final int MAX_POOL_SIZE = 24;
-        private static final Pools.SynchronizedPool<RefreshData> pool = new Pools.SynchronizedPool<>(MAX_POOL_SIZE);
-
-        public int id;
-        public int progress;
-        public boolean fromUser;
-        public boolean animate;
+    private class RefreshProgressRunnable implements Runnable, ProgressRingBuffer.Consumer {
+        /**
+         * 本次读取队列是否读到了进度，以及最后一个进度的animate标记，只在UI线程访问
+         */
+        private boolean mDrained;
+        private boolean mDrainedAnimate;
 
-        public static RefreshData obtain(int id, int progress, boolean fromUser, boolean animate) {
-            RefreshData obj = pool.acquire();
-            if (obj == null) {
-                obj = new RefreshData();
+        @Override
+        public void run() {
+            final boolean trace = XSeekBarTrace.sEnabled;
+            if (trace) {
+                XSeekBarTrace.beginSection(XSeekBarTrace.REFRESH_RUNNABLE);
             }
+            try {
+                // 先清除提交标记，之后子线程的写入会重新提交，不会丢失
+                final int flags = mPublisher.consume();
+
+                // LOSSLESS模式按顺序回调每一个进度
+                if (mPublisher.drain(this)) {
+                    // 单帧读取数量达到上限，剩余数据下一帧继续处理
+                    scheduleRefresh();
+                }
 
-            obj.id = id;
-            obj.progress = progress;
-            obj.fromUser = fromUser;
-            obj.animate = animate;
-
-            return obj;
+                if ((flags & ProgressPublisher.FLAG_PENDING) == 0) {
+                    renderIfDrained();
+                    return;
+                }
+                mDrained = false;
+
+                // 始终使用最新的进度值，UI线程已回调过的进度不再重复回调
+                final long progress = mPublisher.get();
+                final boolean callBackToApp = (flags & ProgressPublisher.FLAG_DROPPED) == 0
+                        && progress != mRefreshedProgress;
+                doRefreshProgress(progress, (flags & ProgressPublisher.FLAG_FROM_USER) != 0, callBackToApp,
+                        (flags & ProgressPublisher.FLAG_ANIMATE) != 0);
+            } finally {
+                if (trace) {
+                    XSeekBarTrace.endSection();
+                }
+            }
         }
 
-        public void recycle() {
-            pool.release(this);
+        /**
+         * UI线程写入进度前回调队列中已有的进度，显示由UI线程的写入刷新
+         */
+        void drainCallbacks() {
+            mPublisher.drain(this);
+            mDrained = false;
         }
-    }
 
-    /**
-     * 在子线程刷新进度
-     */
-    private class RefreshProgressRunnable implements Runnable {
+        /**
+         * 读取过队列时显示一次最新进度，不再回调
+         * 队列中最后一个进度可能早于UI线程之后写入的进度，不能直接显示
+         */
+        void renderIfDrained() {
+            if (mDrained) {
+                mDrained = false;
+                doRefreshProgress(mPublisher.get(), false, false, mDrainedAnimate);
+            }
+        }
 
         @Override
-        public void run() {
-            synchronized (XSeekBar.this) {
-                final int size = mProgressListData.size();
-                for (int i = 0; i < size; i++) {
-                    final RefreshData rd = mProgressListData.get(i);
-                    doRefreshProgress(rd.progress, rd.fromUser, true, rd.animate);
-                    rd.recycle();
-                }
-                mProgressListData.clear();
-                mRefreshIsPosted = false;
-            }
+        public void accept(long value) {
+            final long progress = ProgressRingBuffer.unpackProgress(value);
+            mDrained = true;
+            mDrainedAnimate = ProgressRingBuffer.unpackAnimate(value);
+            mRefreshedProgress = progress;
+            onProgressRefresh((float) progressToPosition(progress), ProgressRingBuffer.unpackFromUser(value), progress);
         }
     }
 }
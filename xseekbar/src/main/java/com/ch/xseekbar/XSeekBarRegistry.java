@@ -0,0 +1,72 @@
+package com.ch.xseekbar;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * 存活的XSeekBar实例登记表，供调试工具枚举
+ * 只保存弱引用，不影响XSeekBar被回收；未开启时XSeekBar不会登记
+ * 开启后XSeekBar在附加到窗口时登记，已显示的XSeekBar在下次附加到窗口时才会登记
+ */
+public final class XSeekBarRegistry {
+    private static volatile boolean sEnabled;
+    /**
+     * 以弱引用的XSeekBar作为key，View未重写equals/hashCode，即按实例区分
+     */
+    private static final Map<XSeekBar, Boolean> sInstances = new WeakHashMap<>();
+
+    private XSeekBarRegistry() {
+    }
+
+    /**
+     * 开启或关闭登记，关闭时清空已登记的实例
+     *
+     * @param enabled
+     */
+    public static void setEnabled(boolean enabled) {
+        sEnabled = enabled;
+        if (!enabled) {
+            synchronized (sInstances) {
+                sInstances.clear();
+            }
+        }
+    }
+
+    public static boolean isEnabled() {
+        return sEnabled;
+    }
+
+    /**
+     * 登记实例，重复登记无影响
+     *
+     * @param seekBar
+     */
+    static void register(XSeekBar seekBar) {
+        synchronized (sInstances) {
+            if (sEnabled) {
+                sInstances.put(seekBar, Boolean.TRUE);
+            }
+        }
+    }
+
+    /**
+     * 将当前存活的实例添加到out中，可在任意线程调用
+     *
+     * @param out
+     * @return 添加的数量
+     */
+    public static int snapshot(Collection<? super XSeekBar> out) {
+        synchronized (sInstances) {
+            int count = 0;
+            for (XSeekBar seekBar : sInstances.keySet()) {
+                // 迭代过程中已回收的key会被跳过
+                if (seekBar != null) {
+                    out.add(seekBar);
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+}
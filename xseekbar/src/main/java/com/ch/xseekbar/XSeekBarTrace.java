@@ -0,0 +1,104 @@
+package com.ch.xseekbar;
+
+import android.os.Build;
+import android.os.Trace;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * XSeekBar的systrace/Perfetto埋点
+ * 关闭时调用方只需判断一次{@link #sEnabled}，不调用任何Trace方法
+ * 同步区间使用{@link Trace#beginSection(String)}，子线程setProgress到绘制的异步区间使用API 29的
+ * Trace#beginAsyncSection，编译版本低于29因此通过反射调用，低版本系统不输出异步区间
+ *
+ * @see XSeekBar#setTraceEnabled(boolean)
+ */
+final class XSeekBarTrace {
+    static final String MEASURE = "XSeekBar#onMeasure";
+    static final String DRAW = "XSeekBar#onDraw";
+    static final String REFRESH_PROGRESS = "XSeekBar#refreshProgress";
+    static final String REFRESH_RUNNABLE = "XSeekBar#RefreshProgressRunnable";
+    static final String LISTENER = "XSeekBar#listener";
+    /**
+     * 子线程setProgress到该进度被绘制的异步区间
+     */
+    static final String PENDING_PROGRESS = "XSeekBar#pendingProgress";
+
+    /**
+     * 是否开启埋点
+     */
+    static volatile boolean sEnabled;
+
+    private static final AtomicInteger sNextCookie = new AtomicInteger();
+
+    private static Method sBeginAsyncSection;
+    private static Method sEndAsyncSection;
+    private static boolean sAsyncResolved;
+
+    private XSeekBarTrace() {
+    }
+
+    static void setEnabled(boolean enabled) {
+        if (enabled) {
+            resolveAsyncMethods();
+        }
+        sEnabled = enabled;
+    }
+
+    static void beginSection(String name) {
+        Trace.beginSection(name);
+    }
+
+    static void endSection() {
+        Trace.endSection();
+    }
+
+    /**
+     * 生成异步区间的cookie，不为0
+     *
+     * @return
+     */
+    static int nextCookie() {
+        int cookie;
+        do {
+            cookie = sNextCookie.incrementAndGet();
+        } while (cookie == 0);
+        return cookie;
+    }
+
+    static void beginAsyncSection(String name, int cookie) {
+        invokeAsync(sBeginAsyncSection, name, cookie);
+    }
+
+    static void endAsyncSection(String name, int cookie) {
+        invokeAsync(sEndAsyncSection, name, cookie);
+    }
+
+    private static void invokeAsync(Method method, String name, int cookie) {
+        if (method == null) {
+            return;
+        }
+        try {
+            method.invoke(null, name, cookie);
+        } catch (Exception ignored) {
+            // 埋点失败不影响功能
+        }
+    }
+
+    private static synchronized void resolveAsyncMethods() {
+        if (sAsyncResolved) {
+            return;
+        }
+        sAsyncResolved = true;
+        if (Build.VERSION.SDK_INT >= 29) {
+            try {
+                sBeginAsyncSection = Trace.class.getMethod("beginAsyncSection", String.class, int.class);
+                sEndAsyncSection = Trace.class.getMethod("endAsyncSection", String.class, int.class);
+            } catch (NoSuchMethodException e) {
+                sBeginAsyncSection = null;
+                sEndAsyncSection = null;
+            }
+        }
+    }
+}
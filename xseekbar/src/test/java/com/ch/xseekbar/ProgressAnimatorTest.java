@@ -0,0 +1,141 @@
+package com.ch.xseekbar;
+
+import android.os.Looper;
+import android.view.animation.LinearInterpolator;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * {@link ProgressAnimator}由暂停的主线程Looper驱动Choreographer帧回调
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class ProgressAnimatorTest {
+    private static final long DURATION_MILLIS = 100;
+    private static final float DELTA = 1e-4f;
+
+    private FrameRecorder mRecorder;
+    private ProgressAnimator mAnimator;
+
+    @Before
+    public void setUp() {
+        mRecorder = new FrameRecorder();
+        mAnimator = new ProgressAnimator(mRecorder, new LinearInterpolator(), DURATION_MILLIS);
+    }
+
+    @Test
+    public void animateTo_reachesTargetAfterDuration() {
+        mAnimator.animateTo(0f, 1f);
+        assertTrue(mAnimator.isRunning());
+        advance(DURATION_MILLIS * 2);
+
+        assertFalse(mAnimator.isRunning());
+        assertTrue(mRecorder.values.size() > 2);
+        assertEquals(1f, mRecorder.last(), 0f);
+        for (int i = 1; i < mRecorder.values.size(); i++) {
+            assertTrue(mRecorder.values.get(i) >= mRecorder.values.get(i - 1));
+        }
+    }
+
+    @Test
+    public void animateTo_midAnimationRetargetsFromCurrentValue() {
+        mAnimator.animateTo(0f, 1f);
+        advance(DURATION_MILLIS / 2);
+        final float current = mRecorder.last();
+        assertTrue(current > 0f && current < 1f);
+
+        mAnimator.animateTo(current, 0.2f);
+        assertEquals(0.2f, mAnimator.getTargetValue(), 0f);
+        final int before = mRecorder.values.size();
+        advance(DURATION_MILLIS * 2);
+
+        // 新动画的第一帧从当前值开始，不会跳回起点或旧目标
+        assertEquals(current, mRecorder.values.get(before), DELTA);
+        assertEquals(0.2f, mRecorder.last(), 0f);
+        assertFalse(mAnimator.isRunning());
+    }
+
+    @Test
+    public void cancel_stopsFramesAtCurrentValue() {
+        mAnimator.animateTo(0f, 1f);
+        advance(DURATION_MILLIS / 4);
+        mAnimator.cancel();
+        assertFalse(mAnimator.isRunning());
+        final int frames = mRecorder.values.size();
+        final float last = mRecorder.last();
+
+        advance(DURATION_MILLIS * 2);
+        assertEquals(frames, mRecorder.values.size());
+        assertTrue(last < 1f);
+    }
+
+    @Test
+    public void pause_resumeContinuesFromElapsedTime() {
+        mAnimator.animateTo(0f, 1f);
+        advance(DURATION_MILLIS / 2);
+        // 从窗口分离
+        mAnimator.pause();
+        final int frames = mRecorder.values.size();
+        final float paused = mRecorder.last();
+        assertTrue(paused > 0f && paused < 1f);
+
+        // 分离期间没有帧回调，动画时长不流逝
+        advance(DURATION_MILLIS * 5);
+        assertEquals(frames, mRecorder.values.size());
+        assertTrue(mAnimator.isRunning());
+
+        // 重新附加到窗口
+        mAnimator.resume();
+        advance(DURATION_MILLIS * 2);
+        assertEquals(paused, mRecorder.values.get(frames), DELTA);
+        assertTrue(mRecorder.values.size() > frames + 1);
+        assertTrue(mRecorder.values.get(frames + 1) < 1f);
+        assertEquals(1f, mRecorder.last(), 0f);
+        assertFalse(mAnimator.isRunning());
+    }
+
+    @Test
+    public void animateTo_whilePausedWaitsForResume() {
+        mAnimator.pause();
+        mAnimator.animateTo(0f, 1f);
+        advance(DURATION_MILLIS * 2);
+        assertTrue(mRecorder.values.isEmpty());
+        assertTrue(mAnimator.isRunning());
+
+        mAnimator.resume();
+        advance(DURATION_MILLIS * 2);
+        assertEquals(0f, mRecorder.values.get(0), DELTA);
+        assertEquals(1f, mRecorder.last(), 0f);
+    }
+
+    /**
+     * 推进主线程时钟，期间的Choreographer帧回调依次执行
+     */
+    private static void advance(long millis) {
+        shadowOf(Looper.getMainLooper()).idleFor(millis, TimeUnit.MILLISECONDS);
+    }
+
+    private static class FrameRecorder implements ProgressAnimator.Target {
+        final List<Float> values = new ArrayList<>();
+
+        @Override
+        public void onAnimationFrame(float value) {
+            values.add(value);
+        }
+
+        float last() {
+            return values.get(values.size() - 1);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.ch.xseekbar;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.drawable.GradientDrawable;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link TickMarkRenderer}的单元测试
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class TickMarkRendererTest {
+    private static final int LENGTH = 100;
+
+    @Test
+    public void rebuild_withoutPrepareCreatesNoBitmap() {
+        final TickMarkRenderer renderer = new TickMarkRenderer();
+        final CountingTick tick = new CountingTick();
+        renderer.rebuild(tick, true, 0, 0, LENGTH, new UniformTicks(11), 1);
+        assertNull(renderer.getBitmap());
+        assertEquals(0, tick.draws);
+    }
+
+    @Test
+    public void rebuild_reusesPreparedBitmap() {
+        final TickMarkRenderer renderer = new TickMarkRenderer();
+        final CountingTick tick = new CountingTick();
+        renderer.prepare(tick, true, LENGTH);
+        final Bitmap bitmap = renderer.getBitmap();
+        assertNotNull(bitmap);
+        assertTrue(renderer.isDirty());
+
+        renderer.rebuild(tick, true, 0, 0, LENGTH, new UniformTicks(11), 1);
+        assertEquals(11, tick.draws);
+        assertFalse(renderer.isDirty());
+
+        // 范围变化后只在已有位图上重新绘制
+        renderer.invalidate();
+        renderer.rebuild(tick, true, 0, 0, LENGTH, new UniformTicks(6), 1);
+        assertSame(bitmap, renderer.getBitmap());
+        assertEquals(17, tick.draws);
+
+        // 尺寸不变时不重新创建
+        renderer.prepare(tick, true, LENGTH);
+        assertSame(bitmap, renderer.getBitmap());
+        assertFalse(renderer.isDirty());
+    }
+
+    @Test
+    public void rebuild_sizeMismatchSkipsUntilPrepared() {
+        final TickMarkRenderer renderer = new TickMarkRenderer();
+        final CountingTick tick = new CountingTick();
+        renderer.prepare(tick, true, LENGTH);
+        renderer.rebuild(tick, true, 0, 0, LENGTH * 2, new UniformTicks(11), 1);
+        assertEquals(0, tick.draws);
+
+        renderer.prepare(tick, true, LENGTH * 2);
+        assertTrue(renderer.isDirty());
+        renderer.rebuild(tick, true, 0, 0, LENGTH * 2, new UniformTicks(11), 1);
+        assertEquals(11, tick.draws);
+    }
+
+    @Test
+    public void rebuild_strideAlwaysDrawsEndTick() {
+        final TickMarkRenderer renderer = new TickMarkRenderer();
+        final CountingTick tick = new CountingTick();
+        renderer.prepare(tick, true, LENGTH);
+        // 间距1px，最小间距3px，每3个刻度绘制一个：0, 3, ..., 96，99与终点过近被跳过
+        renderer.rebuild(tick, true, 0, 0, LENGTH, new UniformTicks(LENGTH + 1), 3);
+        assertEquals(34, tick.draws);
+        assertEquals(LENGTH, tick.lastLeft);
+    }
+
+    @Test
+    public void rebuild_endNotOnStepGrid() {
+        final TickMarkRenderer renderer = new TickMarkRenderer();
+        final CountingTick tick = new CountingTick();
+        renderer.prepare(tick, true, LENGTH);
+        // 范围[0, 10]，步长4：0, 4, 8, 10，步长间距40px，8与终点只差20px
+        renderer.rebuild(tick, true, 0, 0, LENGTH, new TickMarkRenderer.Ticks() {
+            private final long[] mValues = {0, 4, 8, 10};
+
+            @Override
+            public long count() {
+                return mValues.length;
+            }
+
+            @Override
+            public double fractionAt(long index) {
+                return mValues[(int) index] / 10.0;
+            }
+
+            @Override
+            public boolean isUniform() {
+                return true;
+            }
+        }, 30);
+        assertEquals(3, tick.draws);
+        assertEquals(LENGTH, tick.lastLeft);
+    }
+
+    private static final class UniformTicks implements TickMarkRenderer.Ticks {
+        private final long mCount;
+
+        UniformTicks(long count) {
+            mCount = count;
+        }
+
+        @Override
+        public long count() {
+            return mCount;
+        }
+
+        @Override
+        public double fractionAt(long index) {
+            return index / (double) (mCount - 1);
+        }
+
+        @Override
+        public boolean isUniform() {
+            return true;
+        }
+    }
+
+    private static final class CountingTick extends GradientDrawable {
+        int draws;
+        int lastLeft;
+
+        CountingTick() {
+            setShape(OVAL);
+            setColor(Color.DKGRAY);
+            setSize(4, 4);
+        }
+
+        @Override
+        public void draw(Canvas canvas) {
+            super.draw(canvas);
+            draws++;
+            lastLeft = getBounds().left;
+        }
+    }
+}
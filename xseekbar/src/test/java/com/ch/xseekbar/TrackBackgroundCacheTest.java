@@ -0,0 +1,112 @@
+package com.ch.xseekbar;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Rect;
+import android.graphics.drawable.ColorDrawable;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link TrackBackgroundCache}的单元测试
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class TrackBackgroundCacheTest {
+
+    @Test
+    public void draw_rebuildsOnlyAfterInvalidate() {
+        final TrackBackgroundCache cache = new TrackBackgroundCache();
+        final CountingDrawable background = new CountingDrawable();
+        final Rect bounds = new Rect(0, 0, 100, 10);
+        background.setBounds(bounds);
+        final Canvas canvas = new Canvas(Bitmap.createBitmap(100, 10, Bitmap.Config.ARGB_8888));
+
+        // 布局时创建位图，第一次绘制时绘制背景，之后不再重新绘制
+        cache.prepare(bounds);
+        assertTrue(cache.isDirty());
+        cache.draw(canvas, background, bounds);
+        assertFalse(cache.isDirty());
+        cache.draw(canvas, background, bounds);
+        cache.draw(canvas, background, bounds);
+        assertEquals(1, background.draws);
+
+        cache.invalidate();
+        cache.draw(canvas, background, bounds);
+        assertEquals(2, background.draws);
+        assertFalse(cache.isDirty());
+    }
+
+    @Test
+    public void draw_sizeChangeRebuildsOnce() {
+        final TrackBackgroundCache cache = new TrackBackgroundCache();
+        final CountingDrawable background = new CountingDrawable();
+        final Canvas canvas = new Canvas(Bitmap.createBitmap(200, 10, Bitmap.Config.ARGB_8888));
+        final Rect small = new Rect(0, 0, 100, 10);
+        cache.prepare(small);
+        cache.draw(canvas, background, small);
+
+        final Rect bounds = new Rect(0, 0, 200, 10);
+        background.setBounds(bounds);
+        cache.prepare(bounds);
+        cache.draw(canvas, background, bounds);
+        cache.draw(canvas, background, bounds);
+        assertEquals(2, background.draws);
+        assertFalse(cache.isDirty());
+    }
+
+    @Test
+    public void draw_unpreparedSizeDrawsBackgroundDirectly() {
+        final TrackBackgroundCache cache = new TrackBackgroundCache();
+        final CountingDrawable background = new CountingDrawable();
+        final Canvas canvas = new Canvas(Bitmap.createBitmap(200, 10, Bitmap.Config.ARGB_8888));
+        final Rect small = new Rect(0, 0, 100, 10);
+        cache.prepare(small);
+        cache.draw(canvas, background, small);
+        assertEquals(1, background.draws);
+
+        // 尺寸变化后尚未布局，绘制时不创建位图，直接绘制背景
+        final Rect bounds = new Rect(0, 0, 200, 10);
+        background.setBounds(bounds);
+        cache.draw(canvas, background, bounds);
+        cache.draw(canvas, background, bounds);
+        assertEquals(3, background.draws);
+
+        cache.prepare(bounds);
+        cache.draw(canvas, background, bounds);
+        cache.draw(canvas, background, bounds);
+        assertEquals(4, background.draws);
+    }
+
+    @Test
+    public void release_marksDirty() {
+        final TrackBackgroundCache cache = new TrackBackgroundCache();
+        final CountingDrawable background = new CountingDrawable();
+        final Rect bounds = new Rect(0, 0, 100, 10);
+        cache.prepare(bounds);
+        cache.draw(new Canvas(Bitmap.createBitmap(100, 10, Bitmap.Config.ARGB_8888)), background, bounds);
+        assertFalse(cache.isDirty());
+        cache.release();
+        assertTrue(cache.isDirty());
+    }
+
+    private static final class CountingDrawable extends ColorDrawable {
+        int draws;
+
+        CountingDrawable() {
+            super(Color.GRAY);
+        }
+
+        @Override
+        public void draw(Canvas canvas) {
+            super.draw(canvas);
+            draws++;
+        }
+    }
+}
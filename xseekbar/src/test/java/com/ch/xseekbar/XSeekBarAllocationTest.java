@@ -0,0 +1,275 @@
+package com.ch.xseekbar;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.drawable.ClipDrawable;
+import android.graphics.drawable.ColorDrawable;
+import android.graphics.drawable.Drawable;
+import android.graphics.drawable.GradientDrawable;
+import android.graphics.drawable.LayerDrawable;
+import android.os.SystemClock;
+import android.view.Gravity;
+import android.view.MotionEvent;
+import android.view.View;
+
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.GraphicsMode;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import static org.junit.Assert.*;
+
+/**
+ * 绘制、修改进度和拖动的分配检查，默认开启
+ * Robolectric的Canvas实现本身可能分配内存，因此同时统计直接绘制相同Drawable和文字的分配作为基准，
+ * XSeekBar每帧比基准多出的分配超过上限时测试失败
+ * <p>
+ * 可通过系统属性xseekbar.alloc.maxBytesPerFrame调整上限，默认{@link #DEFAULT_MAX_BYTES_PER_FRAME}
+ */
+@RunWith(RobolectricTestRunner.class)
+@GraphicsMode(GraphicsMode.Mode.NATIVE)
+@Config(sdk = 28)
+public class XSeekBarAllocationTest {
+    /**
+     * 允许的平均每帧额外分配，小于一个最小对象，任何每帧的分配都会超出
+     */
+    private static final long DEFAULT_MAX_BYTES_PER_FRAME = 8;
+    private static final long MAX_BYTES_PER_FRAME =
+            Long.getLong("xseekbar.alloc.maxBytesPerFrame", DEFAULT_MAX_BYTES_PER_FRAME);
+    private static final int WARMUP_FRAMES = 500;
+    private static final int FRAMES = 2000;
+    private static final int MAX = 1000;
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 200;
+    /**
+     * 拖动事件的间隔，每个事件带一个批量的历史采样
+     */
+    private static final long MOVE_INTERVAL_MILLIS = 8;
+
+    private com.sun.management.ThreadMXBean mBean;
+    private XSeekBar mSeekBar;
+    private LayerDrawable mTrack;
+    private Drawable mThumb;
+    private Drawable mIndicator;
+    private Bitmap mBitmap;
+    private Canvas mCanvas;
+    /**
+     * 预先创建的拖动事件，测量期间只分发不创建
+     */
+    private MotionEvent[] mMoves;
+    /**
+     * 预先创建的指示器文字，Provider返回时不分配
+     */
+    private final String[] mTexts = new String[MAX + 1];
+    private final XSeekBar.IndicatorFontInfo mContent = new XSeekBar.IndicatorFontInfo("", Color.WHITE, 24, false, 0, 0);
+    private final Paint mTextPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+
+    @Before
+    public void setUp() {
+        final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue("thread allocation counting not supported",
+                bean instanceof com.sun.management.ThreadMXBean
+                        && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported());
+        mBean = (com.sun.management.ThreadMXBean) bean;
+        mBean.setThreadAllocatedMemoryEnabled(true);
+
+        for (int i = 0; i <= MAX; i++) {
+            mTexts[i] = String.valueOf(i);
+        }
+        mTextPaint.setColor(Color.WHITE);
+        mTextPaint.setTextSize(24);
+
+        final Context context = RuntimeEnvironment.getApplication();
+        mSeekBar = new XSeekBar(context);
+        mSeekBar.setMax(MAX);
+        mTrack = new LayerDrawable(new Drawable[]{
+                new ColorDrawable(Color.LTGRAY),
+                new ClipDrawable(new ColorDrawable(Color.RED), Gravity.START, ClipDrawable.HORIZONTAL)
+        });
+        mTrack.setId(0, android.R.id.background);
+        mTrack.setId(1, android.R.id.progress);
+        mSeekBar.setProgressDrawable(mTrack);
+        mThumb = shape(GradientDrawable.OVAL, Color.WHITE, 48, 48);
+        mSeekBar.setThumb(mThumb);
+        mIndicator = shape(GradientDrawable.RECTANGLE, Color.BLUE, 96, 48);
+        mSeekBar.setIndicatorDrawable(mIndicator);
+        mSeekBar.setIndicatorContentProvider(new XSeekBar.IndicatorContentProvider() {
+            @Override
+            public XSeekBar.IndicatorFontInfo getIndicatorContent(int progress, int indicatorWidth, int indicatorHeight) {
+                mContent.setText(mTexts[progress]);
+                return mContent;
+            }
+        });
+        mSeekBar.showIndicator();
+        mSeekBar.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        mSeekBar.layout(0, 0, WIDTH, HEIGHT);
+
+        mBitmap = Bitmap.createBitmap(WIDTH, HEIGHT, Bitmap.Config.ARGB_8888);
+        mCanvas = new Canvas(mBitmap);
+    }
+
+    @After
+    public void tearDown() {
+        if (mMoves != null) {
+            for (MotionEvent event : mMoves) {
+                event.recycle();
+            }
+        }
+    }
+
+    @Test
+    public void drawAndSetProgress_doNotAllocatePerFrame() {
+        for (int i = 0; i < WARMUP_FRAMES; i++) {
+            drawSeekBar(i);
+            drawReference(i);
+        }
+
+        final long referenceBytes = measureReference();
+        final long before = allocatedBytes();
+        for (int i = 0; i < FRAMES; i++) {
+            drawSeekBar(i);
+        }
+        assertExtraPerFrame(allocatedBytes() - before, referenceBytes);
+    }
+
+    @Test
+    public void dragAndDraw_doNotAllocatePerFrame() {
+        // 低延迟拖动、预测和惯性滑动都会在每个移动事件中估算速度
+        mSeekBar.setLowLatencyDragEnabled(true);
+        mSeekBar.setDragPredictionEnabled(true);
+        mSeekBar.setFlingEnabled(true);
+        final long downTime = SystemClock.uptimeMillis();
+        mMoves = obtainMoves(downTime, WARMUP_FRAMES + FRAMES);
+        final MotionEvent down = MotionEvent.obtain(downTime, downTime, MotionEvent.ACTION_DOWN,
+                xAt(progressAt(0)), HEIGHT / 2f, 0);
+        mSeekBar.onTouchEvent(down);
+        down.recycle();
+
+        for (int i = 0; i < WARMUP_FRAMES; i++) {
+            dragSeekBar(mMoves[i]);
+            drawReference(i);
+        }
+
+        final long referenceBytes = measureReference();
+        final long before = allocatedBytes();
+        for (int i = 0; i < FRAMES; i++) {
+            dragSeekBar(mMoves[WARMUP_FRAMES + i]);
+        }
+        assertExtraPerFrame(allocatedBytes() - before, referenceBytes);
+    }
+
+    private static void assertExtraPerFrame(long seekBarBytes, long referenceBytes) {
+        final long extraPerFrame = (seekBarBytes - referenceBytes) / FRAMES;
+        assertTrue("XSeekBar allocates " + extraPerFrame + " bytes/frame more than drawing its drawables directly ("
+                        + seekBarBytes + " vs " + referenceBytes + " bytes in " + FRAMES + " frames)",
+                extraPerFrame <= MAX_BYTES_PER_FRAME);
+    }
+
+    private long measureReference() {
+        final long before = allocatedBytes();
+        for (int i = 0; i < FRAMES; i++) {
+            drawReference(i);
+        }
+        return allocatedBytes() - before;
+    }
+
+    private void drawSeekBar(int frame) {
+        mSeekBar.setProgress(progressAt(frame));
+        mSeekBar.draw(mCanvas);
+    }
+
+    private void dragSeekBar(MotionEvent move) {
+        mSeekBar.onTouchEvent(move);
+        mSeekBar.draw(mCanvas);
+    }
+
+    /**
+     * 按{@link #progressAt(int)}的进度创建连续的移动事件，每个事件先批量一个中间位置的历史采样
+     *
+     * @param downTime
+     * @param count
+     * @return
+     */
+    private MotionEvent[] obtainMoves(long downTime, int count) {
+        final MotionEvent[] moves = new MotionEvent[count];
+        final float y = HEIGHT / 2f;
+        float lastX = xAt(progressAt(0));
+        for (int i = 0; i < count; i++) {
+            final long time = downTime + (i + 1) * MOVE_INTERVAL_MILLIS;
+            final float x = xAt(progressAt(i));
+            moves[i] = MotionEvent.obtain(downTime, time - MOVE_INTERVAL_MILLIS / 2, MotionEvent.ACTION_MOVE,
+                    (lastX + x) / 2, y, 0);
+            moves[i].addBatch(time, x, y, 1f, 1f, 0);
+            lastX = x;
+        }
+        return moves;
+    }
+
+    /**
+     * 进度对应的触摸x坐标
+     *
+     * @param progress
+     * @return
+     */
+    private float xAt(int progress) {
+        final int left = mSeekBar.getPaddingLeft();
+        final int available = WIDTH - left - mSeekBar.getPaddingRight();
+        return left + available * progress / (float) MAX;
+    }
+
+    /**
+     * 直接绘制XSeekBar使用的Drawable和文字，作为框架本身分配的基准
+     *
+     * @param frame
+     */
+    private void drawReference(int frame) {
+        final int progress = progressAt(frame);
+        mTrack.setLevel(progress * 10000 / MAX);
+        mTrack.draw(mCanvas);
+        int saveCount = mCanvas.save();
+        mCanvas.translate(progress, 0);
+        mThumb.draw(mCanvas);
+        mCanvas.restoreToCount(saveCount);
+        saveCount = mCanvas.save();
+        mCanvas.translate(progress, 0);
+        mIndicator.draw(mCanvas);
+        mCanvas.drawText(mTexts[progress], 0, 24, mTextPaint);
+        mCanvas.restoreToCount(saveCount);
+    }
+
+    private long allocatedBytes() {
+        return mBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * 0 → MAX → 0 往返扫描，每帧进度都变化
+     *
+     * @param frame
+     * @return
+     */
+    private static int progressAt(int frame) {
+        final int period = MAX * 2;
+        final int phase = frame * 7 % period;
+        return phase <= MAX ? phase : period - phase;
+    }
+
+    private static GradientDrawable shape(int shape, int color, int width, int height) {
+        final GradientDrawable drawable = new GradientDrawable();
+        drawable.setShape(shape);
+        drawable.setColor(color);
+        drawable.setSize(width, height);
+        return drawable;
+    }
+}
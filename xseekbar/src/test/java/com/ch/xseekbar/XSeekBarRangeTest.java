@@ -0,0 +1,238 @@
+package com.ch.xseekbar;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Rect;
+import android.graphics.drawable.ClipDrawable;
+import android.graphics.drawable.ColorDrawable;
+import android.graphics.drawable.Drawable;
+import android.graphics.drawable.GradientDrawable;
+import android.graphics.drawable.LayerDrawable;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.view.Gravity;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewConfiguration;
+import android.widget.ScrollView;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.*;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * 区间模式的触摸和绘制
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class XSeekBarRangeTest {
+    private static final int WIDTH = 1000;
+    private static final int HEIGHT = 100;
+
+    private Context mContext;
+    private XSeekBar mSeekBar;
+    private CountingThumb mThumb;
+    private long mDownTime;
+
+    @Before
+    public void setUp() {
+        mContext = RuntimeEnvironment.getApplication();
+        mThumb = new CountingThumb();
+        mSeekBar = newSeekBar(mThumb, 3);
+        layout(mSeekBar);
+        mDownTime = SystemClock.uptimeMillis();
+    }
+
+    @Test
+    public void pointerDown_doesNotStealThumbFromOtherPointer() {
+        assertEquals(50, mSeekBar.getThumbValue(1));
+        mSeekBar.onTouchEvent(event(MotionEvent.ACTION_DOWN, 50));
+        // 第二个手指按在同一位置，触点1已被第一个手指拖动，绑定相邻的触点
+        mSeekBar.onTouchEvent(event(MotionEvent.ACTION_POINTER_DOWN | (1 << MotionEvent.ACTION_POINTER_INDEX_SHIFT), 50, 50));
+        assertTrue(mSeekBar.getThumbValue(0) != 0 || mSeekBar.getThumbValue(2) != 100);
+
+        // 第一个手指移动时仍拖动触点1
+        mSeekBar.onTouchEvent(event(MotionEvent.ACTION_MOVE, 70, 50));
+        final long value = mSeekBar.getThumbValue(1);
+        assertTrue("thumb 1 should follow the first pointer, was " + value, value >= 69 && value <= 71);
+        mSeekBar.onTouchEvent(event(MotionEvent.ACTION_UP, 70));
+    }
+
+    @Test
+    public void down_inScrollingContainerWaitsForTouchSlop() {
+        final XSeekBar seekBar = newSeekBar(new CountingThumb(), 2);
+        final ScrollView parent = new ScrollView(mContext);
+        parent.addView(seekBar);
+        layout(seekBar);
+
+        final float x = xOf(seekBar, 10);
+        seekBar.onTouchEvent(MotionEvent.obtain(mDownTime, mDownTime, MotionEvent.ACTION_DOWN, x, HEIGHT / 2f, 0));
+        assertEquals(0, seekBar.getThumbValue(0));
+
+        final float moved = x + ViewConfiguration.get(mContext).getScaledTouchSlop() + 1;
+        seekBar.onTouchEvent(MotionEvent.obtain(mDownTime, mDownTime + 16, MotionEvent.ACTION_MOVE, moved, HEIGHT / 2f, 0));
+        assertTrue(seekBar.getThumbValue(0) > 0);
+        seekBar.onTouchEvent(MotionEvent.obtain(mDownTime, mDownTime + 32, MotionEvent.ACTION_UP, moved, HEIGHT / 2f, 0));
+    }
+
+    @Test
+    public void tap_inScrollingContainerMovesThumb() {
+        final XSeekBar seekBar = newSeekBar(new CountingThumb(), 2);
+        final ScrollView parent = new ScrollView(mContext);
+        parent.addView(seekBar);
+        layout(seekBar);
+
+        final float x = xOf(seekBar, 20);
+        seekBar.onTouchEvent(MotionEvent.obtain(mDownTime, mDownTime, MotionEvent.ACTION_DOWN, x, HEIGHT / 2f, 0));
+        seekBar.onTouchEvent(MotionEvent.obtain(mDownTime, mDownTime + 16, MotionEvent.ACTION_UP, x, HEIGHT / 2f, 0));
+        assertTrue(seekBar.getThumbValue(0) > 0);
+    }
+
+    @Test
+    public void draw_doesNotChangeThumbBounds() {
+        final Canvas canvas = new Canvas(Bitmap.createBitmap(WIDTH, HEIGHT, Bitmap.Config.ARGB_8888));
+        mSeekBar.draw(canvas);
+        final int changes = mThumb.boundsChanges;
+        mSeekBar.setThumbValue(1, 30);
+        mSeekBar.draw(canvas);
+        mSeekBar.draw(canvas);
+        assertEquals(changes, mThumb.boundsChanges);
+    }
+
+    @Test
+    public void setMax_keepsSpacingNearMax() {
+        mSeekBar.setThumbMinSpacing(10);
+        mSeekBar.setMax(40);
+        assertEquals(40, mSeekBar.getThumbValue(2));
+        assertTrue(mSeekBar.getThumbValue(1) <= 30);
+        assertTrue(mSeekBar.getThumbValue(0) <= mSeekBar.getThumbValue(1) - 10);
+    }
+
+    @Test
+    public void setMax_notifiesClampedThumbs() {
+        final RangeRecorder recorder = new RangeRecorder();
+        mSeekBar.setOnRangeChangeListener(recorder);
+        // 0, 50, 100 → 0, 40, 40
+        mSeekBar.setMax(40);
+        assertEquals(2, recorder.calls);
+        assertEquals(2, recorder.lastIndex);
+        assertEquals(40, recorder.lastValue);
+        assertFalse(recorder.lastFromUser);
+    }
+
+    @Test
+    public void setMax_fromBackgroundClampsThumbsOnMainThread() throws InterruptedException {
+        final RangeRecorder recorder = new RangeRecorder();
+        mSeekBar.setOnRangeChangeListener(recorder);
+        final Thread thread = new Thread() {
+            @Override
+            public void run() {
+                mSeekBar.setMax(40);
+            }
+        };
+        thread.start();
+        thread.join();
+        shadowOf(Looper.getMainLooper()).idle();
+
+        assertEquals(40, mSeekBar.getMax());
+        assertEquals(40, mSeekBar.getThumbValue(2));
+        assertEquals(2, recorder.calls);
+        assertSame(Looper.getMainLooper().getThread(), recorder.thread);
+    }
+
+    /**
+     * 带进度和触点Drawable的XSeekBar，测量时需要两者的固有尺寸
+     */
+    private XSeekBar newSeekBar(Drawable thumb, int thumbCount) {
+        final XSeekBar seekBar = new XSeekBar(mContext);
+        seekBar.setMax(100);
+        final LayerDrawable track = new LayerDrawable(new Drawable[]{
+                new ColorDrawable(Color.LTGRAY),
+                new ClipDrawable(new ColorDrawable(Color.RED), Gravity.START, ClipDrawable.HORIZONTAL)
+        });
+        track.setId(0, android.R.id.background);
+        track.setId(1, android.R.id.progress);
+        seekBar.setProgressDrawable(track);
+        seekBar.setThumb(thumb);
+        seekBar.setThumbCount(thumbCount);
+        return seekBar;
+    }
+
+    private static void layout(XSeekBar seekBar) {
+        seekBar.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        seekBar.layout(0, 0, WIDTH, HEIGHT);
+    }
+
+    /**
+     * 进度值value对应的触摸x坐标
+     */
+    private static float xOf(XSeekBar seekBar, long value) {
+        final int left = seekBar.getPaddingLeft();
+        final int available = seekBar.getWidth() - left - seekBar.getPaddingRight();
+        return left + available * value / (float) seekBar.getMax();
+    }
+
+    /**
+     * 按进度值构造触摸事件，values依次为各手指的位置
+     */
+    private MotionEvent event(int action, long... values) {
+        final int count = values.length;
+        final MotionEvent.PointerProperties[] properties = new MotionEvent.PointerProperties[count];
+        final MotionEvent.PointerCoords[] coords = new MotionEvent.PointerCoords[count];
+        for (int i = 0; i < count; i++) {
+            properties[i] = new MotionEvent.PointerProperties();
+            properties[i].id = i;
+            properties[i].toolType = MotionEvent.TOOL_TYPE_FINGER;
+            coords[i] = new MotionEvent.PointerCoords();
+            coords[i].x = xOf(mSeekBar, values[i]);
+            coords[i].y = HEIGHT / 2f;
+        }
+        return MotionEvent.obtain(mDownTime, SystemClock.uptimeMillis(), action, count, properties, coords,
+                0, 0, 1, 1, 0, 0, 0, 0);
+    }
+
+    private static final class RangeRecorder implements XSeekBar.OnRangeChangeListener {
+        int calls;
+        int lastIndex;
+        long lastValue;
+        boolean lastFromUser;
+        Thread thread;
+
+        @Override
+        public void onRangeChanged(XSeekBar seekBar, int index, long value, boolean fromUser) {
+            calls++;
+            lastIndex = index;
+            lastValue = value;
+            lastFromUser = fromUser;
+            thread = Thread.currentThread();
+        }
+    }
+
+    /**
+     * 统计边界修改次数的触点
+     */
+    private static final class CountingThumb extends GradientDrawable {
+        int boundsChanges;
+
+        CountingThumb() {
+            setShape(OVAL);
+            setColor(Color.WHITE);
+            setSize(40, 40);
+        }
+
+        @Override
+        protected void onBoundsChange(Rect r) {
+            super.onBoundsChange(r);
+            boundsChanges++;
+        }
+    }
+}
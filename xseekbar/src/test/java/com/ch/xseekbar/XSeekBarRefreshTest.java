@@ -0,0 +1,146 @@
+package com.ch.xseekbar;
+
+import android.app.Activity;
+import android.graphics.Color;
+import android.graphics.drawable.ClipDrawable;
+import android.graphics.drawable.ColorDrawable;
+import android.graphics.drawable.Drawable;
+import android.graphics.drawable.GradientDrawable;
+import android.graphics.drawable.LayerDrawable;
+import android.os.Looper;
+import android.view.Gravity;
+import android.view.View;
+import android.widget.FrameLayout;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * 子线程刷新进度：LOSSLESS模式的回调顺序和显示
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class XSeekBarRefreshTest {
+    private static final int WIDTH = 1000;
+    private static final int HEIGHT = 100;
+
+    private Activity mActivity;
+    private XSeekBar mSeekBar;
+    private Drawable mThumb;
+    private ProgressRecorder mRecorder;
+
+    @Before
+    public void setUp() {
+        mActivity = Robolectric.buildActivity(Activity.class).setup().get();
+        mThumb = newThumb();
+        mSeekBar = newSeekBar(mThumb);
+        final FrameLayout root = new FrameLayout(mActivity);
+        root.addView(mSeekBar, new FrameLayout.LayoutParams(WIDTH, HEIGHT));
+        mActivity.setContentView(root);
+        idleFrames();
+
+        mSeekBar.setRefreshMode(XSeekBar.RefreshMode.LOSSLESS);
+        mRecorder = new ProgressRecorder();
+        mSeekBar.addOnProgressChangeLongListener(mRecorder);
+    }
+
+    @Test
+    public void lossless_uiWriteAfterQueuedWriteKeepsOrderAndShowsLatest() throws InterruptedException {
+        setProgressOnBackground(20);
+        // UI线程在队列消费前写入更新的进度
+        mSeekBar.setProgress(30);
+        idleFrames();
+
+        assertEquals(Arrays.asList(20L, 30L), mRecorder.values);
+        assertEquals(30, mSeekBar.getProgress());
+        assertEquals(thumbLeftAt(30), mThumb.getBounds().left);
+    }
+
+    @Test
+    public void lossless_queuedWritesDriveCallbacksOnly() throws InterruptedException {
+        setProgressOnBackground(20);
+        setProgressOnBackground(25);
+        idleFrames();
+
+        assertEquals(Arrays.asList(20L, 25L), mRecorder.values);
+        assertEquals(thumbLeftAt(25), mThumb.getBounds().left);
+
+        // 队列消费后UI线程写入，不再重复回调
+        mSeekBar.setProgress(40);
+        idleFrames();
+        assertEquals(Arrays.asList(20L, 25L, 40L), mRecorder.values);
+        assertEquals(thumbLeftAt(40), mThumb.getBounds().left);
+    }
+
+    private void setProgressOnBackground(final int progress) throws InterruptedException {
+        final Thread thread = new Thread() {
+            @Override
+            public void run() {
+                mSeekBar.setProgress(progress);
+            }
+        };
+        thread.start();
+        thread.join();
+    }
+
+    /**
+     * 执行主线程消息和Choreographer的帧回调
+     */
+    private static void idleFrames() {
+        shadowOf(Looper.getMainLooper()).idleFor(100, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 同样尺寸的XSeekBar直接设置进度后触点的位置
+     */
+    private int thumbLeftAt(int progress) {
+        final Drawable thumb = newThumb();
+        final XSeekBar seekBar = newSeekBar(thumb);
+        seekBar.setProgress(progress);
+        seekBar.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        seekBar.layout(0, 0, WIDTH, HEIGHT);
+        return thumb.getBounds().left;
+    }
+
+    private XSeekBar newSeekBar(Drawable thumb) {
+        final XSeekBar seekBar = new XSeekBar(mActivity);
+        seekBar.setMax(100);
+        final LayerDrawable track = new LayerDrawable(new Drawable[]{
+                new ColorDrawable(Color.LTGRAY),
+                new ClipDrawable(new ColorDrawable(Color.RED), Gravity.START, ClipDrawable.HORIZONTAL)
+        });
+        track.setId(0, android.R.id.background);
+        track.setId(1, android.R.id.progress);
+        seekBar.setProgressDrawable(track);
+        seekBar.setThumb(thumb);
+        return seekBar;
+    }
+
+    private static Drawable newThumb() {
+        final GradientDrawable thumb = new GradientDrawable();
+        thumb.setSize(20, 20);
+        return thumb;
+    }
+
+    private static class ProgressRecorder implements XSeekBar.OnProgressChangeLongListener {
+        final List<Long> values = new ArrayList<>();
+
+        @Override
+        public void onProgressChanged(XSeekBar seekBar, long progress, boolean fromUser) {
+            values.add(progress);
+        }
+    }
+}
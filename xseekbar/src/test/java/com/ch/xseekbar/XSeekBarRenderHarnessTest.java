@@ -0,0 +1,319 @@
+package com.ch.xseekbar;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Shader;
+import android.graphics.drawable.BitmapDrawable;
+import android.graphics.drawable.ClipDrawable;
+import android.graphics.drawable.ColorDrawable;
+import android.graphics.drawable.Drawable;
+import android.graphics.drawable.GradientDrawable;
+import android.graphics.drawable.LayerDrawable;
+import android.util.AttributeSet;
+import android.view.Gravity;
+import android.view.View;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.GraphicsMode;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.zip.CRC32;
+
+import static org.junit.Assert.*;
+
+/**
+ * XSeekBar绘制的JVM渲染计时
+ * 使用Robolectric的native图形模式离屏绘制，按进度扫描渲染多帧，统计每帧耗时、分配字节数和像素校验和，
+ * 每种配置的结果输出到build/reports/xseekbar-render/<配置名称>.json，bytesPerFrame为-1表示JVM不支持分配统计
+ * <p>
+ * 可通过系统属性调整：
+ * xseekbar.render.frames 每种配置渲染的帧数，默认2000
+ * xseekbar.render.maxP95Micros 每帧耗时p95的上限，超出时测试失败，默认不检查
+ * xseekbar.render.maxBytesPerFrame 平均每帧分配字节数的上限，超出时测试失败，默认不检查
+ */
+@RunWith(RobolectricTestRunner.class)
+@GraphicsMode(GraphicsMode.Mode.NATIVE)
+@Config(sdk = 28)
+public class XSeekBarRenderHarnessTest {
+    private static final int FRAMES = Integer.getInteger("xseekbar.render.frames", 2000);
+    private static final long MAX_P95_MICROS = Long.getLong("xseekbar.render.maxP95Micros", 0L);
+    private static final long MAX_BYTES_PER_FRAME = Long.getLong("xseekbar.render.maxBytesPerFrame", 0L);
+    private static final int WARMUP_FRAMES = 200;
+    private static final int MAX = 1000;
+
+    private static final int LONG_SIDE = 1080;
+    private static final int SHORT_SIDE = 200;
+
+    @Test
+    public void render_horizontalClipTrack() throws IOException {
+        final XSeekBar seekBar = create(false);
+        seekBar.setProgressDrawable(colorTrack(false));
+        run("horizontal_clip", seekBar, false);
+    }
+
+    @Test
+    public void render_horizontalTiledTrackCached() throws IOException {
+        final XSeekBar seekBar = create(false);
+        seekBar.setProgressDrawableTiled(tiledTrack());
+        seekBar.setTrackBackgroundCacheEnabled(true);
+        run("horizontal_tiled_cached", seekBar, false);
+    }
+
+    @Test
+    public void render_verticalClipTrack() throws IOException {
+        final XSeekBar seekBar = create(true);
+        seekBar.setProgressDrawable(colorTrack(true));
+        run("vertical_clip", seekBar, true);
+    }
+
+    @Test
+    public void render_verticalTickMarks() throws IOException {
+        final XSeekBar seekBar = create(true);
+        seekBar.setProgressDrawable(colorTrack(true));
+        seekBar.setMax(20);
+        seekBar.setTickMark(shape(GradientDrawable.OVAL, Color.DKGRAY, 8, 8));
+        run("vertical_tick_marks", seekBar, true);
+    }
+
+    /**
+     * 创建带触点和指示器的XSeekBar
+     *
+     * @param vertical 是否垂直方向
+     * @return
+     */
+    private static XSeekBar create(boolean vertical) {
+        final Context context = RuntimeEnvironment.getApplication();
+        final AttributeSet attrs = Robolectric.buildAttributeSet()
+                .addAttribute(R.attr.orientation, vertical ? "vertical" : "horizontal")
+                .build();
+        final XSeekBar seekBar = new XSeekBar(context, attrs);
+        seekBar.setMax(MAX);
+        seekBar.setThumb(shape(GradientDrawable.OVAL, Color.WHITE, 48, 48));
+        seekBar.setIndicatorDrawable(shape(GradientDrawable.RECTANGLE, Color.BLUE, 96, 48));
+        // 文字预先创建，Provider不分配，开启xseekbar.render.maxBytesPerFrame时只统计XSeekBar自身的分配
+        final String[] texts = new String[MAX + 1];
+        for (int i = 0; i <= MAX; i++) {
+            texts[i] = String.valueOf(i);
+        }
+        final XSeekBar.IndicatorFontInfo content = new XSeekBar.IndicatorFontInfo("", Color.WHITE, 24, false, 0, 0);
+        seekBar.setIndicatorContentProvider(new XSeekBar.IndicatorContentProvider() {
+            @Override
+            public XSeekBar.IndicatorFontInfo getIndicatorContent(int progress, int indicatorWidth, int indicatorHeight) {
+                content.setText(texts[progress]);
+                return content;
+            }
+        });
+        seekBar.showIndicator();
+        return seekBar;
+    }
+
+    /**
+     * 纯色背景层+裁剪进度层
+     * 垂直方向与XSeekBar一致，进度从顶部开始裁剪
+     *
+     * @param vertical 是否垂直方向
+     * @return
+     */
+    private static Drawable colorTrack(boolean vertical) {
+        final ClipDrawable progress = vertical
+                ? new ClipDrawable(new ColorDrawable(Color.RED), Gravity.TOP, ClipDrawable.VERTICAL)
+                : new ClipDrawable(new ColorDrawable(Color.RED), Gravity.START, ClipDrawable.HORIZONTAL);
+        final LayerDrawable track = new LayerDrawable(new Drawable[]{
+                new ColorDrawable(Color.LTGRAY),
+                progress
+        });
+        track.setId(0, android.R.id.background);
+        track.setId(1, android.R.id.progress);
+        return track;
+    }
+
+    /**
+     * 平铺位图背景层+裁剪进度层
+     *
+     * @return
+     */
+    private static Drawable tiledTrack() {
+        final Bitmap tile = Bitmap.createBitmap(8, 8, Bitmap.Config.ARGB_8888);
+        for (int x = 0; x < 8; x++) {
+            for (int y = 0; y < 8; y++) {
+                tile.setPixel(x, y, ((x ^ y) & 1) == 0 ? Color.GRAY : Color.LTGRAY);
+            }
+        }
+        final BitmapDrawable background = new BitmapDrawable(RuntimeEnvironment.getApplication().getResources(), tile);
+        background.setTileModeXY(Shader.TileMode.REPEAT, Shader.TileMode.REPEAT);
+        final LayerDrawable track = new LayerDrawable(new Drawable[]{
+                background,
+                new ClipDrawable(new ColorDrawable(Color.RED), Gravity.START, ClipDrawable.HORIZONTAL)
+        });
+        track.setId(0, android.R.id.background);
+        track.setId(1, android.R.id.progress);
+        return track;
+    }
+
+    private static GradientDrawable shape(int shape, int color, int width, int height) {
+        final GradientDrawable drawable = new GradientDrawable();
+        drawable.setShape(shape);
+        drawable.setColor(color);
+        drawable.setSize(width, height);
+        return drawable;
+    }
+
+    /**
+     * 按进度扫描渲染并输出统计
+     *
+     * @param name     配置名称
+     * @param seekBar
+     * @param vertical 是否垂直方向
+     * @throws IOException
+     */
+    private static void run(String name, XSeekBar seekBar, boolean vertical) throws IOException {
+        final int width = vertical ? SHORT_SIDE : LONG_SIDE;
+        final int height = vertical ? LONG_SIDE : SHORT_SIDE;
+        seekBar.measure(View.MeasureSpec.makeMeasureSpec(width, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(height, View.MeasureSpec.EXACTLY));
+        seekBar.layout(0, 0, width, height);
+
+        final Bitmap bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        final Canvas canvas = new Canvas(bitmap);
+        final int[] pixels = new int[width * height];
+        final AllocationCounter allocations = new AllocationCounter();
+
+        for (int i = 0; i < WARMUP_FRAMES; i++) {
+            renderFrame(seekBar, canvas, bitmap, progressAt(i));
+        }
+
+        final long[] frameNanos = new long[FRAMES];
+        final CRC32 sweepChecksum = new CRC32();
+        final long allocatedBefore = allocations.current();
+        for (int i = 0; i < FRAMES; i++) {
+            final long start = System.nanoTime();
+            renderFrame(seekBar, canvas, bitmap, progressAt(i));
+            frameNanos[i] = System.nanoTime() - start;
+        }
+        final long allocatedAfter = allocations.current();
+
+        // 校验和单独计算，不计入耗时和分配
+        for (int i = 0; i < FRAMES; i += FRAMES / 20 + 1) {
+            renderFrame(seekBar, canvas, bitmap, progressAt(i));
+            sweepChecksum.update(checksumBytes(bitmap, pixels));
+        }
+
+        // 相同进度渲染结果一致，不同进度渲染结果不同
+        final long first = checksum(seekBar, canvas, bitmap, pixels, 0);
+        final long again = checksum(seekBar, canvas, bitmap, pixels, 0);
+        final long last = checksum(seekBar, canvas, bitmap, pixels, MAX);
+        assertEquals(name + ": same progress must render the same pixels", first, again);
+        assertNotEquals(name + ": min and max must render differently", first, last);
+
+        Arrays.sort(frameNanos);
+        final long p50 = frameNanos[FRAMES / 2] / 1000;
+        final long p95 = frameNanos[(int) (FRAMES * 0.95)] / 1000;
+        final long p99 = frameNanos[(int) (FRAMES * 0.99)] / 1000;
+        final long maxMicros = frameNanos[FRAMES - 1] / 1000;
+        final long bytesPerFrame = allocatedBefore < 0 ? -1 : (allocatedAfter - allocatedBefore) / FRAMES;
+
+        final String json = String.format(Locale.US,
+                "{\"name\":\"%s\",\"width\":%d,\"height\":%d,\"frames\":%d,"
+                        + "\"p50Micros\":%d,\"p95Micros\":%d,\"p99Micros\":%d,\"maxMicros\":%d,"
+                        + "\"bytesPerFrame\":%d,\"sweepChecksum\":\"%08x\",\"minChecksum\":\"%08x\",\"maxChecksum\":\"%08x\"}",
+                name, width, height, FRAMES, p50, p95, p99, maxMicros, bytesPerFrame,
+                sweepChecksum.getValue(), first, last);
+        report(name, json);
+
+        if (MAX_P95_MICROS > 0) {
+            assertTrue(name + ": p95 " + p95 + "us > " + MAX_P95_MICROS + "us", p95 <= MAX_P95_MICROS);
+        }
+        if (MAX_BYTES_PER_FRAME > 0 && bytesPerFrame >= 0) {
+            assertTrue(name + ": " + bytesPerFrame + " bytes/frame > " + MAX_BYTES_PER_FRAME,
+                    bytesPerFrame <= MAX_BYTES_PER_FRAME);
+        }
+    }
+
+    /**
+     * 0 → MAX → 0 往返扫描
+     *
+     * @param frame
+     * @return
+     */
+    private static int progressAt(int frame) {
+        final int period = MAX * 2;
+        final int phase = frame * 7 % period;
+        return phase <= MAX ? phase : period - phase;
+    }
+
+    private static void renderFrame(XSeekBar seekBar, Canvas canvas, Bitmap bitmap, int progress) {
+        seekBar.setProgress(progress);
+        bitmap.eraseColor(Color.TRANSPARENT);
+        seekBar.draw(canvas);
+    }
+
+    private static long checksum(XSeekBar seekBar, Canvas canvas, Bitmap bitmap, int[] pixels, int progress) {
+        renderFrame(seekBar, canvas, bitmap, progress);
+        final CRC32 crc = new CRC32();
+        crc.update(checksumBytes(bitmap, pixels));
+        return crc.getValue();
+    }
+
+    private static byte[] checksumBytes(Bitmap bitmap, int[] pixels) {
+        bitmap.getPixels(pixels, 0, bitmap.getWidth(), 0, 0, bitmap.getWidth(), bitmap.getHeight());
+        final byte[] bytes = new byte[pixels.length * 4];
+        for (int i = 0; i < pixels.length; i++) {
+            final int p = pixels[i];
+            bytes[i * 4] = (byte) (p >>> 24);
+            bytes[i * 4 + 1] = (byte) (p >>> 16);
+            bytes[i * 4 + 2] = (byte) (p >>> 8);
+            bytes[i * 4 + 3] = (byte) p;
+        }
+        return bytes;
+    }
+
+    private static void report(String name, String json) throws IOException {
+        final File dir = new File("build/reports/xseekbar-render");
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("cannot create " + dir);
+        }
+        final Writer writer = new FileWriter(new File(dir, name + ".json"));
+        try {
+            writer.write(json);
+            writer.write('\n');
+        } finally {
+            writer.close();
+        }
+    }
+
+    /**
+     * 当前线程已分配的字节数，JVM不支持时返回-1
+     */
+    private static final class AllocationCounter {
+        private final com.sun.management.ThreadMXBean mBean;
+
+        AllocationCounter() {
+            final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (bean instanceof com.sun.management.ThreadMXBean
+                    && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+                mBean = (com.sun.management.ThreadMXBean) bean;
+                mBean.setThreadAllocatedMemoryEnabled(true);
+            } else {
+                mBean = null;
+            }
+        }
+
+        long current() {
+            return mBean != null ? mBean.getThreadAllocatedBytes(Thread.currentThread().getId()) : -1;
+        }
+    }
+}